@@ -32,6 +32,16 @@ public class CustomTreeItem<T> extends TreeItem<T> {
      */
     private Path path;
 
+    /**
+     * Whether it shows as expandable even without children, for directories not listed yet.
+     */
+    private boolean isBranch = false;
+
+    /**
+     * Whether the file matches the project's ignore rules.
+     */
+    private boolean isIgnored = false;
+
     /**
      * Instantiates a new CustomTreeItem.
      *
@@ -64,4 +74,45 @@ public class CustomTreeItem<T> extends TreeItem<T> {
         this.path = path;
     }
 
+    /**
+     * Sets whether it shows as expandable even without children.
+     *
+     * @param isBranch Whether it is a branch.
+     */
+    public void setBranch(boolean isBranch) {
+
+        this.isBranch = isBranch;
+    }
+
+    /**
+     * Checks whether the file matches the project's ignore rules.
+     *
+     * @return Whether it is ignored.
+     */
+    public boolean isIgnored() {
+
+        return isIgnored;
+    }
+
+    /**
+     * Sets whether the file matches the project's ignore rules.
+     *
+     * @param isIgnored Whether it is ignored.
+     */
+    public void setIgnored(boolean isIgnored) {
+
+        this.isIgnored = isIgnored;
+    }
+
+    /**
+     * Checks whether it is a leaf, which is never the case for a branch.
+     *
+     * @return Whether it is a leaf.
+     */
+    @Override
+    public boolean isLeaf() {
+
+        return !isBranch && super.isLeaf();
+    }
+
 }
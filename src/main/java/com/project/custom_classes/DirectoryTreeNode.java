@@ -35,6 +35,11 @@ public class DirectoryTreeNode extends TreeNode {
      */
     private final ArrayList<TreeNode> children;
 
+    /**
+     * Whether its children were listed.
+     */
+    private boolean isLoaded = false;
+
     /**
      * Instantiates a new DirectoryTreeNode.
      *
@@ -80,6 +85,26 @@ public class DirectoryTreeNode extends TreeNode {
         this.parent = parent;
     }
 
+    /**
+     * Retrieves whether its children were listed.
+     *
+     * @return Whether it is loaded.
+     */
+    public boolean isLoaded() {
+
+        return this.isLoaded;
+    }
+
+    /**
+     * Marks whether its children were listed.
+     *
+     * @param isLoaded Whether it is loaded.
+     */
+    public void setLoaded(boolean isLoaded) {
+
+        this.isLoaded = isLoaded;
+    }
+
     /**
      * Adds a child to the TreeNode.
      *
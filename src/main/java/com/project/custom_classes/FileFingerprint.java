@@ -0,0 +1,27 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.project.custom_classes;
+
+/**
+ * Stores what identifies the contents of an indexed file, so unchanged files aren't indexed again.
+ *
+ * @param size The size of the file in bytes.
+ * @param lastModified When the file was last modified, in milliseconds.
+ * @param checksum The SHA-256 checksum of the file, in hexadecimal.
+ */
+public record FileFingerprint(long size, long lastModified, String checksum) {}
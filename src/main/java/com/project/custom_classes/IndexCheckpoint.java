@@ -0,0 +1,38 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.project.custom_classes;
+
+/**
+ * Stores how far indexing a source (a zip, an image) got, so an interrupted run can carry on from there.
+ *
+ * @param fingerprint Identifies the contents of the source, a checkpoint for other contents doesn't apply.
+ * @param position The number of entries, in the source's order, that are all indexed.
+ * @param total The number of entries in the source.
+ */
+public record IndexCheckpoint(String fingerprint, int position, int total) {
+
+    /**
+     * Checks whether every entry is indexed.
+     *
+     * @return true if it is.
+     */
+    public boolean isComplete() {
+
+        return position >= total;
+    }
+
+}
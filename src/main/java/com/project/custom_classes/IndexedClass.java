@@ -0,0 +1,28 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.project.custom_classes;
+
+/**
+ * Stores a class known to the class index.
+ *
+ * @param className The simple name of the class.
+ * @param packageName The package of the class.
+ * @param qualifiedName The fully qualified name of the class, with '$' separating inner classes.
+ * @param path The path to the file declaring the class.
+ */
+public record IndexedClass(String className, String packageName, String qualifiedName, String path) {}
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.project.custom_classes;
+
+/**
+ * Stores the Javadoc summary of a class or member known to the documentation index.
+ *
+ * @param owner The fully qualified name of the class, or of the class declaring the member, with '$' separating inner classes.
+ * @param name The simple name of the class, or the name of the member.
+ * @param kind "Class", "Method", "Field" or "Constructor".
+ * @param parameters The parameters of methods and constructors, like "int index, E element", empty otherwise.
+ * @param summary The first sentence of the Javadoc, as plain text.
+ * @param path The path to the file declaring it.
+ */
+public record IndexedDoc(String owner, String name, String kind, String parameters, String summary, String path) {}
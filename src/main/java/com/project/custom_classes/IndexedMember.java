@@ -0,0 +1,32 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.project.custom_classes;
+
+/**
+ * Stores a method, field or constructor known to the member index.
+ *
+ * @param owner The fully qualified name of the class declaring it, with '$' separating inner classes.
+ * @param name The name of the member, the simple class name for constructors.
+ * @param kind "Method", "Field" or "Constructor".
+ * @param parameters The parameters of methods and constructors, like "int index, E element", empty for fields.
+ * @param type The type of fields and return type of methods, empty for constructors.
+ * @param isStatic Whether the member is static.
+ * @param path The path to the file declaring it.
+ */
+public record IndexedMember(String owner, String name, String kind, String parameters, String type,
+                            boolean isStatic, String path) {}
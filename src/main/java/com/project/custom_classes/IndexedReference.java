@@ -0,0 +1,29 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.project.custom_classes;
+
+/**
+ * A place in a project source file where a name is used.
+ *
+ * @param name The name.
+ * @param path The absolute path to the file.
+ * @param line The line (Zero based).
+ * @param character The character on the line (Zero based).
+ * @param isCall Whether the name is followed by an opening parenthesis.
+ */
+public record IndexedReference(String name, String path, int line, int character, boolean isCall) {}
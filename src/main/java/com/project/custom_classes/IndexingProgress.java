@@ -0,0 +1,27 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.project.custom_classes;
+
+/**
+ * Stores the progress of an indexing job, as shown in the status bar.
+ *
+ * @param name What is being indexed.
+ * @param done The number of items done.
+ * @param total The number of items expected.
+ * @param remaining The estimated time left in milliseconds, -1 if not known yet.
+ */
+public record IndexingProgress(String name, int done, int total, long remaining) {}
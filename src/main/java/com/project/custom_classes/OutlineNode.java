@@ -0,0 +1,260 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.project.custom_classes;
+
+import java.util.ArrayList;
+
+/**
+ * Represents a declaration (type, method, field...) in the outline of a file.
+ * Lines are zero based, like the positions used by the language server.
+ */
+public class OutlineNode {
+
+    /**
+     * The name of the declaration.
+     */
+    private final String name;
+
+    /**
+     * Extra details, such as the parameter types of a method.
+     */
+    private final String detail;
+
+    /**
+     * The kind of declaration (Class, Method, Field...).
+     */
+    private final String kind;
+
+    /**
+     * The line the declaration starts on.
+     */
+    private int startLine;
+
+    /**
+     * The character on the start line where the declaration starts.
+     */
+    private final int startCharacter;
+
+    /**
+     * The line the declaration ends on.
+     */
+    private int endLine;
+
+    /**
+     * The line the body of the declaration opens on, -1 if it has none.
+     */
+    private int bodyStartLine;
+
+    /**
+     * The line the body of the declaration closes on, -1 if it has none.
+     */
+    private int bodyEndLine;
+
+    /**
+     * The declarations nested in this one.
+     */
+    private final ArrayList<OutlineNode> children = new ArrayList<>();
+
+    /**
+     * Instantiates a new OutlineNode.
+     *
+     * @param name The name of the declaration.
+     * @param detail Extra details about the declaration.
+     * @param kind The kind of declaration.
+     * @param startLine The line the declaration starts on.
+     * @param startCharacter The character the declaration starts on.
+     * @param endLine The line the declaration ends on.
+     */
+    public OutlineNode(String name, String detail, String kind, int startLine, int startCharacter, int endLine) {
+
+        this.name = name;
+        this.detail = (detail == null) ? "" : detail;
+        this.kind = kind;
+        this.startLine = startLine;
+        this.startCharacter = startCharacter;
+        this.endLine = endLine;
+        this.bodyStartLine = -1;
+        this.bodyEndLine = -1;
+    }
+
+    /**
+     * Retrieves the name of the declaration.
+     *
+     * @return The name.
+     */
+    public String getName() {
+
+        return name;
+    }
+
+    /**
+     * Retrieves the details of the declaration.
+     *
+     * @return The details.
+     */
+    public String getDetail() {
+
+        return detail;
+    }
+
+    /**
+     * Retrieves the kind of declaration.
+     *
+     * @return The kind.
+     */
+    public String getKind() {
+
+        return kind;
+    }
+
+    /**
+     * Retrieves the line the declaration starts on.
+     *
+     * @return The line.
+     */
+    public int getStartLine() {
+
+        return startLine;
+    }
+
+    /**
+     * Retrieves the character the declaration starts on.
+     *
+     * @return The character.
+     */
+    public int getStartCharacter() {
+
+        return startCharacter;
+    }
+
+    /**
+     * Retrieves the line the declaration ends on.
+     *
+     * @return The line.
+     */
+    public int getEndLine() {
+
+        return endLine;
+    }
+
+    /**
+     * Retrieves the line the body opens on.
+     *
+     * @return The line, -1 if there is no body.
+     */
+    public int getBodyStartLine() {
+
+        return bodyStartLine;
+    }
+
+    /**
+     * Retrieves the line the body closes on.
+     *
+     * @return The line, -1 if there is no body.
+     */
+    public int getBodyEndLine() {
+
+        return bodyEndLine;
+    }
+
+    /**
+     * Sets the lines the body of the declaration spans.
+     *
+     * @param bodyStartLine The line the body opens on.
+     * @param bodyEndLine The line the body closes on.
+     */
+    public void setBody(int bodyStartLine, int bodyEndLine) {
+
+        this.bodyStartLine = bodyStartLine;
+        this.bodyEndLine = bodyEndLine;
+    }
+
+    /**
+     * Retrieves the nested declarations.
+     *
+     * @return The children.
+     */
+    public ArrayList<OutlineNode> getChildren() {
+
+        return children;
+    }
+
+    /**
+     * Retrieves a key identifying the declaration regardless of where it is in the file.
+     *
+     * @return The key.
+     */
+    public String getKey() {
+
+        return kind + ":" + name + detail;
+    }
+
+    /**
+     * Moves every line after a given line by a number of lines, including in the children.
+     *
+     * @param line The line after which positions move.
+     * @param delta The number of lines to move by.
+     */
+    public void shift(int line, int delta) {
+
+        if (startLine > line) {
+            startLine += delta;
+        }
+        if (endLine > line) {
+            endLine += delta;
+        }
+        if (bodyStartLine > line) {
+            bodyStartLine += delta;
+        }
+        if (bodyEndLine > line) {
+            bodyEndLine += delta;
+        }
+        for (OutlineNode child : children) {
+            child.shift(line, delta);
+        }
+
+    }
+
+    /**
+     * Creates a deep copy of the node and its children.
+     *
+     * @return The copy.
+     */
+    public OutlineNode copy() {
+
+        OutlineNode copy = new OutlineNode(name, detail, kind, startLine, startCharacter, endLine);
+        copy.setBody(bodyStartLine, bodyEndLine);
+        for (OutlineNode child : children) {
+            copy.getChildren().add(child.copy());
+        }
+        return copy;
+
+    }
+
+    /**
+     * Returns a String representation of the OutlineNode.
+     *
+     * @return The String representation.
+     */
+    @Override
+    public String toString() {
+
+        return name + detail;
+    }
+
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.project.custom_classes;
+
+import java.nio.file.Path;
+
+/**
+ * A change to a file or directory in the open project, as delivered by the ProjectWatcher.
+ *
+ * @param path The Path to the file or directory.
+ * @param type What happened to it.
+ */
+public record PathChange(Path path, Type type) {
+
+    /**
+     * The kinds of change.
+     */
+    public enum Type {
+
+        CREATED,
+        MODIFIED,
+        DELETED,
+
+        /**
+         * Events for the directory were lost, its contents have to be compared again.
+         */
+        RESCAN
+
+    }
+
+}
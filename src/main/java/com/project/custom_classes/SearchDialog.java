@@ -0,0 +1,170 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.project.custom_classes;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TextField;
+import javafx.scene.input.KeyCode;
+import javafx.scene.layout.VBox;
+import javafx.stage.Popup;
+import javafx.stage.Window;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A popup with a search field and a list of results, used to jump to things by name.
+ * The list is virtualized, only the visible rows are rendered.
+ *
+ * @param <T> The type of results.
+ */
+public class SearchDialog<T> extends Popup {
+
+    /**
+     * The field the query is typed in.
+     */
+    private final TextField searchField = new TextField();
+
+    /**
+     * The results.
+     */
+    private final ListView<T> resultList = new ListView<>();
+
+    /**
+     * Shows the number of results.
+     */
+    private final Label statusLabel = new Label();
+
+    /**
+     * Instantiates a new SearchDialog.
+     *
+     * @param prompt The prompt shown in the empty search field.
+     * @param formatter Creates the text shown for a result.
+     * @param onQuery Called with the new query every time it changes.
+     * @param onChoose Called with the result the user picked.
+     */
+    public SearchDialog(String prompt, Function<T, String> formatter, Consumer<String> onQuery, Consumer<T> onChoose) {
+
+        searchField.setPromptText(prompt);
+        searchField.getStyleClass().add("search-field");
+        searchField.textProperty().addListener((observable, oldValue, newValue) -> onQuery.accept(newValue));
+
+        resultList.getStyleClass().add("search-list");
+        resultList.setPrefSize(600, 400);
+        resultList.setCellFactory(lv -> new ListCell<>() {
+            @Override
+            protected void updateItem(T item, boolean empty) {
+
+                super.updateItem(item, empty);
+                setText((empty || item == null) ? null : formatter.apply(item));
+            }
+        });
+        resultList.setOnMouseClicked(event -> {
+            if (event.getClickCount() == 2) {
+                choose(onChoose);
+            }
+        });
+        resultList.getItems().addListener((ListChangeListener<T>) change ->
+                statusLabel.setText(resultList.getItems().size() + " results"));
+
+        // Keep typing in the field while moving through the results with the arrow keys.
+        searchField.setOnKeyPressed(event -> {
+            if (event.getCode() == KeyCode.DOWN) {
+                resultList.getSelectionModel().selectNext();
+                resultList.scrollTo(resultList.getSelectionModel().getSelectedIndex());
+                event.consume();
+            } else if (event.getCode() == KeyCode.UP) {
+                resultList.getSelectionModel().selectPrevious();
+                resultList.scrollTo(resultList.getSelectionModel().getSelectedIndex());
+                event.consume();
+            } else if (event.getCode() == KeyCode.ENTER) {
+                choose(onChoose);
+                event.consume();
+            }
+        });
+
+        statusLabel.getStyleClass().add("search-status");
+
+        VBox container = new VBox(searchField, resultList, statusLabel);
+        container.getStyleClass().add("search-dialog");
+        container.getStylesheets().add(Objects.requireNonNull(
+                SearchDialog.class.getResource("/com/project/utility/css/alert-style.css")).toExternalForm());
+        getContent().add(container);
+        setAutoHide(true);
+        setHideOnEscape(true);
+
+    }
+
+    /**
+     * Shows the dialog near the top of a window and clears the previous search.
+     *
+     * @param owner The window.
+     */
+    public void show(Window owner) {
+
+        searchField.clear();
+        resultList.getItems().clear();
+        show(owner, owner.getX() + (owner.getWidth() - resultList.getPrefWidth()) / 2, owner.getY() + 80);
+        searchField.requestFocus();
+
+    }
+
+    /**
+     * Retrieves the results shown in the dialog.
+     * Must only be modified on the JavaFX Application Thread.
+     *
+     * @return The results.
+     */
+    public ObservableList<T> getResults() {
+
+        return resultList.getItems();
+    }
+
+    /**
+     * Retrieves the current query.
+     *
+     * @return The query.
+     */
+    public String getQuery() {
+
+        return searchField.getText();
+    }
+
+    /**
+     * Hands the selected result (or the first one) to a Consumer and hides the dialog.
+     *
+     * @param onChoose The Consumer.
+     */
+    private void choose(Consumer<T> onChoose) {
+
+        T item = resultList.getSelectionModel().getSelectedItem();
+        if (item == null && !resultList.getItems().isEmpty()) {
+            item = resultList.getItems().get(0);
+        }
+        if (item != null) {
+            hide();
+            onChoose.accept(item);
+        }
+
+    }
+
+}
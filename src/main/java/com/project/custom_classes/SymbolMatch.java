@@ -0,0 +1,44 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.project.custom_classes;
+
+import java.nio.file.Path;
+
+/**
+ * Stores a symbol found while searching by name.
+ *
+ * @param name The name of the symbol.
+ * @param container The package or type the symbol is declared in.
+ * @param kind The kind of symbol (Class, Method, Field...).
+ * @param path The Path to the file declaring the symbol.
+ * @param line The line the symbol is declared on (Zero based).
+ * @param character The character the symbol starts on (Zero based).
+ */
+public record SymbolMatch(String name, String container, String kind, Path path, int line, int character) {
+
+    /**
+     * Retrieves a key identifying the symbol, used to drop duplicates from different sources.
+     *
+     * @return The key.
+     */
+    public String key() {
+
+        return path + "#" + container + "#" + name;
+    }
+
+}
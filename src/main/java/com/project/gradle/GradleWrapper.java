@@ -33,6 +33,12 @@ import java.io.InputStream;
 import java.io.OutputStreamWriter;
 import java.io.InputStreamReader;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 
 /**
@@ -45,6 +51,26 @@ public class GradleWrapper {
      */
     private static final Logger logger = LoggerFactory.getLogger(GradleWrapper.class);
 
+    /**
+     * Prefixes the lines printed by the classpath init script.
+     */
+    private static final String CLASSPATH_PREFIX = "FUSION_CLASSPATH ";
+
+    /**
+     * An init script adding a task that prints the resolved compile classpath of every project.
+     */
+    private static final String CLASSPATH_SCRIPT = String.join("\n",
+            "allprojects {",
+            "    tasks.register('fusionPrintClasspath') {",
+            "        doLast {",
+            "            def configuration = project.configurations.findByName('compileClasspath')",
+            "            if (configuration != null) {",
+            "                configuration.resolve().each { println '" + CLASSPATH_PREFIX + "' + it.absolutePath }",
+            "            }",
+            "        }",
+            "    }",
+            "}");
+
     /**
      * The root directory of gradle files.
      */
@@ -223,6 +249,49 @@ public class GradleWrapper {
         }
     }
 
+    /**
+     * Resolves the compile classpath of the project, offline so only jars already in the Gradle cache are used.
+     * Blocks until Gradle is done.
+     *
+     * @return The jars and directories on the classpath, null if it couldn't be resolved completely.
+     */
+    public List<Path> resolveClasspath() {
+
+        List<Path> classpath = new ArrayList<>();
+        try {
+            Path script = Paths.get("files/classpath.gradle").toAbsolutePath();
+            Files.createDirectories(script.getParent());
+            Files.writeString(script, CLASSPATH_SCRIPT);
+
+            ProcessBuilder processBuilder = new ProcessBuilder();
+            processBuilder.directory(projectHome);
+            processBuilder.command(wrapperScript, "-q", "--offline", "--init-script", script.toString(),
+                    "fusionPrintClasspath");
+            processBuilder.redirectErrorStream(true);
+            Process process = processBuilder.start();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.startsWith(CLASSPATH_PREFIX)) {
+                        classpath.add(Paths.get(line.substring(CLASSPATH_PREFIX.length())));
+                    }
+                }
+            }
+            if (process.waitFor() != 0) {
+                logger.error("Couldn't resolve the classpath of {}", projectHome);
+                return null;
+            }
+        } catch (IOException | InvalidPathException e) {
+            logger.error(e.getMessage());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        return classpath;
+
+    }
+
     /**
      * Executes gradle init command.
      *
@@ -0,0 +1,294 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.project.indexing;
+
+import com.project.custom_classes.FileFingerprint;
+import com.project.custom_classes.IndexCheckpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Indexes the classes of compiled code: the jars on a project's classpath and, when the JDK has no
+ * sources, its runtime image.
+ * Only the header of each class file is read. A jar is only scanned again if its checksum changed.
+ */
+public class BinaryIndexer {
+
+    /**
+     * The logger for the class.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(BinaryIndexer.class);
+
+    /**
+     * The access flag of public classes.
+     */
+    private static final int ACC_PUBLIC = 0x0001;
+
+    /**
+     * The access flag of classes generated by the compiler.
+     */
+    private static final int ACC_SYNTHETIC = 0x1000;
+
+    /**
+     * The access flag of module-info classes.
+     */
+    private static final int ACC_MODULE = 0x8000;
+
+    /**
+     * The name the JDK's runtime image is indexed under.
+     */
+    private static final String JDK_RUNTIME = "JDK runtime";
+
+    /**
+     * Indexes the jars on a classpath, skipping the unchanged ones, and forgets jars no longer on it.
+     *
+     * @param classpath The jars and directories on the classpath, null if it couldn't be resolved.
+     */
+    public static void indexClasspath(List<Path> classpath) {
+
+        // Jars missing from a classpath that wasn't resolved aren't gone, keep what is indexed.
+        if (classpath == null) {
+            return;
+        }
+        Map<String, FileFingerprint> indexed = FileFingerprints.load();
+        Set<String> current = new HashSet<>();
+        List<Path> jars = new ArrayList<>();
+        for (Path entry : classpath) {
+            if (entry.toString().endsWith(".jar") && Files.isRegularFile(entry)) {
+                jars.add(entry);
+                current.add(entry.toAbsolutePath().toString());
+            }
+        }
+
+        try (IndexingPipeline pipeline = new IndexingPipeline("classpath jars", jars.size())) {
+            for (Path jar : jars) {
+                pipeline.submit(() -> {
+                    indexJar(jar, indexed.get(jar.toAbsolutePath().toString()));
+                    return null;
+                });
+            }
+        }
+
+        // Drop the classes of jars from other projects or older versions.
+        for (String path : indexed.keySet()) {
+            if (path.endsWith(".jar") && !current.contains(path)) {
+                IndexWriter.removeFile(path);
+            }
+        }
+
+    }
+
+    /**
+     * Indexes the classes in a JDK's runtime image into a JDK partition, read through the jrt file system.
+     * Used when the JDK has no src.zip. An interrupted run carries on from its last checkpoint.
+     *
+     * @param jdkHome The root directory of the JDK.
+     * @param partition The partition.
+     */
+    public static void indexRuntime(Path jdkHome, long partition) {
+
+        Path modules = jdkHome.resolve("lib/modules");
+        if (!Files.isRegularFile(modules)) {
+            logger.error("No runtime image in {}", jdkHome);
+            return;
+        }
+
+        // Classes are recorded under a path in the partition, the partition already identifies the image's contents.
+        String path = JdkPartitions.getRuntimePath(partition).toString();
+        String source = JdkPartitions.getCheckpointSource(JDK_RUNTIME, partition);
+        String fingerprint = Long.toString(partition);
+        try (FileSystem jrt = FileSystems.newFileSystem(URI.create("jrt:/"), Map.of("java.home", jdkHome.toString()));
+             Stream<Path> files = Files.walk(jrt.getPath("/modules"))) {
+
+            // The image lists its files in the same order every time, so positions stay valid across runs.
+            List<Path> classFiles = files.filter(file -> file.toString().endsWith(".class")).toList();
+            int total = classFiles.size();
+            int start = IndexCheckpoints.resumePosition(source, fingerprint);
+            if (start >= total) {
+                return;
+            }
+
+            try (IndexingPipeline pipeline = new IndexingPipeline(JDK_RUNTIME, total, start,
+                    IndexCheckpoints.recorder(source, fingerprint, total))) {
+                for (Path file : classFiles.subList(start, total)) {
+                    pipeline.submit(() -> {
+                        try (InputStream in = Files.newInputStream(file)) {
+                            addClass(readClassName(in), path);
+                        }
+                        return null;
+                    });
+                }
+            }
+            IndexWriter.recordCheckpoint(source, new IndexCheckpoint(fingerprint, total, total));
+        } catch (IOException e) {
+            logger.error(e.getMessage());
+        }
+
+    }
+
+    /**
+     * Indexes the classes in a jar, unless they already are.
+     *
+     * @param jar The Path to the jar.
+     * @param recorded The fingerprint recorded when the jar was last indexed, null if it never was.
+     * @throws IOException If the jar can't be read.
+     */
+    private static void indexJar(Path jar, FileFingerprint recorded) throws IOException {
+
+        String path = jar.toAbsolutePath().toString();
+        FileFingerprint fingerprint = FileFingerprints.check(jar, recorded);
+        if (fingerprint == null) {
+            return;
+        }
+
+        // Replace whatever was indexed for an older version of the jar.
+        IndexWriter.removePath(path);
+        try (ZipFile zip = new ZipFile(jar.toFile())) {
+            for (ZipEntry entry : zip.stream().toList()) {
+                String name = entry.getName();
+                if (!name.endsWith(".class") || name.startsWith("META-INF/")
+                        || name.endsWith("module-info.class") || name.endsWith("package-info.class")) {
+                    continue;
+                }
+                try (InputStream in = zip.getInputStream(entry)) {
+                    addClass(readClassName(in), path);
+                }
+            }
+        }
+        IndexWriter.recordFile(path, fingerprint);
+
+    }
+
+    /**
+     * Reads the name of a class from a class file, stopping after the class header.
+     *
+     * @param stream The contents of the class file.
+     * @return The internal name (with '/' and '$'), null if the class is not public or isn't a normal class.
+     * @throws IOException If the class file can't be read.
+     */
+    static String readClassName(InputStream stream) throws IOException {
+
+        DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+        if (in.readInt() != 0xCAFEBABE) {
+            return null;
+        }
+
+        // Skip the version.
+        in.readInt();
+
+        // Walk the constant pool, keeping only the strings and class references.
+        int count = in.readUnsignedShort();
+        String[] strings = new String[count];
+        int[] classNames = new int[count];
+        for (int i = 1; i < count; i++) {
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+                case 1:
+                    strings[i] = in.readUTF();
+                    break;
+                case 7:
+                    classNames[i] = in.readUnsignedShort();
+                    break;
+                case 8: case 16: case 19: case 20:
+                    skip(in, 2);
+                    break;
+                case 15:
+                    skip(in, 3);
+                    break;
+                case 3: case 4: case 9: case 10: case 11: case 12: case 17: case 18:
+                    skip(in, 4);
+                    break;
+                case 5: case 6:
+
+                    // Longs and doubles take two slots.
+                    skip(in, 8);
+                    i++;
+                    break;
+                default:
+                    return null;
+            }
+        }
+
+        int access = in.readUnsignedShort();
+        int thisClass = in.readUnsignedShort();
+        if ((access & ACC_PUBLIC) == 0 || (access & (ACC_SYNTHETIC | ACC_MODULE)) != 0) {
+            return null;
+        }
+        return strings[classNames[thisClass]];
+
+    }
+
+    /**
+     * Queues a class for the index.
+     *
+     * @param internalName The internal name of the class, null to do nothing.
+     * @param path The path to the jar or runtime image it is in.
+     */
+    private static void addClass(String internalName, String path) {
+
+        if (internalName == null) {
+            return;
+        }
+        String qualifiedName = internalName.replace('/', '.');
+        int lastDot = qualifiedName.lastIndexOf('.');
+        String packageName = (lastDot == -1) ? "" : qualifiedName.substring(0, lastDot);
+        String[] names = qualifiedName.substring(lastDot + 1).split("\\$");
+
+        // Anonymous and local classes have a name starting with a digit.
+        for (String name : names) {
+            if (name.isEmpty() || Character.isDigit(name.charAt(0))) {
+                return;
+            }
+        }
+        IndexWriter.addClass(packageName, names[names.length - 1], qualifiedName, path);
+
+    }
+
+    /**
+     * Skips bytes of a stream.
+     *
+     * @param in The stream.
+     * @param count The number of bytes.
+     * @throws IOException If the stream ends first.
+     */
+    private static void skip(DataInputStream in, int count) throws IOException {
+
+        for (int i = 0; i < count; i++) {
+            in.readUnsignedByte();
+        }
+
+    }
+
+}
@@ -0,0 +1,846 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.project.indexing;
+
+import com.project.custom_classes.IndexedClass;
+import com.project.utility.DatabaseUtility;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An in-memory index of every known class, used for auto-import, go-to-class and debugger lookups.
+ * Classes are kept in parallel arrays sorted by lower case simple name, with package names and paths
+ * shared between classes. Recent additions and removals are kept on the side and merged in batches.
+ * Lookups never lock, they read an immutable Snapshot.
+ * At startup the arrays are served straight from the memory-mapped IndexSnapshot of the last session,
+ * and the database is only scanned if it changed since that snapshot was written.
+ */
+public class ClassIndex {
+
+    /**
+     * The logger for the class.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(ClassIndex.class);
+
+    /**
+     * How many additions or removals are kept on the side before the arrays are rebuilt.
+     */
+    private static final int MAX_PENDING = 512;
+
+    /**
+     * Orders classes the way the arrays are sorted.
+     */
+    private static final Comparator<IndexedClass> ORDER = Comparator
+            .comparing((IndexedClass c) -> c.className().toLowerCase())
+            .thenComparing(IndexedClass::className);
+
+    /**
+     * The current state of the index.
+     */
+    private static volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    /**
+     * Shared copies of package names and paths. Guarded by the class lock.
+     */
+    private static final Map<String, String> pool = new HashMap<>();
+
+    /**
+     * Increases every time the index changes.
+     */
+    private static final AtomicInteger version = new AtomicInteger();
+
+    /**
+     * Makes sure only one load runs at a time.
+     */
+    private static final Object loadLock = new Object();
+
+    /**
+     * Classes added while a load is reading the database, null if none is. Guarded by the class lock.
+     */
+    private static List<IndexedClass> addedWhileLoading;
+
+    /**
+     * Files removed while a load is reading the database, null if none is. Guarded by the class lock.
+     */
+    private static Set<String> removedWhileLoading;
+
+    /**
+     * The state of the database the arrays were read from or written out at, null if not known. Guarded by the class lock.
+     */
+    private static IndexSnapshot.State tableState;
+
+    /**
+     * Serves the index from the snapshot written by the last session, without touching the database.
+     * Lookups work as soon as this returns, load() then checks whether the snapshot is still current.
+     */
+    public static void loadSnapshot() {
+
+        IndexSnapshot.MappedTable table = IndexSnapshot.map();
+        if (table == null) {
+            return;
+        }
+        synchronized (ClassIndex.class) {
+            snapshot = new Snapshot(table, new IndexedClass[0], Collections.emptySet());
+            tableState = table.getState();
+            version.incrementAndGet();
+        }
+        logger.info("Class index mapped with {} classes", table.size());
+
+    }
+
+    /**
+     * Loads every class from the database, replacing the current contents, unless the mapped snapshot
+     * already matches the database. Classes of JDKs other than the active one are left out.
+     * The new arrays are built without holding the class lock, classes added and files removed meanwhile
+     * are carried over when they replace the current ones.
+     * A fresh snapshot is written after a full load.
+     */
+    public static void load() {
+
+        synchronized (loadLock) {
+
+            // Read first, so changes made while scanning make the snapshot look out of date rather than current.
+            IndexSnapshot.State state = IndexSnapshot.readDatabaseState();
+            synchronized (ClassIndex.class) {
+                if (state != null && state.equals(tableState) && snapshot.pending.length == 0
+                        && snapshot.removedPaths.isEmpty()) {
+                    logger.info("Class index snapshot is current, skipped loading from the database");
+                    return;
+                }
+                addedWhileLoading = new ArrayList<>();
+                removedWhileLoading = new LinkedHashSet<>();
+            }
+
+            // Lookups and writes carry on against the current snapshot while the new one is built.
+            Map<String, String> shared = new HashMap<>();
+            List<IndexedClass> classes = read(shared);
+            Snapshot loaded = classes == null ? null : Snapshot.build(classes);
+            synchronized (ClassIndex.class) {
+                List<IndexedClass> added = addedWhileLoading;
+                Set<String> removed = removedWhileLoading;
+                addedWhileLoading = null;
+                removedWhileLoading = null;
+                if (loaded == null) {
+                    return;
+                }
+
+                // Replay what changed meanwhile, leaving out additions the scan already saw.
+                IndexedClass[] pending = added.stream()
+                        .filter(c -> removed.contains(c.path()) || !loaded.contains(c))
+                        .toArray(IndexedClass[]::new);
+                pool.clear();
+                pool.putAll(shared);
+                tableState = null;
+                update(new Snapshot(loaded.table, pending, Collections.unmodifiableSet(removed)));
+            }
+            logger.info("Class index loaded with {} classes", classes.size());
+            if (state != null && IndexSnapshot.write(state, loaded.table)) {
+                synchronized (ClassIndex.class) {
+                    if (snapshot.table == loaded.table && snapshot.pending.length == 0
+                            && snapshot.removedPaths.isEmpty()) {
+                        tableState = state;
+                    }
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Reads every class of the active JDK and the project from the database.
+     *
+     * @param shared The shared copies of package names and paths to fill.
+     * @return The classes, null if they couldn't be read.
+     */
+    private static List<IndexedClass> read(Map<String, String> shared) {
+
+        List<IndexedClass> classes = new ArrayList<>();
+        Connection conn = DatabaseUtility.connect();
+        ResultSet rs = DatabaseUtility.executeQuery(conn, "SELECT packageName, className, qualifiedName, path FROM ClassMetaData");
+        if (rs == null) {
+            DatabaseUtility.close(conn);
+            return null;
+        }
+        try {
+            while (rs.next()) {
+
+                // Only the active JDK's classes are loaded.
+                String path = rs.getString("path");
+                if (JdkPartitions.isVisible(path)) {
+                    classes.add(new IndexedClass(rs.getString("className"),
+                            shared.computeIfAbsent(rs.getString("packageName"), k -> k),
+                            rs.getString("qualifiedName"), shared.computeIfAbsent(path, k -> k)));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error(e.getMessage());
+        } finally {
+            try {
+                rs.close();
+            } catch (SQLException e) {
+                logger.error(e.getMessage());
+            }
+            DatabaseUtility.close(conn);
+        }
+        return classes;
+
+    }
+
+    /**
+     * Writes the index out as a snapshot for the next session, unless the database didn't change since
+     * the last one. Queued writes should be flushed first.
+     */
+    public static void saveSnapshot() {
+
+        IndexSnapshot.State state = IndexSnapshot.readDatabaseState();
+        Snapshot current;
+        synchronized (ClassIndex.class) {
+            if (state == null || state.equals(tableState)) {
+                return;
+            }
+            current = merge(snapshot);
+        }
+        IndexSnapshot.write(state, current.table);
+
+    }
+
+    /**
+     * Adds a class to the index.
+     *
+     * @param packageName The package of the class.
+     * @param className The simple name of the class.
+     * @param qualifiedName The fully qualified name of the class.
+     * @param path The path to the file declaring the class.
+     */
+    public static synchronized void add(String packageName, String className, String qualifiedName, String path) {
+
+        Snapshot current = snapshot;
+        IndexedClass[] pending = Arrays.copyOf(current.pending, current.pending.length + 1);
+        pending[pending.length - 1] = share(className, packageName, qualifiedName, path);
+        if (addedWhileLoading != null) {
+            addedWhileLoading.add(pending[pending.length - 1]);
+        }
+        update(new Snapshot(current.table, pending, current.removedPaths));
+
+    }
+
+    /**
+     * Removes every class declared in a file from the index.
+     *
+     * @param path The path to the file.
+     */
+    public static synchronized void removePath(String path) {
+
+        Snapshot current = snapshot;
+        Set<String> removedPaths = new HashSet<>(current.removedPaths);
+        removedPaths.add(path);
+        if (removedWhileLoading != null) {
+            removedWhileLoading.add(path);
+            addedWhileLoading.removeIf(c -> c.path().equals(path));
+        }
+
+        // Additions that were not merged yet can simply be dropped.
+        IndexedClass[] pending = Arrays.stream(current.pending)
+                .filter(c -> !c.path().equals(path))
+                .toArray(IndexedClass[]::new);
+        update(new Snapshot(current.table, pending, Collections.unmodifiableSet(removedPaths)));
+
+    }
+
+    /**
+     * Removes every class from the index.
+     */
+    public static synchronized void clear() {
+
+        pool.clear();
+        snapshot = Snapshot.EMPTY;
+        tableState = null;
+        version.incrementAndGet();
+
+    }
+
+    /**
+     * Retrieves a number that changes every time the index changes.
+     *
+     * @return The version.
+     */
+    public static int getVersion() {
+
+        return version.get();
+    }
+
+    /**
+     * Retrieves the number of classes in the index, ignoring pending changes.
+     *
+     * @return The number of classes.
+     */
+    public static int size() {
+
+        return snapshot.table.size();
+    }
+
+    /**
+     * Finds the classes with a given simple name.
+     *
+     * @param className The simple name (Case sensitive).
+     * @return The classes.
+     */
+    public static List<IndexedClass> exact(String className) {
+
+        Snapshot s = snapshot;
+        List<IndexedClass> result = new ArrayList<>();
+        String lower = className.toLowerCase();
+        ClassTable t = s.table;
+        for (int i = s.lowerBound(lower); i < t.size() && t.lowerName(i).equals(lower); i++) {
+            if (t.name(i).equals(className) && !s.removedPaths.contains(t.path(i))) {
+                result.add(s.get(i));
+            }
+        }
+        for (IndexedClass c : s.pending) {
+            if (c.className().equals(className)) {
+                result.add(c);
+            }
+        }
+        return result;
+
+    }
+
+    /**
+     * Finds a class by its fully qualified name, as reported by the debugger.
+     *
+     * @param qualifiedName The fully qualified name, with '$' separating inner classes.
+     * @return The class, null if it is not indexed.
+     */
+    public static IndexedClass findByQualifiedName(String qualifiedName) {
+
+        int start = Math.max(qualifiedName.lastIndexOf('.'), qualifiedName.lastIndexOf('$')) + 1;
+        for (IndexedClass c : exact(qualifiedName.substring(start))) {
+            if (c.qualifiedName().equals(qualifiedName)) {
+                return c;
+            }
+        }
+        return null;
+
+    }
+
+    /**
+     * Finds the classes whose simple name starts with a prefix, ignoring case.
+     *
+     * @param prefix The prefix.
+     * @param limit The maximum number of classes to return.
+     * @return The classes.
+     */
+    public static List<IndexedClass> prefix(String prefix, int limit) {
+
+        Snapshot s = snapshot;
+        List<IndexedClass> result = new ArrayList<>();
+        String lower = prefix.toLowerCase();
+        ClassTable t = s.table;
+        for (int i = s.lowerBound(lower); i < t.size() && result.size() < limit
+                && t.lowerName(i).startsWith(lower); i++) {
+            if (!s.removedPaths.contains(t.path(i))) {
+                result.add(s.get(i));
+            }
+        }
+        for (IndexedClass c : s.pending) {
+            if (result.size() < limit && c.className().toLowerCase().startsWith(lower)) {
+                result.add(c);
+            }
+        }
+        return result;
+
+    }
+
+    /**
+     * Finds the classes whose simple name matches camel humps, so NPE finds NullPointerException
+     * and HaMa finds HashMap.
+     *
+     * @param query The query.
+     * @param limit The maximum number of classes to return.
+     * @return The classes.
+     */
+    public static List<IndexedClass> camelHump(String query, int limit) {
+
+        Snapshot s = snapshot;
+        List<IndexedClass> result = new ArrayList<>();
+        if (query.isEmpty()) {
+            return result;
+        }
+
+        // The first hump has to match, so only names starting with the same letter are checked.
+        String first = query.substring(0, 1).toLowerCase();
+        ClassTable t = s.table;
+        for (int i = s.lowerBound(first); i < t.size() && result.size() < limit
+                && t.lowerName(i).startsWith(first); i++) {
+            if (matchesCamelHump(t.name(i), query) && !s.removedPaths.contains(t.path(i))) {
+                result.add(s.get(i));
+            }
+        }
+        for (IndexedClass c : s.pending) {
+            if (result.size() < limit && matchesCamelHump(c.className(), query)) {
+                result.add(c);
+            }
+        }
+        return result;
+
+    }
+
+    /**
+     * Finds the classes whose simple name contains the letters of a query in order, best matches first.
+     *
+     * @param query The query.
+     * @param limit The maximum number of classes to return.
+     * @return The classes.
+     */
+    public static List<IndexedClass> fuzzy(String query, int limit) {
+
+        Snapshot s = snapshot;
+        String lower = query.toLowerCase();
+        List<long[]> scored = new ArrayList<>();
+        ClassTable t = s.table;
+        for (int i = 0; i < t.size(); i++) {
+            int score = fuzzyScore(t.name(i), t.lowerName(i), lower);
+            if (score > Integer.MIN_VALUE && !s.removedPaths.contains(t.path(i))) {
+                scored.add(new long[]{score, i});
+            }
+        }
+        for (int i = 0; i < s.pending.length; i++) {
+            String name = s.pending[i].className();
+            int score = fuzzyScore(name, name.toLowerCase(), lower);
+            if (score > Integer.MIN_VALUE) {
+
+                // Pending classes are marked with negative positions.
+                scored.add(new long[]{score, -i - 1});
+            }
+        }
+
+        scored.sort((a, b) -> Long.compare(b[0], a[0]));
+        List<IndexedClass> result = new ArrayList<>();
+        for (int i = 0; i < scored.size() && i < limit; i++) {
+            int position = (int) scored.get(i)[1];
+            result.add((position >= 0) ? s.get(position) : s.pending[-position - 1]);
+        }
+        return result;
+
+    }
+
+    /**
+     * Finds classes for a query typed by the user, combining every kind of match.
+     * Prefix matches come first, then camel hump matches, then fuzzy matches.
+     *
+     * @param query The query.
+     * @param limit The maximum number of classes to return.
+     * @return The classes.
+     */
+    public static List<IndexedClass> search(String query, int limit) {
+
+        Set<IndexedClass> result = new LinkedHashSet<>(prefix(query, limit));
+        if (result.size() < limit) {
+            result.addAll(camelHump(query, limit - result.size()));
+        }
+        if (result.size() < limit) {
+            for (IndexedClass c : fuzzy(query, limit)) {
+                if (result.size() >= limit) {
+                    break;
+                }
+                result.add(c);
+            }
+        }
+        return new ArrayList<>(result);
+
+    }
+
+    /**
+     * Checks whether a name matches a query by camel humps.
+     * Each part of the query starting with an upper case letter has to start a hump of the name,
+     * in order, and the first part has to start the name.
+     *
+     * @param name The name.
+     * @param query The query.
+     * @return true if it matches.
+     */
+    static boolean matchesCamelHump(String name, String query) {
+
+        int n = 0;
+        int q = 0;
+        while (q < query.length()) {
+
+            // The part of the query up to the next upper case letter.
+            int end = q + 1;
+            while (end < query.length() && !Character.isUpperCase(query.charAt(end))) {
+                end++;
+            }
+            int length = end - q;
+
+            boolean matched = false;
+            while (n + length <= name.length()) {
+                if (isHumpStart(name, n) && name.regionMatches(true, n, query, q, length)) {
+                    matched = true;
+                    break;
+                }
+                if (q == 0) {
+                    return false;
+                }
+                n++;
+            }
+            if (!matched) {
+                return false;
+            }
+            n += length;
+            q = end;
+        }
+        return true;
+
+    }
+
+    /**
+     * Checks whether a hump of a name starts at an index.
+     *
+     * @param name The name.
+     * @param index The index.
+     * @return true if a hump starts there.
+     */
+    private static boolean isHumpStart(String name, int index) {
+
+        if (index == 0) {
+            return true;
+        }
+        char c = name.charAt(index);
+        char previous = name.charAt(index - 1);
+        return Character.isUpperCase(c) || previous == '_' || previous == '$'
+                || (Character.isDigit(c) && !Character.isDigit(previous));
+
+    }
+
+    /**
+     * Scores how well a name matches a query whose letters have to appear in order.
+     *
+     * @param name The name.
+     * @param lowerName The name in lower case.
+     * @param lowerQuery The query in lower case.
+     * @return The score, Integer.MIN_VALUE if it doesn't match.
+     */
+    static int fuzzyScore(String name, String lowerName, String lowerQuery) {
+
+        int score = 0;
+        int n = 0;
+        int previous = -2;
+        for (int q = 0; q < lowerQuery.length(); q++) {
+            n = lowerName.indexOf(lowerQuery.charAt(q), n);
+            if (n == -1) {
+                return Integer.MIN_VALUE;
+            }
+
+            // Reward letters next to each other and letters starting humps.
+            score += (n == previous + 1) ? 3 : 1;
+            if (isHumpStart(name, n)) {
+                score += 2;
+            }
+            previous = n;
+            n++;
+        }
+
+        // Prefer shorter names.
+        return score * 100 - lowerName.length();
+
+    }
+
+    /**
+     * Creates an IndexedClass sharing its package name and path with other classes.
+     * Must be called while holding the class lock.
+     *
+     * @param className The simple name of the class.
+     * @param packageName The package of the class.
+     * @param qualifiedName The fully qualified name of the class.
+     * @param path The path to the file declaring the class.
+     * @return The IndexedClass.
+     */
+    private static IndexedClass share(String className, String packageName, String qualifiedName, String path) {
+
+        return new IndexedClass(className, pool.computeIfAbsent(packageName, k -> k), qualifiedName,
+                pool.computeIfAbsent(path, k -> k));
+    }
+
+    /**
+     * Replaces the snapshot, merging pending changes into the arrays once there are enough of them.
+     * Must be called while holding the class lock.
+     *
+     * @param next The new snapshot.
+     */
+    private static void update(Snapshot next) {
+
+        if (next.pending.length + next.removedPaths.size() > MAX_PENDING) {
+            next = merge(next);
+        }
+        snapshot = next;
+        version.incrementAndGet();
+
+    }
+
+    /**
+     * Merges the pending changes of a snapshot into its arrays.
+     *
+     * @param current The snapshot.
+     * @return A snapshot without pending changes.
+     */
+    private static Snapshot merge(Snapshot current) {
+
+        if (current.pending.length == 0 && current.removedPaths.isEmpty()) {
+            return current;
+        }
+        ClassTable t = current.table;
+        List<IndexedClass> classes = new ArrayList<>(t.size() + current.pending.length);
+        for (int i = 0; i < t.size(); i++) {
+            if (!current.removedPaths.contains(t.path(i))) {
+                classes.add(current.get(i));
+            }
+        }
+        classes.addAll(Arrays.asList(current.pending));
+        return Snapshot.build(classes);
+
+    }
+
+    /**
+     * An immutable state of the index.
+     */
+    private static final class Snapshot {
+
+        /**
+         * An empty index.
+         */
+        static final Snapshot EMPTY = new Snapshot(new ArrayTable(new String[0], new String[0], new String[0],
+                new String[0], new String[0]), new IndexedClass[0], Collections.emptySet());
+
+        /**
+         * The classes, sorted.
+         */
+        final ClassTable table;
+
+        /**
+         * Classes added since the table was built.
+         */
+        final IndexedClass[] pending;
+
+        /**
+         * Files removed since the table was built.
+         */
+        final Set<String> removedPaths;
+
+        /**
+         * Instantiates a new Snapshot.
+         *
+         * @param table The sorted classes.
+         * @param pending The classes added since the table was built.
+         * @param removedPaths The files removed since the table was built.
+         */
+        Snapshot(ClassTable table, IndexedClass[] pending, Set<String> removedPaths) {
+
+            this.table = table;
+            this.pending = pending;
+            this.removedPaths = removedPaths;
+        }
+
+        /**
+         * Builds the sorted arrays from a list of classes.
+         *
+         * @param classes The classes.
+         * @return The Snapshot.
+         */
+        static Snapshot build(List<IndexedClass> classes) {
+
+            classes.sort(ORDER);
+            int size = classes.size();
+            String[] lowerNames = new String[size];
+            String[] names = new String[size];
+            String[] packages = new String[size];
+            String[] nestedNames = new String[size];
+            String[] paths = new String[size];
+            for (int i = 0; i < size; i++) {
+                IndexedClass c = classes.get(i);
+                names[i] = c.className();
+                lowerNames[i] = c.className().toLowerCase();
+                if (lowerNames[i].equals(names[i])) {
+                    lowerNames[i] = names[i];
+                }
+                packages[i] = c.packageName();
+                String nested = (c.packageName().isEmpty() || !c.qualifiedName().startsWith(c.packageName() + "."))
+                        ? c.qualifiedName() : c.qualifiedName().substring(c.packageName().length() + 1);
+                nestedNames[i] = nested.equals(names[i]) ? names[i] : nested;
+                paths[i] = c.path();
+            }
+            return new Snapshot(new ArrayTable(lowerNames, names, packages, nestedNames, paths), new IndexedClass[0],
+                    Collections.emptySet());
+
+        }
+
+        /**
+         * Finds the first position whose lower case name is not before a key.
+         *
+         * @param key The key, in lower case.
+         * @return The position.
+         */
+        int lowerBound(String key) {
+
+            int low = 0;
+            int high = table.size();
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (table.lowerName(middle).compareTo(key) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+
+        }
+
+        /**
+         * Checks whether the table holds a class.
+         *
+         * @param c The class.
+         * @return true if it does.
+         */
+        boolean contains(IndexedClass c) {
+
+            String lower = c.className().toLowerCase();
+            for (int i = lowerBound(lower); i < table.size() && table.lowerName(i).equals(lower); i++) {
+                if (table.path(i).equals(c.path()) && get(i).qualifiedName().equals(c.qualifiedName())) {
+                    return true;
+                }
+            }
+            return false;
+
+        }
+
+        /**
+         * Creates the IndexedClass at a position.
+         *
+         * @param i The position.
+         * @return The IndexedClass.
+         */
+        IndexedClass get(int i) {
+
+            String packageName = table.packageName(i);
+            String nestedName = table.nestedName(i);
+            String qualifiedName = packageName.isEmpty() ? nestedName : packageName + "." + nestedName;
+            return new IndexedClass(table.name(i), packageName, qualifiedName, table.path(i));
+        }
+
+    }
+
+    /**
+     * Classes held in parallel arrays.
+     *
+     * @param lowerNames The simple names in lower case, sorted.
+     * @param names The simple names.
+     * @param packages The package names, shared between classes of the same package.
+     * @param nestedNames The qualified names without the package. The same String as the name for top level classes.
+     * @param paths The paths to the files declaring the classes, shared between classes of the same file.
+     */
+    private record ArrayTable(String[] lowerNames, String[] names, String[] packages, String[] nestedNames,
+                              String[] paths) implements ClassTable {
+
+        /**
+         * Retrieves the number of classes.
+         *
+         * @return The number of classes.
+         */
+        @Override
+        public int size() {
+
+            return names.length;
+        }
+
+        /**
+         * Retrieves the simple name of a class in lower case.
+         *
+         * @param i The position of the class.
+         * @return The name.
+         */
+        @Override
+        public String lowerName(int i) {
+
+            return lowerNames[i];
+        }
+
+        /**
+         * Retrieves the simple name of a class.
+         *
+         * @param i The position of the class.
+         * @return The name.
+         */
+        @Override
+        public String name(int i) {
+
+            return names[i];
+        }
+
+        /**
+         * Retrieves the package name of a class.
+         *
+         * @param i The position of the class.
+         * @return The package name.
+         */
+        @Override
+        public String packageName(int i) {
+
+            return packages[i];
+        }
+
+        /**
+         * Retrieves the qualified name of a class without the package.
+         *
+         * @param i The position of the class.
+         * @return The name.
+         */
+        @Override
+        public String nestedName(int i) {
+
+            return nestedNames[i];
+        }
+
+        /**
+         * Retrieves the path to the file declaring a class.
+         *
+         * @param i The position of the class.
+         * @return The path.
+         */
+        @Override
+        public String path(int i) {
+
+            return paths[i];
+        }
+
+    }
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.project.indexing;
+
+/**
+ * The classes of the ClassIndex, sorted by lower case simple name.
+ * Entry i of each column describes one class.
+ */
+interface ClassTable {
+
+    /**
+     * Retrieves the number of classes.
+     *
+     * @return The number of classes.
+     */
+    int size();
+
+    /**
+     * Retrieves the simple name of a class in lower case.
+     *
+     * @param i The position of the class.
+     * @return The name.
+     */
+    String lowerName(int i);
+
+    /**
+     * Retrieves the simple name of a class.
+     *
+     * @param i The position of the class.
+     * @return The name.
+     */
+    String name(int i);
+
+    /**
+     * Retrieves the package name of a class.
+     *
+     * @param i The position of the class.
+     * @return The package name.
+     */
+    String packageName(int i);
+
+    /**
+     * Retrieves the qualified name of a class without the package, like Map$Entry.
+     *
+     * @param i The position of the class.
+     * @return The name.
+     */
+    String nestedName(int i);
+
+    /**
+     * Retrieves the path to the file declaring a class.
+     *
+     * @param i The position of the class.
+     * @return The path.
+     */
+    String path(int i);
+
+}
@@ -0,0 +1,1024 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.project.indexing;
+
+import com.project.custom_classes.IndexedClass;
+import com.project.custom_classes.IndexedDoc;
+import com.project.custom_classes.IndexedMember;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds the package, the type declarations and their non-private members in Java source code without parsing it.
+ * Only the tokens around declarations are looked at, method bodies, initializers and field values are
+ * skipped by matching braces. Local and anonymous classes are not reported, the same as member types
+ * found by JavaParser.
+ * Not thread-safe, use one instance per thread.
+ */
+public class DeclarationScanner {
+
+    /**
+     * The kind of token that was read last.
+     */
+    private enum Token { IDENTIFIER, SYMBOL, LITERAL, END }
+
+    /**
+     * The source code.
+     */
+    private char[] source = new char[0];
+
+    /**
+     * The length of the source code in the array.
+     */
+    private int length;
+
+    /**
+     * The index of the next character to read.
+     */
+    private int position;
+
+    /**
+     * The kind of the current token.
+     */
+    private Token token;
+
+    /**
+     * Where the current token starts.
+     */
+    private int tokenStart;
+
+    /**
+     * The symbol if the current token is one.
+     */
+    private char symbol;
+
+    /**
+     * Whether the source couldn't be understood.
+     */
+    private boolean failed;
+
+    /**
+     * Where the text of the last Javadoc comment starts.
+     */
+    private int docStart;
+
+    /**
+     * Where the text of the last Javadoc comment ends.
+     */
+    private int docEnd;
+
+    /**
+     * Where the token right after the last Javadoc comment starts, -1 if there was none.
+     */
+    private int docTokenStart;
+
+    /**
+     * The members found by the last scan.
+     */
+    private List<IndexedMember> members = new ArrayList<>();
+
+    /**
+     * The Javadoc summaries found by the last scan.
+     */
+    private List<IndexedDoc> docs = new ArrayList<>();
+
+    /**
+     * Scans source code for the classes it declares.
+     *
+     * @param code The source code.
+     * @param path The path the classes are recorded under.
+     * @return The classes, null if the scanner couldn't decide and the code should be parsed properly.
+     */
+    public List<IndexedClass> scan(String code, String path) {
+
+        // Reuse the array between files.
+        length = code.length();
+        if (source.length < length) {
+            source = new char[Math.max(length, source.length * 2)];
+        }
+        code.getChars(0, length, source, 0);
+        position = 0;
+        failed = false;
+        docTokenStart = -1;
+        members = new ArrayList<>();
+        docs = new ArrayList<>();
+
+        List<IndexedClass> classes = new ArrayList<>();
+        String packageName = "";
+        boolean afterDot = false;
+        boolean afterAt = false;
+        String doc = null;
+        next();
+        while (token != Token.END && !failed) {
+
+            // The Javadoc of a type comes before its annotations and modifiers.
+            if (tokenStart == docTokenStart) {
+                doc = summarizeDoc();
+            }
+            if (token == Token.IDENTIFIER && !afterDot && !afterAt && matches("package")) {
+                packageName = readQualifiedName();
+                doc = null;
+                continue;
+            }
+            if (token == Token.IDENTIFIER && !afterDot && isDeclaration(afterAt)) {
+                scanType(packageName, null, path, classes, doc);
+                afterDot = false;
+                afterAt = false;
+                doc = null;
+                next();
+                continue;
+            }
+            if (token == Token.SYMBOL && symbol == ';') {
+                doc = null;
+            }
+            if (token == Token.SYMBOL && symbol == '{') {
+                skipBlock();
+            } else if (token == Token.SYMBOL && symbol == '}') {
+                failed = true;
+            }
+            afterDot = token == Token.SYMBOL && symbol == '.';
+            afterAt = token == Token.SYMBOL && symbol == '@';
+            next();
+        }
+        return failed ? null : classes;
+
+    }
+
+    /**
+     * Retrieves the members of the classes found by the last scan.
+     *
+     * @return The members, meaningless if the scan failed.
+     */
+    public List<IndexedMember> getMembers() {
+
+        return members;
+    }
+
+    /**
+     * Retrieves the Javadoc summaries of the classes and members found by the last scan.
+     *
+     * @return The summaries, meaningless if the scan failed.
+     */
+    public List<IndexedDoc> getDocs() {
+
+        return docs;
+    }
+
+    /**
+     * Reads a type declaration, its members and its member types. The current token is the keyword.
+     *
+     * @param packageName The name of the package.
+     * @param outerName The name of the enclosing type with '$' before inner class names, null for a top level type.
+     * @param path The path the classes are recorded under.
+     * @param classes Where to add the classes.
+     * @param doc The summary of the type's Javadoc, null if it has none.
+     */
+    private void scanType(String packageName, String outerName, String path, List<IndexedClass> classes, String doc) {
+
+        boolean isEnum = matches("enum");
+        boolean isRecord = matches("record");
+        boolean isInterface = matches("interface");
+        next();
+        String simpleName = text();
+        String name = (outerName == null) ? simpleName : outerName + "$" + simpleName;
+        String owner = packageName.isEmpty() ? name : packageName + "." + name;
+        classes.add(new IndexedClass(simpleName, packageName, owner, path));
+        addDoc(owner, simpleName, "Class", "", doc, path);
+
+        // Record components become accessors and the parameters of the canonical constructor.
+        next();
+        if (isRecord) {
+            if (token == Token.SYMBOL && symbol == '<') {
+                skipTypeParameters();
+            }
+            List<String[]> components = readParameters();
+            if (failed) {
+                return;
+            }
+            List<String> parameters = new ArrayList<>();
+            for (String[] component : components) {
+                String accessorType = component[0].endsWith("...")
+                        ? component[0].substring(0, component[0].length() - 3) + "[]" : component[0];
+                addMember(owner, component[1], "Method", "", accessorType, false, path, null);
+                parameters.add(component[0] + " " + component[1]);
+            }
+            addMember(owner, simpleName, "Constructor", String.join(", ", parameters), "", false, path, null);
+        }
+
+        // Skip type parameters, extends and implements up to the body.
+        while (!(token == Token.SYMBOL && symbol == '{')) {
+            if (token == Token.END || (token == Token.SYMBOL && (symbol == ';' || symbol == '}'))) {
+                failed = true;
+                return;
+            }
+            next();
+        }
+
+        next();
+        if (isEnum) {
+            scanEnumConstants(owner, simpleName, path);
+        }
+        while (!failed) {
+            if (token == Token.END) {
+                failed = true;
+                return;
+            }
+            if (token == Token.SYMBOL && symbol == '}') {
+                return;
+            }
+            if (token == Token.SYMBOL && symbol == ';') {
+                next();
+            } else if (token == Token.SYMBOL && symbol == '{') {
+
+                // An initializer.
+                skipBlock();
+                next();
+            } else {
+                scanMember(packageName, name, simpleName, isInterface, isRecord, path, classes);
+            }
+        }
+
+    }
+
+    /**
+     * Reads the constants at the start of an enum body, up to the ';' after them or the end of the body.
+     *
+     * @param owner The qualified name of the enum.
+     * @param simpleName The simple name of the enum.
+     * @param path The path the members are recorded under.
+     */
+    private void scanEnumConstants(String owner, String simpleName, String path) {
+
+        String doc = null;
+        while (!failed) {
+            if (tokenStart == docTokenStart) {
+                doc = summarizeDoc();
+            }
+            if (token == Token.SYMBOL && symbol == ';') {
+                next();
+                return;
+            }
+            if (token == Token.SYMBOL && symbol == '}') {
+                return;
+            }
+            if (token == Token.SYMBOL && symbol == '@') {
+                next();
+                skipAnnotation();
+                continue;
+            }
+            if (token != Token.IDENTIFIER) {
+                failed = true;
+                return;
+            }
+            addMember(owner, text(), "Field", "", simpleName, true, path, doc);
+            doc = null;
+
+            // Skip the arguments and the body of the constant.
+            next();
+            if (token == Token.SYMBOL && symbol == '(') {
+                skipParentheses();
+            }
+            if (token == Token.SYMBOL && symbol == '{') {
+                skipBlock();
+                next();
+            }
+            if (token == Token.SYMBOL && symbol == ',') {
+                next();
+            }
+        }
+
+    }
+
+    /**
+     * Reads a member of a type body: a field, method, constructor or member type.
+     * The current token is the first one of the member, the last one read is the one after it.
+     *
+     * @param packageName The name of the package.
+     * @param typeName The name of the enclosing type with '$' before inner class names.
+     * @param simpleName The simple name of the enclosing type.
+     * @param isInterface Whether the enclosing type is an interface, whose fields are static.
+     * @param isRecord Whether the enclosing type is a record, which may have a compact constructor.
+     * @param path The path the classes and members are recorded under.
+     * @param classes Where to add the classes.
+     */
+    private void scanMember(String packageName, String typeName, String simpleName, boolean isInterface,
+                            boolean isRecord, String path, List<IndexedClass> classes) {
+
+        String owner = packageName.isEmpty() ? typeName : packageName + "." + typeName;
+        boolean isStatic = false;
+        boolean isPrivate = false;
+        String doc = (tokenStart == docTokenStart) ? summarizeDoc() : null;
+
+        // Modifiers and annotations, or a member type.
+        while (!failed) {
+            if (token == Token.IDENTIFIER && isDeclaration(false)) {
+                scanType(packageName, typeName, path, classes, doc);
+                next();
+                return;
+            }
+            if (token == Token.SYMBOL && symbol == '@') {
+                next();
+                if (token == Token.IDENTIFIER && isDeclaration(true)) {
+                    scanType(packageName, typeName, path, classes, doc);
+                    next();
+                    return;
+                }
+                skipAnnotation();
+            } else if (token == Token.IDENTIFIER && isModifier()) {
+                isStatic |= matches("static");
+                isPrivate |= matches("private");
+                next();
+            } else if (token == Token.IDENTIFIER && matches("non")) {
+
+                // non-sealed
+                next();
+                next();
+                next();
+            } else {
+                break;
+            }
+        }
+        if (failed) {
+            return;
+        }
+        if (token == Token.SYMBOL && symbol == '{') {
+
+            // A static initializer.
+            skipBlock();
+            next();
+            return;
+        }
+        if (token == Token.SYMBOL && symbol == '<') {
+            skipTypeParameters();
+        }
+
+        String type = readType();
+        if (failed) {
+            return;
+        }
+        if (isRecord && type.equals(simpleName) && token == Token.SYMBOL && symbol == '{') {
+
+            // A compact constructor, its parameters are the record's components.
+            skipBlock();
+            next();
+            return;
+        }
+
+        String kind;
+        String name;
+        if (token == Token.SYMBOL && symbol == '(') {
+            if (!type.equals(simpleName)) {
+                failed = true;
+                return;
+            }
+            kind = "Constructor";
+            name = type;
+            type = "";
+        } else if (token == Token.IDENTIFIER) {
+            name = text();
+            next();
+            kind = (token == Token.SYMBOL && symbol == '(') ? "Method" : "Field";
+        } else {
+            failed = true;
+            return;
+        }
+
+        if (!kind.equals("Field")) {
+            List<String> parameters = new ArrayList<>();
+            for (String[] parameter : readParameters()) {
+                parameters.add(parameter[0] + " " + parameter[1]);
+            }
+            type += readDimensions();
+
+            // Skip throws clauses and default values up to the body or the end of the declaration.
+            while (!failed && !(token == Token.SYMBOL && (symbol == '{' || symbol == ';'))) {
+                if (token == Token.END || (token == Token.SYMBOL && symbol == '}')) {
+                    failed = true;
+                    return;
+                }
+                if (token == Token.SYMBOL && symbol == '(') {
+                    skipParentheses();
+                } else {
+                    next();
+                }
+            }
+            if (failed) {
+                return;
+            }
+            if (symbol == '{') {
+                skipBlock();
+            }
+            next();
+            if (!isPrivate) {
+                addMember(owner, name, kind, String.join(", ", parameters), type, isStatic, path, doc);
+            }
+            return;
+        }
+
+        // One or more variables, each may have its own dimensions and value.
+        while (!failed) {
+            String variableType = type + readDimensions();
+            if (!isPrivate) {
+                addMember(owner, name, "Field", "", variableType, isStatic || isInterface, path, doc);
+            }
+            if (token == Token.SYMBOL && symbol == '=') {
+                skipInitializer();
+            }
+            if (token == Token.SYMBOL && symbol == ';') {
+                next();
+                return;
+            }
+            if (!(token == Token.SYMBOL && symbol == ',')) {
+                failed = true;
+                return;
+            }
+            next();
+            if (token != Token.IDENTIFIER) {
+                failed = true;
+                return;
+            }
+            name = text();
+            next();
+        }
+
+    }
+
+    /**
+     * Records a member.
+     *
+     * @param owner The qualified name of the declaring class.
+     * @param name The name.
+     * @param kind The kind.
+     * @param parameters The parameters.
+     * @param type The type.
+     * @param isStatic Whether it is static.
+     * @param path The path it is recorded under.
+     * @param doc The summary of its Javadoc, null if it has none.
+     */
+    private void addMember(String owner, String name, String kind, String parameters, String type, boolean isStatic,
+                           String path, String doc) {
+
+        members.add(new IndexedMember(owner, name, kind, parameters, type, isStatic, path));
+        addDoc(owner, name, kind, parameters, doc, path);
+
+    }
+
+    /**
+     * Records the Javadoc summary of a class or member, unless it is empty.
+     *
+     * @param owner The qualified name of the class, or of the class declaring the member.
+     * @param name The name.
+     * @param kind The kind.
+     * @param parameters The parameters.
+     * @param doc The summary, null if there is none.
+     * @param path The path it is recorded under.
+     */
+    private void addDoc(String owner, String name, String kind, String parameters, String doc, String path) {
+
+        if (doc != null && !doc.isEmpty()) {
+            docs.add(new IndexedDoc(owner, name, kind, parameters, doc, path));
+        }
+    }
+
+    /**
+     * Creates the summary of the last Javadoc comment.
+     *
+     * @return The summary.
+     */
+    private String summarizeDoc() {
+
+        return JavadocSummaries.summarize(new String(source, docStart, docEnd - docStart));
+    }
+
+    /**
+     * Reads a type, like java.util.Map.Entry<K,? extends V>[]. The current token is its first name.
+     *
+     * @return The type, spaced the way JavaParser prints it.
+     */
+    private String readType() {
+
+        StringBuilder type = new StringBuilder();
+        while (!failed) {
+            if (token != Token.IDENTIFIER) {
+                failed = true;
+                break;
+            }
+            type.append(text());
+            next();
+            if (token == Token.SYMBOL && symbol == '<') {
+                type.append(readTypeArguments());
+            }
+            if (token == Token.SYMBOL && symbol == '.' && !isEllipsis()) {
+                type.append('.');
+                next();
+                continue;
+            }
+            break;
+        }
+        return type.append(readDimensions()).toString();
+
+    }
+
+    /**
+     * Reads the type arguments of a type. The current token is the '<'.
+     *
+     * @return The type arguments.
+     */
+    private String readTypeArguments() {
+
+        StringBuilder arguments = new StringBuilder("<");
+        next();
+        while (!failed) {
+            if (token == Token.SYMBOL && symbol == '>') {
+                next();
+                break;
+            }
+            if (token == Token.SYMBOL && symbol == '@') {
+                next();
+                skipAnnotation();
+                continue;
+            }
+            if (token == Token.SYMBOL && symbol == '?') {
+                arguments.append('?');
+                next();
+                if (token == Token.IDENTIFIER && (matches("extends") || matches("super"))) {
+                    arguments.append(' ').append(text()).append(' ');
+                    next();
+                    arguments.append(readType());
+                }
+            } else {
+                arguments.append(readType());
+            }
+            if (token == Token.SYMBOL && symbol == ',') {
+                arguments.append(',');
+                next();
+            } else if (!(token == Token.SYMBOL && symbol == '>')) {
+                failed = true;
+            }
+        }
+        return arguments.append('>').toString();
+
+    }
+
+    /**
+     * Reads array dimensions, like [][].
+     *
+     * @return The dimensions, empty if there are none.
+     */
+    private String readDimensions() {
+
+        StringBuilder dimensions = new StringBuilder();
+        while (token == Token.SYMBOL && symbol == '[') {
+            next();
+            if (!(token == Token.SYMBOL && symbol == ']')) {
+                failed = true;
+                break;
+            }
+            dimensions.append("[]");
+            next();
+        }
+        return dimensions.toString();
+
+    }
+
+    /**
+     * Reads the parameters of a method, constructor or record. The current token is the '('.
+     *
+     * @return The type and name of each parameter.
+     */
+    private List<String[]> readParameters() {
+
+        List<String[]> parameters = new ArrayList<>();
+        if (!(token == Token.SYMBOL && symbol == '(')) {
+            failed = true;
+            return parameters;
+        }
+        next();
+        if (token == Token.SYMBOL && symbol == ')') {
+            next();
+            return parameters;
+        }
+        while (!failed) {
+            while (!failed) {
+                if (token == Token.SYMBOL && symbol == '@') {
+                    next();
+                    skipAnnotation();
+                } else if (token == Token.IDENTIFIER && matches("final")) {
+                    next();
+                } else {
+                    break;
+                }
+            }
+            String type = readType();
+            if (isEllipsis()) {
+                next();
+                next();
+                next();
+                type += "...";
+            }
+            if (token != Token.IDENTIFIER) {
+                failed = true;
+                break;
+            }
+            String name = text();
+            next();
+            if (token == Token.SYMBOL && symbol == '.') {
+
+                // A receiver parameter, like Outer.this.
+                next();
+                next();
+            } else if (!name.equals("this")) {
+                parameters.add(new String[]{type + readDimensions(), name});
+            }
+            if (token == Token.SYMBOL && symbol == ',') {
+                next();
+            } else if (token == Token.SYMBOL && symbol == ')') {
+                next();
+                break;
+            } else {
+                failed = true;
+            }
+        }
+        return parameters;
+
+    }
+
+    /**
+     * Skips type parameters, like <T extends Comparable<? super T>>. The current token is the '<'.
+     */
+    private void skipTypeParameters() {
+
+        int depth = 0;
+        do {
+            if (token == Token.END) {
+                failed = true;
+                return;
+            }
+            if (token == Token.SYMBOL && symbol == '<') {
+                depth++;
+            } else if (token == Token.SYMBOL && symbol == '>') {
+                depth--;
+            }
+            next();
+        } while (depth > 0);
+
+    }
+
+    /**
+     * Skips an annotation. The current token is the first part of its name, after the '@'.
+     */
+    private void skipAnnotation() {
+
+        while (token == Token.IDENTIFIER) {
+            next();
+            if (!(token == Token.SYMBOL && symbol == '.')) {
+                break;
+            }
+            next();
+        }
+        if (token == Token.SYMBOL && symbol == '(') {
+            skipParentheses();
+        }
+
+    }
+
+    /**
+     * Skips to the token after the ')' matching the current '('.
+     */
+    private void skipParentheses() {
+
+        int depth = 0;
+        do {
+            if (token == Token.END) {
+                failed = true;
+                return;
+            }
+            if (token == Token.SYMBOL && symbol == '(') {
+                depth++;
+            } else if (token == Token.SYMBOL && symbol == ')') {
+                depth--;
+            } else if (token == Token.SYMBOL && symbol == '{') {
+                skipBlock();
+            }
+            next();
+        } while (depth > 0 && !failed);
+
+    }
+
+    /**
+     * Skips the value of a field up to the ',' or ';' after it. The current token is the '='.
+     */
+    private void skipInitializer() {
+
+        next();
+        while (!failed) {
+            if (token == Token.END || (token == Token.SYMBOL && (symbol == '}' || symbol == ')'))) {
+                failed = true;
+                return;
+            }
+            if (token == Token.SYMBOL && (symbol == ',' || symbol == ';')) {
+                return;
+            }
+            if (token == Token.SYMBOL && symbol == '(') {
+                skipParentheses();
+            } else if (token == Token.IDENTIFIER && matches("new")) {
+
+                // Skip the created type so the commas between its type arguments don't end the field.
+                next();
+                while (token == Token.IDENTIFIER || (token == Token.SYMBOL && symbol == '.')) {
+                    next();
+                    if (token == Token.SYMBOL && symbol == '<') {
+                        readTypeArguments();
+                    }
+                }
+            } else {
+                if (token == Token.SYMBOL && symbol == '{') {
+                    skipBlock();
+                }
+                next();
+            }
+        }
+
+    }
+
+    /**
+     * Checks whether the current token is a modifier.
+     *
+     * @return true if it is.
+     */
+    private boolean isModifier() {
+
+        return matches("public") || matches("protected") || matches("private") || matches("static")
+                || matches("final") || matches("abstract") || matches("native") || matches("synchronized")
+                || matches("transient") || matches("volatile") || matches("strictfp") || matches("default")
+                || matches("sealed");
+    }
+
+    /**
+     * Checks whether the current token starts "...".
+     *
+     * @return true if it does.
+     */
+    private boolean isEllipsis() {
+
+        return token == Token.SYMBOL && symbol == '.' && position + 1 < length
+                && source[position] == '.' && source[position + 1] == '.';
+    }
+
+    /**
+     * Checks whether the current token starts a type declaration, leaving the position unchanged.
+     *
+     * @param afterAt Whether the token follows '@'.
+     * @return true if it does.
+     */
+    private boolean isDeclaration(boolean afterAt) {
+
+        boolean isRecord = false;
+        if (afterAt) {
+            if (!matches("interface")) {
+                return false;
+            }
+        } else if (matches("record")) {
+
+            // Only a keyword when followed by a name and then components or type parameters.
+            isRecord = true;
+        } else if (!matches("class") && !matches("interface") && !matches("enum")) {
+            return false;
+        }
+
+        int savedPosition = position;
+        int savedStart = tokenStart;
+        Token savedToken = token;
+        char savedSymbol = symbol;
+
+        next();
+        boolean isDeclaration = token == Token.IDENTIFIER;
+        if (isDeclaration && isRecord) {
+            next();
+            isDeclaration = token == Token.SYMBOL && (symbol == '(' || symbol == '<');
+        }
+
+        position = savedPosition;
+        tokenStart = savedStart;
+        token = savedToken;
+        symbol = savedSymbol;
+        if (!isDeclaration && !isRecord) {
+
+            // "class" and the like can't be followed by anything else outside of class literals.
+            failed = true;
+        }
+        return isDeclaration;
+
+    }
+
+    /**
+     * Reads a dotted name up to the ';' after it. The current token is the keyword before the name.
+     *
+     * @return The name.
+     */
+    private String readQualifiedName() {
+
+        StringBuilder name = new StringBuilder();
+        next();
+        while (token == Token.IDENTIFIER || (token == Token.SYMBOL && symbol == '.')) {
+            name.append(token == Token.IDENTIFIER ? text() : ".");
+            next();
+        }
+        if (!(token == Token.SYMBOL && symbol == ';')) {
+            failed = true;
+        }
+        next();
+        return name.toString();
+
+    }
+
+    /**
+     * Skips to the '}' matching the current '{'.
+     */
+    private void skipBlock() {
+
+        int depth = 1;
+        while (depth > 0) {
+            next();
+            if (token == Token.END) {
+                failed = true;
+                return;
+            }
+            if (token == Token.SYMBOL) {
+                if (symbol == '{') {
+                    depth++;
+                } else if (symbol == '}') {
+                    depth--;
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Reads the next token, skipping whitespace, comments and the contents of literals.
+     */
+    private void next() {
+
+        boolean isAfterDoc = false;
+        while (position < length) {
+            char c = source[position];
+            if (Character.isWhitespace(c)) {
+                position++;
+            } else if (c == '/' && position + 1 < length && source[position + 1] == '/') {
+                while (position < length && source[position] != '\n') {
+                    position++;
+                }
+            } else if (c == '/' && position + 1 < length && source[position + 1] == '*') {
+                int end = indexOf("*/", position + 2);
+                if (end == -1) {
+                    failed = true;
+                    position = length;
+                } else {
+
+                    // Remember where a Javadoc comment is, its summary is only made if it belongs to a declaration.
+                    if (position + 2 < end && source[position + 2] == '*') {
+                        docStart = position + 3;
+                        docEnd = end;
+                        isAfterDoc = true;
+                    }
+                    position = end + 2;
+                }
+            } else {
+                break;
+            }
+        }
+
+        tokenStart = position;
+        if (isAfterDoc) {
+            docTokenStart = position;
+        }
+        if (position >= length) {
+            token = Token.END;
+            return;
+        }
+
+        char c = source[position];
+        if (Character.isJavaIdentifierStart(c)) {
+            position++;
+            while (position < length && Character.isJavaIdentifierPart(source[position])) {
+                position++;
+            }
+            token = Token.IDENTIFIER;
+        } else if (Character.isDigit(c)) {
+            position++;
+            while (position < length && (Character.isJavaIdentifierPart(source[position]) || source[position] == '.')) {
+                position++;
+            }
+            token = Token.LITERAL;
+        } else if (c == '"' || c == '\'') {
+            skipLiteral(c);
+            token = Token.LITERAL;
+        } else {
+            position++;
+            symbol = c;
+            token = Token.SYMBOL;
+        }
+
+    }
+
+    /**
+     * Skips a String, text block or char literal. The position is at the opening quote.
+     *
+     * @param quote The quote character.
+     */
+    private void skipLiteral(char quote) {
+
+        boolean isTextBlock = quote == '"' && position + 2 < length
+                && source[position + 1] == '"' && source[position + 2] == '"';
+        position += isTextBlock ? 3 : 1;
+        while (position < length) {
+            char c = source[position];
+            if (c == '\\') {
+                position += 2;
+            } else if (isTextBlock && c == '"' && position + 2 < length
+                    && source[position + 1] == '"' && source[position + 2] == '"') {
+                position += 3;
+                return;
+            } else if (!isTextBlock && c == quote) {
+                position++;
+                return;
+            } else if (!isTextBlock && c == '\n') {
+                failed = true;
+                return;
+            } else {
+                position++;
+            }
+        }
+        failed = true;
+
+    }
+
+    /**
+     * Checks whether the current token is a given word.
+     *
+     * @param word The word.
+     * @return true if it is.
+     */
+    private boolean matches(String word) {
+
+        if (position - tokenStart != word.length()) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            if (source[tokenStart + i] != word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+
+    }
+
+    /**
+     * Retrieves the text of the current token.
+     *
+     * @return The text.
+     */
+    private String text() {
+
+        return new String(source, tokenStart, position - tokenStart);
+    }
+
+    /**
+     * Finds a String in the source code.
+     *
+     * @param target The String.
+     * @param from Where to start looking.
+     * @return The index where it starts, -1 if it isn't there.
+     */
+    private int indexOf(String target, int from) {
+
+        outer:
+        for (int i = from; i <= length - target.length(); i++) {
+            for (int j = 0; j < target.length(); j++) {
+                if (source[i + j] != target.charAt(j)) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+
+    }
+
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.project.indexing;
+
+import com.project.custom_classes.IndexedDoc;
+import com.project.utility.DatabaseUtility;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Looks up the Javadoc summaries recorded by the source indexer, by declaration or by full-text search.
+ * Summaries of JDKs other than the active one are left out.
+ */
+public class DocIndex {
+
+    /**
+     * The logger for the class.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(DocIndex.class);
+
+    /**
+     * The columns a summary is read from.
+     */
+    private static final String COLUMNS = "j.owner, j.name, j.kind, j.parameters, j.summary, j.path";
+
+    /**
+     * Finds the summaries of a class or of the members of a class with a given name.
+     *
+     * @param owner The fully qualified name of the class, with '$' separating inner classes.
+     * @param name The simple name of the class, or the name of the members.
+     * @return The summaries, one per overload for methods.
+     */
+    public static List<IndexedDoc> find(String owner, String name) {
+
+        return query("SELECT " + COLUMNS + " FROM Javadoc j WHERE j.owner = ? AND j.name = ?",
+                Integer.MAX_VALUE, owner, name);
+    }
+
+    /**
+     * Searches the summaries, names and classes for every word of a query.
+     * The last word may be incomplete, matches in names rank highest.
+     *
+     * @param query The query.
+     * @param limit The maximum number of summaries to return.
+     * @return The summaries, best match first.
+     */
+    public static List<IndexedDoc> search(String query, int limit) {
+
+        // Quote every word so nothing the user types is taken for FTS5 syntax.
+        StringBuilder match = new StringBuilder();
+        for (String word : query.split("[^\\p{L}\\p{N}_$]+")) {
+            if (!word.isEmpty()) {
+                match.append(match.isEmpty() ? "" : " ").append('"').append(word).append('"');
+            }
+        }
+        if (match.isEmpty()) {
+            return new ArrayList<>();
+        }
+        match.append('*');
+
+        // Rows of other JDKs are dropped after the query, there are at most as many of those as partitions kept.
+        return query("SELECT " + COLUMNS + " FROM JavadocSearch s JOIN Javadoc j ON j.id = s.rowid " +
+                        "WHERE JavadocSearch MATCH ? ORDER BY bm25(JavadocSearch, 2.0, 10.0, 1.0) LIMIT ?",
+                limit, match.toString(), limit * JdkPartitions.KEEP);
+
+    }
+
+    /**
+     * Runs a query for summaries, keeping the visible ones.
+     *
+     * @param sql The query. (In Prepared statement form).
+     * @param limit The maximum number of summaries to return.
+     * @param params The parameters for the query.
+     * @return The summaries.
+     */
+    private static List<IndexedDoc> query(String sql, int limit, Object... params) {
+
+        List<IndexedDoc> docs = new ArrayList<>();
+        Connection conn = DatabaseUtility.connect();
+        ResultSet rs = DatabaseUtility.executeQuery(conn, sql, params);
+        if (rs != null) {
+            try {
+                while (docs.size() < limit && rs.next()) {
+                    String path = rs.getString("path");
+                    if (JdkPartitions.isVisible(path)) {
+                        docs.add(new IndexedDoc(rs.getString("owner"), rs.getString("name"), rs.getString("kind"),
+                                rs.getString("parameters"), rs.getString("summary"), path));
+                    }
+                }
+            } catch (SQLException e) {
+                logger.error(e.getMessage());
+            } finally {
+                try {
+                    rs.close();
+                } catch (SQLException e) {
+                    logger.error(e.getMessage());
+                }
+            }
+        }
+        DatabaseUtility.close(conn);
+        return docs;
+
+    }
+
+}
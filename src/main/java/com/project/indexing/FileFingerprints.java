@@ -0,0 +1,168 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.project.indexing;
+
+import com.project.custom_classes.FileFingerprint;
+import com.project.utility.DatabaseUtility;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+
+/**
+ * Tells whether files changed since they were indexed, using their size, modification time and checksum.
+ */
+public class FileFingerprints {
+
+    /**
+     * The logger for the class.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(FileFingerprints.class);
+
+    /**
+     * Loads the fingerprints of every indexed file.
+     *
+     * @return The fingerprints by absolute path.
+     */
+    public static Map<String, FileFingerprint> load() {
+
+        Map<String, FileFingerprint> fingerprints = new HashMap<>();
+        Connection conn = DatabaseUtility.connect();
+        ResultSet rs = DatabaseUtility.executeQuery(conn, "SELECT path, size, lastModified, checksum FROM IndexedFile");
+        if (rs != null) {
+            try {
+                while (rs.next()) {
+                    fingerprints.put(rs.getString("path"), new FileFingerprint(rs.getLong("size"),
+                            rs.getLong("lastModified"), rs.getString("checksum")));
+                }
+            } catch (SQLException e) {
+                logger.error(e.getMessage());
+            } finally {
+                try {
+                    rs.close();
+                } catch (SQLException e) {
+                    logger.error(e.getMessage());
+                }
+            }
+        }
+        DatabaseUtility.close(conn);
+        return fingerprints;
+
+    }
+
+    /**
+     * Works out whether a file changed since it was indexed.
+     * The checksum is only computed if the size or modification time changed. A file that was only touched
+     * gets its new time recorded, so it isn't hashed again.
+     *
+     * @param file The Path to the file.
+     * @param recorded The fingerprint recorded when the file was last indexed, null if it never was.
+     * @return The new fingerprint, to record once the file is indexed, null if the file is unchanged.
+     * @throws IOException If the file can't be read.
+     */
+    public static FileFingerprint check(Path file, FileFingerprint recorded) throws IOException {
+
+        long size = Files.size(file);
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        if (recorded != null && recorded.size() == size && recorded.lastModified() == lastModified) {
+            return null;
+        }
+        FileFingerprint fingerprint = new FileFingerprint(size, lastModified, checksum(file));
+        if (recorded != null && recorded.checksum().equals(fingerprint.checksum())) {
+            IndexWriter.recordFile(file.toAbsolutePath().toString(), fingerprint);
+            return null;
+        }
+        return fingerprint;
+
+    }
+
+    /**
+     * Retrieves the fingerprint of a file, reusing the recorded checksum if its size and modification time
+     * didn't change. A new fingerprint is recorded.
+     *
+     * @param file The Path to the file.
+     * @return The fingerprint.
+     * @throws IOException If the file can't be read.
+     */
+    public static FileFingerprint current(Path file) throws IOException {
+
+        String path = file.toAbsolutePath().toString();
+        FileFingerprint recorded = null;
+        Connection conn = DatabaseUtility.connect();
+        ResultSet rs = DatabaseUtility.executeQuery(conn,
+                "SELECT size, lastModified, checksum FROM IndexedFile WHERE path = ?", path);
+        if (rs != null) {
+            try {
+                if (rs.next()) {
+                    recorded = new FileFingerprint(rs.getLong("size"), rs.getLong("lastModified"), rs.getString("checksum"));
+                }
+            } catch (SQLException e) {
+                logger.error(e.getMessage());
+            } finally {
+                try {
+                    rs.close();
+                } catch (SQLException e) {
+                    logger.error(e.getMessage());
+                }
+            }
+        }
+        DatabaseUtility.close(conn);
+
+        FileFingerprint fingerprint = check(file, recorded);
+        if (fingerprint == null) {
+            return recorded;
+        }
+        IndexWriter.recordFile(path, fingerprint);
+        return fingerprint;
+
+    }
+
+    /**
+     * Computes the SHA-256 checksum of a file.
+     *
+     * @param file The Path to the file.
+     * @return The checksum in hexadecimal.
+     * @throws IOException If the file can't be read.
+     */
+    private static String checksum(Path file) throws IOException {
+
+        try (InputStream in = Files.newInputStream(file)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[65536];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+
+    }
+
+}
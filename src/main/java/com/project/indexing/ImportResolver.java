@@ -0,0 +1,123 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.project.indexing;
+
+import com.project.custom_classes.IndexedClass;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Finds the classes that can be imported for an unresolved name.
+ * Lookups run on a background thread against the ClassIndex, and the candidates for each name
+ * are cached until the index changes.
+ */
+public class ImportResolver {
+
+    /**
+     * The thread lookups run on.
+     */
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "import-resolver");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * The candidates found for each unresolved name.
+     */
+    private static final Map<String, CompletableFuture<List<String>>> candidates = new ConcurrentHashMap<>();
+
+    /**
+     * The version of the ClassIndex the candidates were found in.
+     */
+    private static final AtomicInteger indexVersion = new AtomicInteger(-1);
+
+    /**
+     * Finds the fully qualified names of the classes with a given simple name.
+     * The future completes on the resolver thread.
+     *
+     * @param className The simple name.
+     * @return The fully qualified names, with '.' separating inner classes.
+     */
+    public static CompletableFuture<List<String>> resolve(String className) {
+
+        // Candidates found before classes were added or removed may be out of date.
+        int version = ClassIndex.getVersion();
+        if (indexVersion.getAndSet(version) != version) {
+            candidates.clear();
+        }
+        return candidates.computeIfAbsent(className,
+                name -> CompletableFuture.supplyAsync(() -> lookup(name), executor));
+
+    }
+
+    /**
+     * Looks up the classes with a given simple name, dropping those whose file no longer exists.
+     *
+     * @param className The simple name.
+     * @return The fully qualified names.
+     */
+    private static List<String> lookup(String className) {
+
+        List<String> qualifiedNames = new ArrayList<>();
+        List<String> missing = new ArrayList<>();
+        for (IndexedClass indexedClass : ClassIndex.exact(className)) {
+            if (exists(indexedClass.path())) {
+                qualifiedNames.add(indexedClass.qualifiedName().replace('$', '.'));
+            } else if (!missing.contains(indexedClass.path())) {
+                missing.add(indexedClass.path());
+            }
+        }
+
+        // Remove entries for files that no longer exist.
+        for (String path : missing) {
+            IndexWriter.removePath(path);
+        }
+        return qualifiedNames;
+
+    }
+
+    /**
+     * Checks whether a file exists, JDK source files counting if they are in src.zip.
+     * Classes read from a runtime image always count, their path only names the partition.
+     *
+     * @param path The path to the file.
+     * @return true if it exists.
+     */
+    private static boolean exists(String path) {
+
+        if (JdkPartitions.isRuntimePath(path)) {
+            return true;
+        }
+        try {
+            return !path.isEmpty() && JdkSources.exists(Paths.get(path));
+        } catch (InvalidPathException e) {
+            return false;
+        }
+
+    }
+
+}
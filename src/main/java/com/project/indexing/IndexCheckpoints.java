@@ -0,0 +1,107 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.project.indexing;
+
+import com.project.custom_classes.IndexCheckpoint;
+import com.project.utility.DatabaseUtility;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.function.IntConsumer;
+
+/**
+ * Keeps track of how far indexing large sources got, so an interrupted run resumes where it stopped
+ * instead of starting over.
+ * Entries are numbered in the order the source lists them, a checkpoint records how many of the first
+ * ones are all indexed.
+ */
+public class IndexCheckpoints {
+
+    /**
+     * The logger for the class.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(IndexCheckpoints.class);
+
+    /**
+     * Loads the checkpoint of a source.
+     *
+     * @param source The name of the source.
+     * @return The checkpoint, null if there is none.
+     */
+    public static IndexCheckpoint load(String source) {
+
+        IndexCheckpoint checkpoint = null;
+        Connection conn = DatabaseUtility.connect();
+        ResultSet rs = DatabaseUtility.executeQuery(conn,
+                "SELECT fingerprint, position, total FROM IndexCheckpoint WHERE source = ?", source);
+        if (rs != null) {
+            try {
+                if (rs.next()) {
+                    checkpoint = new IndexCheckpoint(rs.getString("fingerprint"), rs.getInt("position"), rs.getInt("total"));
+                }
+            } catch (SQLException e) {
+                logger.error(e.getMessage());
+            } finally {
+                try {
+                    rs.close();
+                } catch (SQLException e) {
+                    logger.error(e.getMessage());
+                }
+            }
+        }
+        DatabaseUtility.close(conn);
+        return checkpoint;
+
+    }
+
+    /**
+     * Retrieves the position to start indexing a source at.
+     *
+     * @param source The name of the source.
+     * @param fingerprint The fingerprint of the source's current contents.
+     * @return The number of entries already indexed, 0 if there is no checkpoint for these contents.
+     */
+    public static int resumePosition(String source, String fingerprint) {
+
+        IndexCheckpoint checkpoint = load(source);
+        if (checkpoint == null || !checkpoint.fingerprint().equals(fingerprint)) {
+            return 0;
+        }
+        if (checkpoint.position() > 0 && !checkpoint.isComplete()) {
+            logger.info("Resuming {} at {}/{}", source, checkpoint.position(), checkpoint.total());
+        }
+        return checkpoint.position();
+
+    }
+
+    /**
+     * Creates the callback an IndexingPipeline records its checkpoints with.
+     *
+     * @param source The name of the source.
+     * @param fingerprint The fingerprint of the source's contents.
+     * @param total The number of entries in the source.
+     * @return The callback, taking the number of entries done.
+     */
+    public static IntConsumer recorder(String source, String fingerprint, int total) {
+
+        return position -> IndexWriter.recordCheckpoint(source, new IndexCheckpoint(fingerprint, position, total));
+    }
+
+}
@@ -0,0 +1,440 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.project.indexing;
+
+import com.project.utility.DatabaseUtility;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Writes the ClassIndex to a compact binary file and maps it back in, so the next session can answer
+ * lookups before the database is opened.
+ * The file holds a header, one record of five string ids per class in ClassIndex order, the offsets of
+ * the strings and the strings themselves in UTF-8. Strings are decoded the first time they are read.
+ * The header records the database state the classes match, so a stale snapshot is noticed.
+ */
+public class IndexSnapshot {
+
+    /**
+     * The logger for the class.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(IndexSnapshot.class);
+
+    /**
+     * The directory snapshots are kept in.
+     */
+    static final Path DIRECTORY = Paths.get("files").toAbsolutePath();
+
+    /**
+     * The start of the name of snapshot files.
+     */
+    private static final String PREFIX = "class-index-";
+
+    /**
+     * The end of the name of snapshot files.
+     */
+    private static final String SUFFIX = ".snap";
+
+    /**
+     * Identifies snapshot files ("FSIX").
+     */
+    private static final int MAGIC = 0x46534958;
+
+    /**
+     * The version of the file format, files of other versions are ignored.
+     */
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * The size of the header in bytes.
+     */
+    private static final int HEADER_SIZE = 32;
+
+    /**
+     * The size of the record of a class in bytes.
+     */
+    private static final int RECORD_SIZE = 20;
+
+    /**
+     * Reads the state of the class tables in the database.
+     *
+     * @return The state, null if it can't be read.
+     */
+    static State readDatabaseState() {
+
+        Map<String, Long> values = new HashMap<>();
+        Connection conn = DatabaseUtility.connect();
+        ResultSet rs = DatabaseUtility.executeQuery(conn, "SELECT key, value FROM IndexState");
+        if (rs != null) {
+            try {
+                while (rs.next()) {
+                    values.put(rs.getString("key"), rs.getLong("value"));
+                }
+            } catch (SQLException e) {
+                logger.error(e.getMessage());
+            } finally {
+                try {
+                    rs.close();
+                } catch (SQLException e) {
+                    logger.error(e.getMessage());
+                }
+            }
+        }
+        DatabaseUtility.close(conn);
+        if (!values.containsKey("database") || !values.containsKey("generation")) {
+            return null;
+        }
+        return new State(values.get("database"), values.get("generation"));
+
+    }
+
+    /**
+     * Maps the most recent snapshot.
+     *
+     * @return The classes in it, null if there is no usable snapshot.
+     */
+    static MappedTable map() {
+
+        for (Path file : findSnapshots()) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                MappedTable table = new MappedTable(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+                logger.info("Mapped {} ({} bytes)", file, channel.size());
+                return table;
+            } catch (IOException | IllegalArgumentException | IndexOutOfBoundsException e) {
+                logger.error("Ignoring snapshot {}: {}", file, e.getMessage());
+            }
+        }
+        return null;
+
+    }
+
+    /**
+     * Writes a snapshot of classes, then deletes older snapshots.
+     * A new file is created each time, as the previous one may still be mapped.
+     *
+     * @param state The state of the database the classes match.
+     * @param table The classes, in ClassIndex order.
+     * @return Whether the snapshot was written.
+     */
+    static boolean write(State state, ClassTable table) {
+
+        int size = table.size();
+        Map<String, Integer> ids = new HashMap<>();
+        List<byte[]> strings = new ArrayList<>();
+        int[] records = new int[size * 5];
+        for (int i = 0; i < size; i++) {
+            records[i * 5] = id(table.lowerName(i), ids, strings);
+            records[i * 5 + 1] = id(table.name(i), ids, strings);
+            records[i * 5 + 2] = id(table.packageName(i), ids, strings);
+            records[i * 5 + 3] = id(table.nestedName(i), ids, strings);
+            records[i * 5 + 4] = id(table.path(i), ids, strings);
+        }
+
+        Path file = getFile(state);
+        Path temp = DIRECTORY.resolve(file.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(DIRECTORY);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 65536))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeLong(state.database());
+                out.writeLong(state.generation());
+                out.writeInt(size);
+                out.writeInt(strings.size());
+                for (int record : records) {
+                    out.writeInt(record);
+                }
+                int offset = 0;
+                for (byte[] string : strings) {
+                    out.writeInt(offset);
+                    offset += string.length;
+                }
+                out.writeInt(offset);
+                for (byte[] string : strings) {
+                    out.write(string);
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.error(e.getMessage());
+            return false;
+        }
+        logger.info("Wrote class index snapshot with {} classes and {} strings", size, strings.size());
+
+        // Older snapshots that are still mapped can't be deleted on some systems, they go next time.
+        for (Path old : findSnapshots()) {
+            if (!old.equals(file)) {
+                try {
+                    Files.deleteIfExists(old);
+                } catch (IOException e) {
+                    logger.debug("Could not delete {} yet", old);
+                }
+            }
+        }
+        return true;
+
+    }
+
+    /**
+     * Retrieves the file the snapshot of a database state is written to.
+     *
+     * @param state The state of the database.
+     * @return The Path to the file.
+     */
+    static Path getFile(State state) {
+
+        return DIRECTORY.resolve(PREFIX + state.database() + "-" + state.generation() + SUFFIX);
+    }
+
+    /**
+     * Retrieves the id of a string, adding it to the string table the first time.
+     *
+     * @param string The string.
+     * @param ids The ids of the strings added so far.
+     * @param strings The strings added so far, in UTF-8.
+     * @return The id.
+     */
+    private static int id(String string, Map<String, Integer> ids, List<byte[]> strings) {
+
+        Integer id = ids.get(string);
+        if (id == null) {
+            id = strings.size();
+            ids.put(string, id);
+            strings.add(string.getBytes(StandardCharsets.UTF_8));
+        }
+        return id;
+
+    }
+
+    /**
+     * Finds the snapshot files, most recent first.
+     *
+     * @return The Paths to the files.
+     */
+    private static List<Path> findSnapshots() {
+
+        if (!Files.isDirectory(DIRECTORY)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> files = Files.list(DIRECTORY)) {
+            return files.filter(file -> file.getFileName().toString().startsWith(PREFIX)
+                            && file.getFileName().toString().endsWith(SUFFIX))
+                    .sorted(Comparator.comparing((Path file) -> file.toFile().lastModified()).reversed())
+                    .toList();
+        } catch (IOException e) {
+            logger.error(e.getMessage());
+            return new ArrayList<>();
+        }
+
+    }
+
+    /**
+     * Identifies the contents of the class tables in the database.
+     *
+     * @param database A random number picked when the database was created.
+     * @param generation Increases every time classes are written.
+     */
+    record State(long database, long generation) {
+    }
+
+    /**
+     * The classes of a mapped snapshot.
+     */
+    static final class MappedTable implements ClassTable {
+
+        /**
+         * The mapped file.
+         */
+        private final MappedByteBuffer buffer;
+
+        /**
+         * The state of the database the classes match.
+         */
+        private final State state;
+
+        /**
+         * The number of classes.
+         */
+        private final int size;
+
+        /**
+         * Where the string offsets start.
+         */
+        private final int offsets;
+
+        /**
+         * Where the string data starts.
+         */
+        private final int data;
+
+        /**
+         * The strings decoded so far, by id. Racing threads may decode a string twice, which is harmless.
+         */
+        private final String[] strings;
+
+        /**
+         * Instantiates a new MappedTable, checking the header.
+         *
+         * @param buffer The mapped file.
+         * @throws IOException If the file is not a snapshot this version can read.
+         */
+        MappedTable(MappedByteBuffer buffer) throws IOException {
+
+            this.buffer = buffer;
+            if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+                throw new IOException("Not a class index snapshot of version " + FORMAT_VERSION);
+            }
+            state = new State(buffer.getLong(8), buffer.getLong(16));
+            size = buffer.getInt(24);
+            int stringCount = buffer.getInt(28);
+            offsets = HEADER_SIZE + size * RECORD_SIZE;
+            data = offsets + (stringCount + 1) * 4;
+            if (size < 0 || stringCount < 0 || data > buffer.capacity()
+                    || data + buffer.getInt(offsets + stringCount * 4) != buffer.capacity()) {
+                throw new IOException("Truncated class index snapshot");
+            }
+            strings = new String[stringCount];
+
+        }
+
+        /**
+         * Retrieves the state of the database the classes match.
+         *
+         * @return The state.
+         */
+        State getState() {
+
+            return state;
+        }
+
+        /**
+         * Retrieves one of the strings of a class.
+         *
+         * @param i The position of the class.
+         * @param field Which of the class's strings.
+         * @return The string.
+         */
+        private String string(int i, int field) {
+
+            int id = buffer.getInt(HEADER_SIZE + i * RECORD_SIZE + field * 4);
+            String string = strings[id];
+            if (string == null) {
+                int start = buffer.getInt(offsets + id * 4);
+                byte[] bytes = new byte[buffer.getInt(offsets + id * 4 + 4) - start];
+                buffer.get(data + start, bytes);
+                string = new String(bytes, StandardCharsets.UTF_8);
+                strings[id] = string;
+            }
+            return string;
+
+        }
+
+        /**
+         * Retrieves the number of classes.
+         *
+         * @return The number of classes.
+         */
+        @Override
+        public int size() {
+
+            return size;
+        }
+
+        /**
+         * Retrieves the simple name of a class in lower case.
+         *
+         * @param i The position of the class.
+         * @return The name.
+         */
+        @Override
+        public String lowerName(int i) {
+
+            return string(i, 0);
+        }
+
+        /**
+         * Retrieves the simple name of a class.
+         *
+         * @param i The position of the class.
+         * @return The name.
+         */
+        @Override
+        public String name(int i) {
+
+            return string(i, 1);
+        }
+
+        /**
+         * Retrieves the package name of a class.
+         *
+         * @param i The position of the class.
+         * @return The package name.
+         */
+        @Override
+        public String packageName(int i) {
+
+            return string(i, 2);
+        }
+
+        /**
+         * Retrieves the qualified name of a class without the package.
+         *
+         * @param i The position of the class.
+         * @return The name.
+         */
+        @Override
+        public String nestedName(int i) {
+
+            return string(i, 3);
+        }
+
+        /**
+         * Retrieves the path to the file declaring a class.
+         *
+         * @param i The position of the class.
+         * @return The path.
+         */
+        @Override
+        public String path(int i) {
+
+            return string(i, 4);
+        }
+
+    }
+
+}
@@ -0,0 +1,569 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.project.indexing;
+
+import com.project.custom_classes.FileFingerprint;
+import com.project.custom_classes.IndexCheckpoint;
+import com.project.custom_classes.IndexedDoc;
+import com.project.custom_classes.IndexedMember;
+import com.project.custom_classes.IndexedReference;
+import com.project.utility.DatabaseUtility;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Funnels every write to the class index tables through a single thread.
+ * Writes are queued and committed in batched transactions, producers block while the queue is full.
+ * A batch that fails is retried one write at a time, so only the bad write is lost.
+ */
+public class IndexWriter {
+
+    /**
+     * The logger for the class.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(IndexWriter.class);
+
+    /**
+     * The maximum number of writes waiting in the queue.
+     */
+    private static final int QUEUE_CAPACITY = 4096;
+
+    /**
+     * The maximum number of writes committed together.
+     */
+    private static final int BATCH_SIZE = 512;
+
+    /**
+     * How long to wait for a batch to fill up, in milliseconds.
+     */
+    private static final long BATCH_TIME = 250;
+
+    /**
+     * How often to report the write rate, in milliseconds.
+     */
+    private static final long REPORT_INTERVAL = 5000;
+
+    /**
+     * Inserts a class, doing nothing if it is already there.
+     */
+    private static final String INSERT_CLASS = "INSERT INTO ClassMetaData(packageName, className, qualifiedName, path) " +
+            "VALUES (?, ?, ?, ?) ON CONFLICT(qualifiedName, path) DO NOTHING";
+
+    /**
+     * Inserts a member, doing nothing if it is already there.
+     */
+    private static final String INSERT_MEMBER = "INSERT INTO MemberMetaData(owner, name, kind, parameters, type, isStatic, path) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?) ON CONFLICT(owner, name, parameters, path) DO NOTHING";
+
+    /**
+     * Inserts a Javadoc summary, doing nothing if it is already there.
+     */
+    private static final String INSERT_DOC = "INSERT INTO Javadoc(owner, name, kind, parameters, summary, path) " +
+            "VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT(owner, name, parameters, path) DO NOTHING";
+
+    /**
+     * Inserts a use of a name.
+     */
+    private static final String INSERT_REFERENCE = "INSERT INTO Reference(name, path, line, character, isCall) " +
+            "VALUES (?, ?, ?, ?, ?)";
+
+    /**
+     * Inserts something a file can see, doing nothing if it is already there.
+     */
+    private static final String INSERT_SCOPE = "INSERT INTO ReferenceScope(path, scope) VALUES (?, ?) " +
+            "ON CONFLICT(path, scope) DO NOTHING";
+
+    /**
+     * Removes the classes of a file.
+     */
+    private static final String DELETE_CLASSES = "DELETE FROM ClassMetaData WHERE path = ?";
+
+    /**
+     * Records the fingerprint of a file whose classes are indexed.
+     */
+    private static final String RECORD_FILE = "INSERT INTO IndexedFile(path, size, lastModified, checksum) VALUES (?, ?, ?, ?) " +
+            "ON CONFLICT(path) DO UPDATE SET size = excluded.size, lastModified = excluded.lastModified, " +
+            "checksum = excluded.checksum";
+
+    /**
+     * Records how far indexing a source got.
+     */
+    private static final String RECORD_CHECKPOINT = "INSERT INTO IndexCheckpoint(source, fingerprint, position, total) " +
+            "VALUES (?, ?, ?, ?) ON CONFLICT(source) DO UPDATE SET fingerprint = excluded.fingerprint, " +
+            "position = excluded.position, total = excluded.total";
+
+    /**
+     * The table classes are stored in.
+     */
+    private static final String CLASS_TABLE = "ClassMetaData";
+
+    /**
+     * Marks the class table as changed.
+     */
+    private static final String BUMP_GENERATION = "UPDATE IndexState SET value = value + 1 WHERE key = 'generation'";
+
+    /**
+     * The writes waiting to be committed.
+     */
+    private static final BlockingQueue<Write> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+
+    /**
+     * The number of writes queued so far.
+     */
+    private static final AtomicLong submitted = new AtomicLong();
+
+    /**
+     * The number of writes committed (or failed) so far. Guarded by the class lock.
+     */
+    private static long written = 0;
+
+    /**
+     * The thread doing the writing, started with the first write.
+     */
+    private static Thread writerThread;
+
+    /**
+     * The files with writes that failed since their classes were last removed, whose fingerprints aren't recorded.
+     * Only used on the writer thread.
+     */
+    private static final Set<String> lostPaths = new HashSet<>();
+
+    /**
+     * Whether a write failed. Checkpoints don't say which files they cover, so none are recorded after that
+     * and interrupted sources start over from their last checkpoint. Only used on the writer thread.
+     */
+    private static boolean hasLostWrites = false;
+
+    /**
+     * Queues a class to be added to the database. It is added to the ClassIndex once it is committed,
+     * unless it was already in the database or belongs to a JDK that isn't the active one.
+     * Blocks while the queue is full.
+     *
+     * @param packageName The name of the package.
+     * @param className The simple name of the class.
+     * @param qualifiedName The fully qualified name, with '$' before inner class names.
+     * @param path The absolute path to the file declaring it.
+     */
+    public static void addClass(String packageName, String className, String qualifiedName, String path) {
+
+        submit(new Write(INSERT_CLASS, new Object[]{packageName, className, qualifiedName, path}, path, () -> {
+
+            // Classes of a JDK that was switched away from while it was being indexed stay hidden.
+            if (JdkPartitions.isVisible(path)) {
+                ClassIndex.add(packageName, className, qualifiedName, path);
+            }
+        }));
+    }
+
+    /**
+     * Queues adding a member to the database, unless it is already there.
+     * Blocks while the queue is full.
+     *
+     * @param member The member.
+     */
+    public static void addMember(IndexedMember member) {
+
+        submit(new Write(INSERT_MEMBER, new Object[]{member.owner(), member.name(), member.kind(), member.parameters(),
+                member.type(), member.isStatic() ? 1 : 0, member.path()}, member.path(), null));
+    }
+
+    /**
+     * Queues adding a Javadoc summary to the database, unless it is already there.
+     * Blocks while the queue is full.
+     *
+     * @param doc The summary.
+     */
+    public static void addDoc(IndexedDoc doc) {
+
+        submit(new Write(INSERT_DOC, new Object[]{doc.owner(), doc.name(), doc.kind(), doc.parameters(), doc.summary(),
+                doc.path()}, doc.path(), null));
+    }
+
+    /**
+     * Queues adding a use of a name in a project source file to the database.
+     * Blocks while the queue is full.
+     *
+     * @param reference The use.
+     */
+    public static void addReference(IndexedReference reference) {
+
+        submit(new Write(INSERT_REFERENCE, new Object[]{reference.name(), reference.path(), reference.line(),
+                reference.character(), reference.isCall() ? 1 : 0}, reference.path(), null));
+    }
+
+    /**
+     * Queues recording that a project source file can see a package or class, unless it is already recorded.
+     * Blocks while the queue is full.
+     *
+     * @param path The absolute path to the file.
+     * @param scope The scope, as ReferenceScanner reports it.
+     */
+    public static void addScope(String path, String scope) {
+
+        submit(new Write(INSERT_SCOPE, new Object[]{path, scope}, path, null));
+    }
+
+    /**
+     * Queues removing the classes of a file, their members, their Javadoc and the file's uses of names from
+     * the database. The classes leave the ClassIndex once the removal is committed, after any queued additions.
+     * Blocks while the queue is full.
+     *
+     * @param path The path to the file.
+     */
+    public static void removePath(String path) {
+
+        // Removed in queue order, or a class queued before would come back once it is committed.
+        submit(new Write(DELETE_CLASSES, new Object[]{path}, path, null, () -> ClassIndex.removePath(path)));
+        submit(new Write("DELETE FROM MemberMetaData WHERE path = ?", new Object[]{path}, path, null));
+        submit(new Write("DELETE FROM Javadoc WHERE path = ?", new Object[]{path}, path, null));
+        submit(new Write("DELETE FROM Reference WHERE path = ?", new Object[]{path}, path, null));
+        submit(new Write("DELETE FROM ReferenceScope WHERE path = ?", new Object[]{path}, path, null));
+
+    }
+
+    /**
+     * Queues recording the fingerprint of a file whose classes are indexed.
+     * Blocks while the queue is full.
+     *
+     * @param path The absolute path to the file.
+     * @param fingerprint The fingerprint of the file.
+     */
+    public static void recordFile(String path, FileFingerprint fingerprint) {
+
+        submit(new Write(RECORD_FILE, new Object[]{path, fingerprint.size(), fingerprint.lastModified(),
+                fingerprint.checksum()}, path, null));
+    }
+
+    /**
+     * Queues removing a file's classes, and its fingerprint, from the database and then the ClassIndex.
+     * Blocks while the queue is full.
+     *
+     * @param path The absolute path to the file.
+     */
+    public static void removeFile(String path) {
+
+        removePath(path);
+        submit(new Write("DELETE FROM IndexedFile WHERE path = ?", new Object[]{path}, path, null));
+
+    }
+
+    /**
+     * Queues recording how far indexing a source got.
+     * Queued after the classes of the entries it covers, so it is never committed before them.
+     * Blocks while the queue is full.
+     *
+     * @param source The name of the source.
+     * @param checkpoint The checkpoint.
+     */
+    public static void recordCheckpoint(String source, IndexCheckpoint checkpoint) {
+
+        submit(new Write(RECORD_CHECKPOINT, new Object[]{source, checkpoint.fingerprint(), checkpoint.position(),
+                checkpoint.total()}, null, null));
+    }
+
+    /**
+     * Queues making a JDK partition the active one. The generation is bumped along with it,
+     * so snapshots of the class index taken with another JDK are out of date.
+     * Blocks while the queue is full.
+     *
+     * @param partition The partition.
+     */
+    public static void setActiveJdk(long partition) {
+
+        submit(new Write("INSERT INTO IndexState(key, value) VALUES ('jdk', ?) " +
+                "ON CONFLICT(key) DO UPDATE SET value = excluded.value", new Object[]{partition}, null, null));
+        submit(new Write(BUMP_GENERATION, new Object[0], null, null));
+
+    }
+
+    /**
+     * Queues removing a JDK partition, with the classes, members, Javadoc and checkpoints recorded under its directory.
+     * Blocks while the queue is full.
+     *
+     * @param partition The partition.
+     * @param prefix The start of every path in the partition.
+     */
+    public static void removePartition(long partition, String prefix) {
+
+        // Every path starting with the prefix sorts between it and the prefix with its last character bumped.
+        String end = prefix.substring(0, prefix.length() - 1) + (char) (prefix.charAt(prefix.length() - 1) + 1);
+        submit(new Write("DELETE FROM ClassMetaData WHERE path >= ? AND path < ?", new Object[]{prefix, end}, null, null));
+        submit(new Write("DELETE FROM MemberMetaData WHERE path >= ? AND path < ?", new Object[]{prefix, end}, null, null));
+        submit(new Write("DELETE FROM Javadoc WHERE path >= ? AND path < ?", new Object[]{prefix, end}, null, null));
+        submit(new Write("DELETE FROM IndexCheckpoint WHERE source >= ? AND source < ?", new Object[]{prefix, end}, null, null));
+        submit(new Write("DELETE FROM JdkPartition WHERE id = ?", new Object[]{partition}, null, null));
+
+    }
+
+    /**
+     * Empties the ClassIndex and queues emptying the database.
+     * Blocks while the queue is full.
+     */
+    public static void clear() {
+
+        ClassIndex.clear();
+        submit(new Write("DELETE FROM ClassMetaData", new Object[0], null, null));
+        submit(new Write("DELETE FROM MemberMetaData", new Object[0], null, null));
+        submit(new Write("DELETE FROM Javadoc", new Object[0], null, null));
+        submit(new Write("DELETE FROM Reference", new Object[0], null, null));
+        submit(new Write("DELETE FROM ReferenceScope", new Object[0], null, null));
+        submit(new Write("DELETE FROM IndexedFile", new Object[0], null, null));
+        submit(new Write("DELETE FROM IndexCheckpoint", new Object[0], null, null));
+        submit(new Write("DELETE FROM JdkPartition", new Object[0], null, null));
+
+    }
+
+    /**
+     * Waits until every write queued so far has been committed.
+     */
+    public static void flush() {
+
+        long target = submitted.get();
+        synchronized (IndexWriter.class) {
+            try {
+                while (written < target) {
+                    IndexWriter.class.wait();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+    }
+
+    /**
+     * Queues a write, starting the writer thread if needed.
+     *
+     * @param write The write.
+     */
+    private static void submit(Write write) {
+
+        start();
+        try {
+
+            // Blocking here slows producers down to the rate the database can keep up with.
+            queue.put(write);
+            submitted.incrementAndGet();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+    }
+
+    /**
+     * Starts the writer thread if it isn't running.
+     */
+    private static synchronized void start() {
+
+        if (writerThread != null) {
+            return;
+        }
+        writerThread = new Thread(IndexWriter::run, "index-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+
+    }
+
+    /**
+     * Collects writes into batches and commits them until interrupted.
+     */
+    private static void run() {
+
+        List<Write> batch = new ArrayList<>(BATCH_SIZE);
+        long reportStart = System.currentTimeMillis();
+        long reportRows = 0;
+        while (true) {
+            try {
+                batch.add(queue.take());
+
+                // Fill the batch until it is full or has waited long enough.
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(BATCH_TIME);
+                while (batch.size() < BATCH_SIZE) {
+                    if (queue.drainTo(batch, BATCH_SIZE - batch.size()) > 0) {
+                        continue;
+                    }
+                    Write write = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (write == null) {
+                        break;
+                    }
+                    batch.add(write);
+                }
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            commit(batch);
+            reportRows += batch.size();
+            batch.clear();
+
+            long now = System.currentTimeMillis();
+            if (now - reportStart >= REPORT_INTERVAL) {
+                logger.info("Wrote {} index rows at {} rows/s", reportRows, reportRows * 1000 / (now - reportStart));
+                reportStart = now;
+                reportRows = 0;
+            }
+        }
+
+    }
+
+    /**
+     * Commits a batch of writes in one transaction and runs the follow-ups of the writes.
+     *
+     * @param batch The writes.
+     */
+    private static void commit(List<Write> batch) {
+
+        // Fingerprints covering writes that were lost would hide them for good, so they are left out.
+        Set<String> lost = new HashSet<>(lostPaths);
+        List<Write> kept = new ArrayList<>(batch.size());
+        for (Write write : batch) {
+            if (isTrusted(write, lost)) {
+                kept.add(write);
+            }
+        }
+
+        List<String> queries = new ArrayList<>(kept.size() + 1);
+        List<Object[]> params = new ArrayList<>(kept.size() + 1);
+        boolean changesClasses = false;
+        for (Write write : kept) {
+            queries.add(write.sql());
+            params.add(write.params());
+            changesClasses |= write.sql().contains(CLASS_TABLE);
+        }
+
+        // Lets a snapshot of the class index tell whether it is out of date.
+        if (changesClasses) {
+            queries.add(BUMP_GENERATION);
+            params.add(new Object[0]);
+        }
+        int[] counts = DatabaseUtility.executeBatch(queries, params);
+        if (counts != null) {
+            lostPaths.retainAll(lost);
+            for (int i = 0; i < kept.size(); i++) {
+                if (counts[i] > 0 && kept.get(i).onChanged() != null) {
+                    kept.get(i).onChanged().run();
+                }
+                if (kept.get(i).onCommitted() != null) {
+                    kept.get(i).onCommitted().run();
+                }
+            }
+        } else {
+
+            // One bad statement shouldn't take the rest of the batch with it.
+            logger.error("Retrying {} index writes one at a time", batch.size());
+            commitEach(batch);
+        }
+
+        synchronized (IndexWriter.class) {
+            written += batch.size();
+            IndexWriter.class.notifyAll();
+        }
+
+    }
+
+    /**
+     * Commits writes one at a time, dropping the ones that fail.
+     *
+     * @param writes The writes.
+     */
+    private static void commitEach(List<Write> writes) {
+
+        boolean changesClasses = false;
+        for (Write write : writes) {
+            if (!isTrusted(write, lostPaths)) {
+                continue;
+            }
+            int[] count = DatabaseUtility.executeBatch(List.of(write.sql()), List.<Object[]>of(write.params()));
+            if (write.onCommitted() != null) {
+                write.onCommitted().run();
+            }
+            if (count == null) {
+                logger.error("Dropped index write: {}", write.sql());
+                hasLostWrites = true;
+                if (write.path() != null) {
+                    lostPaths.add(write.path());
+                }
+                continue;
+            }
+            changesClasses |= write.sql().contains(CLASS_TABLE);
+            if (count[0] > 0 && write.onChanged() != null) {
+                write.onChanged().run();
+            }
+        }
+        if (changesClasses) {
+            DatabaseUtility.executeBatch(List.of(BUMP_GENERATION), List.<Object[]>of(new Object[0]));
+        }
+
+    }
+
+    /**
+     * Checks whether a write may be committed, in the order of the queue.
+     * Fingerprints of files with lost writes and checkpoints recorded after any write was lost may not.
+     * Removing the classes of a file makes it trusted again.
+     *
+     * @param write The write.
+     * @param lost The files with lost writes, updated as the write is passed.
+     * @return true if it may.
+     */
+    private static boolean isTrusted(Write write, Set<String> lost) {
+
+        if (write.sql().equals(DELETE_CLASSES)) {
+            lost.remove(write.path());
+        } else if (write.sql().equals(RECORD_FILE)) {
+            return !lost.contains(write.path());
+        } else if (write.sql().equals(RECORD_CHECKPOINT)) {
+            return !hasLostWrites;
+        }
+        return true;
+
+    }
+
+    /**
+     * A queued write.
+     *
+     * @param sql The statement. (In Prepared statement form).
+     * @param params The parameters for the statement.
+     * @param path The file the row belongs to, null if it isn't about a single file.
+     * @param onChanged Run after the commit if the statement changed a row, may be null.
+     * @param onCommitted Run after the commit whatever it changed, even if the statement failed, may be null.
+     */
+    private record Write(String sql, Object[] params, String path, Runnable onChanged, Runnable onCommitted) {
+
+        /**
+         * Creates a write without a follow-up that always runs.
+         *
+         * @param sql The statement. (In Prepared statement form).
+         * @param params The parameters for the statement.
+         * @param path The file the row belongs to, null if it isn't about a single file.
+         * @param onChanged Run after the commit if the statement changed a row, may be null.
+         */
+        private Write(String sql, Object[] params, String path, Runnable onChanged) {
+
+            this(sql, params, path, onChanged, null);
+        }
+    }
+
+}
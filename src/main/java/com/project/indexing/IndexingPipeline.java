@@ -0,0 +1,303 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.project.indexing;
+
+import com.project.custom_classes.IndexingProgress;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * Runs indexing work for a known number of items on a work-stealing pool, one thread per core,
+ * and logs progress as items complete.
+ * The number of items in flight is bounded so a fast producer can't queue the whole input in memory.
+ * Items are numbered in the order they are submitted or skipped. A pipeline can start part way through,
+ * and periodically hands the number of leading items that are all done to a checkpoint callback.
+ */
+public class IndexingPipeline implements AutoCloseable {
+
+    /**
+     * The logger for the class.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(IndexingPipeline.class);
+
+    /**
+     * How often to log progress, in milliseconds.
+     */
+    private static final long REPORT_INTERVAL = 2000;
+
+    /**
+     * How often to record a checkpoint, in milliseconds.
+     */
+    private static final long CHECKPOINT_INTERVAL = 1000;
+
+    /**
+     * The pipelines that are running.
+     */
+    private static final Set<IndexingPipeline> running = ConcurrentHashMap.newKeySet();
+
+    /**
+     * What is being indexed, used in the logs.
+     */
+    private final String name;
+
+    /**
+     * The number of items expected.
+     */
+    private final int total;
+
+    /**
+     * The threads doing the work.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Limits the number of items submitted but not done.
+     */
+    private final Semaphore inFlight;
+
+    /**
+     * The number of items done, including those done before the pipeline started.
+     */
+    private final AtomicInteger done;
+
+    /**
+     * The number of items done before the pipeline started.
+     */
+    private final int start;
+
+    /**
+     * Records how many leading items are done, may be null.
+     */
+    private final IntConsumer checkpoint;
+
+    /**
+     * The number the next item gets. Only used by the thread submitting items.
+     */
+    private int next;
+
+    /**
+     * The items done, by number. Guarded by itself.
+     */
+    private final BitSet finished = new BitSet();
+
+    /**
+     * The number of leading items that are all done. Guarded by finished.
+     */
+    private int position;
+
+    /**
+     * When a checkpoint was last recorded, in milliseconds. Guarded by finished.
+     */
+    private long lastCheckpoint;
+
+    /**
+     * When the pipeline started, in milliseconds.
+     */
+    private final long startTime = System.currentTimeMillis();
+
+    /**
+     * When progress was last logged, in milliseconds.
+     */
+    private volatile long lastReport = startTime;
+
+    /**
+     * Instantiates a new IndexingPipeline.
+     *
+     * @param name What is being indexed, used in the logs.
+     * @param total The number of items expected.
+     */
+    public IndexingPipeline(String name, int total) {
+
+        this(name, total, 0, null);
+    }
+
+    /**
+     * Instantiates a new IndexingPipeline that carries on from a checkpoint.
+     *
+     * @param name What is being indexed, used in the logs.
+     * @param total The number of items expected.
+     * @param start The number of leading items already done, the first item submitted is numbered start.
+     * @param checkpoint Records how many leading items are done, may be null.
+     */
+    public IndexingPipeline(String name, int total, int start, IntConsumer checkpoint) {
+
+        this.name = name;
+        this.total = total;
+        this.start = start;
+        this.checkpoint = checkpoint;
+        done = new AtomicInteger(start);
+        next = start;
+        position = start;
+        lastCheckpoint = startTime;
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        pool = new ForkJoinPool(parallelism, p -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            thread.setName("indexer-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+        inFlight = new Semaphore(parallelism * 16);
+        running.add(this);
+        logger.info("Indexing {}: {} items from {} on {} threads", name, total, start, parallelism);
+
+    }
+
+    /**
+     * Runs an item's work on the pool. Blocks while too many items are in flight.
+     * Failures are logged and count as done.
+     *
+     * @param task The work.
+     */
+    public void submit(Callable<?> task) {
+
+        int number = next++;
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        pool.execute(() -> {
+            try {
+                task.call();
+            } catch (Exception e) {
+                logger.error(e.getMessage());
+            } finally {
+                inFlight.release();
+                complete(number);
+            }
+        });
+
+    }
+
+    /**
+     * Counts an item that needed no work.
+     */
+    public void skip() {
+
+        complete(next++);
+    }
+
+    /**
+     * Retrieves the fraction of items done.
+     *
+     * @return The progress, between 0 and 1.
+     */
+    public double getProgress() {
+
+        return (total == 0) ? 1 : Math.min(1, (double) done.get() / total);
+    }
+
+    /**
+     * Retrieves the progress of the pipeline.
+     *
+     * @return The progress.
+     */
+    public IndexingProgress getIndexingProgress() {
+
+        int count = done.get();
+        long elapsed = System.currentTimeMillis() - startTime;
+
+        // Only items done in this run say how fast it goes.
+        long remaining = (count > start) ? (long) (total - count) * elapsed / (count - start) : -1;
+        return new IndexingProgress(name, count, total, Math.max(-1, remaining));
+
+    }
+
+    /**
+     * Retrieves the progress of every running pipeline.
+     *
+     * @return The progress of each.
+     */
+    public static List<IndexingProgress> getRunning() {
+
+        List<IndexingProgress> progress = new ArrayList<>();
+        for (IndexingPipeline pipeline : running) {
+            progress.add(pipeline.getIndexingProgress());
+        }
+        return progress;
+
+    }
+
+    /**
+     * Waits for every submitted item to be done and stops the threads.
+     */
+    @Override
+    public void close() {
+
+        pool.shutdown();
+        try {
+            while (!pool.awaitTermination(1, TimeUnit.MINUTES)) {
+                logger.info("Still indexing {}: {}/{}", name, done.get(), total);
+            }
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+        } finally {
+            running.remove(this);
+        }
+        long elapsed = Math.max(1, System.currentTimeMillis() - startTime);
+        int count = done.get() - start;
+        logger.info("Indexed {}: {} items in {} ms ({} items/s)", name, count, elapsed, count * 1000L / elapsed);
+
+    }
+
+    /**
+     * Marks an item as done, logging progress and recording a checkpoint every so often.
+     *
+     * @param number The number of the item.
+     */
+    private void complete(int number) {
+
+        int count = done.incrementAndGet();
+        if (checkpoint != null) {
+            int reached = -1;
+            synchronized (finished) {
+                finished.set(number);
+                position = finished.nextClearBit(position);
+                long now = System.currentTimeMillis();
+                if (now - lastCheckpoint >= CHECKPOINT_INTERVAL) {
+                    lastCheckpoint = now;
+                    reached = position;
+                }
+            }
+            if (reached != -1) {
+                checkpoint.accept(reached);
+            }
+        }
+        long now = System.currentTimeMillis();
+        if (now - lastReport >= REPORT_INTERVAL) {
+            lastReport = now;
+            logger.info("Indexing {}: {}/{} ({}%)", name, count, total, (int) (getProgress() * 100));
+        }
+
+    }
+
+}
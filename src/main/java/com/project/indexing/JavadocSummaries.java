@@ -0,0 +1,151 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.project.indexing;
+
+/**
+ * Turns Javadoc comments into the plain text summaries the documentation index stores.
+ */
+public class JavadocSummaries {
+
+    /**
+     * The longest summary kept, in characters.
+     */
+    private static final int MAX_LENGTH = 400;
+
+    /**
+     * Creates the summary of a Javadoc comment: its first sentence, without tags or HTML.
+     *
+     * @param comment The text between "/**" and the closing "*" + "/".
+     * @return The summary, empty if there is none.
+     */
+    public static String summarize(String comment) {
+
+        // Join the lines of the description, without their leading '*', up to the first block tag.
+        StringBuilder text = new StringBuilder();
+        for (String line : comment.split("\n")) {
+            String stripped = line.strip();
+            while (stripped.startsWith("*")) {
+                stripped = stripped.substring(1);
+            }
+            stripped = stripped.strip();
+            if (stripped.startsWith("@")) {
+                break;
+            }
+            text.append(stripped).append(' ');
+        }
+
+        String plain = decodeEntities(stripHtml(replaceInlineTags(text.toString())))
+                .replaceAll("\\s+", " ").strip();
+
+        // The first sentence ends at a period followed by white space.
+        int end = plain.length();
+        for (int i = 0; i + 1 < plain.length(); i++) {
+            if (plain.charAt(i) == '.' && Character.isWhitespace(plain.charAt(i + 1))) {
+                end = i + 1;
+                break;
+            }
+        }
+        String summary = plain.substring(0, end);
+        return (summary.length() > MAX_LENGTH) ? summary.substring(0, MAX_LENGTH - 3) + "..." : summary;
+
+    }
+
+    /**
+     * Replaces inline tags like {@code x} and {@link Type#member label} with the text they show.
+     *
+     * @param text The text.
+     * @return The text without inline tags.
+     */
+    private static String replaceInlineTags(String text) {
+
+        StringBuilder result = new StringBuilder(text.length());
+        int i = 0;
+        while (i < text.length()) {
+            int start = text.indexOf("{@", i);
+            if (start == -1) {
+                result.append(text, i, text.length());
+                break;
+            }
+            result.append(text, i, start);
+
+            // Find the matching brace, tags like {@code Map<K, V>} may contain braces of their own.
+            int depth = 0;
+            int end = start;
+            for (; end < text.length(); end++) {
+                char c = text.charAt(end);
+                if (c == '{') {
+                    depth++;
+                } else if (c == '}' && --depth == 0) {
+                    break;
+                }
+            }
+            String tag = text.substring(start + 2, Math.min(end, text.length())).strip();
+            int space = tag.indexOf(' ');
+            String name = (space == -1) ? tag : tag.substring(0, space);
+            String content = (space == -1) ? "" : tag.substring(space + 1).strip();
+            switch (name) {
+                case "link":
+                case "linkplain":
+
+                    // Show the label if there is one, the reference otherwise.
+                    int labelStart = content.indexOf(' ', content.indexOf(')') + 1);
+                    if (labelStart != -1) {
+                        result.append(content.substring(labelStart + 1).strip());
+                    } else {
+                        String reference = content.startsWith("#") ? content.substring(1) : content.replace('#', '.');
+                        result.append(reference);
+                    }
+                    break;
+                case "inheritDoc":
+                    break;
+                default:
+                    result.append(content);
+                    break;
+            }
+            i = end + 1;
+        }
+        return result.toString();
+
+    }
+
+    /**
+     * Removes HTML tags.
+     *
+     * @param text The text.
+     * @return The text without tags.
+     */
+    private static String stripHtml(String text) {
+
+        // Keep exponents readable, like 2^-52.
+        return text.replace("<sup>", "^").replaceAll("<[^<>]*>", "");
+    }
+
+    /**
+     * Decodes the HTML entities common in Javadoc.
+     *
+     * @param text The text.
+     * @return The decoded text.
+     */
+    private static String decodeEntities(String text) {
+
+        return text.replace("&lt;", "<").replace("&gt;", ">").replace("&quot;", "\"").replace("&nbsp;", " ")
+                .replace("&#64;", "@").replace("&ndash;", "-").replace("&mdash;", "-").replace("&middot;", "\u00b7")
+                .replace("&times;", "\u00d7").replace("&le;", "\u2264").replace("&ge;", "\u2265").replace("&amp;", "&");
+    }
+
+}
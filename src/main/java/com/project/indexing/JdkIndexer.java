@@ -0,0 +1,152 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.project.indexing;
+
+import com.project.custom_classes.IndexCheckpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Enumeration;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Indexes the classes of a JDK into its own partition and makes it the active one.
+ * Needs nothing but the database, so it runs the same in the IDE and in the headless index builder.
+ */
+public class JdkIndexer {
+
+    /**
+     * The logger for the class.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(JdkIndexer.class);
+
+    /**
+     * The name the JDK sources are indexed under.
+     */
+    private static final String JDK_SOURCES = "JDK sources";
+
+    /**
+     * Makes sure only one JDK is switched to and indexed at a time.
+     */
+    private static final Object jdkIndexingLock = new Object();
+
+    /**
+     * Indexes the classes of a JDK, unless they already are, and makes its partition the active one.
+     * Classes are read from src.zip, or from the runtime image if the JDK has no sources.
+     *
+     * @param jdkHome The home directory of the JDK.
+     */
+    public static void index(Path jdkHome) {
+
+        // Try to locate the zip containing the source files.
+        Path src = null;
+        for (String candidate : new String[]{"lib/src.zip", "src/src.zip", "src.zip"}) {
+            if (Files.exists(jdkHome.resolve(candidate))) {
+                src = jdkHome.resolve(candidate);
+                break;
+            }
+        }
+
+        // The switch and the indexing happen together, so a JDK switched to meanwhile can't serve its sources
+        // from another partition's directory or have its classes recorded under it.
+        synchronized (jdkIndexingLock) {
+
+            // Without sources, at least index the class names from the runtime image.
+            if (src == null) {
+                long partition = JdkPartitions.activate(jdkHome, jdkHome.resolve("lib/modules"));
+                if (partition != 0) {
+                    BinaryIndexer.indexRuntime(jdkHome, partition);
+                }
+                return;
+            }
+
+            // Serve the source files from the zip and index them.
+            long partition = JdkPartitions.activate(jdkHome, src);
+            if (partition == 0) {
+                return;
+            }
+            Path directory = JdkPartitions.getRoot(partition).resolve("src");
+            JdkSources.setZip(src, directory);
+            indexZip(src, directory, partition);
+        }
+
+    }
+
+    /**
+     * Indexes the classes in a zip of source files into a JDK partition, reading them straight from the zip.
+     * Entries are parsed in parallel. Nothing is done if the partition is already complete,
+     * and an interrupted run carries on from its last checkpoint.
+     *
+     * @param zipFile The zip file.
+     * @param directory The directory the partition's source files are extracted to.
+     * @param partition The partition.
+     */
+    public static void indexZip(Path zipFile, Path directory, long partition) {
+
+        // The partition already identifies the zip's contents.
+        String source = JdkPartitions.getCheckpointSource(JDK_SOURCES, partition);
+        String fingerprint = Long.toString(partition);
+
+        try (ZipFile zip = new ZipFile(zipFile.toFile())) {
+            int total = zip.size();
+            int start = IndexCheckpoints.resumePosition(source, fingerprint);
+            if (start >= total) {
+                return;
+            }
+
+            try (IndexingPipeline pipeline = new IndexingPipeline(JDK_SOURCES, total, start,
+                    IndexCheckpoints.recorder(source, fingerprint, total))) {
+                Enumeration<? extends ZipEntry> entries = zip.entries();
+                for (int i = 0; entries.hasMoreElements(); i++) {
+                    ZipEntry entry = entries.nextElement();
+
+                    // Entries before the checkpoint are indexed already, and listing them costs nothing.
+                    if (i < start) {
+                        continue;
+                    }
+                    if (entry.isDirectory() || !entry.getName().endsWith(".java")) {
+                        pipeline.skip();
+                        continue;
+                    }
+
+                    // Classes are recorded under the path the file is extracted to if it is ever opened.
+                    pipeline.submit(() -> {
+                        try (InputStream in = zip.getInputStream(entry)) {
+                            SourceIndexer.index(new String(in.readAllBytes(), StandardCharsets.UTF_8),
+                                    directory.resolve(entry.getName()).toString());
+                        }
+                        return null;
+                    });
+                }
+            }
+
+            // Queued after every class, so the zip is only marked as indexed once they are all in the database.
+            IndexWriter.recordCheckpoint(source, new IndexCheckpoint(fingerprint, total, total));
+            IndexWriter.flush();
+        } catch (IOException e) {
+            logger.error(e.getMessage());
+        }
+
+    }
+
+}
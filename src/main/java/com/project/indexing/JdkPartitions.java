@@ -0,0 +1,304 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.project.indexing;
+
+import com.project.custom_classes.FileFingerprint;
+import com.project.utility.DatabaseUtility;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Keeps the index data of each JDK apart, so switching between JDKs doesn't mean indexing them again.
+ * Every JDK is identified by its release file and the checksum of its sources (or runtime image) and gets
+ * a numbered partition. Its classes are indexed under paths in the partition's directory, and only the classes
+ * of the active partition are visible. The least recently used partitions are deleted.
+ */
+public class JdkPartitions {
+
+    /**
+     * The logger for the class.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(JdkPartitions.class);
+
+    /**
+     * The directory holding a directory per partition.
+     */
+    public static final Path PARTITIONS_DIR = Paths.get("files/jdk").toAbsolutePath();
+
+    /**
+     * The number of partitions kept on disk, the active one included.
+     */
+    static final int KEEP = 3;
+
+    /**
+     * The name classes read from a runtime image are recorded under in their partition.
+     * No file of that name is ever created.
+     */
+    private static final String RUNTIME_IMAGE = "modules";
+
+    /**
+     * The start of every path in a partition.
+     */
+    private static final String PARTITIONS_PREFIX = PARTITIONS_DIR + File.separator;
+
+    /**
+     * The active partition, 0 if there is none, -1 if not read from the database yet.
+     */
+    private static volatile long active = -1;
+
+    /**
+     * Makes a JDK's partition the active one, creating it if the JDK is new, and reloads the ClassIndex
+     * if that changed the active partition. Old partitions are deleted afterwards.
+     *
+     * @param jdkHome The root directory of the JDK.
+     * @param archive The src.zip, or the runtime image if there is none, identifying the JDK's contents.
+     * @return The partition, 0 if the JDK couldn't be identified.
+     */
+    public static synchronized long activate(Path jdkHome, Path archive) {
+
+        String fingerprint = fingerprint(jdkHome, archive);
+        if (fingerprint == null) {
+            return 0;
+        }
+        DatabaseUtility.executeUpdate("INSERT INTO JdkPartition(fingerprint, home, lastUsed) VALUES (?, ?, ?) " +
+                "ON CONFLICT(fingerprint) DO UPDATE SET home = excluded.home, lastUsed = excluded.lastUsed",
+                fingerprint, jdkHome.toAbsolutePath().toString(), System.currentTimeMillis());
+        long partition = find(fingerprint);
+        if (partition == 0) {
+            return 0;
+        }
+
+        if (partition != getActive()) {
+            active = partition;
+            IndexWriter.setActiveJdk(partition);
+            IndexWriter.flush();
+
+            // Only the visible classes are loaded, so this swaps the old JDK's classes for the new one's.
+            ClassIndex.load();
+            logger.info("Switched to the index of {}", jdkHome);
+        }
+        collectGarbage(partition);
+        return partition;
+
+    }
+
+    /**
+     * Retrieves the active partition.
+     *
+     * @return The partition, 0 if there is none.
+     */
+    public static long getActive() {
+
+        if (active == -1) {
+            long stored = 0;
+            Connection conn = DatabaseUtility.connect();
+            ResultSet rs = DatabaseUtility.executeQuery(conn, "SELECT value FROM IndexState WHERE key = 'jdk'");
+            if (rs != null) {
+                try {
+                    if (rs.next()) {
+                        stored = rs.getLong("value");
+                    }
+                } catch (SQLException e) {
+                    logger.error(e.getMessage());
+                } finally {
+                    try {
+                        rs.close();
+                    } catch (SQLException e) {
+                        logger.error(e.getMessage());
+                    }
+                }
+            }
+            DatabaseUtility.close(conn);
+            active = stored;
+        }
+        return active;
+
+    }
+
+    /**
+     * Retrieves the directory of a partition, which its paths start with.
+     *
+     * @param partition The partition.
+     * @return The absolute Path.
+     */
+    public static Path getRoot(long partition) {
+
+        return PARTITIONS_DIR.resolve(Long.toString(partition));
+    }
+
+    /**
+     * Retrieves the path the classes of a partition's runtime image are recorded under.
+     *
+     * @param partition The partition.
+     * @return The absolute Path.
+     */
+    public static Path getRuntimePath(long partition) {
+
+        return getRoot(partition).resolve(RUNTIME_IMAGE);
+    }
+
+    /**
+     * Checks whether an indexed path is that of a partition's runtime image.
+     * Such paths don't exist on disk, their classes live in the JDK's image.
+     *
+     * @param path The indexed path.
+     * @return true if it is.
+     */
+    public static boolean isRuntimePath(String path) {
+
+        return path.startsWith(PARTITIONS_PREFIX) && path.endsWith(File.separator + RUNTIME_IMAGE)
+                && Paths.get(path).getParent().getParent().equals(PARTITIONS_DIR);
+    }
+
+    /**
+     * Creates the name a partition's checkpoints are recorded under, so they go when the partition does.
+     *
+     * @param name The name of the source within the partition.
+     * @param partition The partition.
+     * @return The name of the checkpoint.
+     */
+    public static String getCheckpointSource(String name, long partition) {
+
+        return getRoot(partition) + File.separator + name;
+    }
+
+    /**
+     * Checks whether an indexed path should be visible, which is the case unless it belongs to
+     * a partition that isn't the active one.
+     *
+     * @param path The indexed path.
+     * @return true if it should be visible.
+     */
+    public static boolean isVisible(String path) {
+
+        if (!path.startsWith(PARTITIONS_PREFIX)) {
+            return true;
+        }
+        long partition = getActive();
+        return partition > 0 && path.startsWith(getRoot(partition) + File.separator);
+
+    }
+
+    /**
+     * Deletes every partition but the most recently used ones, along with their checkpoints and extracted files.
+     *
+     * @param keep The partition that must be kept.
+     */
+    private static void collectGarbage(long keep) {
+
+        List<Long> partitions = new ArrayList<>();
+        Connection conn = DatabaseUtility.connect();
+        ResultSet rs = DatabaseUtility.executeQuery(conn, "SELECT id FROM JdkPartition ORDER BY lastUsed DESC");
+        if (rs != null) {
+            try {
+                while (rs.next()) {
+                    partitions.add(rs.getLong("id"));
+                }
+            } catch (SQLException e) {
+                logger.error(e.getMessage());
+            } finally {
+                try {
+                    rs.close();
+                } catch (SQLException e) {
+                    logger.error(e.getMessage());
+                }
+            }
+        }
+        DatabaseUtility.close(conn);
+
+        partitions.remove(Long.valueOf(keep));
+        for (Long partition : partitions.subList(Math.min(partitions.size(), KEEP - 1), partitions.size())) {
+            Path root = getRoot(partition);
+            IndexWriter.removePartition(partition, root + File.separator);
+            JdkSources.delete(root);
+            logger.info("Deleted the index of JDK partition {}", partition);
+        }
+
+    }
+
+    /**
+     * Finds the partition of a fingerprint.
+     *
+     * @param fingerprint The fingerprint.
+     * @return The partition, 0 if there is none.
+     */
+    private static long find(String fingerprint) {
+
+        long partition = 0;
+        Connection conn = DatabaseUtility.connect();
+        ResultSet rs = DatabaseUtility.executeQuery(conn, "SELECT id FROM JdkPartition WHERE fingerprint = ?", fingerprint);
+        if (rs != null) {
+            try {
+                if (rs.next()) {
+                    partition = rs.getLong("id");
+                }
+            } catch (SQLException e) {
+                logger.error(e.getMessage());
+            } finally {
+                try {
+                    rs.close();
+                } catch (SQLException e) {
+                    logger.error(e.getMessage());
+                }
+            }
+        }
+        DatabaseUtility.close(conn);
+        return partition;
+
+    }
+
+    /**
+     * Identifies a JDK by its release file and the checksum of its sources or runtime image.
+     * The checksum is only computed again if the archive's size or modification time changed.
+     *
+     * @param jdkHome The root directory of the JDK.
+     * @param archive The src.zip or runtime image.
+     * @return The fingerprint, null if the archive can't be read.
+     */
+    private static String fingerprint(Path jdkHome, Path archive) {
+
+        try {
+            FileFingerprint contents = FileFingerprints.current(archive);
+            Path release = jdkHome.resolve("release");
+            String releaseChecksum = "";
+            if (Files.isRegularFile(release)) {
+                releaseChecksum = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                        .digest(Files.readAllBytes(release)));
+            }
+            return releaseChecksum + "|" + contents.checksum();
+        } catch (IOException | NoSuchAlgorithmException e) {
+            logger.error(e.getMessage());
+            return null;
+        }
+
+    }
+
+}
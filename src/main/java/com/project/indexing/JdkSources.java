@@ -0,0 +1,187 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.project.indexing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Serves the active JDK's source files straight from its src.zip.
+ * JDK classes are indexed under the path they would have in the src directory of the JDK's partition,
+ * and a file is only extracted there when it is actually opened.
+ */
+public class JdkSources {
+
+    /**
+     * The logger for the class.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(JdkSources.class);
+
+    /**
+     * Where source files were extracted to by older versions, shared by every JDK.
+     */
+    public static final Path LEGACY_SRC_DIR = Paths.get("files/src").toAbsolutePath();
+
+    /**
+     * Where source files are extracted to when opened.
+     */
+    private static volatile Path srcDir = LEGACY_SRC_DIR;
+
+    /**
+     * The JDK's src.zip. Guarded by the class lock.
+     */
+    private static ZipFile zip;
+
+    /**
+     * Sets the src.zip sources are served from.
+     *
+     * @param zipFile The Path to the src.zip.
+     * @param directory Where its files are extracted to.
+     */
+    public static synchronized void setZip(Path zipFile, Path directory) {
+
+        srcDir = directory.toAbsolutePath();
+        try {
+            if (zip != null) {
+                zip.close();
+            }
+            zip = new ZipFile(zipFile.toFile());
+        } catch (IOException e) {
+            zip = null;
+            logger.error(e.getMessage());
+        }
+
+    }
+
+    /**
+     * Checks whether a file exists, either on disk or as an entry of src.zip.
+     * Nothing is extracted.
+     *
+     * @param path The Path to the file.
+     * @return true if it exists.
+     */
+    public static boolean exists(Path path) {
+
+        if (Files.exists(path)) {
+            return true;
+        }
+        return findEntry(path) != null;
+
+    }
+
+    /**
+     * Makes sure a file is on disk, extracting it from src.zip if it is a JDK source file that hasn't been yet.
+     * The extracted file is read-only.
+     *
+     * @param path The Path to the file.
+     * @return true if the file is on disk.
+     */
+    public static synchronized boolean extract(Path path) {
+
+        if (Files.exists(path)) {
+            return true;
+        }
+        ZipEntry entry = findEntry(path);
+        if (entry == null) {
+            return false;
+        }
+        try (InputStream in = zip.getInputStream(entry)) {
+
+            // Write next to the target and move it in, so a half-written file is never seen.
+            Files.createDirectories(path.getParent());
+            Path temp = Files.createTempFile(path.getParent(), "extract", ".tmp");
+            Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+
+            // Check what type of OS and set the files to readonly accordingly.
+            if (System.getProperty("os.name").toLowerCase().contains("windows")) {
+                Files.setAttribute(path, "dos:readonly", true);
+            } else {
+                Set<PosixFilePermission> perms = EnumSet.of(PosixFilePermission.OWNER_READ,
+                        PosixFilePermission.GROUP_READ, PosixFilePermission.OTHERS_READ);
+                Files.setPosixFilePermissions(path, perms);
+            }
+            return true;
+        } catch (IOException e) {
+            logger.error(e.getMessage());
+            return false;
+        }
+
+    }
+
+    /**
+     * Deletes a directory of extracted source files.
+     *
+     * @param directory The Path to the directory.
+     */
+    public static synchronized void delete(Path directory) {
+
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+
+            // Children before their directories, read-only files made writable first.
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    if (!path.toFile().setWritable(true)) {
+                        logger.error("Couldn't make {} writable", path);
+                    }
+                    Files.delete(path);
+                } catch (IOException e) {
+                    logger.error(e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            logger.error(e.getMessage());
+        }
+
+    }
+
+    /**
+     * Finds the entry of src.zip a path stands for.
+     *
+     * @param path The Path.
+     * @return The ZipEntry, null if the path isn't a JDK source file.
+     */
+    private static synchronized ZipEntry findEntry(Path path) {
+
+        Path absolute = path.toAbsolutePath();
+        Path directory = srcDir;
+        if (zip == null || !absolute.startsWith(directory) || absolute.equals(directory)) {
+            return null;
+        }
+        ZipEntry entry = zip.getEntry(directory.relativize(absolute).toString().replace('\\', '/'));
+        return (entry == null || entry.isDirectory()) ? null : entry;
+
+    }
+
+}
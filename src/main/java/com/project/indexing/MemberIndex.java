@@ -0,0 +1,130 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.project.indexing;
+
+import com.project.custom_classes.IndexedMember;
+import com.project.utility.DatabaseUtility;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Looks up the methods, fields and constructors recorded by the indexers.
+ * Members are read from the database per class and the most recently used classes are kept in memory.
+ */
+public class MemberIndex {
+
+    /**
+     * The logger for the class.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(MemberIndex.class);
+
+    /**
+     * The number of classes whose members are kept in memory.
+     */
+    private static final int CACHE_SIZE = 64;
+
+    /**
+     * The members of recently used classes by qualified name, least recently used first. Guarded by the class lock.
+     */
+    private static final Map<String, List<IndexedMember>> cache = new LinkedHashMap<>(CACHE_SIZE, 0.75f, true) {
+
+        /**
+         * Drops the least recently used class once the cache is full.
+         *
+         * @param eldest The least recently used entry.
+         * @return true if it should be removed.
+         */
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<IndexedMember>> eldest) {
+
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    /**
+     * The version of the class index the cache belongs to. Guarded by the class lock.
+     */
+    private static int cacheVersion = -1;
+
+    /**
+     * Finds the members declared by a class. Inherited members, and those of JDKs other than the active one,
+     * are not included.
+     *
+     * @param owner The fully qualified name of the class, with '$' separating inner classes.
+     * @return The members.
+     */
+    public static List<IndexedMember> find(String owner) {
+
+        synchronized (MemberIndex.class) {
+
+            // Classes were added or removed since the cache was filled, their members may have changed too.
+            if (cacheVersion != ClassIndex.getVersion()) {
+                cache.clear();
+                cacheVersion = ClassIndex.getVersion();
+            }
+            List<IndexedMember> members = cache.get(owner);
+            if (members != null) {
+                return members;
+            }
+        }
+
+        List<IndexedMember> members = new ArrayList<>();
+        Connection conn = DatabaseUtility.connect();
+        ResultSet rs = DatabaseUtility.executeQuery(conn,
+                "SELECT name, kind, parameters, type, isStatic, path FROM MemberMetaData WHERE owner = ?", owner);
+        if (rs != null) {
+            try {
+                while (rs.next()) {
+                    String path = rs.getString("path");
+                    if (JdkPartitions.isVisible(path)) {
+                        members.add(new IndexedMember(owner, rs.getString("name"), rs.getString("kind"),
+                                rs.getString("parameters"), rs.getString("type"), rs.getInt("isStatic") != 0, path));
+                    }
+                }
+            } catch (SQLException e) {
+                logger.error(e.getMessage());
+            } finally {
+                try {
+                    rs.close();
+                } catch (SQLException e) {
+                    logger.error(e.getMessage());
+                }
+            }
+        }
+        DatabaseUtility.close(conn);
+
+        // The writer may not have flushed a new class's members yet, so don't remember that it has none.
+        members = Collections.unmodifiableList(members);
+        if (!members.isEmpty()) {
+            synchronized (MemberIndex.class) {
+                cache.put(owner, members);
+            }
+        }
+        return members;
+
+    }
+
+}
@@ -0,0 +1,405 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.project.indexing;
+
+import com.project.custom_classes.PathChange;
+import com.project.utility.IgnoreRules;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * An in-memory index of the files in the open project, used to open files by fuzzy name.
+ * Paths are stored relative to the project root with '/' separators.
+ */
+public class PathIndex {
+
+    /**
+     * The logger for the class.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(PathIndex.class);
+
+    /**
+     * The project root.
+     */
+    private static Path root;
+
+    /**
+     * The relative paths of the files. Guarded by the class lock.
+     */
+    private static final Set<String> paths = new LinkedHashSet<>();
+
+    /**
+     * The paths as searched, rebuilt after changes.
+     */
+    private static volatile Snapshot snapshot = new Snapshot(null, new String[0], new String[0], new long[0], new long[0]);
+
+    /**
+     * Whether the snapshot is out of date.
+     */
+    private static volatile boolean isDirty = false;
+
+    /**
+     * Replaces the contents of the index with the files of a project.
+     *
+     * @param projectRoot The project root.
+     * @param files The files in the project.
+     */
+    public static synchronized void build(Path projectRoot, Collection<Path> files) {
+
+        root = projectRoot;
+        paths.clear();
+        for (Path file : files) {
+            paths.add(relativize(file));
+        }
+        isDirty = true;
+
+    }
+
+    /**
+     * Adds a file to the index.
+     *
+     * @param file The Path to the file.
+     */
+    public static synchronized void add(Path file) {
+
+        if (root == null || !file.startsWith(root)) {
+            return;
+        }
+        if (paths.add(relativize(file))) {
+            isDirty = true;
+        }
+
+    }
+
+    /**
+     * Removes a file, or every file in a directory, from the index.
+     *
+     * @param path The Path to the file or directory.
+     */
+    public static synchronized void remove(Path path) {
+
+        if (root == null || !path.startsWith(root)) {
+            return;
+        }
+        String relative = relativize(path);
+        String directory = relative + "/";
+        if (paths.removeIf(p -> p.equals(relative) || p.startsWith(directory))) {
+            isDirty = true;
+        }
+
+    }
+
+    /**
+     * Applies a batch of changes reported by the ProjectWatcher.
+     *
+     * @param changes The changes.
+     */
+    public static void filesChanged(List<PathChange> changes) {
+
+        for (PathChange change : changes) {
+            switch (change.type()) {
+                case CREATED:
+                    addAll(change.path());
+                    break;
+                case DELETED:
+                    remove(change.path());
+                    break;
+                case RESCAN:
+                    remove(change.path());
+                    addAll(change.path());
+                    break;
+                default:
+                    break;
+            }
+        }
+
+    }
+
+    /**
+     * Replaces the contents of the index with the files of a project, walking it on the calling thread.
+     * Ignored files and directories are left out.
+     *
+     * @param projectRoot The project root.
+     */
+    public static void index(Path projectRoot) {
+
+        build(projectRoot, findFiles(projectRoot));
+    }
+
+    /**
+     * Adds a file, or the files in a directory, to the index.
+     *
+     * @param path The Path to the file or directory.
+     */
+    private static void addAll(Path path) {
+
+        boolean isDirectory = Files.isDirectory(path);
+        if (IgnoreRules.isIgnored(path, isDirectory)) {
+            return;
+        }
+        if (!isDirectory) {
+            add(path);
+            return;
+        }
+        for (Path file : findFiles(path)) {
+            add(file);
+        }
+
+    }
+
+    /**
+     * Finds the files in a directory that aren't ignored.
+     *
+     * @param directory The directory.
+     * @return The Paths to the files.
+     */
+    private static List<Path> findFiles(Path directory) {
+
+        List<Path> files = new ArrayList<>();
+        try {
+            Files.walkFileTree(directory, new SimpleFileVisitor<>() {
+
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+
+                    return (!dir.equals(directory) && IgnoreRules.isIgnoredEntry(dir, true))
+                            ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+
+                    if (attrs.isRegularFile() && !IgnoreRules.isIgnoredEntry(file, false)) {
+                        files.add(file);
+                    }
+                    return FileVisitResult.CONTINUE;
+
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+
+                    return FileVisitResult.CONTINUE;
+                }
+
+            });
+        } catch (IOException e) {
+            logger.error(e.getMessage());
+        }
+        return files;
+
+    }
+
+    /**
+     * Finds the files best matching a query. Letters of the query have to appear in order,
+     * matches in the file name and at the start of words rank higher.
+     *
+     * @param query The query.
+     * @param limit The maximum number of files to return.
+     * @return The files, best match first.
+     */
+    public static List<Path> search(String query, int limit) {
+
+        Snapshot s = currentSnapshot();
+        List<Path> result = new ArrayList<>();
+        String lowerQuery = query.strip().toLowerCase().replace('\\', '/');
+        if (s.root == null || lowerQuery.isEmpty()) {
+            return result;
+        }
+
+        // Keep the best matches in a min-heap of score and position.
+        PriorityQueue<long[]> best = new PriorityQueue<>(limit + 1, (a, b) -> Long.compare(a[0], b[0]));
+        long queryMask = mask(lowerQuery, 0);
+        for (int i = 0; i < s.paths.length; i++) {
+
+            // Most paths lack one of the letters, skip them without matching.
+            if ((s.pathMasks[i] & queryMask) != queryMask) {
+                continue;
+            }
+            int score = score(s.paths[i], s.lowerPaths[i], lowerQuery, (s.nameMasks[i] & queryMask) == queryMask);
+            if (score == Integer.MIN_VALUE) {
+                continue;
+            }
+            if (best.size() < limit) {
+                best.add(new long[]{score, i});
+            } else if (score > best.peek()[0]) {
+                best.poll();
+                best.add(new long[]{score, i});
+            }
+        }
+
+        while (!best.isEmpty()) {
+            result.add(0, s.root.resolve(s.paths[(int) best.poll()[1]]));
+        }
+        return result;
+
+    }
+
+    /**
+     * Retrieves the snapshot, rebuilding it if files were added or removed.
+     *
+     * @return The snapshot.
+     */
+    private static Snapshot currentSnapshot() {
+
+        if (isDirty) {
+            synchronized (PathIndex.class) {
+                if (isDirty) {
+                    String[] array = paths.toArray(new String[0]);
+                    String[] lower = new String[array.length];
+                    long[] pathMasks = new long[array.length];
+                    long[] nameMasks = new long[array.length];
+                    for (int i = 0; i < array.length; i++) {
+                        lower[i] = array[i].toLowerCase();
+                        pathMasks[i] = mask(lower[i], 0);
+                        nameMasks[i] = mask(lower[i], lower[i].lastIndexOf('/') + 1);
+                    }
+                    snapshot = new Snapshot(root, array, lower, pathMasks, nameMasks);
+                    isDirty = false;
+                }
+            }
+        }
+        return snapshot;
+
+    }
+
+    /**
+     * Scores how well a path matches a query.
+     * The query is first matched against the file name alone, then against the whole path.
+     *
+     * @param path The relative path.
+     * @param lowerPath The relative path in lower case.
+     * @param lowerQuery The query in lower case.
+     * @param inName Whether the file name has every letter of the query.
+     * @return The score, Integer.MIN_VALUE if it doesn't match.
+     */
+    static int score(String path, String lowerPath, String lowerQuery, boolean inName) {
+
+        int nameStart = lowerPath.lastIndexOf('/') + 1;
+        int score = inName ? match(path, lowerPath, lowerQuery, nameStart) : Integer.MIN_VALUE;
+        if (score != Integer.MIN_VALUE) {
+
+            // Matches within the file name beat matches spread over directories.
+            score += 1000;
+            if (lowerPath.startsWith(lowerQuery, nameStart)) {
+                score += 500;
+            }
+        } else if (lowerQuery.indexOf('/') != -1 || nameStart > 0) {
+            score = match(path, lowerPath, lowerQuery, 0);
+        }
+        if (score == Integer.MIN_VALUE) {
+            return score;
+        }
+
+        // Prefer shorter paths.
+        return score - lowerPath.length();
+
+    }
+
+    /**
+     * Matches the letters of a query in order, starting at a given index of a path.
+     *
+     * @param path The path.
+     * @param lowerPath The path in lower case.
+     * @param lowerQuery The query in lower case.
+     * @param from The index to start at.
+     * @return The score, Integer.MIN_VALUE if it doesn't match.
+     */
+    private static int match(String path, String lowerPath, String lowerQuery, int from) {
+
+        int score = 0;
+        int n = from;
+        int previous = from - 2;
+        for (int q = 0; q < lowerQuery.length(); q++) {
+            n = lowerPath.indexOf(lowerQuery.charAt(q), n);
+            if (n == -1) {
+                return Integer.MIN_VALUE;
+            }
+
+            // Reward letters next to each other and letters starting words.
+            score += (n == previous + 1) ? 30 : 10;
+            if (n == 0 || "/._-".indexOf(path.charAt(n - 1)) != -1 || Character.isUpperCase(path.charAt(n))) {
+                score += 20;
+            }
+            previous = n;
+            n++;
+        }
+        return score;
+
+    }
+
+    /**
+     * Creates a bit mask of the letters and digits in part of a String.
+     *
+     * @param lower The String, in lower case.
+     * @param from The index to start at.
+     * @return The mask, one bit per letter or digit, the last bit for anything else.
+     */
+    private static long mask(String lower, int from) {
+
+        long mask = 0;
+        for (int i = from; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if (c >= 'a' && c <= 'z') {
+                mask |= 1L << (c - 'a');
+            } else if (c >= '0' && c <= '9') {
+                mask |= 1L << (26 + c - '0');
+            } else {
+                mask |= 1L << 63;
+            }
+        }
+        return mask;
+
+    }
+
+    /**
+     * Creates the path of a file relative to the project root, with '/' separators.
+     *
+     * @param file The Path to the file.
+     * @return The relative path.
+     */
+    private static String relativize(Path file) {
+
+        return root.relativize(file).toString().replace('\\', '/');
+    }
+
+    /**
+     * An immutable copy of the index that searches run on.
+     *
+     * @param root The project root.
+     * @param paths The relative paths.
+     * @param lowerPaths The relative paths in lower case.
+     * @param pathMasks The letters in each path.
+     * @param nameMasks The letters in each file name.
+     */
+    private record Snapshot(Path root, String[] paths, String[] lowerPaths, long[] pathMasks, long[] nameMasks) {
+    }
+
+}
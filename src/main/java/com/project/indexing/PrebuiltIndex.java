@@ -0,0 +1,277 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.project.indexing;
+
+import com.project.utility.DatabaseUtility;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+/**
+ * Writes the index out as a portable directory and adopts such a directory in place of an empty index,
+ * so machines can start with an index built ahead of time.
+ * The directory holds a compacted copy of the database, the snapshot of the class index and a manifest.
+ * Paths under the directory the index was built from are moved to the directory the IDE runs from when adopted.
+ */
+public class PrebuiltIndex {
+
+    /**
+     * The logger for the class.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(PrebuiltIndex.class);
+
+    /**
+     * The environment variable naming the directory to adopt an index from.
+     */
+    public static final String ENVIRONMENT_VARIABLE = "FUSION_PREBUILT_INDEX";
+
+    /**
+     * The directory an index is adopted from if the environment variable isn't set.
+     */
+    private static final Path DEFAULT_DIRECTORY = Paths.get("files/prebuilt-index").toAbsolutePath();
+
+    /**
+     * The name of the copy of the database.
+     */
+    private static final String DATABASE = "fusion.db";
+
+    /**
+     * The name of the manifest.
+     */
+    private static final String MANIFEST = "index.properties";
+
+    /**
+     * The columns holding paths, which are moved when the index is adopted from another directory.
+     */
+    private static final String[][] PATH_COLUMNS = {
+            {"ClassMetaData", "path"}, {"MemberMetaData", "path"}, {"Javadoc", "path"}, {"Reference", "path"},
+            {"ReferenceScope", "path"}, {"IndexedFile", "path"}, {"IndexCheckpoint", "source"}
+    };
+
+    /**
+     * Writes the index to a directory, after every queued write is committed.
+     * The directory is created if needed, an index already in it is replaced.
+     *
+     * @param directory The directory.
+     * @param jdkHome The JDK that was indexed, recorded in the manifest.
+     * @param project The project that was indexed, null if none was.
+     * @return Whether the index was written.
+     */
+    public static boolean export(Path directory, Path jdkHome, Path project) {
+
+        return export(directory, jdkHome, project, getBase());
+    }
+
+    /**
+     * Writes the index to a directory, recording the directory its paths are under.
+     *
+     * @param directory The directory.
+     * @param jdkHome The JDK that was indexed, recorded in the manifest.
+     * @param project The project that was indexed, null if none was.
+     * @param base The directory the index's own paths are under.
+     * @return Whether the index was written.
+     */
+    static boolean export(Path directory, Path jdkHome, Path project, String base) {
+
+        IndexWriter.flush();
+        ClassIndex.saveSnapshot();
+        try {
+            Files.createDirectories(directory);
+            Path database = directory.resolve(DATABASE);
+            Files.deleteIfExists(database);
+            if (!DatabaseUtility.copyTo(database)) {
+                return false;
+            }
+
+            // The snapshot is only valid for the exact state of the database it was written from.
+            try (Stream<Path> old = Files.list(directory)) {
+                for (Path file : old.filter(PrebuiltIndex::isSnapshot).toList()) {
+                    Files.delete(file);
+                }
+            }
+            IndexSnapshot.State state = IndexSnapshot.readDatabaseState();
+            if (state != null && Files.exists(IndexSnapshot.getFile(state))) {
+                Files.copy(IndexSnapshot.getFile(state), directory.resolve(IndexSnapshot.getFile(state).getFileName()),
+                        StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            Properties manifest = new Properties();
+            manifest.setProperty("schema", Integer.toString(DatabaseUtility.SCHEMA_VERSION));
+            manifest.setProperty("base", base);
+            manifest.setProperty("jdk", jdkHome.toAbsolutePath().toString());
+            if (project != null) {
+                manifest.setProperty("project", project.toAbsolutePath().toString());
+            }
+            manifest.setProperty("created", Long.toString(System.currentTimeMillis()));
+            try (OutputStream out = Files.newOutputStream(directory.resolve(MANIFEST))) {
+                manifest.store(out, "Fusion IDE prebuilt index");
+            }
+            logger.info("Wrote index to {}", directory);
+            return true;
+        } catch (IOException | UncheckedIOException e) {
+            logger.error(e.getMessage());
+            return false;
+        }
+
+    }
+
+    /**
+     * Adopts a prebuilt index if there is no database yet and one is available, from the directory named by
+     * the environment variable or the default directory. Must run before the database is first used.
+     *
+     * @return Whether an index was adopted.
+     */
+    public static boolean adopt() {
+
+        String configured = System.getenv(ENVIRONMENT_VARIABLE);
+        Path directory = (configured == null || configured.isBlank()) ? DEFAULT_DIRECTORY : Paths.get(configured);
+        return adopt(directory, getBase());
+    }
+
+    /**
+     * Adopts the prebuilt index in a directory if there is no database yet.
+     *
+     * @param directory The directory.
+     * @param base The directory the adopted index's paths are moved under.
+     * @return Whether an index was adopted.
+     */
+    static boolean adopt(Path directory, String base) {
+
+        Path database = directory.resolve(DATABASE);
+        if (Files.exists(DatabaseUtility.DATABASE_FILE) || !Files.isRegularFile(database)
+                || !Files.isRegularFile(directory.resolve(MANIFEST))) {
+            return false;
+        }
+
+        try {
+            Properties manifest = new Properties();
+            try (InputStream in = Files.newInputStream(directory.resolve(MANIFEST))) {
+                manifest.load(in);
+            }
+
+            // Older schemas are migrated, newer ones are unknown.
+            int schema = Integer.parseInt(manifest.getProperty("schema", "0"));
+            if (schema > DatabaseUtility.SCHEMA_VERSION) {
+                logger.info("Ignoring prebuilt index with newer schema {}", schema);
+                return false;
+            }
+            Files.copy(database, DatabaseUtility.DATABASE_FILE);
+
+            // The snapshot holds the old paths, a moved index gets a new snapshot when it is first loaded.
+            String from = manifest.getProperty("base", "");
+            if (from.equals(base)) {
+                Files.createDirectories(IndexSnapshot.DIRECTORY);
+                try (Stream<Path> files = Files.list(directory)) {
+                    for (Path file : files.filter(PrebuiltIndex::isSnapshot).toList()) {
+                        Files.copy(file, IndexSnapshot.DIRECTORY.resolve(file.getFileName()),
+                                StandardCopyOption.REPLACE_EXISTING);
+                    }
+                }
+            } else if (!from.isEmpty() && !rebase(from, base)) {
+
+                // Paths left under the other directory would point nowhere, start from an empty index instead.
+                logger.error("Couldn't move prebuilt index from {} to {}", from, base);
+                discard();
+                return false;
+            }
+            logger.info("Adopted prebuilt index from {}", directory);
+            return true;
+        } catch (IOException | UncheckedIOException | NumberFormatException e) {
+            logger.error(e.getMessage());
+            return false;
+        }
+
+    }
+
+    /**
+     * Moves every path under one directory to another in one transaction, and bumps the generation.
+     *
+     * @param from The directory the paths are under.
+     * @param to The directory they move to.
+     * @return Whether the paths were moved.
+     */
+    private static boolean rebase(String from, String to) {
+
+        // Every path under the directory sorts between it and the directory with its separator bumped.
+        String prefix = from + File.separator;
+        String end = from + (char) (File.separatorChar + 1);
+        List<String> queries = new ArrayList<>();
+        List<Object[]> params = new ArrayList<>();
+        for (String[] column : PATH_COLUMNS) {
+            queries.add("UPDATE " + column[0] + " SET " + column[1] + " = ? || substr(" + column[1] + ", ?) " +
+                    "WHERE " + column[1] + " >= ? AND " + column[1] + " < ?");
+            params.add(new Object[]{to, from.length() + 1, prefix, end});
+        }
+        queries.add("UPDATE IndexState SET value = value + 1 WHERE key = 'generation'");
+        params.add(new Object[0]);
+        int[] counts = DatabaseUtility.executeBatch(queries, params);
+
+        // The generation always has a row.
+        return counts != null && counts[counts.length - 1] == 1;
+
+    }
+
+    /**
+     * Closes the database and deletes it, along with its write-ahead log.
+     *
+     * @throws IOException If a file can't be deleted.
+     */
+    private static void discard() throws IOException {
+
+        DatabaseUtility.closeAll();
+        Path database = DatabaseUtility.DATABASE_FILE;
+        Files.deleteIfExists(database);
+        Files.deleteIfExists(database.resolveSibling(database.getFileName() + "-wal"));
+        Files.deleteIfExists(database.resolveSibling(database.getFileName() + "-shm"));
+
+    }
+
+    /**
+     * Retrieves the directory the IDE runs from, which the index's own paths are under.
+     *
+     * @return The absolute path to the directory.
+     */
+    private static String getBase() {
+
+        return Paths.get("").toAbsolutePath().toString();
+    }
+
+    /**
+     * Checks whether a file is a class index snapshot.
+     *
+     * @param file The Path to the file.
+     * @return true if it is.
+     */
+    private static boolean isSnapshot(Path file) {
+
+        return file.getFileName().toString().endsWith(".snap");
+    }
+
+}
@@ -0,0 +1,299 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.project.indexing;
+
+import com.project.custom_classes.FileFingerprint;
+import com.project.custom_classes.PathChange;
+import com.project.utility.IgnoreRules;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps the class and reference indexes up to date with the source files of the open project.
+ * The sources are checked once when the project opens, after that only files reported by the
+ * ProjectWatcher are looked at, and only those whose fingerprint changed are indexed again.
+ */
+public class ProjectIndexer {
+
+    /**
+     * The logger for the class.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(ProjectIndexer.class);
+
+    /**
+     * The thread updates run on, one at a time.
+     */
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "project-indexer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * The source directory of the open project.
+     */
+    private static volatile Path sourceRoot;
+
+    /**
+     * The fingerprints of the indexed source files, by absolute path.
+     */
+    private static final Map<String, FileFingerprint> fingerprints = new ConcurrentHashMap<>();
+
+    /**
+     * Starts keeping the index up to date with a project's sources.
+     * Files changed since the project was last open are indexed again, and deleted ones removed.
+     *
+     * @param root The source directory of the project.
+     */
+    public static void open(Path root) {
+
+        sourceRoot = root.toAbsolutePath();
+        executor.execute(() -> {
+            fingerprints.clear();
+            String prefix = sourceRoot.toString();
+            FileFingerprints.load().forEach((path, fingerprint) -> {
+                if (path.startsWith(prefix) && path.endsWith(".java")) {
+                    fingerprints.put(path, fingerprint);
+                }
+            });
+
+            Set<String> seen = new HashSet<>();
+            for (Path file : findSources(sourceRoot)) {
+                seen.add(file.toString());
+                update(file);
+            }
+            for (String path : new ArrayList<>(fingerprints.keySet())) {
+                if (!seen.contains(path)) {
+                    remove(path);
+                }
+            }
+            logger.info("Checked {} source files in {}", seen.size(), sourceRoot);
+        });
+
+    }
+
+    /**
+     * Applies a batch of changes reported by the ProjectWatcher.
+     *
+     * @param changes The changes.
+     */
+    public static void filesChanged(List<PathChange> changes) {
+
+        for (PathChange change : changes) {
+            switch (change.type()) {
+                case CREATED:
+                    fileChanged(change.path());
+                    break;
+                case MODIFIED:
+
+                    // Directories are reported modified when their contents change, those files come on their own.
+                    if (change.path().toString().endsWith(".java")) {
+                        fileChanged(change.path());
+                    }
+                    break;
+                case DELETED:
+                    fileDeleted(change.path());
+                    break;
+                case RESCAN:
+                    fileDeleted(change.path());
+                    fileChanged(change.path());
+                    break;
+                default:
+                    break;
+            }
+        }
+
+    }
+
+    /**
+     * Indexes a created or modified file, or the files in a created directory, if they are project sources.
+     *
+     * @param path The Path to the file or directory.
+     */
+    public static void fileChanged(Path path) {
+
+        Path absolute = path.toAbsolutePath();
+        if (!isSource(absolute)) {
+            return;
+        }
+        executor.execute(() -> {
+            boolean isDirectory = Files.isDirectory(absolute);
+            if (IgnoreRules.isIgnored(absolute, isDirectory)) {
+                return;
+            }
+            if (isDirectory) {
+                findSources(absolute).forEach(ProjectIndexer::update);
+            } else if (absolute.toString().endsWith(".java")) {
+                update(absolute);
+            }
+        });
+
+    }
+
+    /**
+     * Removes a deleted file, or the files in a deleted directory, from the index.
+     *
+     * @param path The Path to the file or directory.
+     */
+    public static void fileDeleted(Path path) {
+
+        Path absolute = path.toAbsolutePath();
+        if (!isSource(absolute)) {
+            return;
+        }
+        executor.execute(() -> {
+            for (String indexed : new ArrayList<>(fingerprints.keySet())) {
+                if (Path.of(indexed).startsWith(absolute) && !Files.exists(Path.of(indexed))) {
+                    remove(indexed);
+                }
+            }
+        });
+
+    }
+
+    /**
+     * Waits until every update started so far is queued for the database.
+     */
+    public static void awaitUpdates() {
+
+        try {
+            executor.submit(() -> {}).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            logger.error(e.getMessage());
+        }
+
+    }
+
+    /**
+     * Indexes a source file again if it changed.
+     * Its old classes and uses are removed first, so classes moved to another file or deleted don't linger.
+     *
+     * @param file The absolute Path to the file.
+     */
+    private static void update(Path file) {
+
+        String path = file.toString();
+        try {
+            FileFingerprint fingerprint = FileFingerprints.check(file, fingerprints.get(path));
+            if (fingerprint == null) {
+                return;
+            }
+            String source = Files.readString(file, StandardCharsets.UTF_8);
+            IndexWriter.removePath(path);
+            SourceIndexer.index(source, path);
+            ReferenceIndex.index(source, path);
+            IndexWriter.recordFile(path, fingerprint);
+            fingerprints.put(path, fingerprint);
+        } catch (IOException e) {
+            logger.error(e.getMessage());
+        }
+
+    }
+
+    /**
+     * Removes a source file from the index.
+     *
+     * @param path The absolute path to the file.
+     */
+    private static void remove(String path) {
+
+        fingerprints.remove(path);
+        IndexWriter.removeFile(path);
+
+    }
+
+    /**
+     * Checks whether a path is in the source directory of the open project.
+     *
+     * @param path The absolute Path.
+     * @return true if it is.
+     */
+    private static boolean isSource(Path path) {
+
+        Path root = sourceRoot;
+        return root != null && path.startsWith(root);
+    }
+
+    /**
+     * Finds the Java files in a directory.
+     *
+     * @param directory The directory.
+     * @return The absolute Paths to the files.
+     */
+    private static List<Path> findSources(Path directory) {
+
+        List<Path> sources = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return sources;
+        }
+        try {
+            Files.walkFileTree(directory, new SimpleFileVisitor<>() {
+
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+
+                    return (!dir.equals(directory) && IgnoreRules.isIgnoredEntry(dir, true))
+                            ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+
+                    if (file.toString().endsWith(".java") && attrs.isRegularFile()
+                            && !IgnoreRules.isIgnoredEntry(file, false)) {
+                        sources.add(file.toAbsolutePath());
+                    }
+                    return FileVisitResult.CONTINUE;
+
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+
+                    logger.error(e.getMessage());
+                    return FileVisitResult.CONTINUE;
+
+                }
+
+            });
+        } catch (IOException e) {
+            logger.error(e.getMessage());
+        }
+        return sources;
+
+    }
+
+}
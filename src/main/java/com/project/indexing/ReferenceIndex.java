@@ -0,0 +1,195 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.project.indexing;
+
+import com.project.custom_classes.IndexedClass;
+import com.project.custom_classes.IndexedMember;
+import com.project.custom_classes.IndexedReference;
+import com.project.utility.DatabaseUtility;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records where names are used in the project's sources and finds the uses of classes and members.
+ * Uses are matched by name, so they work without the language server but may include uses of other symbols
+ * with the same name. Uses of a class are narrowed down to the files that can see it by its simple name,
+ * uses of a member are only ranked by it, as members are also reached through variables and calls.
+ */
+public class ReferenceIndex {
+
+    /**
+     * The logger for the class.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceIndex.class);
+
+    /**
+     * A reference scanner per thread, reused from file to file.
+     */
+    private static final ThreadLocal<ReferenceScanner> scanners = ThreadLocal.withInitial(ReferenceScanner::new);
+
+    /**
+     * Queues the uses of names in a project source file, and what the file can see, for the index.
+     * The file's old uses have to be removed first.
+     *
+     * @param source The source code.
+     * @param path The absolute path the uses are recorded under.
+     */
+    public static void index(String source, String path) {
+
+        ReferenceScanner scanner = scanners.get();
+        for (IndexedReference reference : scanner.scan(source, path)) {
+            IndexWriter.addReference(reference);
+        }
+        for (String scope : scanner.getScopes()) {
+            IndexWriter.addScope(path, scope);
+        }
+
+    }
+
+    /**
+     * Finds the uses of a class.
+     *
+     * @param type The class.
+     * @param limit The maximum number of uses to return.
+     * @return The uses, by file and position.
+     */
+    public static List<IndexedReference> findUsages(IndexedClass type, int limit) {
+
+        return find(type, type.className(), null, true, limit);
+    }
+
+    /**
+     * Finds the uses of a member of a class. Methods are told apart from fields by the parenthesis after their name.
+     *
+     * @param owner The class declaring the member.
+     * @param name The name of the member.
+     * @param limit The maximum number of uses to return.
+     * @return The uses, in the files that can see the class first, then by file and position.
+     */
+    public static List<IndexedReference> findUsages(IndexedClass owner, String name, int limit) {
+
+        // Private members aren't indexed, nor are fields and methods sharing a name told apart.
+        boolean hasMethod = false;
+        boolean hasField = false;
+        for (IndexedMember member : MemberIndex.find(owner.qualifiedName())) {
+            if (member.name().equals(name)) {
+                hasMethod |= member.kind().equals("Method");
+                hasField |= member.kind().equals("Field");
+            }
+        }
+        Boolean isCall = (hasMethod == hasField) ? null : hasMethod;
+        return find(owner, name, isCall, false, limit);
+
+    }
+
+    /**
+     * Finds the uses of a name, in the files that can see a class first.
+     *
+     * @param type The class.
+     * @param name The name.
+     * @param isCall Whether the uses are calls, null for either.
+     * @param isType Whether the name is the class itself, whose uses are only in the files that can see it.
+     * @param limit The maximum number of uses to return.
+     * @return The uses, by visibility of the class, file and position.
+     */
+    private static List<IndexedReference> find(IndexedClass type, String name, Boolean isCall, boolean isType,
+                                               int limit) {
+
+        StringBuilder sql = new StringBuilder("SELECT name, path, line, character, isCall FROM Reference WHERE name = ?");
+        List<Object> params = new ArrayList<>();
+        params.add(name);
+        if (isCall != null) {
+            sql.append(" AND isCall = ?");
+            params.add(isCall ? 1 : 0);
+        }
+
+        // Classes in java.lang and the unnamed package are visible without imports.
+        String packageName = type.packageName();
+        if (!packageName.isEmpty() && !packageName.equals("java.lang")) {
+            List<String> scopes = scopes(type);
+            String visible = "path IN (SELECT path FROM ReferenceScope WHERE scope IN ("
+                    + "?, ".repeat(scopes.size() - 1) + "?))";
+            if (isType) {
+                sql.append(" AND ").append(visible).append(" ORDER BY ");
+            } else {
+
+                // A member used through a variable or a call's result needs no import of its class.
+                sql.append(" ORDER BY CASE WHEN ").append(visible).append(" THEN 0 ELSE 1 END, ");
+            }
+            params.addAll(scopes);
+        } else {
+            sql.append(" ORDER BY ");
+        }
+        sql.append("path, line, character LIMIT ?");
+        params.add(limit);
+
+        List<IndexedReference> references = new ArrayList<>();
+        Connection conn = DatabaseUtility.connect();
+        ResultSet rs = DatabaseUtility.executeQuery(conn, sql.toString(), params.toArray());
+        if (rs != null) {
+            try {
+                while (rs.next()) {
+                    references.add(new IndexedReference(rs.getString("name"), rs.getString("path"), rs.getInt("line"),
+                            rs.getInt("character"), rs.getInt("isCall") == 1));
+                }
+            } catch (SQLException e) {
+                logger.error(e.getMessage());
+            } finally {
+                try {
+                    rs.close();
+                } catch (SQLException e) {
+                    logger.error(e.getMessage());
+                }
+            }
+        }
+        DatabaseUtility.close(conn);
+        return references;
+
+    }
+
+    /**
+     * Lists the scopes a file needs one of to see a class by its simple name: its package, the class itself,
+     * and for an inner class, its outer class.
+     *
+     * @param type The class.
+     * @return The scopes.
+     */
+    private static List<String> scopes(IndexedClass type) {
+
+        List<String> scopes = new ArrayList<>();
+        String qualifiedName = type.qualifiedName();
+        scopes.add(type.packageName() + ".*");
+        int inner = qualifiedName.indexOf('$');
+        if (inner == -1) {
+            scopes.add(qualifiedName);
+        } else {
+            String outer = qualifiedName.substring(0, qualifiedName.lastIndexOf('$')).replace('$', '.');
+            scopes.add(qualifiedName.replace('$', '.'));
+            scopes.add(outer + ".*");
+            scopes.add(outer);
+        }
+        return scopes;
+
+    }
+
+}
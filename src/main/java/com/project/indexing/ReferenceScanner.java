@@ -0,0 +1,373 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.project.indexing;
+
+import com.project.custom_classes.IndexedReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Finds where names are used in Java source code without parsing it, and which classes the code can see
+ * by their simple names.
+ * Every identifier outside comments, literals, package and import statements is a use, except keywords and
+ * the names in type declarations. Names are not resolved, a use is only as precise as its name.
+ * Not thread-safe, use one instance per thread.
+ */
+public class ReferenceScanner {
+
+    /**
+     * The words that are never names.
+     */
+    private static final Set<String> KEYWORDS = Set.of("abstract", "assert", "boolean", "break", "byte", "case",
+            "catch", "char", "class", "const", "continue", "default", "do", "double", "else", "enum", "extends",
+            "final", "finally", "float", "for", "goto", "if", "implements", "import", "instanceof", "int",
+            "interface", "long", "native", "new", "package", "private", "protected", "public", "return", "short",
+            "static", "strictfp", "super", "switch", "synchronized", "this", "throw", "throws", "transient", "try",
+            "void", "volatile", "while", "true", "false", "null", "var", "yield", "sealed", "permits");
+
+    /**
+     * The source code.
+     */
+    private char[] source = new char[0];
+
+    /**
+     * The length of the source code in the array.
+     */
+    private int length;
+
+    /**
+     * The index of the next character to read.
+     */
+    private int position;
+
+    /**
+     * Where the current token starts.
+     */
+    private int tokenStart;
+
+    /**
+     * Whether the current token is an identifier.
+     */
+    private boolean isIdentifier;
+
+    /**
+     * The line the last counted character is on (Zero based).
+     */
+    private int line;
+
+    /**
+     * Where that line starts.
+     */
+    private int lineStart;
+
+    /**
+     * The index up to which lines were counted.
+     */
+    private int counted;
+
+    /**
+     * The scopes found by the last scan.
+     */
+    private List<String> scopes = new ArrayList<>();
+
+    /**
+     * Scans source code for the names it uses.
+     *
+     * @param code The source code.
+     * @param path The path the uses are recorded under.
+     * @return The uses, in the order they appear.
+     */
+    public List<IndexedReference> scan(String code, String path) {
+
+        load(code);
+        List<IndexedReference> references = new ArrayList<>();
+        boolean afterDot = false;
+        boolean isDeclaration = false;
+        next();
+        while (tokenStart < length) {
+            if (!isIdentifier) {
+                afterDot = source[tokenStart] == '.';
+                next();
+                continue;
+            }
+            String word = new String(source, tokenStart, position - tokenStart);
+            if (!afterDot && (word.equals("package") || word.equals("import"))) {
+                readScope(word.equals("package"));
+                continue;
+            }
+
+            // The name after a type declaration keyword is declared there, not used.
+            if (isDeclaration) {
+                isDeclaration = false;
+            } else if (KEYWORDS.contains(word) || (word.equals("record") && isIdentifierNext())) {
+                isDeclaration = !afterDot && (word.equals("class") || word.equals("interface")
+                        || word.equals("enum") || word.equals("record"));
+            } else {
+                countLines(tokenStart);
+                references.add(new IndexedReference(word, path, line, tokenStart - lineStart, isCallNext()));
+            }
+            afterDot = false;
+            next();
+        }
+        return references;
+
+    }
+
+    /**
+     * Finds the name of the first type declared in source code, skipping comments and literals.
+     *
+     * @param code The source code.
+     * @return The simple name, null if the code declares no type.
+     */
+    public String findFirstDeclaration(String code) {
+
+        load(code);
+        boolean afterDot = false;
+        next();
+        while (tokenStart < length) {
+            if (isIdentifier && !afterDot) {
+                String word = new String(source, tokenStart, position - tokenStart);
+                if (word.equals("class") || word.equals("interface") || word.equals("enum")
+                        || (word.equals("record") && isIdentifierNext())) {
+                    next();
+                    return isIdentifier ? new String(source, tokenStart, position - tokenStart) : null;
+                }
+            }
+            afterDot = !isIdentifier && source[tokenStart] == '.';
+            next();
+        }
+        return null;
+
+    }
+
+    /**
+     * Retrieves what the code scanned last can see without qualifying it: "pkg.*" for its own package and every
+     * package it imports on demand, the qualified name of every class it imports or imports members from.
+     *
+     * @return The scopes.
+     */
+    public List<String> getScopes() {
+
+        return scopes;
+    }
+
+    /**
+     * Copies source code into the array and starts reading it from the beginning.
+     *
+     * @param code The source code.
+     */
+    private void load(String code) {
+
+        // Reuse the array between files.
+        length = code.length();
+        if (source.length < length) {
+            source = new char[Math.max(length, source.length * 2)];
+        }
+        code.getChars(0, length, source, 0);
+        position = 0;
+        line = 0;
+        lineStart = 0;
+        counted = 0;
+        scopes = new ArrayList<>();
+
+    }
+
+    /**
+     * Reads a package or import statement into a scope. The current token is the keyword.
+     *
+     * @param isPackage Whether it is a package statement.
+     */
+    private void readScope(boolean isPackage) {
+
+        next();
+        boolean isStatic = false;
+        if (isIdentifier && position - tokenStart == 6 && new String(source, tokenStart, 6).equals("static")) {
+            isStatic = true;
+            next();
+        }
+        StringBuilder name = new StringBuilder();
+        while (tokenStart < length && (isIdentifier || source[tokenStart] == '.' || source[tokenStart] == '*')) {
+            name.append(source, tokenStart, position - tokenStart);
+            next();
+        }
+        String scope = name.toString();
+        if (isPackage) {
+            scope = scope + ".*";
+        } else if (isStatic && scope.lastIndexOf('.') != -1) {
+
+            // Static imports make the class's members visible, which is what member uses are filtered by.
+            scope = scope.substring(0, scope.lastIndexOf('.'));
+        }
+        if (!scope.isEmpty() && !scope.equals(".*")) {
+            scopes.add(scope);
+        }
+
+    }
+
+    /**
+     * Counts the lines up to an index.
+     *
+     * @param index The index.
+     */
+    private void countLines(int index) {
+
+        for (; counted < index; counted++) {
+            if (source[counted] == '\n') {
+                line++;
+                lineStart = counted + 1;
+            }
+        }
+
+    }
+
+    /**
+     * Checks whether the current identifier is followed by an opening parenthesis.
+     *
+     * @return true if it is.
+     */
+    private boolean isCallNext() {
+
+        int i = skipWhitespace(position);
+        return i < length && source[i] == '(';
+    }
+
+    /**
+     * Checks whether the current token is followed by an identifier.
+     *
+     * @return true if it is.
+     */
+    private boolean isIdentifierNext() {
+
+        int i = skipWhitespace(position);
+        return i < length && Character.isJavaIdentifierStart(source[i]);
+    }
+
+    /**
+     * Skips whitespace.
+     *
+     * @param from The index to start at.
+     * @return The index of the first character that isn't whitespace.
+     */
+    private int skipWhitespace(int from) {
+
+        int i = from;
+        while (i < length && Character.isWhitespace(source[i])) {
+            i++;
+        }
+        return i;
+
+    }
+
+    /**
+     * Reads the next identifier or symbol, skipping whitespace, comments, numbers and literals.
+     * At the end of the code, the token starts at its length.
+     */
+    private void next() {
+
+        while (position < length) {
+            char c = source[position];
+            if (Character.isWhitespace(c)) {
+                position++;
+            } else if (c == '/' && position + 1 < length && source[position + 1] == '/') {
+                while (position < length && source[position] != '\n') {
+                    position++;
+                }
+            } else if (c == '/' && position + 1 < length && source[position + 1] == '*') {
+                int end = indexOf("*/", position + 2);
+                position = (end == -1) ? length : end + 2;
+            } else if (c == '"' || c == '\'') {
+                skipLiteral(c);
+            } else if (Character.isDigit(c)) {
+                position++;
+                while (position < length && (Character.isJavaIdentifierPart(source[position]) || source[position] == '.')) {
+                    position++;
+                }
+            } else {
+                break;
+            }
+        }
+
+        tokenStart = position;
+        if (position >= length) {
+            isIdentifier = false;
+            return;
+        }
+        isIdentifier = Character.isJavaIdentifierStart(source[position]);
+        position++;
+        if (isIdentifier) {
+            while (position < length && Character.isJavaIdentifierPart(source[position])) {
+                position++;
+            }
+        }
+
+    }
+
+    /**
+     * Skips a String, text block or char literal. The position is at the opening quote.
+     *
+     * @param quote The quote character.
+     */
+    private void skipLiteral(char quote) {
+
+        boolean isTextBlock = quote == '"' && position + 2 < length
+                && source[position + 1] == '"' && source[position + 2] == '"';
+        position += isTextBlock ? 3 : 1;
+        while (position < length) {
+            char c = source[position];
+            if (c == '\\') {
+                position += 2;
+            } else if (isTextBlock && c == '"' && position + 2 < length
+                    && source[position + 1] == '"' && source[position + 2] == '"') {
+                position += 3;
+                return;
+            } else if (!isTextBlock && (c == quote || c == '\n')) {
+
+                // An unterminated literal ends with its line.
+                position++;
+                return;
+            } else {
+                position++;
+            }
+        }
+
+    }
+
+    /**
+     * Finds a String in the source code.
+     *
+     * @param target The String.
+     * @param from Where to start looking.
+     * @return The index where it starts, -1 if it isn't there.
+     */
+    private int indexOf(String target, int from) {
+
+        outer:
+        for (int i = from; i <= length - target.length(); i++) {
+            for (int j = 0; j < target.length(); j++) {
+                if (source[i + j] != target.charAt(j)) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+
+    }
+
+}
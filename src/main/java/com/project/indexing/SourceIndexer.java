@@ -0,0 +1,267 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.project.indexing;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.AnnotationDeclaration;
+import com.github.javaparser.ast.body.AnnotationMemberDeclaration;
+import com.github.javaparser.ast.body.BodyDeclaration;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.ConstructorDeclaration;
+import com.github.javaparser.ast.body.EnumConstantDeclaration;
+import com.github.javaparser.ast.body.EnumDeclaration;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.Parameter;
+import com.github.javaparser.ast.body.RecordDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.body.VariableDeclarator;
+import com.github.javaparser.ast.nodeTypes.NodeWithJavadoc;
+import com.github.javaparser.ast.nodeTypes.NodeWithName;
+import com.project.custom_classes.IndexedClass;
+import com.project.custom_classes.IndexedDoc;
+import com.project.custom_classes.IndexedMember;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Finds the classes declared in Java source files, and their members, and queues them for the index.
+ * Safe to use from several threads at once, each thread gets its own parser.
+ */
+public class SourceIndexer {
+
+    /**
+     * The configuration every parser shares. Comments are only attributed to declarations when tokens are kept,
+     * which the Javadoc summaries need. Parsing is rare anyway, most files are scanned.
+     * Like the javadoc tool, a blank line doesn't separate a comment from its declaration.
+     */
+    private static final ParserConfiguration configuration = new ParserConfiguration()
+            .setLanguageLevel(ParserConfiguration.LanguageLevel.JAVA_21)
+            .setDoNotAssignCommentsPrecedingEmptyLines(false);
+
+    /**
+     * A parser per thread, reused from file to file.
+     */
+    private static final ThreadLocal<JavaParser> parsers = ThreadLocal.withInitial(() -> new JavaParser(configuration));
+
+    /**
+     * A declaration scanner per thread, reused from file to file.
+     */
+    private static final ThreadLocal<DeclarationScanner> scanners = ThreadLocal.withInitial(DeclarationScanner::new);
+
+    /**
+     * Indexes the classes in a Java source file.
+     *
+     * @param path The path to the file.
+     * @throws IOException If the file can't be read.
+     */
+    public static void indexFile(Path path) throws IOException {
+
+        // Check if the file is a java file.
+        if (path.toString().endsWith(".java")) {
+            index(Files.readString(path), path.toAbsolutePath().toString());
+        }
+
+    }
+
+    /**
+     * Indexes the classes, members and Javadoc summaries in Java source code.
+     * The declarations are scanned for, the code is only parsed if the scanner can't make sense of it.
+     *
+     * @param source The source code.
+     * @param path The absolute path the classes are recorded under.
+     */
+    public static void index(String source, String path) {
+
+        DeclarationScanner scanner = scanners.get();
+        List<IndexedClass> classes = scanner.scan(source, path);
+        List<IndexedMember> members = scanner.getMembers();
+        List<IndexedDoc> docs = scanner.getDocs();
+        if (classes == null) {
+            members = new ArrayList<>();
+            docs = new ArrayList<>();
+            classes = parse(source, path, members, docs);
+        }
+        for (IndexedClass indexedClass : classes) {
+            IndexWriter.addClass(indexedClass.packageName(), indexedClass.className(), indexedClass.qualifiedName(), path);
+        }
+        for (IndexedMember member : members) {
+            IndexWriter.addMember(member);
+        }
+        for (IndexedDoc doc : docs) {
+            IndexWriter.addDoc(doc);
+        }
+
+    }
+
+    /**
+     * Finds the classes and members in Java source code by parsing it.
+     *
+     * @param source The source code.
+     * @param path The absolute path the classes are recorded under.
+     * @param members Where to add the non-private members of the classes.
+     * @param docs Where to add the Javadoc summaries of the classes and members.
+     * @return The classes, empty if the code can't be parsed.
+     */
+    static List<IndexedClass> parse(String source, String path, List<IndexedMember> members, List<IndexedDoc> docs) {
+
+        List<IndexedClass> classes = new ArrayList<>();
+        CompilationUnit cu = parsers.get().parse(source).getResult().orElse(null);
+        if (cu != null) {
+            String packageName = cu.getPackageDeclaration().map(NodeWithName::getNameAsString).orElse("");
+            for (TypeDeclaration<?> type : cu.getTypes()) {
+                String className = type.getNameAsString();
+                String qualifiedName = (packageName.isEmpty()) ? className : packageName + "." + className;
+                classes.add(new IndexedClass(className, packageName, qualifiedName, path));
+                addDoc(type, qualifiedName, className, "Class", "", path, docs);
+                addMembers(type, qualifiedName, path, members, docs);
+
+                // Add inner classes if there are any.
+                addInnerClasses(packageName, type, className, path, classes, members, docs);
+            }
+        }
+        return classes;
+
+    }
+
+    /**
+     * Adds the non-private members of a class, in the form the DeclarationScanner reports them.
+     *
+     * @param type The class.
+     * @param owner The qualified name of the class, with '$' before inner class names.
+     * @param path The absolute path the members are recorded under.
+     * @param members Where to add the members.
+     * @param docs Where to add the Javadoc summaries of the members.
+     */
+    private static void addMembers(TypeDeclaration<?> type, String owner, String path, List<IndexedMember> members,
+                                   List<IndexedDoc> docs) {
+
+        String simpleName = type.getNameAsString();
+        boolean isInterface = type instanceof AnnotationDeclaration
+                || (type instanceof ClassOrInterfaceDeclaration declaration && declaration.isInterface());
+        if (type instanceof RecordDeclaration record) {
+            for (Parameter component : record.getParameters()) {
+                members.add(new IndexedMember(owner, component.getNameAsString(), "Method", "",
+                        component.getType().asString() + (component.isVarArgs() ? "[]" : ""), false, path));
+            }
+            members.add(new IndexedMember(owner, simpleName, "Constructor", parameters(record.getParameters()), "",
+                    false, path));
+        }
+        if (type instanceof EnumDeclaration enumDeclaration) {
+            for (EnumConstantDeclaration constant : enumDeclaration.getEntries()) {
+                members.add(new IndexedMember(owner, constant.getNameAsString(), "Field", "", simpleName, true, path));
+                addDoc(constant, owner, constant.getNameAsString(), "Field", "", path, docs);
+            }
+        }
+
+        for (BodyDeclaration<?> member : type.getMembers()) {
+            if (member instanceof FieldDeclaration field && !field.isPrivate()) {
+                for (VariableDeclarator variable : field.getVariables()) {
+                    members.add(new IndexedMember(owner, variable.getNameAsString(), "Field", "",
+                            variable.getType().asString(), field.isStatic() || isInterface, path));
+                    addDoc(field, owner, variable.getNameAsString(), "Field", "", path, docs);
+                }
+            } else if (member instanceof MethodDeclaration method && !method.isPrivate()) {
+                members.add(new IndexedMember(owner, method.getNameAsString(), "Method", parameters(method.getParameters()),
+                        method.getType().asString(), method.isStatic(), path));
+                addDoc(method, owner, method.getNameAsString(), "Method", parameters(method.getParameters()), path, docs);
+            } else if (member instanceof ConstructorDeclaration constructor && !constructor.isPrivate()) {
+                members.add(new IndexedMember(owner, simpleName, "Constructor", parameters(constructor.getParameters()),
+                        "", false, path));
+                addDoc(constructor, owner, simpleName, "Constructor", parameters(constructor.getParameters()), path, docs);
+            } else if (member instanceof AnnotationMemberDeclaration element) {
+                members.add(new IndexedMember(owner, element.getNameAsString(), "Method", "",
+                        element.getType().asString(), false, path));
+                addDoc(element, owner, element.getNameAsString(), "Method", "", path, docs);
+            }
+        }
+
+    }
+
+    /**
+     * Adds the summary of a declaration's Javadoc, if it has one.
+     *
+     * @param declaration The declaration.
+     * @param owner The qualified name of the class, or of the class declaring the member.
+     * @param name The name of the class or member.
+     * @param kind The kind of the class or member.
+     * @param parameters The parameters of the member.
+     * @param path The absolute path the summary is recorded under.
+     * @param docs Where to add the summary.
+     */
+    private static void addDoc(NodeWithJavadoc<?> declaration, String owner, String name, String kind, String parameters,
+                               String path, List<IndexedDoc> docs) {
+
+        declaration.getJavadocComment()
+                .map(comment -> JavadocSummaries.summarize(comment.getContent()))
+                .filter(summary -> !summary.isEmpty())
+                .ifPresent(summary -> docs.add(new IndexedDoc(owner, name, kind, parameters, summary, path)));
+
+    }
+
+    /**
+     * Formats parameters like "int index, E... elements".
+     *
+     * @param parameters The parameters.
+     * @return The formatted parameters.
+     */
+    private static String parameters(List<Parameter> parameters) {
+
+        StringJoiner joiner = new StringJoiner(", ");
+        for (Parameter parameter : parameters) {
+            joiner.add(parameter.getType().asString() + (parameter.isVarArgs() ? "..." : "") + " " + parameter.getNameAsString());
+        }
+        return joiner.toString();
+
+    }
+
+    /**
+     * Adds the inner classes of a class, recursively.
+     *
+     * @param packageName The name of the package.
+     * @param outerClass The outer class.
+     * @param outerClassName The name of the outer class, with '$' before inner class names.
+     * @param path The absolute path the classes are recorded under.
+     * @param classes Where to add the classes.
+     * @param members Where to add the members of the classes.
+     * @param docs Where to add the Javadoc summaries of the classes and members.
+     */
+    private static void addInnerClasses(String packageName, TypeDeclaration<?> outerClass, String outerClassName,
+                                        String path, List<IndexedClass> classes, List<IndexedMember> members,
+                                        List<IndexedDoc> docs) {
+
+        for (BodyDeclaration<?> member : outerClass.getMembers()) {
+            if (member instanceof TypeDeclaration<?> innerClass) {
+                String innerClassName = outerClassName + "$" + innerClass.getNameAsString();
+                String qualifiedName = (packageName.isEmpty()) ? innerClassName : packageName + "." + innerClassName;
+                classes.add(new IndexedClass(innerClass.getNameAsString(), packageName, qualifiedName, path));
+                addDoc(innerClass, qualifiedName, innerClass.getNameAsString(), "Class", "", path, docs);
+                addMembers(innerClass, qualifiedName, path, members, docs);
+                addInnerClasses(packageName, innerClass, innerClassName, path, classes, members, docs);
+            }
+        }
+
+    }
+
+}
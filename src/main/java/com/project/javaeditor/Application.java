@@ -17,8 +17,15 @@
 
 package com.project.javaeditor;
 
+import com.project.indexing.ClassIndex;
+import com.project.indexing.IndexWriter;
+import com.project.indexing.PathIndex;
+import com.project.indexing.ProjectIndexer;
+import com.project.managers.DirectoryManager;
+import com.project.managers.FileManager;
 import com.project.managers.JLSManager;
 import com.project.utility.DatabaseUtility;
+import com.project.utility.IgnoreRules;
 import com.project.utility.MainUtility;
 import com.project.utility.ProjectWatcher;
 import javafx.application.Platform;
@@ -94,6 +101,14 @@ public class Application extends javafx.application.Application {
         // Watch server logs and recycle them.
         ProjectWatcher.watchServerLogs();
 
+        // Hand each batch of changes in the project to the ignore rules, the tree, the indexes, the server and the open editors.
+        ProjectWatcher.subscribe(IgnoreRules::filesChanged);
+        ProjectWatcher.subscribe(DirectoryManager::filesChanged);
+        ProjectWatcher.subscribe(PathIndex::filesChanged);
+        ProjectWatcher.subscribe(ProjectIndexer::filesChanged);
+        ProjectWatcher.subscribe(JLSManager::sendChangedFiles);
+        ProjectWatcher.subscribe(changes -> Platform.runLater(() -> FileManager.filesChanged(changes)));
+
         // Keep checking if WatchService is not idle and stop it.
         Thread thread = new Thread(()-> {
             while (keepChecking.get()) {
@@ -133,7 +148,9 @@ public class Application extends javafx.application.Application {
         // Stop thread that checks the current file path.
         controller.stopFilePathThread();
 
-        // Close any open database connection.
+        // Write out queued index changes and a snapshot of the class index, then close any open database connection.
+        IndexWriter.flush();
+        ClassIndex.saveSnapshot();
         DatabaseUtility.closeAll();
 
         // Stop WatchService.
@@ -17,8 +17,11 @@
 
 package com.project.javaeditor;
 
+import com.project.indexing.ClassIndex;
+import com.project.indexing.PrebuiltIndex;
 import com.project.managers.DirectoryManager;
 import com.project.managers.JLSManager;
+import com.project.utility.DatabaseUtility;
 import com.project.utility.MainUtility;
 import javafx.fxml.FXMLLoader;
 import org.slf4j.Logger;
@@ -65,8 +68,15 @@ public class ApplicationModel {
 
         ArrayList<Path> previousContent = MainUtility.readOpenData(Paths.get("files/records.fus"));
 
-        // Import Java source code if not already imported.
-        Thread srcFileSetUpThread = new Thread(MainUtility::importSrcFiles);
+        // Adopt a prebuilt index on the first start, map the last class index snapshot, set up the database,
+        // load the class index if the snapshot is out of date, then import Java source code if not already imported.
+        Thread srcFileSetUpThread = new Thread(() -> {
+            PrebuiltIndex.adopt();
+            ClassIndex.loadSnapshot();
+            DatabaseUtility.init();
+            ClassIndex.load();
+            MainUtility.importSrcFiles();
+        });
         srcFileSetUpThread.setDaemon(true);
         srcFileSetUpThread.start();
 
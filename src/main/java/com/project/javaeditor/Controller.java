@@ -22,13 +22,20 @@ import com.project.custom_classes.ConsoleTextArea;
 import com.project.custom_classes.OpenFilesTracker;
 import com.project.custom_classes.CustomFile;
 import com.project.custom_classes.CustomTextArea;
+import com.project.custom_classes.IndexingProgress;
 import com.project.gradle.GradleWrapper;
+import com.project.indexing.IndexingPipeline;
 import com.project.java_code_processing.JavaCodeExecutor;
 import com.project.managers.DirectoryManager;
+import com.project.managers.DocSearchManager;
 import com.project.managers.FileManager;
 import com.project.managers.ProjectManager;
 import com.project.managers.TextManager;
 import com.project.managers.EditAreaManager;
+import com.project.managers.GoToFileManager;
+import com.project.managers.OutlineManager;
+import com.project.managers.SymbolSearchManager;
+import com.project.managers.UsagesManager;
 import com.project.utility.MainUtility;
 import com.project.utility.SettingsUtility;
 import javafx.application.Platform;
@@ -38,6 +45,7 @@ import javafx.fxml.Initializable;
 import javafx.geometry.Pos;
 import javafx.scene.Node;
 import javafx.scene.control.MenuItem;
+import javafx.scene.control.CheckMenuItem;
 import javafx.scene.control.SplitPane;
 import javafx.scene.control.Button;
 import javafx.scene.control.Tooltip;
@@ -47,6 +55,7 @@ import javafx.scene.control.TabPane;
 import javafx.scene.control.MenuBar;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.control.Dialog;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.input.KeyCode;
@@ -66,8 +75,10 @@ import java.awt.Desktop;
 import java.io.File;
 import java.net.URI;
 import java.net.URL;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.ResourceBundle;
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicReference;
@@ -157,6 +168,36 @@ public class Controller implements Initializable {
     @FXML
     private MenuItem deleteProject;
 
+    /**
+     * Shows or hides ignored files in the project tree.
+     */
+    @FXML
+    private CheckMenuItem showIgnored;
+
+    /**
+     * Opens the file search.
+     */
+    @FXML
+    private MenuItem goToFile;
+
+    /**
+     * Opens the symbol search.
+     */
+    @FXML
+    private MenuItem goToSymbol;
+
+    /**
+     * Opens the documentation search.
+     */
+    @FXML
+    private MenuItem searchDocs;
+
+    /**
+     * Finds the uses of the symbol at the caret.
+     */
+    @FXML
+    private MenuItem findUsages;
+
     /**
      * Contains the tree view of the current project.
      */
@@ -164,7 +205,13 @@ public class Controller implements Initializable {
     private VBox projectView;
 
     /**
-     * Contains the projectView and the TabPane.
+     * Contains the outline of the file being edited.
+     */
+    @FXML
+    private VBox outlineView;
+
+    /**
+     * Contains the projectView, the TabPane and the outlineView.
      */
     @FXML
     private SplitPane splitPane;
@@ -343,11 +390,16 @@ public class Controller implements Initializable {
         addAccelerator(newProject, KeyCode.N, KeyCombination.CONTROL_DOWN, KeyCombination.SHIFT_DOWN);
         addAccelerator(openProject, KeyCode.O, KeyCombination.CONTROL_DOWN, KeyCombination.SHIFT_DOWN);
         addAccelerator(deleteProject, KeyCode.Q, KeyCombination.CONTROL_DOWN, KeyCombination.SHIFT_DOWN);
+        addAccelerator(goToFile, KeyCode.P);
+        addAccelerator(goToSymbol, KeyCode.N, KeyCombination.CONTROL_DOWN, KeyCombination.ALT_DOWN, KeyCombination.SHIFT_DOWN);
+        addAccelerator(searchDocs, KeyCode.D, KeyCombination.CONTROL_DOWN, KeyCombination.SHIFT_DOWN);
+        addAccelerator(findUsages, KeyCode.F7, KeyCombination.ALT_DOWN);
         logger.info("Accelerators added");
 
         footer.setAlignment(Pos.CENTER);
         projectView.getStyleClass().add("tab-pane");
-        splitPane.setDividerPositions(0.3);
+        outlineView.getStyleClass().add("tab-pane");
+        splitPane.setDividerPositions(0.2, 0.8);
         verticalSplitPane.getStyleClass().add("vertical-split-pane1");
         verticalSplitPane.setDividerPositions(1);
 
@@ -431,6 +483,19 @@ public class Controller implements Initializable {
         ProjectManager.deleteProject();
     }
 
+    /**
+     * Shows or hides the files and directories left out by the ignore rules, and rebuilds the project tree.
+     */
+    @FXML
+    public void toggleIgnored() {
+
+        DirectoryManager.setShowIgnored(showIgnored.isSelected());
+        if (ProjectManager.getCurrentRootDirectory() != null) {
+            DirectoryManager.openProject(ProjectManager.getCurrentRootDirectory().getPath());
+        }
+
+    }
+
     /**
      * Copies the selected item or text.
      */
@@ -476,6 +541,49 @@ public class Controller implements Initializable {
         EditAreaManager.undoOrRedo((CustomTextArea) ((StackPane) tabPane.getSelectionModel().getSelectedItem().getContent()).getChildren().get(0), false);
     }
 
+    /**
+     * Opens the search for files of the project by name.
+     */
+    @FXML
+    public void goToFile() {
+
+        GoToFileManager.show(tabPane.getScene().getWindow());
+    }
+
+    /**
+     * Opens the search for classes, methods and fields by name.
+     */
+    @FXML
+    public void goToSymbol() {
+
+        SymbolSearchManager.show(tabPane.getScene().getWindow());
+    }
+
+    /**
+     * Opens the full-text search over the Javadoc summaries of the JDK and the project.
+     */
+    @FXML
+    public void searchDocs() {
+
+        DocSearchManager.show(tabPane.getScene().getWindow());
+    }
+
+    /**
+     * Finds the uses of the class or member at the caret in the project's sources.
+     */
+    @FXML
+    public void findUsages() {
+
+        Tab tab = tabPane.getSelectionModel().getSelectedItem();
+        if (tab == null || !(tab.getContent() instanceof StackPane pane)
+                || !(pane.getChildren().get(0) instanceof CustomTextArea textArea)) {
+            return;
+        }
+        UsagesManager.show(tabPane.getScene().getWindow(), textArea.getInnerTextArea().getText(),
+                textArea.getInnerTextArea().getCaretPosition());
+
+    }
+
     /**
      * Opens a link to Icons8 in a browser.
      */
@@ -647,6 +755,15 @@ public class Controller implements Initializable {
         Dialog<SettingsResult> dialog = SettingsUtility.createSettingsDialog(javaPath);
         dialog.showAndWait().ifPresent(result -> settingsResult = result);
 
+        // Switch to the chosen JDK's index, building it in the background if it is new.
+        if (settingsResult != null && Files.isDirectory(settingsResult.jdkFolder())
+                && !settingsResult.jdkFolder().equals(SettingsUtility.getJavaPath())) {
+            SettingsUtility.setJavaPath(settingsResult.jdkFolder());
+            Thread importThread = new Thread(MainUtility::importSrcFiles);
+            importThread.setDaemon(true);
+            importThread.start();
+        }
+
         //MainUtility.popup(new Label(settingsResult.toString()));
 
     }
@@ -765,6 +882,10 @@ public class Controller implements Initializable {
         DirectoryManager.setClipboard(clipboard);
         DirectoryManager.setShouldCut(shouldCut);
 
+        OutlineManager.setOutlineView(outlineView);
+        tabPane.getSelectionModel().selectedItemProperty().addListener((observable, oldTab, newTab) ->
+                OutlineManager.requestOutline(newTab));
+
         TextManager.setTabPane(tabPane);
         TextManager.setClipboard(clipboard);
 
@@ -1066,9 +1187,65 @@ public class Controller implements Initializable {
                     new Image(Objects.requireNonNull(getClass().getResourceAsStream("icons/padlock-open.png"))));
             MainUtility.sizeImage(padlockIcon, 15, 15);
             readOnlyToggleBtn.setGraphic(padlockIcon);
-            footer.getChildren().addAll(goToBtn, lineSeparatorBtn, charEncodingBtn, indentSpaceBtn, readOnlyToggleBtn);
+            Label indexingLabel = new Label();
+            indexingLabel.setStyle("-fx-text-fill: #f0f0f0;");
+            ProgressBar indexingBar = new ProgressBar();
+            indexingBar.setPrefWidth(100);
+            HBox indexingStatus = new HBox(6, indexingLabel, indexingBar);
+            indexingStatus.setAlignment(Pos.CENTER);
+            indexingStatus.setVisible(false);
+            indexingStatus.setManaged(false);
+            footer.getChildren().addAll(indexingStatus, goToBtn, lineSeparatorBtn, charEncodingBtn, indentSpaceBtn, readOnlyToggleBtn);
             EditAreaManager.setGoTo(goToBtn);
+            startIndexingStatusThread(indexingStatus, indexingLabel, indexingBar);
+        });
+
+    }
+
+    /**
+     * Starts showing the progress of indexing jobs in the footer.
+     *
+     * @param indexingStatus The container, hidden while nothing is being indexed.
+     * @param indexingLabel The Label showing what is indexed and the time left.
+     * @param indexingBar The ProgressBar.
+     */
+    private void startIndexingStatusThread(HBox indexingStatus, Label indexingLabel, ProgressBar indexingBar) {
+
+        Thread indexingStatusThread = new Thread(() -> {
+            while (true) {
+                try {
+                    List<IndexingProgress> running = IndexingPipeline.getRunning();
+
+                    // Use Javafx Thread for UI updates.
+                    Platform.runLater(() -> {
+                        indexingStatus.setVisible(!running.isEmpty());
+                        indexingStatus.setManaged(!running.isEmpty());
+                        if (running.isEmpty()) {
+                            return;
+                        }
+                        IndexingProgress progress = running.get(0);
+                        String text = "Indexing " + progress.name();
+                        if (progress.remaining() >= 0) {
+                            text += "  " + MainUtility.formatDuration(progress.remaining()) + " left";
+                        }
+                        if (running.size() > 1) {
+                            text += "  (+" + (running.size() - 1) + ")";
+                        }
+                        indexingLabel.setText(text);
+                        indexingBar.setProgress((progress.total() == 0) ? 1 : (double) progress.done() / progress.total());
+                    });
+
+                    // Wait half a second before checking again.
+                    Thread.sleep(500);
+                } catch (InterruptedException e) {
+                    return;
+                } catch (Exception e) {
+                    logger.error(e.getMessage());
+                }
+            }
         });
+        indexingStatusThread.setDaemon(true);
+        indexingStatusThread.start();
 
     }
 
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.project.javaeditor;
+
+import com.project.indexing.BinaryIndexer;
+import com.project.indexing.ClassIndex;
+import com.project.indexing.JdkIndexer;
+import com.project.indexing.PrebuiltIndex;
+import com.project.indexing.ProjectIndexer;
+import com.project.utility.DatabaseUtility;
+import com.project.utility.IgnoreRules;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the index of a JDK, and optionally of a project and its dependencies, without starting JavaFX or the
+ * language server, then writes it out as a prebuilt index the IDE adopts on its first start.
+ * Run it from the directory the IDE runs from, the index is built in that directory's database.
+ */
+public class IndexerEntryPoint {
+
+    /**
+     * The logger for the class.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(IndexerEntryPoint.class);
+
+    /**
+     * Explains the arguments.
+     */
+    private static final String USAGE = """
+            Usage: IndexerEntryPoint [--jdk <home>] [--project <dir>] [--classpath <jars>] [--output <dir>]
+              --jdk        The JDK to index. Defaults to the one running the indexer.
+              --project    A Gradle project whose sources (src/main/java) are indexed too.
+              --classpath  Jars to index, separated by the platform's path separator.
+              --output     Where to write the index. Defaults to files/prebuilt-index.
+            """;
+
+    public static void main(String[] args) {
+
+        Path jdkHome = Paths.get(System.getProperty("java.home"));
+        Path project = null;
+        Path output = Paths.get("files/prebuilt-index");
+        List<Path> classpath = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--help")) {
+                System.out.print(USAGE);
+                return;
+            }
+            if (i + 1 == args.length) {
+                exitWithUsage();
+            }
+            String value = args[++i];
+            switch (args[i - 1]) {
+                case "--jdk":
+                    jdkHome = Paths.get(value);
+                    break;
+                case "--project":
+                    project = Paths.get(value).toAbsolutePath();
+                    break;
+                case "--classpath":
+                    for (String entry : value.split(File.pathSeparator)) {
+                        if (!entry.isBlank()) {
+                            classpath.add(Paths.get(entry));
+                        }
+                    }
+                    break;
+                case "--output":
+                    output = Paths.get(value);
+                    break;
+                default:
+                    exitWithUsage();
+            }
+        }
+
+        long start = System.currentTimeMillis();
+        DatabaseUtility.init();
+        ClassIndex.load();
+        JdkIndexer.index(jdkHome);
+        if (!classpath.isEmpty()) {
+            BinaryIndexer.indexClasspath(classpath);
+        }
+        if (project != null) {
+            IgnoreRules.load(project);
+            ProjectIndexer.open(project.resolve("src/main/java"));
+            ProjectIndexer.awaitUpdates();
+        }
+        boolean isWritten = PrebuiltIndex.export(output.toAbsolutePath(), jdkHome, project);
+        DatabaseUtility.closeAll();
+        logger.info("Built the index in {} ms", System.currentTimeMillis() - start);
+        System.exit(isWritten ? 0 : 1);
+
+    }
+
+    /**
+     * Explains the arguments and exits with an error.
+     */
+    private static void exitWithUsage() {
+
+        System.err.print(USAGE);
+        System.exit(2);
+
+    }
+
+}
@@ -24,15 +24,19 @@ import com.project.custom_classes.FileTreeNode;
 import com.project.custom_classes.TreeNode;
 import com.project.custom_classes.CustomTreeLabel;
 import com.project.custom_classes.FileChange;
+import com.project.custom_classes.PathChange;
+import com.project.indexing.PathIndex;
 import javafx.geometry.Pos;
+import javafx.application.Platform;
+import javafx.event.Event;
 import javafx.scene.control.MenuItem;
 import javafx.scene.control.Menu;
 import javafx.scene.control.TreeView;
+import javafx.scene.control.TreeItem;
 import javafx.scene.control.TreeCell;
 import javafx.scene.control.Label;
 import javafx.scene.control.ContextMenu;
 import javafx.scene.control.TabPane;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.input.Dragboard;
@@ -43,6 +47,8 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
 import javafx.stage.DirectoryChooser;
+import com.project.utility.FileIcons;
+import com.project.utility.IgnoreRules;
 import com.project.utility.MainUtility;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -53,14 +59,21 @@ import java.nio.file.Path;
 import java.nio.file.Files;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.FileVisitResult;
+import java.nio.file.FileVisitOption;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.DirectoryStream;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.HashMap;
-import java.util.Objects;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.Map;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.LinkedList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Handles directory related operations.
@@ -82,6 +95,42 @@ public class DirectoryManager {
      */
     private static final Map<String, Boolean> nodeIsOpen = new HashMap<>();
 
+    /**
+     * The TreeNodes of the project shown, by path.
+     */
+    private static final Map<Path, TreeNode> treeNodes = new HashMap<>();
+
+    /**
+     * The CustomTreeItems of the project shown, by path.
+     */
+    private static final Map<Path, CustomTreeItem<TreeNode>> treeItems = new HashMap<>();
+
+    /**
+     * Whether ignored files and directories are shown, dimmed and with directories left unloaded.
+     */
+    private static volatile boolean showIgnored = false;
+
+    /**
+     * The thread directories are listed on.
+     */
+    private static final ExecutorService lister = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "project-tree");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * The directories being listed. Only used on the JavaFX Application Thread.
+     */
+    private static final Set<DirectoryTreeNode> listing = new HashSet<>();
+
+    /**
+     * The order of the entries in a directory, directories first, then by name.
+     */
+    private static final Comparator<ListedEntry> ENTRY_ORDER = Comparator
+            .comparing((ListedEntry entry) -> !entry.isDirectory())
+            .thenComparing(entry -> entry.path().getFileName().toString(), String.CASE_INSENSITIVE_ORDER);
+
     /**
      * An instance of a DirectoryChooser to choose files from the device.
      */
@@ -140,6 +189,7 @@ public class DirectoryManager {
 
         if (dir != null && dir.exists() && dir.isDirectory()) {
 
+            IgnoreRules.load(dir.toPath());
             RootTreeNode root = parseDirectory(dir.toPath());
             if (root != null) {
                 if (openProjectPath.isEmpty()) {
@@ -149,7 +199,7 @@ public class DirectoryManager {
                 }
 
                 // Create a TreeView and place it in projectView.
-                TreeView<HBox> treeView = createTree(root);
+                TreeView<TreeNode> treeView = createTree(root);
                 projectView.getChildren().clear();
                 projectView.getChildren().add(treeView);
                 VBox.setVgrow(treeView, Priority.ALWAYS);
@@ -164,7 +214,7 @@ public class DirectoryManager {
     }
 
     /**
-     * Replicates a directory structure as tree using TreeNode Objects.
+     * Creates the RootTreeNode of a directory. Its children are listed once it is expanded.
      *
      * @param path The Path to the directory
      * @return The RootTreeNode.
@@ -176,32 +226,45 @@ public class DirectoryManager {
             return null;
         }
 
-        RootTreeNode rootDirectory = new RootTreeNode(path);
-        Map<Path, DirectoryTreeNode> pathMap = new HashMap<>();
-        pathMap.put(path, rootDirectory);
+        // The go to file index still needs every file, so it walks the project on its own thread.
+        Thread pathIndexer = new Thread(() -> PathIndex.index(path), "path-index");
+        pathIndexer.setDaemon(true);
+        pathIndexer.start();
+
+        return new RootTreeNode(path);
 
+    }
+
+    /**
+     * Lists a directory, reading each entry's attributes along with the listing.
+     * Runs off the JavaFX Application Thread.
+     *
+     * @param directory The Path to the directory.
+     * @return The entries that are shown, in ENTRY_ORDER.
+     */
+    private static List<ListedEntry> list(Path directory) {
+
+        List<ListedEntry> entries = new ArrayList<>();
         try {
-            Files.walkFileTree(path, new SimpleFileVisitor<>() {
+
+            // With a depth of one every entry comes to visitFile, with attributes the platform may already have.
+            Files.walkFileTree(directory, EnumSet.noneOf(FileVisitOption.class), 1, new SimpleFileVisitor<>() {
 
                 @Override
-                public FileVisitResult visitFile(Path filePath, BasicFileAttributes attrs) {
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
 
-                    DirectoryTreeNode parent = pathMap.get(filePath.getParent());
-                    FileTreeNode file = new FileTreeNode(filePath, parent);
-                    parent.addChild(file);
+                    ListedEntry entry = toEntry(file, attrs);
+                    if (entry != null) {
+                        entries.add(entry);
+                    }
                     return FileVisitResult.CONTINUE;
 
                 }
 
                 @Override
-                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
 
-                    if (!dir.equals(path)) {
-                        DirectoryTreeNode parent = pathMap.get(dir.getParent());
-                        DirectoryTreeNode directory = new DirectoryTreeNode(dir, parent);
-                        parent.addChild(directory);
-                        pathMap.put(dir, directory);
-                    }
+                    logger.error(e.getMessage());
                     return FileVisitResult.CONTINUE;
 
                 }
@@ -210,8 +273,26 @@ public class DirectoryManager {
         } catch (IOException | SecurityException e) {
             logger.error(e.getMessage());
         }
+        entries.sort(ENTRY_ORDER);
+        return entries;
 
-        return rootDirectory;
+    }
+
+    /**
+     * Creates the entry shown for a file or directory.
+     *
+     * @param path The Path to the file or directory.
+     * @param attrs Its attributes.
+     * @return The entry, or null if it is ignored and ignored entries aren't shown.
+     */
+    private static ListedEntry toEntry(Path path, BasicFileAttributes attrs) {
+
+        boolean isDirectory = attrs.isDirectory();
+        boolean isIgnored = IgnoreRules.isIgnoredEntry(path, isDirectory);
+        if (isIgnored && !showIgnored) {
+            return null;
+        }
+        return new ListedEntry(path, isDirectory, isIgnored);
 
     }
 
@@ -221,10 +302,14 @@ public class DirectoryManager {
      * @param root The RootTreeNode.
      * @return The TreeView.
      */
-    public static TreeView<HBox> createTree(RootTreeNode root) {
+    public static TreeView<TreeNode> createTree(RootTreeNode root) {
 
-        CustomTreeItem<HBox> rootItem = initTreeItem(new ImageView(
-                new Image(Objects.requireNonNull(DirectoryManager.class.getResourceAsStream("icons/folder.png")))), root);
+        CustomTreeItem<TreeNode> rootItem = new CustomTreeItem<>(root, root.getPath());
+        rootItem.setBranch(true);
+        treeNodes.clear();
+        treeItems.clear();
+        treeNodes.put(root.getPath(), root);
+        treeItems.put(root.getPath(), rootItem);
 
         // Check whether the TreeItem had a state before and use it.
         if (nodeIsOpen.containsKey(rootItem.getPath().toString())) {
@@ -243,18 +328,23 @@ public class DirectoryManager {
             } else {
                 nodeIsOpen.replace(rootItem.getPath().toString(), newValue);
             }
+            if (newValue) {
+                loadChildren(root);
+            }
         });
 
-        // Add children to the root TreeItem.
-        addChildren(root, rootItem);
+        // List the root's children if it starts expanded.
+        if (rootItem.isExpanded()) {
+            loadChildren(root);
+        }
 
         // Create a TreeView.
-        TreeView<HBox> treeView = new TreeView<>(rootItem);
+        TreeView<TreeNode> treeView = new TreeView<>(rootItem);
 
         // Add an event filter for when an item is double-clicked.
         treeView.addEventFilter(MouseEvent.MOUSE_CLICKED, event -> {
             if (event.getClickCount() == 2) {
-                CustomTreeItem<HBox> selectedItem = (CustomTreeItem<HBox>) treeView.getSelectionModel().getSelectedItem();
+                CustomTreeItem<TreeNode> selectedItem = (CustomTreeItem<TreeNode>) treeView.getSelectionModel().getSelectedItem();
                 if (selectedItem != null) {
 
                     // Open the file.
@@ -263,120 +353,22 @@ public class DirectoryManager {
             }
         });
 
-        treeView.setCellFactory(tc -> new TreeCell<>() {
-
-            @Override
-            protected void updateItem(HBox item, boolean empty) {
-                super.updateItem(item, empty);
-                if (empty || item == null) {
-                    setGraphic(null);
-                    setContextMenu(null);
-                    setDisable(true);
-                } else {
-                    CustomTreeLabel label = (CustomTreeLabel) item.getChildren().get(1);
-                    label.setStyle("-fx-text-fill: white;");
-                    Path path = label.getPath();
-                    setGraphic(item);
-                    setDisable(false);
-
-                    ContextMenu contextMenu = new ContextMenu();
-                    contextMenu.getStyleClass().add("context-menu");
-                    if (path.toFile().isDirectory()) {
-
-                        // Allow drag and drop.
-                        setOnDragOver(event -> {
-                            if (event.getGestureSource() != this && event.getDragboard().hasFiles()) {
-                                event.acceptTransferModes(TransferMode.COPY);
-                            }
-                            event.consume();
-                        });
-
-                        setOnDragDropped(event -> {
-                            Dragboard dragboard = event.getDragboard();
-                            if (dragboard.hasFiles()) {
-                                for (File file : dragboard.getFiles()) {
-                                    FileManager.copyFile(file.toPath());
-                                    DirectoryManager.pasteIntoDirectory(path);
-                                }
-                                event.setDropCompleted(true);
-                            } else {
-                                event.setDropCompleted(false);
-                            }
-                            event.consume();
-                        });
-
-                        Menu newItem = new Menu("New");
-
-                        Menu fileItem = new Menu("Java File");
-
-                        MenuItem classItem = new MenuItem("Class");
-                        classItem.setOnAction(event -> FileManager.newJavaClass(path));
-                        MenuItem abstractClassItem = new MenuItem("Abstract Class");
-                        abstractClassItem.setOnAction(event -> FileManager.newJavaAbstractClass(path));
-                        MenuItem interfaceItem = new MenuItem("Interface");
-                        interfaceItem.setOnAction(event -> FileManager.newJavaInterface(path));
-                        MenuItem recordItem = new MenuItem("Record");
-                        recordItem.setOnAction(event -> FileManager.newJavaRecord(path));
-                        MenuItem enumItem = new MenuItem("Enum");
-                        enumItem.setOnAction(event -> FileManager.newJavaEnum(path));
-                        MenuItem annotationItem = new MenuItem("Annotation");
-                        annotationItem.setOnAction(event -> FileManager.newJavaAnnotation(path));
-
-                        fileItem.getItems().addAll(classItem, abstractClassItem, interfaceItem,
-                                recordItem, enumItem, annotationItem);
-
-                        MenuItem packageItem = new MenuItem("Package");
-                        packageItem.setOnAction(event -> newPackage(path));
-
-                        MenuItem textFileItem = new MenuItem("Text File");
-                        textFileItem.setOnAction(event -> FileManager.newTextFile(path));
-
-                        newItem.getItems().addAll(fileItem, packageItem, textFileItem);
-
-                        MenuItem deleteItem = new MenuItem("Delete");
-                        deleteItem.setOnAction(event -> DirectoryManager.deleteDirectory(path));
-                        MenuItem cutItem = new MenuItem("Cut");
-                        cutItem.setOnAction(event -> DirectoryManager.cutDirectory(path));
-                        MenuItem copyItem = new MenuItem("Copy");
-                        copyItem.setOnAction(event -> DirectoryManager.copyDirectory(path));
-                        MenuItem pasteItem = new MenuItem("Paste");
-                        pasteItem.setOnAction(event -> DirectoryManager.pasteIntoDirectory(path));
-                        MenuItem renameItem = new MenuItem("Rename");
-                        renameItem.setOnAction(event -> DirectoryManager.renameDirectory(path));
-                        contextMenu.getItems().addAll(newItem, deleteItem, cutItem, copyItem, pasteItem, renameItem);
-                    } else {
-                        MenuItem deleteItem = new MenuItem("Delete");
-                        deleteItem.setOnAction(event -> FileManager.deleteFile(path, false, false));
-                        MenuItem cutItem = new MenuItem("Cut");
-                        cutItem.setOnAction(event -> FileManager.cutFile(path, true));
-                        MenuItem copyItem = new MenuItem("Copy");
-                        copyItem.setOnAction(event -> FileManager.copyFile(path));
-                        MenuItem pasteItem = new MenuItem("Paste");
-                        pasteItem.setOnAction(event -> FileManager.pasteIntoFile(path));
-                        MenuItem renameItem = new MenuItem("Rename");
-                        renameItem.setOnAction(event -> FileManager.renameFile(path));
-                        contextMenu.getItems().addAll(deleteItem, cutItem, copyItem, pasteItem, renameItem);
-                    }
-
-                    setContextMenu(contextMenu);
-                }
-            }
-
-        });
+        // Rows reuse their graphic and menus, so there are only as many as are visible.
+        treeView.setCellFactory(tc -> new ProjectTreeCell());
 
         // Detect different key presses and act accordingly.
         treeView.addEventHandler(KeyEvent.KEY_PRESSED, event -> {
-            CustomTreeItem<HBox> selectedItem;
+            CustomTreeItem<TreeNode> selectedItem;
             switch (event.getCode()) {
                 case DELETE:
-                    selectedItem = (CustomTreeItem<HBox>) treeView.getSelectionModel().getSelectedItem();
+                    selectedItem = (CustomTreeItem<TreeNode>) treeView.getSelectionModel().getSelectedItem();
                     if (selectedItem != null) {
                         FileManager.deleteFile(selectedItem.getPath(), false, false);
                     }
                     break;
                 case C:
                     if (event.isControlDown()) {
-                        selectedItem = (CustomTreeItem<HBox>) treeView.getSelectionModel().getSelectedItem();
+                        selectedItem = (CustomTreeItem<TreeNode>) treeView.getSelectionModel().getSelectedItem();
                         if (selectedItem != null) {
                             FileManager.copyFile(selectedItem.getPath());
                         }
@@ -384,7 +376,7 @@ public class DirectoryManager {
                     break;
                 case X:
                     if (event.isControlDown()) {
-                        selectedItem = (CustomTreeItem<HBox>) treeView.getSelectionModel().getSelectedItem();
+                        selectedItem = (CustomTreeItem<TreeNode>) treeView.getSelectionModel().getSelectedItem();
                         if (selectedItem != null) {
                             FileManager.cutFile(selectedItem.getPath(), true);
                         }
@@ -392,7 +384,7 @@ public class DirectoryManager {
                     break;
                 case V:
                     if (event.isControlDown()) {
-                        selectedItem = (CustomTreeItem<HBox>) treeView.getSelectionModel().getSelectedItem();
+                        selectedItem = (CustomTreeItem<TreeNode>) treeView.getSelectionModel().getSelectedItem();
                         if (selectedItem != null) {
                             DirectoryManager.pasteIntoDirectory(selectedItem.getPath());
                         }
@@ -412,71 +404,85 @@ public class DirectoryManager {
     }
 
     /**
-     * Initializes a CustomTreeItem.
+     * Lists the children of a directory in the background and adds them to its TreeItem.
+     * Does nothing if they are already listed or being listed.
      *
-     * @param icon The icon.
-     * @param root The TreeNode.
-     * @return A CustomTreeItem.
+     * @param directory The TreeNode of the directory.
      */
-    private static CustomTreeItem<HBox> initTreeItem(ImageView icon, TreeNode root) {
+    private static void loadChildren(DirectoryTreeNode directory) {
 
-        HBox hBox = new HBox();
-        MainUtility.sizeImage(icon, 18, 18);
-        hBox.getChildren().add(icon);
-        hBox.getChildren().add(new CustomTreeLabel("  " + root.getName(), root.getPath()));
-        hBox.setAlignment(Pos.CENTER_LEFT);
+        if (directory.isLoaded() || !listing.add(directory)) {
+            return;
+        }
+        Path path = directory.getPath();
+        lister.execute(() -> {
+            List<ListedEntry> entries = list(path);
+            Platform.runLater(() -> showChildren(directory, path, entries));
+        });
 
-        return new CustomTreeItem<>(hBox, root.getPath());
     }
 
     /**
-     * Adds children to a TreeItem if any.
+     * Adds the listed children of a directory to the tree.
+     * Runs on the JavaFX Application Thread.
      *
-     * @param parentNode The TreeNode. (Represented on the TreeNode hierarchy).
-     * @param parentItem The TreeItem. (Represented on the TreeView).
+     * @param directory The TreeNode of the directory.
+     * @param listedPath The Path that was listed.
+     * @param entries The entries.
      */
-    public static void addChildren(TreeNode parentNode, CustomTreeItem<HBox> parentItem) {
-
-        // They look the same, but this allows directories to come before files in the TreeView.
-        for (TreeNode childNode : parentNode.getChildren()) {
+    private static void showChildren(DirectoryTreeNode directory, Path listedPath, List<ListedEntry> entries) {
 
-            if (childNode.getPath().toFile().isDirectory()) {
-                add(parentItem, childNode);
-            }
+        listing.remove(directory);
+        CustomTreeItem<TreeNode> item = treeItems.get(directory.getPath());
 
+        // The tree was rebuilt or the directory removed meanwhile.
+        if (item == null || treeNodes.get(directory.getPath()) != directory) {
+            return;
         }
 
-        for (TreeNode childNode : parentNode.getChildren()) {
-
-            if (childNode.getPath().toFile().isFile()) {
-                add(parentItem, childNode);
-            }
-
+        // Renamed meanwhile, the listing has the old paths.
+        if (!directory.getPath().equals(listedPath)) {
+            loadChildren(directory);
+            return;
+        }
+        directory.setLoaded(true);
+        List<CustomTreeItem<TreeNode>> items = new ArrayList<>();
+        for (ListedEntry entry : entries) {
+            TreeNode childNode = entry.isDirectory()
+                    ? new DirectoryTreeNode(entry.path(), directory)
+                    : new FileTreeNode(entry.path(), directory);
+            directory.addChild(childNode);
+            items.add(createItem(childNode, entry.isIgnored()));
+        }
+        item.setBranch(false);
+        item.getChildren().setAll(items);
+        if (items.isEmpty()) {
+            item.setExpanded(false);
         }
+
     }
 
     /**
-     * Adds a child to a TreeItem.
+     * Creates the CustomTreeItem of a TreeNode. The children of a directory are listed once it is expanded.
      *
-     * @param parentItem The parent.
-     * @param childNode The child.
+     * @param childNode The TreeNode.
+     * @param isIgnored Whether it is ignored, then a directory is never listed.
+     * @return The CustomTreeItem.
      */
-    private static void add(CustomTreeItem<HBox> parentItem, TreeNode childNode) {
-
-        String[] parts = childNode.getName().split("\\.");
+    private static CustomTreeItem<TreeNode> createItem(TreeNode childNode, boolean isIgnored) {
 
-        // Determine what icon to use.
-        ImageView icon = new ImageView((childNode instanceof DirectoryTreeNode) ?
-                new Image(Objects.requireNonNull(DirectoryManager.class.getResourceAsStream("icons/folder.png"))) :
-                (Objects.equals(parts[parts.length - 1], "java")) ? new Image(Objects.requireNonNull(DirectoryManager.class.getResourceAsStream("icons/java.png"))) :
-                        new Image(Objects.requireNonNull(DirectoryManager.class.getResourceAsStream("icons/file.png"))));
+        CustomTreeItem<TreeNode> childItem = new CustomTreeItem<>(childNode, childNode.getPath());
+        treeNodes.put(childNode.getPath(), childNode);
+        treeItems.put(childNode.getPath(), childItem);
 
-        // Create the CustomTreeItem for the child.
-        CustomTreeItem<HBox> childItem = initTreeItem(icon, childNode);
+        // Directories can be expanded before their children are listed.
+        boolean isListable = childNode instanceof DirectoryTreeNode && !isIgnored;
+        childItem.setBranch(isListable);
+        childItem.setIgnored(isIgnored);
 
         // Check previous state of the node.
         if (nodeIsOpen.containsKey(childItem.getPath().toString())) {
-            childItem.setExpanded(nodeIsOpen.get(childItem.getPath().toString()));
+            childItem.setExpanded(isListable && nodeIsOpen.get(childItem.getPath().toString()));
         } else {
             childItem.setExpanded(false);
             nodeIsOpen.put(childItem.getPath().toString(), Boolean.FALSE);
@@ -489,14 +495,253 @@ public class DirectoryManager {
             } else {
                 nodeIsOpen.replace(childItem.getPath().toString(), newValue);
             }
+            if (newValue && isListable && treeNodes.get(childItem.getPath()) instanceof DirectoryTreeNode directory) {
+                loadChildren(directory);
+            }
         });
 
-        // Add the childItem.
-        parentItem.getChildren().add(childItem);
+        if (childItem.isExpanded()) {
+            loadChildren((DirectoryTreeNode) childNode);
+        }
+        return childItem;
+
+    }
+
+    /**
+     * Sets whether ignored files and directories are shown in the project tree.
+     * Takes effect the next time the tree is built.
+     *
+     * @param show Whether to show them.
+     */
+    public static void setShowIgnored(boolean show) {
+
+        showIgnored = show;
+    }
+
+    /**
+     * Applies a batch of changes reported by the ProjectWatcher to the project tree.
+     * Runs on the ProjectWatcher's thread, which does the reading from disk, the tree is updated on the JavaFX
+     * Application Thread.
+     *
+     * @param changes The changes.
+     */
+    public static void filesChanged(List<PathChange> changes) {
+
+        List<Runnable> updates = new ArrayList<>();
+        for (PathChange change : changes) {
+            Path path = change.path();
+            switch (change.type()) {
+                case CREATED:
+                    try {
+                        ListedEntry entry = toEntry(path, Files.readAttributes(path, BasicFileAttributes.class));
+                        if (entry != null) {
+                            updates.add(() -> addEntry(entry));
+                        }
+                    } catch (IOException e) {
+
+                        // Gone again already.
+                        logger.debug(e.getMessage());
+                    }
+                    break;
+                case DELETED:
+                    if (!Files.exists(path)) {
+                        updates.add(() -> removeEntry(path));
+                    }
+                    break;
+                case RESCAN:
+                    List<ListedEntry> entries = list(path);
+                    updates.add(() -> rescan(path, entries));
+                    break;
+                default:
+                    break;
+            }
+        }
+        if (!updates.isEmpty()) {
+            Platform.runLater(() -> updates.forEach(Runnable::run));
+        }
+
+    }
+
+    /**
+     * Brings the children of a listed directory in the project tree in line with a new listing.
+     *
+     * @param directory The Path to the directory.
+     * @param entries The new listing.
+     */
+    private static void rescan(Path directory, List<ListedEntry> entries) {
 
-        // If the childItem is a directory, add children to the childItem.
-        if (childNode instanceof DirectoryTreeNode) {
-            addChildren(childNode, childItem);
+        if (!(treeNodes.get(directory) instanceof DirectoryTreeNode directoryNode) || !directoryNode.isLoaded()) {
+            return;
+        }
+        Set<Path> listed = new HashSet<>();
+        for (ListedEntry entry : entries) {
+            listed.add(entry.path());
+        }
+        for (TreeNode child : new ArrayList<>(directoryNode.getChildren())) {
+            if (!listed.contains(child.getPath())) {
+                removeEntry(child.getPath());
+            }
+        }
+        entries.forEach(DirectoryManager::addEntry);
+
+    }
+
+    /**
+     * Adds a created file or directory to the project tree, without rebuilding the rest of it.
+     * Runs on the JavaFX Application Thread.
+     *
+     * @param path The Path to the file or directory.
+     */
+    public static void pathCreated(Path path) {
+
+        try {
+            ListedEntry entry = toEntry(path, Files.readAttributes(path, BasicFileAttributes.class));
+            if (entry != null) {
+                addEntry(entry);
+            }
+        } catch (IOException e) {
+            logger.debug(e.getMessage());
+        }
+
+    }
+
+    /**
+     * Adds an entry to the project tree, in order among its siblings.
+     * Nothing is done if it is already there or its directory isn't listed, listing it will pick the entry up.
+     *
+     * @param entry The entry.
+     */
+    private static void addEntry(ListedEntry entry) {
+
+        Path path = entry.path();
+        if (treeItems.containsKey(path) || !(treeNodes.get(path.getParent()) instanceof DirectoryTreeNode parentNode)
+                || !parentNode.isLoaded()) {
+            return;
+        }
+        TreeNode childNode = entry.isDirectory()
+                ? new DirectoryTreeNode(path, parentNode)
+                : new FileTreeNode(path, parentNode);
+        parentNode.addChild(childNode);
+
+        CustomTreeItem<TreeNode> parentItem = treeItems.get(path.getParent());
+        List<TreeItem<TreeNode>> siblings = parentItem.getChildren();
+        int index = 0;
+        while (index < siblings.size()) {
+            TreeNode siblingNode = siblings.get(index).getValue();
+            ListedEntry sibling = new ListedEntry(siblingNode.getPath(), siblingNode instanceof DirectoryTreeNode, false);
+            if (ENTRY_ORDER.compare(entry, sibling) < 0) {
+                break;
+            }
+            index++;
+        }
+        siblings.add(index, createItem(childNode, entry.isIgnored()));
+
+    }
+
+    /**
+     * Removes a deleted file or directory from the project tree, without rebuilding the rest of it.
+     * Runs on the JavaFX Application Thread.
+     *
+     * @param path The Path to the file or directory.
+     */
+    public static void pathDeleted(Path path) {
+
+        // Anything created again since stays.
+        if (!Files.exists(path)) {
+            removeEntry(path);
+        }
+
+    }
+
+    /**
+     * Removes an entry, and everything under it, from the project tree.
+     *
+     * @param path The Path to the file or directory.
+     */
+    private static void removeEntry(Path path) {
+
+        CustomTreeItem<TreeNode> item = treeItems.get(path);
+        TreeNode node = treeNodes.get(path);
+
+        // The root stays.
+        if (item == null || item.getParent() == null) {
+            return;
+        }
+        item.getParent().getChildren().remove(item);
+        if (node.getParent() instanceof DirectoryTreeNode parentNode) {
+            parentNode.removeChild(node);
+        }
+        forget(node);
+
+    }
+
+    /**
+     * Moves a renamed file or directory in the project tree, keeping it and its children expanded as they were.
+     * Runs on the JavaFX Application Thread.
+     *
+     * @param oldPath The old Path.
+     * @param newPath The new Path.
+     */
+    public static void pathRenamed(Path oldPath, Path newPath) {
+
+        TreeNode node = treeNodes.get(oldPath);
+        if (node == null || treeItems.containsKey(newPath) || !oldPath.getParent().equals(newPath.getParent())) {
+            pathDeleted(oldPath);
+            pathCreated(newPath);
+            return;
+        }
+        move(node, oldPath, newPath);
+
+    }
+
+    /**
+     * Points a TreeNode, its CustomTreeItem and their children at a new path.
+     *
+     * @param node The TreeNode.
+     * @param oldPath The old Path of the renamed file or directory.
+     * @param newPath The new Path of the renamed file or directory.
+     */
+    private static void move(TreeNode node, Path oldPath, Path newPath) {
+
+        Path from = node.getPath();
+        Path to = newPath.resolve(oldPath.relativize(from));
+        CustomTreeItem<TreeNode> item = treeItems.remove(from);
+        treeNodes.remove(from);
+        node.setPath(to);
+        treeNodes.put(to, node);
+        if (item != null) {
+            item.setPath(to);
+            item.setIgnored(showIgnored && IgnoreRules.isIgnoredEntry(to, node instanceof DirectoryTreeNode));
+            treeItems.put(to, item);
+
+            // The value is the same TreeNode, so its row is told to show the new name.
+            Event.fireEvent(item, new TreeItem.TreeModificationEvent<>(TreeItem.valueChangedEvent(), item, node));
+        }
+        Boolean isOpen = nodeIsOpen.remove(from.toString());
+        if (isOpen != null) {
+            nodeIsOpen.put(to.toString(), isOpen);
+        }
+        if (node.getChildren() != null) {
+            for (TreeNode child : node.getChildren()) {
+                move(child, oldPath, newPath);
+            }
+        }
+
+    }
+
+    /**
+     * Drops a removed TreeNode and its children from the lookups.
+     *
+     * @param node The TreeNode.
+     */
+    private static void forget(TreeNode node) {
+
+        treeNodes.remove(node.getPath());
+        treeItems.remove(node.getPath());
+        if (node.getChildren() != null) {
+            for (TreeNode child : node.getChildren()) {
+                forget(child);
+            }
         }
 
     }
@@ -802,6 +1047,7 @@ public class DirectoryManager {
                     UndoManager.pushRedo(new FileChange(null, previous.oldPath()));
                 } else {
                     Files.move(previous.newPath(), previous.oldPath());
+                    pathRenamed(previous.newPath(), previous.oldPath());
 
                     // Send notification to language server.
                     JLSManager.sendDeletedFile(previous.newPath().toUri().toString());
@@ -871,6 +1117,7 @@ public class DirectoryManager {
                     UndoManager.pushUndo(new FileChange(null, previous.oldPath()));
                 } else {
                     Files.move(previous.newPath(), previous.oldPath());
+                    pathRenamed(previous.newPath(), previous.oldPath());
 
                     // Send notification to language server.
                     JLSManager.sendDeletedFile(previous.newPath().toUri().toString());
@@ -973,4 +1220,201 @@ public class DirectoryManager {
 
     }
 
+    /**
+     * A row of the project tree. Its graphic and context menus are created once and reused for whatever it shows.
+     */
+    private static class ProjectTreeCell extends TreeCell<TreeNode> {
+
+        /**
+         * The icon.
+         */
+        private final ImageView icon = new ImageView();
+
+        /**
+         * The name.
+         */
+        private final CustomTreeLabel label = new CustomTreeLabel("", null);
+
+        /**
+         * The icon and the name.
+         */
+        private final HBox graphic = new HBox(icon, label);
+
+        /**
+         * The context menu for directories, created when first needed.
+         */
+        private ContextMenu directoryMenu;
+
+        /**
+         * The context menu for files, created when first needed.
+         */
+        private ContextMenu fileMenu;
+
+        /**
+         * Instantiates a new ProjectTreeCell.
+         */
+        private ProjectTreeCell() {
+
+            MainUtility.sizeImage(icon, 18, 18);
+            label.setStyle("-fx-text-fill: white;");
+            graphic.setAlignment(Pos.CENTER_LEFT);
+
+            // Allow dropping files into directories.
+            setOnDragOver(event -> {
+                if (getItem() instanceof DirectoryTreeNode && event.getGestureSource() != this
+                        && event.getDragboard().hasFiles()) {
+                    event.acceptTransferModes(TransferMode.COPY);
+                }
+                event.consume();
+            });
+
+            setOnDragDropped(event -> {
+                Dragboard dragboard = event.getDragboard();
+                if (getItem() instanceof DirectoryTreeNode directory && dragboard.hasFiles()) {
+                    for (File file : dragboard.getFiles()) {
+                        FileManager.copyFile(file.toPath());
+                        DirectoryManager.pasteIntoDirectory(directory.getPath());
+                    }
+                    event.setDropCompleted(true);
+                } else {
+                    event.setDropCompleted(false);
+                }
+                event.consume();
+            });
+
+        }
+
+        /**
+         * Shows a TreeNode in the row.
+         *
+         * @param item The TreeNode.
+         * @param empty Whether the row is empty.
+         */
+        @Override
+        protected void updateItem(TreeNode item, boolean empty) {
+
+            super.updateItem(item, empty);
+            if (empty || item == null) {
+                setGraphic(null);
+                setContextMenu(null);
+                setDisable(true);
+                return;
+            }
+            boolean isDirectory = item instanceof DirectoryTreeNode;
+            icon.setImage(FileIcons.get(item.getName(), isDirectory));
+            label.setText("  " + item.getName());
+            label.setPath(item.getPath());
+            graphic.setOpacity((getTreeItem() instanceof CustomTreeItem<TreeNode> treeItem && treeItem.isIgnored())
+                    ? 0.5 : 1);
+            setGraphic(graphic);
+            setDisable(false);
+            setContextMenu(isDirectory ? getDirectoryMenu() : getFileMenu());
+
+        }
+
+        /**
+         * Retrieves the Path of the TreeNode shown.
+         *
+         * @return The Path.
+         */
+        private Path getPath() {
+
+            return getItem().getPath();
+        }
+
+        /**
+         * Retrieves the context menu for directories, creating it the first time.
+         * Its actions apply to whatever directory the row shows when they run.
+         *
+         * @return The ContextMenu.
+         */
+        private ContextMenu getDirectoryMenu() {
+
+            if (directoryMenu != null) {
+                return directoryMenu;
+            }
+            Menu newItem = new Menu("New");
+
+            Menu fileItem = new Menu("Java File");
+
+            MenuItem classItem = new MenuItem("Class");
+            classItem.setOnAction(event -> FileManager.newJavaClass(getPath()));
+            MenuItem abstractClassItem = new MenuItem("Abstract Class");
+            abstractClassItem.setOnAction(event -> FileManager.newJavaAbstractClass(getPath()));
+            MenuItem interfaceItem = new MenuItem("Interface");
+            interfaceItem.setOnAction(event -> FileManager.newJavaInterface(getPath()));
+            MenuItem recordItem = new MenuItem("Record");
+            recordItem.setOnAction(event -> FileManager.newJavaRecord(getPath()));
+            MenuItem enumItem = new MenuItem("Enum");
+            enumItem.setOnAction(event -> FileManager.newJavaEnum(getPath()));
+            MenuItem annotationItem = new MenuItem("Annotation");
+            annotationItem.setOnAction(event -> FileManager.newJavaAnnotation(getPath()));
+
+            fileItem.getItems().addAll(classItem, abstractClassItem, interfaceItem,
+                    recordItem, enumItem, annotationItem);
+
+            MenuItem packageItem = new MenuItem("Package");
+            packageItem.setOnAction(event -> newPackage(getPath()));
+
+            MenuItem textFileItem = new MenuItem("Text File");
+            textFileItem.setOnAction(event -> FileManager.newTextFile(getPath()));
+
+            newItem.getItems().addAll(fileItem, packageItem, textFileItem);
+
+            MenuItem deleteItem = new MenuItem("Delete");
+            deleteItem.setOnAction(event -> DirectoryManager.deleteDirectory(getPath()));
+            MenuItem cutItem = new MenuItem("Cut");
+            cutItem.setOnAction(event -> DirectoryManager.cutDirectory(getPath()));
+            MenuItem copyItem = new MenuItem("Copy");
+            copyItem.setOnAction(event -> DirectoryManager.copyDirectory(getPath()));
+            MenuItem pasteItem = new MenuItem("Paste");
+            pasteItem.setOnAction(event -> DirectoryManager.pasteIntoDirectory(getPath()));
+            MenuItem renameItem = new MenuItem("Rename");
+            renameItem.setOnAction(event -> DirectoryManager.renameDirectory(getPath()));
+
+            directoryMenu = new ContextMenu(newItem, deleteItem, cutItem, copyItem, pasteItem, renameItem);
+            directoryMenu.getStyleClass().add("context-menu");
+            return directoryMenu;
+
+        }
+
+        /**
+         * Retrieves the context menu for files, creating it the first time.
+         * Its actions apply to whatever file the row shows when they run.
+         *
+         * @return The ContextMenu.
+         */
+        private ContextMenu getFileMenu() {
+
+            if (fileMenu != null) {
+                return fileMenu;
+            }
+            MenuItem deleteItem = new MenuItem("Delete");
+            deleteItem.setOnAction(event -> FileManager.deleteFile(getPath(), false, false));
+            MenuItem cutItem = new MenuItem("Cut");
+            cutItem.setOnAction(event -> FileManager.cutFile(getPath(), true));
+            MenuItem copyItem = new MenuItem("Copy");
+            copyItem.setOnAction(event -> FileManager.copyFile(getPath()));
+            MenuItem pasteItem = new MenuItem("Paste");
+            pasteItem.setOnAction(event -> FileManager.pasteIntoFile(getPath()));
+            MenuItem renameItem = new MenuItem("Rename");
+            renameItem.setOnAction(event -> FileManager.renameFile(getPath()));
+
+            fileMenu = new ContextMenu(deleteItem, cutItem, copyItem, pasteItem, renameItem);
+            fileMenu.getStyleClass().add("context-menu");
+            return fileMenu;
+
+        }
+
+    }
+
+    /**
+     * A file or directory as listed for the project tree.
+     *
+     * @param path The Path to it.
+     * @param isDirectory Whether it is a directory.
+     * @param isIgnored Whether it is ignored.
+     */
+    private record ListedEntry(Path path, boolean isDirectory, boolean isIgnored) {}
+
 }
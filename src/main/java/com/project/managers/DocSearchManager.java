@@ -0,0 +1,199 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.project.managers;
+
+import com.project.custom_classes.IndexedDoc;
+import com.project.custom_classes.SearchDialog;
+import com.project.indexing.DocIndex;
+import com.project.indexing.JdkSources;
+import javafx.application.Platform;
+import javafx.stage.Window;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Handles full-text search over the Javadoc summaries of the JDK and the project.
+ */
+public class DocSearchManager {
+
+    /**
+     * The logger for the class.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(DocSearchManager.class);
+
+    /**
+     * The maximum number of results to show.
+     */
+    private static final int LIMIT = 100;
+
+    /**
+     * The thread searches run on.
+     */
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "doc-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * The dialog the search happens in.
+     */
+    private static SearchDialog<IndexedDoc> dialog;
+
+    /**
+     * Identifies the current query, results for older queries are dropped.
+     */
+    private static int generation = 0;
+
+    /**
+     * Shows the search dialog.
+     *
+     * @param owner The window to show it over.
+     */
+    public static void show(Window owner) {
+
+        if (dialog == null) {
+            dialog = new SearchDialog<>("Search the documentation",
+                    DocSearchManager::format,
+                    DocSearchManager::search,
+                    DocSearchManager::open);
+        }
+        dialog.show(owner);
+
+    }
+
+    /**
+     * Starts searching for a new query, dropping the results of the previous one.
+     * Runs on the JavaFX Application Thread.
+     *
+     * @param query The query.
+     */
+    private static void search(String query) {
+
+        int current = ++generation;
+        dialog.getResults().clear();
+        if (query == null || query.isBlank()) {
+            return;
+        }
+        executor.execute(() -> {
+
+            // A newer query was typed while this one waited.
+            if (current != generation) {
+                return;
+            }
+            List<IndexedDoc> docs = DocIndex.search(query, LIMIT);
+            Platform.runLater(() -> {
+                if (current == generation) {
+                    dialog.getResults().setAll(docs);
+                }
+            });
+        });
+
+    }
+
+    /**
+     * Opens the file declaring a result, at the declaration if it can be found.
+     * JDK source files are extracted first, off the JavaFX Application Thread.
+     *
+     * @param doc The result.
+     */
+    private static void open(IndexedDoc doc) {
+
+        executor.execute(() -> {
+            try {
+                Path path = Paths.get(doc.path());
+                if (JdkSources.extract(path)) {
+                    int line = findLine(Files.readString(path), doc);
+                    Platform.runLater(() -> EditAreaManager.goToPosition(path, line, 0));
+                }
+            } catch (InvalidPathException | IOException e) {
+                logger.error(e.getMessage());
+            }
+        });
+
+    }
+
+    /**
+     * Finds the line a class or member is declared on.
+     *
+     * @param source The source code of the file.
+     * @param doc The summary of the class or member.
+     * @return The line (Zero based), 0 if it can't be found.
+     */
+    private static int findLine(String source, IndexedDoc doc) {
+
+        String name = Pattern.quote(doc.name());
+        String declaration;
+        switch (doc.kind()) {
+            case "Class":
+                declaration = "\\b(?:class|interface|enum|record)\\s+" + name + "\\b";
+                break;
+            case "Field":
+                declaration = "[\\w>\\]]\\s+" + name + "\\s*[=;,]";
+                break;
+            default:
+
+                // A type or modifier comes before the name in a declaration, unlike in a call.
+                declaration = "[\\w>\\]]\\s+" + name + "\\s*\\(";
+                break;
+        }
+        Matcher matcher = Pattern.compile(declaration).matcher(source);
+        if (!matcher.find()) {
+            return 0;
+        }
+        int line = 0;
+        for (int i = 0; i < matcher.start(); i++) {
+            if (source.charAt(i) == '\n') {
+                line++;
+            }
+        }
+        return line;
+
+    }
+
+    /**
+     * Creates the text shown for a result.
+     *
+     * @param doc The result.
+     * @return The text.
+     */
+    private static String format(IndexedDoc doc) {
+
+        String owner = doc.owner().replace('$', '.');
+        switch (doc.kind()) {
+            case "Class":
+                return owner + "  -  " + doc.summary();
+            case "Field":
+                return owner + "." + doc.name() + "  -  " + doc.summary();
+            default:
+                return owner + "." + doc.name() + "(" + doc.parameters() + ")  -  " + doc.summary();
+        }
+
+    }
+
+}
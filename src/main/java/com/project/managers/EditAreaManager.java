@@ -23,7 +23,11 @@ import com.project.custom_classes.TextAreaChange;
 import com.project.custom_classes.OpenFile;
 import com.project.custom_classes.OpenFilesTracker;
 import com.project.custom_classes.CustomCanvas;
-import com.project.utility.DatabaseUtility;
+import com.project.custom_classes.IndexedClass;
+import com.project.indexing.ClassIndex;
+import com.project.indexing.IndexWriter;
+import com.project.indexing.ImportResolver;
+import com.project.indexing.JdkSources;
 import com.project.utility.MainUtility;
 import com.sun.jdi.Location;
 import javafx.animation.KeyFrame;
@@ -63,9 +67,6 @@ import org.slf4j.LoggerFactory;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.sql.Connection;
-import java.sql.ResultSet;
-import java.sql.SQLException;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -297,6 +298,9 @@ public class EditAreaManager {
                 // Notify the server that the file contents have changed.
                 JLSManager.didChange(OpenFilesTracker.getOpenFile(tab).getFile().toPath(), newValue, currentVersions.get(tab));
 
+                // Refresh the outline once typing settles.
+                OutlineManager.requestOutline(tab);
+
                 // Start new thread to avoid blocking main thread during communication with server.
                 Thread completionThread = new Thread(() -> {
                     if (textArea.getInnerTextArea().getCaretPosition() > 0) {
@@ -311,8 +315,13 @@ public class EditAreaManager {
                         } // Check whether the input character is a completion trigger character.
                         else if (completionTriggers.contains(currentChar) || Character.isAlphabetic(currentChar)) {
 
-                            // If so request for completion from the server.
-                            items = JLSManager.complete(OpenFilesTracker.getOpenFile(tab).getFile().toPath(), getPosition(textArea, null));
+                            // If so request for completion from the server, or from the index until it is ready.
+                            if (JLSManager.isReady()) {
+                                items = JLSManager.complete(OpenFilesTracker.getOpenFile(tab).getFile().toPath(), getPosition(textArea, null));
+                            } else {
+                                items = LocalCompletionManager.complete(textArea.getInnerTextArea().getText(),
+                                        textArea.getInnerTextArea().getCaretPosition());
+                            }
                         }
 
                         // Check whether an item was returned.
@@ -381,8 +390,18 @@ public class EditAreaManager {
             if (index > 0 && index < textArea.getLength()) {
 
                 // Run on new thread to avoid blocking the main thread during server interactions.
+                String text = textArea.getInnerTextArea().getText();
                 Thread hoverThread = new Thread(() -> {
 
+                    // Show the indexed Javadoc first, the server's hover replaces it when it arrives.
+                    String localHover = LocalHoverManager.hover(text, index);
+                    if (localHover != null) {
+                        displayHoverResult(localHover, textArea);
+                    }
+                    if (!JLSManager.isReady()) {
+                        return;
+                    }
+
                     // Request for a Hover object from the server.
                     Hover hoverResult = JLSManager.getHover(OpenFilesTracker.getOpenFile(tab).getFile().toPath(), getPosition(textArea, index));
 
@@ -739,104 +758,24 @@ public class EditAreaManager {
             int endChar = diagnostic.getRange().getEnd().getCharacter();
             CustomTextArea textArea = (CustomTextArea) ((StackPane) tab.getContent()).getChildren().get(0);
 
-            ArrayList<String> packageNames = new ArrayList<>();
+            Tooltip tooltip = new Tooltip(diagnostic.getMessage());
 
-            // If the error message says a class can't be resolved. Try to find it.
+            // If the error message says a class can't be resolved, look for it in the background.
+            // Once candidates are found, the tooltip offers to import them.
             if (diagnostic.getMessage().endsWith("cannot be resolved to a type") ||
                     diagnostic.getMessage().endsWith("cannot be resolved")) {
-
-                // Find the source file.
-                Connection conn = DatabaseUtility.connect();
-                ResultSet rs = DatabaseUtility.executeQuery(conn, "SELECT qualifiedName, path FROM ClassMetaData " +
-                        "WHERE className = ?", diagnostic.getMessage().split(" ")[0]);
-                try {
-                    while (rs.next()) {
-
-                        try {
-                            // Remove the entry if the file no longer exists.
-                            if (rs.getString("path").isEmpty() || !Paths.get(rs.getString("path")).toFile().exists()) {
-                                DatabaseUtility.executeUpdate(conn, "DELETE FROM ClassMetaData WHERE className = ? AND path = ?", diagnostic.getMessage().split(" ")[0], rs.getString("path"));
-                                continue;
-                            }
-                            packageNames.add(rs.getString("qualifiedName").replace('$', '.'));
-                        } catch (InvalidPathException ignored) {
-                            DatabaseUtility.executeUpdate(conn, "DELETE FROM ClassMetaData WHERE className = ? AND path = ?", diagnostic.getMessage().split(" ")[0], rs.getString("path"));
-                        }
-
+                String message = diagnostic.getMessage();
+                ImportResolver.resolve(message.split(" ")[0]).thenAccept(packageNames -> {
+                    if (!packageNames.isEmpty()) {
+                        GridPane gridPane = createImportPane(message, packageNames, textArea, tooltip);
+                        Platform.runLater(() -> {
+                            tooltip.setText(null);
+                            tooltip.setGraphic(gridPane);
+                        });
                     }
-                } catch (SQLException e) {
-                    logger.error(e.getMessage());
-                } finally {
-                    try {
-                        rs.getStatement().close();
-                    } catch (SQLException e) {
-                        logger.error(e.getMessage());
-                    }
-                    DatabaseUtility.close(conn);
-                }
-
-            }
-
-            Tooltip tooltip = new Tooltip(diagnostic.getMessage());
-
-            // If any classes were found for missing imports, help user to import.
-            if (!packageNames.isEmpty()) {
-                GridPane gridPane = new GridPane();
-                gridPane.setStyle("-fx-background: black;-fx-fill: white");
-                Label message = new Label(diagnostic.getMessage());
-                message.setStyle("-fx-font-size: 11px;");
-                gridPane.add(message, 0, 0);
-                Label importClass = new Label("import class");
-                importClass.getStyleClass().add("import-class");
-                Tooltip finalTooltip1 = tooltip;
-                importClass.setOnMouseClicked(event -> {
-
-                    // If more than one class was found, prompt user to pick one.
-                    // Otherwise, import what was found.
-                    if (packageNames.size() > 1) {
-                        Tooltip importSuggestions = new Tooltip();
-                        GridPane gp = new GridPane();
-                        gp.setStyle("-fx-background: black;-fx-fill: white");
-                        for (int i = 0; i < packageNames.size(); i++) {
-                            Label label = new Label(packageNames.get(i));
-                            label.getStyleClass().add("import-class");
-                            label.addEventHandler(MouseEvent.MOUSE_CLICKED, event2 -> {
-
-                                // Import the class when clicked.
-                                addImport(textArea, label.getText());
-
-                                if (importSuggestions.isShowing()) {
-                                    importSuggestions.hide();
-                                }
-                                if (finalTooltip1.isShowing()) {
-                                    finalTooltip1.hide();
-                                }
-
-                            });
-                            gp.add(label, 0, i);
-                        }
-                        importSuggestions.setGraphic(gp);
-                        importSuggestions.show(textArea.getScene().getWindow());
-
-                        // Auto hide the toolTip after 6 seconds.
-                        new Timeline(new KeyFrame(
-                                javafx.util.Duration.millis(4000),
-                                event2 -> importSuggestions.hide()
-                        )).play();
-
-                    } else {
-                        addImport(textArea, packageNames.get(0));
-                        finalTooltip1.hide();
-                    }
-
                 });
-                gridPane.add(importClass, 0, 1);
-                tooltip = new Tooltip();
-                tooltip.setGraphic(gridPane);
-                hide.set(false);
             }
 
-
             // Add event handler for showing the Tooltip
             int finalStart = textArea.getAbsolutePosition(startLine, startChar);
             int finalEnd = textArea.getAbsolutePosition(endLine, endChar);
@@ -941,6 +880,71 @@ public class EditAreaManager {
 
     }
 
+    /**
+     * Creates the contents of a tooltip offering to import a class.
+     * Nothing is attached to the scene, so it can be created off the JavaFX Application Thread.
+     *
+     * @param message The diagnostic message.
+     * @param packageNames The fully qualified names of the classes that can be imported.
+     * @param textArea The text area the import goes in.
+     * @param tooltip The tooltip the contents are for.
+     * @return The contents.
+     */
+    private static GridPane createImportPane(String message, List<String> packageNames, CustomTextArea textArea, Tooltip tooltip) {
+
+        GridPane gridPane = new GridPane();
+        gridPane.setStyle("-fx-background: black;-fx-fill: white");
+        Label messageLabel = new Label(message);
+        messageLabel.setStyle("-fx-font-size: 11px;");
+        gridPane.add(messageLabel, 0, 0);
+        Label importClass = new Label("import class");
+        importClass.getStyleClass().add("import-class");
+        importClass.setOnMouseClicked(event -> {
+
+            // If more than one class was found, prompt user to pick one.
+            // Otherwise, import what was found.
+            if (packageNames.size() > 1) {
+                Tooltip importSuggestions = new Tooltip();
+                GridPane gp = new GridPane();
+                gp.setStyle("-fx-background: black;-fx-fill: white");
+                for (int i = 0; i < packageNames.size(); i++) {
+                    Label label = new Label(packageNames.get(i));
+                    label.getStyleClass().add("import-class");
+                    label.addEventHandler(MouseEvent.MOUSE_CLICKED, event2 -> {
+
+                        // Import the class when clicked.
+                        addImport(textArea, label.getText());
+
+                        if (importSuggestions.isShowing()) {
+                            importSuggestions.hide();
+                        }
+                        if (tooltip.isShowing()) {
+                            tooltip.hide();
+                        }
+
+                    });
+                    gp.add(label, 0, i);
+                }
+                importSuggestions.setGraphic(gp);
+                importSuggestions.show(textArea.getScene().getWindow());
+
+                // Auto hide the toolTip after 6 seconds.
+                new Timeline(new KeyFrame(
+                        javafx.util.Duration.millis(4000),
+                        event2 -> importSuggestions.hide()
+                )).play();
+
+            } else {
+                addImport(textArea, packageNames.get(0));
+                tooltip.hide();
+            }
+
+        });
+        gridPane.add(importClass, 0, 1);
+        return gridPane;
+
+    }
+
     /**
      * Sets up goToBtn.
      *
@@ -974,6 +978,46 @@ public class EditAreaManager {
 
     }
 
+    /**
+     * Retrieves the current version of the file in a tab.
+     *
+     * @param tab The Tab.
+     * @return The version, 0 if the tab is not tracked.
+     */
+    public static int getVersion(Tab tab) {
+
+        return currentVersions.getOrDefault(tab, 0);
+    }
+
+    /**
+     * Opens a file and moves the caret to a position in it.
+     *
+     * @param path The Path to the file.
+     * @param line The line (Zero based).
+     * @param character The character on the line (Zero based).
+     */
+    public static void goToPosition(Path path, int line, int character) {
+
+        FileManager.openFile(path);
+        OpenFile openFile = OpenFilesTracker.getOpenFile(path);
+        if (openFile == null) {
+            return;
+        }
+        CustomTextArea textArea = (CustomTextArea) ((StackPane) openFile.getTab().getContent()).getChildren().get(0);
+        if (line >= textArea.getParagraphs().size()) {
+            line = textArea.getParagraphs().size() - 1;
+        }
+        if (line < 0) {
+            return;
+        }
+
+        // Keep the character within the line.
+        textArea.moveTo(line, Math.min(character, textArea.getParagraphLength(line)));
+        textArea.showParagraphInViewport(line);
+        textArea.requestFocus();
+
+    }
+
     /**
      * Retrieves the compilationTooltip.
      *
@@ -996,35 +1040,21 @@ public class EditAreaManager {
         int lineNumber = location.lineNumber();
         Path path = null;
 
-        // Find the source file.
-        Connection conn = DatabaseUtility.connect();
-        if (conn == null) {
-            logger.error("Could not connect to database");
-            return false;
-        }
-        ResultSet rs = DatabaseUtility.executeQuery(conn, "SELECT path FROM ClassMetaData " +
-                "WHERE qualifiedName = ? LIMIT 1", className);
-        try {
-            path = Paths.get(rs.getString("path"));
-            rs.getStatement().close();
-
-            // Remove entry if the file no longer exists.
-            if (!path.toFile().exists()) {
-                DatabaseUtility.executeUpdate(conn, "DELETE FROM ClassMetaData WHERE qualifiedName = ?", className);
-                path = null;
-            }
-        } catch (SQLException e) {
-            logger.error(e.getMessage());
-        } catch (InvalidPathException e) {
-            path = null;
-            logger.error(e.getMessage());
-        } finally {
+        // Find the source file, classes only known from jars have none.
+        IndexedClass indexedClass = ClassIndex.findByQualifiedName(className);
+        if (indexedClass != null && indexedClass.path().endsWith(".java")) {
             try {
-                rs.getStatement().close();
-            } catch (SQLException e) {
+                path = Paths.get(indexedClass.path());
+
+                // Remove entry if the file no longer exists, JDK sources are extracted from src.zip here.
+                if (!JdkSources.extract(path)) {
+                    IndexWriter.removePath(indexedClass.path());
+                    path = null;
+                }
+            } catch (InvalidPathException e) {
+                path = null;
                 logger.error(e.getMessage());
             }
-            DatabaseUtility.close(conn);
         }
         if (path == null) {
             logger.error("Couldn't find {}", className);
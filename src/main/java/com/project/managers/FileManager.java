@@ -23,6 +23,7 @@ import com.project.custom_classes.BreakPoint;
 import com.project.custom_classes.OpenFile;
 import com.project.custom_classes.OpenFilesTracker;
 import com.project.custom_classes.FileChange;
+import com.project.custom_classes.PathChange;
 import javafx.geometry.Pos;
 import javafx.scene.Node;
 import javafx.scene.control.Tab;
@@ -216,6 +217,7 @@ public class FileManager {
 
             // Send didClose notification to language server.
             JLSManager.didClose(file.getFile().toPath());
+            OutlineManager.forget(file.getFile().toPath());
         }
 
     }
@@ -244,12 +246,7 @@ public class FileManager {
 
                 // Send didSave notification to language server.
                 JLSManager.sendDidSave(file.toURI().toString(), textArea.getInnerTextArea().getText());
-                OpenFilesTracker.getOpenFile(tab).setIsSaved(true);
-                HBox header = (HBox) tab.getGraphic();
-                header.getChildren().remove(0);
-                Label headerLabel = new Label(OpenFilesTracker.getOpenFile(tab).getFile().getName() + "     ");
-                headerLabel.setStyle("-fx-text-fill: white");
-                header.getChildren().add(0, headerLabel);
+                markSaved(tab);
             } else {
                 MainUtility.popup(new Label("Error saving file"));
             }
@@ -257,6 +254,66 @@ public class FileManager {
 
     }
 
+    /**
+     * Marks the file in a tab as saved, and drops the '*' from its header.
+     *
+     * @param tab The tab.
+     */
+    private static void markSaved(Tab tab) {
+
+        OpenFilesTracker.getOpenFile(tab).setIsSaved(true);
+        HBox header = (HBox) tab.getGraphic();
+        header.getChildren().remove(0);
+        Label headerLabel = new Label(OpenFilesTracker.getOpenFile(tab).getFile().getName() + "     ");
+        headerLabel.setStyle("-fx-text-fill: white");
+        header.getChildren().add(0, headerLabel);
+
+    }
+
+    /**
+     * Reloads open files that were changed on disk by something else, as reported by the ProjectWatcher.
+     * Files with unsaved edits are left alone. Runs on the JavaFX Application Thread.
+     *
+     * @param changes The changes.
+     */
+    public static void filesChanged(List<PathChange> changes) {
+
+        for (PathChange change : changes) {
+            if (change.type() != PathChange.Type.MODIFIED && change.type() != PathChange.Type.CREATED) {
+                continue;
+            }
+            OpenFile openFile = OpenFilesTracker.getOpenFile(change.path());
+            if (openFile == null || !openFile.getIsSaved()) {
+                continue;
+            }
+            CustomTextArea textArea = (CustomTextArea) ((StackPane) openFile.getTab().getContent()).getChildren().get(0);
+
+            // Saves from the editor come back here too, skip files that hold what it last wrote.
+            try {
+                String onDisk = Files.readString(change.path());
+                if (onDisk.equals(textArea.getInnerTextArea().getText() + System.lineSeparator())) {
+                    continue;
+                }
+            } catch (IOException e) {
+                logger.error(e.getMessage());
+                continue;
+            }
+            StringBuilder text = new StringBuilder();
+            ArrayList<String> lines = readFile(change.path());
+            if (lines != null) {
+                for (String line : lines) {
+                    text.append(line).append("\n");
+                }
+            }
+            int caret = Math.min(textArea.getCaretPosition(), text.length());
+            textArea.replaceText(text.toString());
+            textArea.moveTo(caret);
+            markSaved(openFile.getTab());
+            logger.info("Reloaded {}", change.path());
+        }
+
+    }
+
     /**
      * Saves all files given.
      *
@@ -666,6 +723,7 @@ public class FileManager {
         try {
             DirectoryManager.UndoManager.pushUndo(new FileChange(path, newPath));
             Files.move(path, newPath, StandardCopyOption.REPLACE_EXISTING);
+            DirectoryManager.pathRenamed(path, newPath);
 
             // Send notification to language server.
             JLSManager.sendDeletedFile(path.toUri().toString());
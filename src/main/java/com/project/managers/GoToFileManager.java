@@ -0,0 +1,113 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.project.managers;
+
+import com.project.custom_classes.SearchDialog;
+import com.project.indexing.PathIndex;
+import javafx.application.Platform;
+import javafx.stage.Window;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Handles opening files of the project by typing part of their name.
+ */
+public class GoToFileManager {
+
+    /**
+     * The maximum number of files to show.
+     */
+    private static final int LIMIT = 200;
+
+    /**
+     * The thread searches run on.
+     */
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "go-to-file");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Identifies the current query, results for older queries are dropped.
+     */
+    private static final AtomicInteger generation = new AtomicInteger();
+
+    /**
+     * The dialog the search happens in.
+     */
+    private static SearchDialog<Path> dialog;
+
+    /**
+     * Shows the search dialog.
+     *
+     * @param owner The window to show it over.
+     */
+    public static void show(Window owner) {
+
+        if (dialog == null) {
+            dialog = new SearchDialog<>("Type part of a file name or path",
+                    GoToFileManager::format,
+                    GoToFileManager::search,
+                    FileManager::openFile);
+        }
+        dialog.show(owner);
+
+    }
+
+    /**
+     * Searches for files matching a query in the background.
+     * Runs on the JavaFX Application Thread.
+     *
+     * @param query The query.
+     */
+    private static void search(String query) {
+
+        int current = generation.incrementAndGet();
+        executor.execute(() -> {
+
+            // A newer query was typed while waiting, skip this one.
+            if (current != generation.get()) {
+                return;
+            }
+            List<Path> files = PathIndex.search(query, LIMIT);
+            Platform.runLater(() -> {
+                if (current == generation.get()) {
+                    dialog.getResults().setAll(files);
+                }
+            });
+        });
+
+    }
+
+    /**
+     * Creates the text shown for a file.
+     *
+     * @param path The Path to the file.
+     * @return The text.
+     */
+    private static String format(Path path) {
+
+        Path parent = path.getParent();
+        return path.getFileName() + ((parent == null) ? "" : "  " + parent);
+    }
+
+}
@@ -20,6 +20,8 @@ package com.project.managers;
 import com.project.custom_classes.OpenFile;
 import com.project.custom_classes.OpenFilesTracker;
 import com.project.custom_classes.LanguageStatusParams;
+import com.project.custom_classes.SymbolMatch;
+import com.project.custom_classes.PathChange;
 import com.project.utility.MainUtility;
 import javafx.application.Platform;
 import javafx.scene.control.Label;
@@ -65,6 +67,17 @@ import org.eclipse.lsp4j.CompletionOptions;
 import org.eclipse.lsp4j.HoverOptions;
 import org.eclipse.lsp4j.SignatureHelpOptions;
 import org.eclipse.lsp4j.DiagnosticRegistrationOptions;
+import org.eclipse.lsp4j.ClientCapabilities;
+import org.eclipse.lsp4j.TextDocumentClientCapabilities;
+import org.eclipse.lsp4j.DocumentSymbolCapabilities;
+import org.eclipse.lsp4j.DocumentSymbolParams;
+import org.eclipse.lsp4j.DocumentSymbol;
+import org.eclipse.lsp4j.SymbolInformation;
+import org.eclipse.lsp4j.ProgressParams;
+import org.eclipse.lsp4j.WorkspaceSymbol;
+import org.eclipse.lsp4j.WorkspaceSymbolParams;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.jsonrpc.json.MessageJsonHandler;
 import org.eclipse.lsp4j.jsonrpc.Launcher;
 import org.eclipse.lsp4j.jsonrpc.messages.Either;
 import org.eclipse.lsp4j.jsonrpc.services.JsonNotification;
@@ -73,6 +86,8 @@ import org.eclipse.lsp4j.services.LanguageClient;
 import org.eclipse.lsp4j.services.LanguageServer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
@@ -82,9 +97,15 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
  * Handles language server related operations.
@@ -111,6 +132,21 @@ public class JLSManager {
      */
     private static final AtomicInteger numberOfResets = new AtomicInteger(0);
 
+    /**
+     * Whether the server has been initialized and can answer requests.
+     */
+    private static final AtomicBoolean isReady = new AtomicBoolean(false);
+
+    /**
+     * Handlers for partial results streamed by the server, mapped by their progress token.
+     */
+    private static final Map<String, Consumer<List<SymbolMatch>>> partialResultHandlers = new ConcurrentHashMap<>();
+
+    /**
+     * Gson able to read lsp4j types out of raw partial results.
+     */
+    private static final Gson gson = new MessageJsonHandler(Collections.emptyMap()).getGson();
+
     /**
      * The language client.
      */
@@ -253,6 +289,24 @@ public class JLSManager {
             }
         }
 
+        /**
+         * Receives progress notifications from the server, including partial results.
+         *
+         * @param params The progress parameters.
+         */
+        @Override
+        public void notifyProgress(ProgressParams params) {
+            try {
+                if (params.getValue() != null && params.getValue().isRight()) {
+                    String token = params.getToken().isLeft()
+                            ? params.getToken().getLeft() : String.valueOf(params.getToken().getRight());
+                    handlePartialResult(token, params.getValue().getRight());
+                }
+            } catch (Exception e) {
+                logger.error(e.getMessage());
+            }
+        }
+
         /**
          * Receives status notifications from the server.
          *
@@ -354,6 +408,8 @@ public class JLSManager {
      */
     public static void stopServer() {
 
+        isReady.set(false);
+
         // Send didClose notification for each file closed.
         for (OpenFile o : OpenFilesTracker.getOpenFiles()) {
             JLSManager.didClose(o.getFile().toPath());
@@ -385,6 +441,15 @@ public class JLSManager {
         }
         initializeParams.setProcessId((int) pid);
 
+        // Ask for nested document symbols, they are used to build the outline.
+        DocumentSymbolCapabilities documentSymbolCapabilities = new DocumentSymbolCapabilities();
+        documentSymbolCapabilities.setHierarchicalDocumentSymbolSupport(true);
+        TextDocumentClientCapabilities textDocumentCapabilities = new TextDocumentClientCapabilities();
+        textDocumentCapabilities.setDocumentSymbol(documentSymbolCapabilities);
+        ClientCapabilities clientCapabilities = new ClientCapabilities();
+        clientCapabilities.setTextDocument(textDocumentCapabilities);
+        initializeParams.setCapabilities(clientCapabilities);
+
         // Send initialize request.
         CompletableFuture<InitializeResult> initializeFuture = languageServer.initialize(initializeParams);
         initializeFuture.thenAccept(result -> {
@@ -398,6 +463,7 @@ public class JLSManager {
             registerDiagnostic();
 
             languageServer.initialized(new InitializedParams());
+            isReady.set(true);
         }).exceptionally(throwable -> {
             logger.error("Initialization failed: {}", throwable.getMessage());
             return null;
@@ -612,6 +678,182 @@ public class JLSManager {
 
     }
 
+    /**
+     * Requests the server for the symbols declared in a file.
+     *
+     * @param path The Path to the file.
+     * @return The symbols, either nested DocumentSymbols or flat SymbolInformation. null if the request failed.
+     */
+    public static List<Either<SymbolInformation, DocumentSymbol>> getDocumentSymbols(Path path) {
+
+        CountDownLatch latch = new CountDownLatch(1);
+
+        DocumentSymbolParams params = new DocumentSymbolParams(new TextDocumentIdentifier(path.toUri().toString()));
+
+        final List<Either<SymbolInformation, DocumentSymbol>>[] returnValue = new List[]{null};
+
+        // Send the request.
+        CompletableFuture<List<Either<SymbolInformation, DocumentSymbol>>> futureSymbols = languageServer.getTextDocumentService().documentSymbol(params);
+        futureSymbols.thenAccept(symbols -> {
+            if (symbols != null) {
+                returnValue[0] = symbols;
+            } else {
+                logger.info("No document symbols available.");
+            }
+
+            // Release the thread.
+            latch.countDown();
+        }).exceptionally(ex -> {
+            logger.error("Error while fetching document symbols: {}", ex.getMessage());
+
+            // Release the thread.
+            latch.countDown();
+            return null;
+        });
+
+        try {
+
+            // Don't wait forever, the caller falls back to parsing the file itself.
+            if (!latch.await(3, TimeUnit.SECONDS)) {
+                futureSymbols.cancel(true);
+            }
+        } catch (InterruptedException e) {
+            logger.error(e.getMessage());
+        }
+
+        return returnValue[0];
+
+    }
+
+    /**
+     * Requests the server for the symbols in the workspace matching a query.
+     * Matches are streamed to the Consumer as the server finds them, on a server thread.
+     * Cancelling the returned future cancels the request on the server.
+     *
+     * @param query The query.
+     * @param onResults Receives each batch of matches.
+     * @return The pending request, null if the server is not ready.
+     */
+    public static CompletableFuture<?> searchWorkspaceSymbols(String query, Consumer<List<SymbolMatch>> onResults) {
+
+        if (!isReady()) {
+            return null;
+        }
+
+        // Ask for partial results so the first matches show before the search is over.
+        String token = UUID.randomUUID().toString();
+        partialResultHandlers.put(token, onResults);
+        WorkspaceSymbolParams params = new WorkspaceSymbolParams(query);
+        params.setPartialResultToken(Either.forLeft(token));
+
+        CompletableFuture<Either<List<? extends SymbolInformation>, List<? extends WorkspaceSymbol>>> futureSymbols =
+                languageServer.getWorkspaceService().symbol(params);
+        futureSymbols.whenComplete((symbols, ex) -> {
+            partialResultHandlers.remove(token);
+            if (ex != null) {
+                if (!futureSymbols.isCancelled()) {
+                    logger.error("Error while fetching workspace symbols: {}", ex.getMessage());
+                }
+                return;
+            }
+            if (symbols == null) {
+                return;
+            }
+
+            // Whatever was not streamed comes with the final response.
+            List<SymbolMatch> matches = new ArrayList<>();
+            if (symbols.isLeft()) {
+                symbols.getLeft().forEach(symbol -> addSymbolMatch(matches, symbol.getName(), symbol.getContainerName(),
+                        symbol.getKind().name(), symbol.getLocation().getUri(), symbol.getLocation().getRange()));
+            } else {
+                symbols.getRight().forEach(symbol -> addWorkspaceSymbolMatch(matches, symbol));
+            }
+            if (!matches.isEmpty()) {
+                onResults.accept(matches);
+            }
+        });
+        return futureSymbols;
+
+    }
+
+    /**
+     * Hands a batch of partial results to the request it belongs to.
+     *
+     * @param token The progress token of the request.
+     * @param value The raw batch of results.
+     */
+    private static void handlePartialResult(String token, Object value) {
+
+        Consumer<List<SymbolMatch>> handler = partialResultHandlers.get(token);
+        if (handler == null) {
+            return;
+        }
+        JsonElement json = (value instanceof JsonElement element) ? element : gson.toJsonTree(value);
+        if (!json.isJsonArray()) {
+            return;
+        }
+
+        // Both SymbolInformation and WorkspaceSymbol can be read as a WorkspaceSymbol.
+        List<SymbolMatch> matches = new ArrayList<>();
+        for (JsonElement element : json.getAsJsonArray()) {
+            addWorkspaceSymbolMatch(matches, gson.fromJson(element, WorkspaceSymbol.class));
+        }
+        if (!matches.isEmpty()) {
+            handler.accept(matches);
+        }
+
+    }
+
+    /**
+     * Adds a WorkspaceSymbol to a list of matches.
+     *
+     * @param matches The list of matches.
+     * @param symbol The WorkspaceSymbol.
+     */
+    private static void addWorkspaceSymbolMatch(List<SymbolMatch> matches, WorkspaceSymbol symbol) {
+
+        if (symbol.getLocation() == null) {
+            return;
+        }
+        if (symbol.getLocation().isLeft()) {
+            addSymbolMatch(matches, symbol.getName(), symbol.getContainerName(), symbol.getKind().name(),
+                    symbol.getLocation().getLeft().getUri(), symbol.getLocation().getLeft().getRange());
+        } else {
+
+            // Only the file is known, the position is resolved when the symbol is opened.
+            addSymbolMatch(matches, symbol.getName(), symbol.getContainerName(), symbol.getKind().name(),
+                    symbol.getLocation().getRight().getUri(), null);
+        }
+
+    }
+
+    /**
+     * Adds a symbol to a list of matches if it is in a file on disk.
+     *
+     * @param matches The list of matches.
+     * @param name The name of the symbol.
+     * @param container The name of the container of the symbol.
+     * @param kind The kind of symbol.
+     * @param uri The URI of the file declaring the symbol.
+     * @param range The range of the symbol, null if unknown.
+     */
+    private static void addSymbolMatch(List<SymbolMatch> matches, String name, String container, String kind, String uri, Range range) {
+
+        // Symbols in class files have jdt:// URIs which can't be opened.
+        if (uri == null || !uri.startsWith("file:")) {
+            return;
+        }
+        int line = 0;
+        int character = 0;
+        if (range != null) {
+            line = range.getStart().getLine();
+            character = range.getStart().getCharacter();
+        }
+        matches.add(new SymbolMatch(name, (container == null) ? "" : container, kind,
+                Paths.get(URI.create(uri)), line, character));
+
+    }
+
     /**
      * Request server to change the workspace folder.
      *
@@ -720,6 +962,39 @@ public class JLSManager {
 
     }
 
+    /**
+     * Notifies the server of a batch of changes reported by the ProjectWatcher, in one notification.
+     *
+     * @param changes The changes.
+     */
+    public static void sendChangedFiles(List<PathChange> changes) {
+
+        if (!isReady()) {
+            return;
+        }
+        List<FileEvent> fileEvents = new ArrayList<>();
+        for (PathChange change : changes) {
+            String uri = change.path().toUri().toString();
+            switch (change.type()) {
+                case CREATED:
+                    fileEvents.add(new FileEvent(uri, FileChangeType.Created));
+                    break;
+                case MODIFIED:
+                    fileEvents.add(new FileEvent(uri, FileChangeType.Changed));
+                    break;
+                case DELETED:
+                    fileEvents.add(new FileEvent(uri, FileChangeType.Deleted));
+                    break;
+                default:
+                    break;
+            }
+        }
+        if (!fileEvents.isEmpty()) {
+            languageServer.getWorkspaceService().didChangeWatchedFiles(new DidChangeWatchedFilesParams(fileEvents));
+        }
+
+    }
+
     /**
      * Handles diagnostics from the server.
      *
@@ -751,6 +1026,7 @@ public class JLSManager {
      */
     private static void resetServer() {
 
+        isReady.set(false);
         FileManager.saveFiles(OpenFilesTracker.getOpenFiles());
         stopServer();
         startServer();
@@ -893,6 +1169,16 @@ public class JLSManager {
 
     }
 
+    /**
+     * Retrieves whether the server is initialized and can answer requests.
+     *
+     * @return Whether the server is ready.
+     */
+    public static boolean isReady() {
+
+        return isReady.get() && languageServer != null;
+    }
+
     /**
      * Generates a list of characters to trigger completions.
      *
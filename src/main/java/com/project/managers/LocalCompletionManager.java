@@ -0,0 +1,325 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.project.managers;
+
+import com.project.custom_classes.IndexedClass;
+import com.project.custom_classes.IndexedMember;
+import com.project.indexing.ClassIndex;
+import com.project.indexing.MemberIndex;
+import com.project.indexing.ReferenceScanner;
+import org.eclipse.lsp4j.CompletionItem;
+import org.eclipse.lsp4j.CompletionItemKind;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Completes code from the class and member indexes while the language server is unavailable.
+ * It only understands simple cases: type names, and members after a type name, a declared variable or "this".
+ */
+public class LocalCompletionManager {
+
+    /**
+     * The maximum number of items to return.
+     */
+    private static final int LIMIT = 50;
+
+    /**
+     * Matches the package declaration of a file.
+     */
+    private static final Pattern PACKAGE = Pattern.compile("^\\s*package\\s+([\\w.]+)\\s*;", Pattern.MULTILINE);
+
+    /**
+     * Matches the single type imports of a file.
+     */
+    private static final Pattern IMPORT = Pattern.compile("^\\s*import\\s+([\\w.]+)\\s*;", Pattern.MULTILINE);
+
+    /**
+     * Completes code at a position.
+     *
+     * @param text The text of the file.
+     * @param caret The position of the caret in the text.
+     * @return The completion items.
+     */
+    public static List<CompletionItem> complete(String text, int caret) {
+
+        List<CompletionItem> items = new ArrayList<>();
+        int start = caret;
+        while (start > 0 && Character.isJavaIdentifierPart(text.charAt(start - 1))) {
+            start--;
+        }
+        String prefix = text.substring(start, caret);
+
+        // After a dot, complete the members of whatever is before it.
+        if (start > 0 && text.charAt(start - 1) == '.') {
+            Receiver receiver = resolveReceiver(text, start - 1);
+            if (receiver != null) {
+                addMembers(items, receiver.type(), prefix, receiver.isStatic());
+            }
+            return items;
+        }
+
+        if (prefix.isEmpty()) {
+            return items;
+        }
+
+        // Otherwise complete the members of the class being edited, then type names.
+        IndexedClass enclosing = enclosingClass(text);
+        if (enclosing != null) {
+            addMembers(items, enclosing, prefix, false);
+        }
+        Set<String> seen = new HashSet<>();
+        for (IndexedClass indexedClass : ClassIndex.prefix(prefix, LIMIT)) {
+            if (items.size() >= LIMIT) {
+                break;
+            }
+            if (seen.add(indexedClass.qualifiedName())) {
+                CompletionItem item = new CompletionItem(indexedClass.className()
+                        + (indexedClass.packageName().isEmpty() ? "" : " - " + indexedClass.packageName()));
+                item.setKind(CompletionItemKind.Class);
+                item.setInsertText(indexedClass.className());
+                items.add(item);
+            }
+        }
+        return items;
+
+    }
+
+    /**
+     * Adds the members of a class that start with a prefix.
+     *
+     * @param items The items to add to.
+     * @param type The class.
+     * @param prefix The prefix, matched ignoring case.
+     * @param staticOnly Whether only static members should be added.
+     */
+    private static void addMembers(List<CompletionItem> items, IndexedClass type, String prefix, boolean staticOnly) {
+
+        String lowerPrefix = prefix.toLowerCase();
+        Set<String> seen = new HashSet<>();
+        for (IndexedMember member : MemberIndex.find(type.qualifiedName())) {
+            if (items.size() >= LIMIT) {
+                return;
+            }
+            if (member.kind().equals("Constructor") || (staticOnly && !member.isStatic())
+                    || !member.name().toLowerCase().startsWith(lowerPrefix)) {
+                continue;
+            }
+            CompletionItem item;
+            if (member.kind().equals("Method")) {
+                if (!seen.add(member.name() + "(" + member.parameters() + ")")) {
+                    continue;
+                }
+                item = new CompletionItem(member.name() + "(" + member.parameters() + ") : " + member.type());
+                item.setKind(CompletionItemKind.Method);
+            } else {
+                if (!seen.add(member.name())) {
+                    continue;
+                }
+                item = new CompletionItem(member.name() + " : " + member.type());
+                item.setKind(CompletionItemKind.Field);
+            }
+            item.setInsertText(member.name());
+            item.setDetail(type.className());
+            items.add(item);
+        }
+
+    }
+
+    /**
+     * Finds what the identifier at a position refers to: a type, a member accessed after a dot,
+     * or a member of the class being edited.
+     *
+     * @param text The text of the file.
+     * @param index The position in the text.
+     * @return The symbol, null if there is no identifier there or it can't be resolved.
+     */
+    static Symbol resolveSymbol(String text, int index) {
+
+        int start = Math.min(index, text.length());
+        while (start > 0 && Character.isJavaIdentifierPart(text.charAt(start - 1))) {
+            start--;
+        }
+        int end = Math.min(index, text.length());
+        while (end < text.length() && Character.isJavaIdentifierPart(text.charAt(end))) {
+            end++;
+        }
+        if (start == end || !Character.isJavaIdentifierStart(text.charAt(start))) {
+            return null;
+        }
+        String word = text.substring(start, end);
+
+        if (start > 0 && text.charAt(start - 1) == '.') {
+            Receiver receiver = resolveReceiver(text, start - 1);
+            if (receiver != null) {
+                return new Symbol(receiver.type(), word, false);
+            }
+
+            // The dot may be part of a qualified type name.
+            IndexedClass type = Character.isUpperCase(word.charAt(0)) ? resolve(text, word) : null;
+            return (type == null) ? null : new Symbol(type, word, true);
+        }
+        if (Character.isUpperCase(word.charAt(0))) {
+            IndexedClass type = resolve(text, word);
+            if (type != null) {
+                return new Symbol(type, word, true);
+            }
+        }
+        IndexedClass enclosing = enclosingClass(text);
+        return (enclosing == null) ? null : new Symbol(enclosing, word, false);
+
+    }
+
+    /**
+     * Finds the class whose members are accessed after a dot, from the type name, variable or "this" before it.
+     *
+     * @param text The text of the file.
+     * @param dot The index of the dot.
+     * @return The class, null if it is not known.
+     */
+    static Receiver resolveReceiver(String text, int dot) {
+
+        int qualifierStart = dot;
+        while (qualifierStart > 0 && Character.isJavaIdentifierPart(text.charAt(qualifierStart - 1))) {
+            qualifierStart--;
+        }
+        String qualifier = text.substring(qualifierStart, dot);
+        if (qualifier.isEmpty()) {
+            return null;
+        }
+        if (qualifier.equals("this")) {
+            IndexedClass enclosing = enclosingClass(text);
+            return (enclosing == null) ? null : new Receiver(enclosing, false);
+        }
+
+        // A variable hides a type of the same name, otherwise only the type's static members are accessible.
+        boolean isStatic = false;
+        String declaredType = declaredType(text.substring(0, qualifierStart), qualifier);
+        if (declaredType == null && Character.isUpperCase(qualifier.charAt(0))) {
+            declaredType = qualifier;
+            isStatic = true;
+        }
+        IndexedClass type = (declaredType == null) ? null : resolve(text, declaredType);
+        return (type == null) ? null : new Receiver(type, isStatic);
+
+    }
+
+    /**
+     * Finds the type a variable was declared with, looking back from where it is used.
+     *
+     * @param before The text before the use of the variable.
+     * @param variable The name of the variable.
+     * @return The simple or qualified name of the type, without type arguments, null if no declaration was found
+     * or the variable is an array.
+     */
+    private static String declaredType(String before, String variable) {
+
+        Matcher matcher = Pattern.compile("\\b([A-Za-z_$][\\w$.]*)\\s*(?:<[^;=(){}]*>)?\\s*((?:\\[\\s*]\\s*)*)\\s+"
+                + Pattern.quote(variable) + "\\s*[=;,):]").matcher(before);
+        String type = null;
+        while (matcher.find()) {
+            String candidate = matcher.group(1);
+            if (!candidate.equals("return") && !candidate.equals("new")) {
+
+                // Arrays have no indexed members.
+                type = matcher.group(2).isEmpty() ? candidate : null;
+            }
+        }
+        return type;
+
+    }
+
+    /**
+     * Finds the indexed class a type name refers to in a file, looking at its imports and package.
+     *
+     * @param text The text of the file.
+     * @param typeName The simple or qualified name of the type.
+     * @return The class, null if it is not indexed.
+     */
+    static IndexedClass resolve(String text, String typeName) {
+
+        if (typeName.indexOf('.') != -1) {
+            IndexedClass qualified = ClassIndex.findByQualifiedName(typeName);
+            if (qualified != null) {
+                return qualified;
+            }
+            typeName = typeName.substring(typeName.lastIndexOf('.') + 1);
+        }
+        List<IndexedClass> candidates = ClassIndex.exact(typeName);
+        if (candidates.isEmpty()) {
+            return null;
+        }
+
+        // Prefer an imported class, then one in the same package, then one in java.lang.
+        Matcher imports = IMPORT.matcher(text);
+        while (imports.find()) {
+            for (IndexedClass candidate : candidates) {
+                if (candidate.qualifiedName().replace('$', '.').equals(imports.group(1))) {
+                    return candidate;
+                }
+            }
+        }
+        Matcher packageMatcher = PACKAGE.matcher(text);
+        String packageName = packageMatcher.find() ? packageMatcher.group(1) : "";
+        for (String preferred : new String[]{packageName, "java.lang"}) {
+            for (IndexedClass candidate : candidates) {
+                if (candidate.packageName().equals(preferred)) {
+                    return candidate;
+                }
+            }
+        }
+        return candidates.get(0);
+
+    }
+
+    /**
+     * Finds the indexed class of the first type declared in a file.
+     *
+     * @param text The text of the file.
+     * @return The class, null if it is not indexed.
+     */
+    static IndexedClass enclosingClass(String text) {
+
+        // Comments often say "class" too, so the code is tokenized rather than searched.
+        String name = new ReferenceScanner().findFirstDeclaration(text);
+        return (name == null) ? null : resolve(text, name);
+    }
+
+    /**
+     * The class members are accessed on.
+     *
+     * @param type The class.
+     * @param isStatic Whether it is accessed by its name, so only static members are accessible.
+     */
+    record Receiver(IndexedClass type, boolean isStatic) {
+    }
+
+    /**
+     * A class, or a member of a class, named in the code.
+     *
+     * @param owner The class, or the class the member is looked up in.
+     * @param name The name as written.
+     * @param isType Whether it names the class itself.
+     */
+    record Symbol(IndexedClass owner, String name, boolean isType) {
+    }
+
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.project.managers;
+
+import com.project.custom_classes.IndexedDoc;
+import com.project.indexing.DocIndex;
+import java.util.List;
+
+/**
+ * Creates hovers from the Javadoc summaries in the index, so they show without waiting for the language server.
+ * Symbols are resolved the same simple way LocalCompletionManager resolves them.
+ */
+public class LocalHoverManager {
+
+    /**
+     * Creates the hover for the symbol at a position.
+     *
+     * @param text The text of the file.
+     * @param index The position in the text.
+     * @return The text of the hover, null if nothing is known about the symbol.
+     */
+    public static String hover(String text, int index) {
+
+        LocalCompletionManager.Symbol symbol = LocalCompletionManager.resolveSymbol(text, index);
+        if (symbol == null) {
+            return null;
+        }
+        List<IndexedDoc> docs = DocIndex.find(symbol.owner().qualifiedName(), symbol.name());
+
+        // Constructors share the name of the class, a type only shows its own summary.
+        docs.removeIf(doc -> doc.kind().equals("Class") != symbol.isType());
+        return format(docs);
+
+    }
+
+    /**
+     * Formats summaries the way hovers show them, with the declaration above each summary.
+     *
+     * @param docs The summaries.
+     * @return The text, null if there are no summaries.
+     */
+    private static String format(List<IndexedDoc> docs) {
+
+        if (docs.isEmpty()) {
+            return null;
+        }
+        StringBuilder text = new StringBuilder();
+        for (IndexedDoc doc : docs) {
+            if (!text.isEmpty()) {
+                text.append("\n\n");
+            }
+            String owner = doc.owner().replace('$', '.');
+            switch (doc.kind()) {
+                case "Class":
+                    text.append(owner);
+                    break;
+                case "Field":
+                    text.append(owner).append('.').append(doc.name());
+                    break;
+                default:
+                    text.append(owner).append('.').append(doc.name()).append('(').append(doc.parameters()).append(')');
+                    break;
+            }
+            text.append('\n').append(doc.summary());
+        }
+        return text.toString();
+
+    }
+
+}
@@ -0,0 +1,741 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.project.managers;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.Range;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.BodyDeclaration;
+import com.github.javaparser.ast.body.CallableDeclaration;
+import com.github.javaparser.ast.body.ConstructorDeclaration;
+import com.github.javaparser.ast.body.EnumConstantDeclaration;
+import com.github.javaparser.ast.body.EnumDeclaration;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.Parameter;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.body.VariableDeclarator;
+import com.project.custom_classes.CustomTextArea;
+import com.project.custom_classes.OpenFile;
+import com.project.custom_classes.OpenFilesTracker;
+import com.project.custom_classes.OutlineNode;
+import com.project.custom_classes.SymbolMatch;
+import javafx.application.Platform;
+import javafx.scene.control.Tab;
+import javafx.scene.control.TreeCell;
+import javafx.scene.control.TreeItem;
+import javafx.scene.control.TreeView;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.StackPane;
+import javafx.scene.layout.VBox;
+import org.eclipse.lsp4j.DocumentSymbol;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.SymbolInformation;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Handles the outline of the file being edited.
+ * Outlines are computed in the background and cached per file version.
+ */
+public class OutlineManager {
+
+    /**
+     * The logger for the class.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(OutlineManager.class);
+
+    /**
+     * How long to wait after the last change before computing the outline (Milliseconds).
+     */
+    private static final long DELAY = 300;
+
+    /**
+     * Characters that can change the structure of a file when typed or removed.
+     */
+    private static final String STRUCTURAL_CHARACTERS = "{}\"'/*\\";
+
+    /**
+     * The thread outlines are computed on.
+     */
+    private static final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "outline");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * The parser used when the language server is not available.
+     * Only ever used on the outline thread.
+     */
+    private static final JavaParser parser = new JavaParser(new ParserConfiguration()
+            .setLanguageLevel(ParserConfiguration.LanguageLevel.JAVA_17));
+
+    /**
+     * The last outline computed for each file.
+     */
+    private static final Map<Path, CachedOutline> cache = new ConcurrentHashMap<>();
+
+    /**
+     * The pending outline computation.
+     */
+    private static ScheduledFuture<?> pending;
+
+    /**
+     * The container holding the outline.
+     */
+    private static VBox outlineView;
+
+    /**
+     * The TreeView showing the outline.
+     */
+    private static TreeView<OutlineNode> treeView;
+
+    /**
+     * The file the outline is being shown for.
+     */
+    private static Path currentPath;
+
+    /**
+     * Schedules the outline of the file in a tab to be computed.
+     * Must be called on the JavaFX Application Thread.
+     *
+     * @param tab The Tab.
+     */
+    public static void requestOutline(Tab tab) {
+
+        if (outlineView == null) {
+            return;
+        }
+        if (pending != null) {
+            pending.cancel(false);
+        }
+        OpenFile openFile = (tab == null) ? null : OpenFilesTracker.getOpenFile(tab);
+        if (openFile == null || !openFile.getFile().getName().endsWith(".java")) {
+            currentPath = null;
+            updateView(new ArrayList<>());
+            return;
+        }
+
+        Path path = openFile.getFile().toPath();
+
+        // Show the cached outline straight away if nothing changed.
+        CachedOutline cached = cache.get(path);
+        if (cached != null && cached.version() == EditAreaManager.getVersion(tab)) {
+            currentPath = path;
+            updateView(cached.nodes());
+            return;
+        }
+
+        // The text is only copied once typing settles, and the outline thread never touches the text area.
+        pending = executor.schedule(() -> Platform.runLater(() -> {
+            if (tab.getTabPane() == null || tab.getTabPane().getSelectionModel().getSelectedItem() != tab) {
+                return;
+            }
+            int version = EditAreaManager.getVersion(tab);
+            String text = ((CustomTextArea) ((StackPane) tab.getContent()).getChildren().get(0))
+                    .getInnerTextArea().getText();
+            executor.execute(() -> computeOutline(tab, path, version, text));
+        }), DELAY, TimeUnit.MILLISECONDS);
+
+    }
+
+    /**
+     * Forgets the outline of a file.
+     *
+     * @param path The Path to the file.
+     */
+    public static void forget(Path path) {
+
+        cache.remove(path);
+        if (path.equals(currentPath)) {
+            currentPath = null;
+            updateView(new ArrayList<>());
+        }
+
+    }
+
+    /**
+     * Searches the cached outlines of the open files for declarations whose name contains a query.
+     *
+     * @param query The query.
+     * @return The matching declarations.
+     */
+    public static List<SymbolMatch> findSymbols(String query) {
+
+        List<SymbolMatch> matches = new ArrayList<>();
+        String lowerQuery = query.toLowerCase();
+        for (Map.Entry<Path, CachedOutline> entry : cache.entrySet()) {
+            findSymbols(entry.getKey(), entry.getValue().nodes(), "", lowerQuery, matches);
+        }
+        return matches;
+
+    }
+
+    /**
+     * Searches a list of OutlineNodes and their children for declarations whose name contains a query.
+     *
+     * @param path The Path to the file the nodes are in.
+     * @param nodes The nodes.
+     * @param container The name of the declaration containing the nodes.
+     * @param query The query, in lower case.
+     * @param matches The list to add matches to.
+     */
+    private static void findSymbols(Path path, List<OutlineNode> nodes, String container, String query, List<SymbolMatch> matches) {
+
+        for (OutlineNode node : nodes) {
+            if (node.getName().toLowerCase().contains(query)) {
+                matches.add(new SymbolMatch(node.getName(), container, node.getKind(), path,
+                        node.getStartLine(), node.getStartCharacter()));
+            }
+            findSymbols(path, node.getChildren(), node.getName(), query, matches);
+        }
+
+    }
+
+    /**
+     * Computes the outline of a file and shows it if the tab is still selected.
+     *
+     * @param tab The Tab.
+     * @param path The Path to the file.
+     * @param version The version of the text.
+     * @param text The text.
+     */
+    private static void computeOutline(Tab tab, Path path, int version, String text) {
+
+        try {
+            CachedOutline cached = cache.get(path);
+            List<OutlineNode> nodes = null;
+            if (cached != null && cached.version() == version) {
+                nodes = cached.nodes();
+            } else {
+
+                // An edit inside a single member body leaves the members as they were, wherever they came from.
+                if (cached != null) {
+                    nodes = reuseOutline(cached, text);
+                }
+
+                // Otherwise prefer the language server, it understands the whole project.
+                if (nodes == null && JLSManager.isReady()) {
+                    List<Either<SymbolInformation, DocumentSymbol>> symbols = JLSManager.getDocumentSymbols(path);
+                    if (symbols != null && !symbols.isEmpty()) {
+                        nodes = convertSymbols(symbols, text);
+                    }
+                }
+                if (nodes == null) {
+                    nodes = parseOutline(text);
+                }
+                if (nodes != null) {
+                    cache.put(path, new CachedOutline(version, text, nodes));
+                } else {
+
+                    // Keep the last good outline (and the text it matches) while the file does not parse.
+                    nodes = (cached == null) ? new ArrayList<>() : cached.nodes();
+                }
+            }
+
+            List<OutlineNode> result = nodes;
+            Platform.runLater(() -> {
+                if (tab.getTabPane() != null && tab.getTabPane().getSelectionModel().getSelectedItem() == tab
+                        && EditAreaManager.getVersion(tab) == version) {
+                    currentPath = path;
+                    updateView(result);
+                }
+            });
+        } catch (Exception e) {
+            logger.error(e.getMessage());
+        }
+
+    }
+
+    /**
+     * Converts the symbols returned by the language server into OutlineNodes.
+     *
+     * @param symbols The symbols.
+     * @param text The text the symbols were computed for.
+     * @return The OutlineNodes.
+     */
+    private static List<OutlineNode> convertSymbols(List<Either<SymbolInformation, DocumentSymbol>> symbols,
+                                                    String text) {
+
+        List<OutlineNode> nodes = new ArrayList<>();
+        int[] lineStarts = findLineStarts(text);
+        for (Either<SymbolInformation, DocumentSymbol> symbol : symbols) {
+            if (symbol.isRight()) {
+                nodes.add(convertDocumentSymbol(symbol.getRight(), text, lineStarts));
+            } else {
+
+                // Flat symbols have no hierarchy.
+                SymbolInformation information = symbol.getLeft();
+                nodes.add(new OutlineNode(information.getName(), "", information.getKind().name(),
+                        information.getLocation().getRange().getStart().getLine(),
+                        information.getLocation().getRange().getStart().getCharacter(),
+                        information.getLocation().getRange().getEnd().getLine()));
+            }
+        }
+        nodes.sort(Comparator.comparingInt(OutlineNode::getStartLine));
+        return nodes;
+
+    }
+
+    /**
+     * Converts a DocumentSymbol and its children into an OutlineNode.
+     *
+     * @param symbol The DocumentSymbol.
+     * @param text The text the symbol was computed for.
+     * @param lineStarts The index each line of the text starts at.
+     * @return The OutlineNode.
+     */
+    private static OutlineNode convertDocumentSymbol(DocumentSymbol symbol, String text, int[] lineStarts) {
+
+        OutlineNode node = new OutlineNode(symbol.getName(), symbol.getDetail(), symbol.getKind().name(),
+                symbol.getRange().getStart().getLine(), symbol.getSelectionRange().getStart().getCharacter(),
+                symbol.getRange().getEnd().getLine());
+        setBody(node, symbol, text, lineStarts);
+        if (symbol.getChildren() != null) {
+            for (DocumentSymbol child : symbol.getChildren()) {
+                node.getChildren().add(convertDocumentSymbol(child, text, lineStarts));
+            }
+        }
+        return node;
+
+    }
+
+    /**
+     * Records the lines the body of a type, method or constructor reported by the language server spans.
+     * The server only reports the whole declaration, the body opens at the first brace after the name.
+     *
+     * @param node The OutlineNode of the member.
+     * @param symbol The DocumentSymbol of the member.
+     * @param text The text the symbol was computed for.
+     * @param lineStarts The index each line of the text starts at.
+     */
+    private static void setBody(OutlineNode node, DocumentSymbol symbol, String text, int[] lineStarts) {
+
+        switch (symbol.getKind()) {
+            case Class:
+            case Interface:
+            case Enum:
+            case Method:
+            case Constructor:
+                break;
+            default:
+                return;
+        }
+        Position from = symbol.getSelectionRange().getEnd();
+        Position to = symbol.getRange().getEnd();
+        if (to.getLine() >= lineStarts.length) {
+            return;
+        }
+        int brace = text.indexOf('{', lineStarts[from.getLine()] + from.getCharacter());
+        if (brace != -1 && brace < lineStarts[to.getLine()] + to.getCharacter()) {
+            int line = Arrays.binarySearch(lineStarts, brace);
+            node.setBody(line >= 0 ? line : -line - 2, to.getLine());
+        }
+
+    }
+
+    /**
+     * Finds the index each line of a String starts at.
+     *
+     * @param text The String.
+     * @return The indexes, one per line.
+     */
+    private static int[] findLineStarts(String text) {
+
+        int[] lineStarts = new int[countLines(text, 0, text.length()) + 1];
+        int line = 1;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') {
+                lineStarts[line++] = i + 1;
+            }
+        }
+        return lineStarts;
+
+    }
+
+    /**
+     * Reuses the previous outline when the only change is inside the body of a single member.
+     *
+     * @param cached The previous outline.
+     * @param text The new text.
+     * @return The updated outline, null if it has to be parsed again.
+     */
+    private static List<OutlineNode> reuseOutline(CachedOutline cached, String text) {
+
+        String oldText = cached.text();
+        int max = Math.min(oldText.length(), text.length());
+        int prefix = 0;
+        while (prefix < max && oldText.charAt(prefix) == text.charAt(prefix)) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < max - prefix
+                && oldText.charAt(oldText.length() - 1 - suffix) == text.charAt(text.length() - 1 - suffix)) {
+            suffix++;
+        }
+        String removed = oldText.substring(prefix, oldText.length() - suffix);
+        String inserted = text.substring(prefix, text.length() - suffix);
+        if (containsStructuralCharacter(removed) || containsStructuralCharacter(inserted)) {
+            return null;
+        }
+
+        int startLine = countLines(oldText, 0, prefix);
+        int endLine = startLine + countLines(removed, 0, removed.length());
+        if (findEnclosingBody(cached.nodes(), startLine, endLine) == null) {
+            return null;
+        }
+
+        // Same members, only the lines after the change move.
+        int delta = countLines(inserted, 0, inserted.length()) - (endLine - startLine);
+        List<OutlineNode> nodes = new ArrayList<>();
+        for (OutlineNode node : cached.nodes()) {
+            OutlineNode copy = node.copy();
+            if (delta != 0) {
+                copy.shift(endLine, delta);
+            }
+            nodes.add(copy);
+        }
+        return nodes;
+
+    }
+
+    /**
+     * Finds the member whose body strictly contains a range of lines.
+     *
+     * @param nodes The nodes to search.
+     * @param startLine The first line of the range.
+     * @param endLine The last line of the range.
+     * @return The member, null if there is none.
+     */
+    private static OutlineNode findEnclosingBody(List<OutlineNode> nodes, int startLine, int endLine) {
+
+        for (OutlineNode node : nodes) {
+            if (node.getStartLine() <= startLine && endLine <= node.getEndLine()) {
+                OutlineNode inner = findEnclosingBody(node.getChildren(), startLine, endLine);
+                if (inner != null) {
+                    return inner;
+                }
+                if (node.getBodyStartLine() >= 0 && node.getBodyStartLine() < startLine
+                        && endLine < node.getBodyEndLine()) {
+                    return node;
+                }
+            }
+        }
+        return null;
+
+    }
+
+    /**
+     * Checks whether some text contains characters that can change the structure of a file.
+     *
+     * @param text The text.
+     * @return true if it does.
+     */
+    private static boolean containsStructuralCharacter(String text) {
+
+        for (int i = 0; i < text.length(); i++) {
+            if (STRUCTURAL_CHARACTERS.indexOf(text.charAt(i)) != -1) {
+                return true;
+            }
+        }
+        return false;
+
+    }
+
+    /**
+     * Counts the line breaks in part of a String.
+     *
+     * @param text The String.
+     * @param start The start index (Inclusive).
+     * @param end The end index (Exclusive).
+     * @return The number of line breaks.
+     */
+    private static int countLines(String text, int start, int end) {
+
+        int count = 0;
+        for (int i = start; i < end; i++) {
+            if (text.charAt(i) == '\n') {
+                count++;
+            }
+        }
+        return count;
+
+    }
+
+    /**
+     * Parses the outline of a file with JavaParser.
+     *
+     * @param text The text of the file.
+     * @return The outline, null if the file could not be parsed.
+     */
+    private static List<OutlineNode> parseOutline(String text) {
+
+        ParseResult<CompilationUnit> result = parser.parse(text);
+        if (!result.isSuccessful() || result.getResult().isEmpty()) {
+            return null;
+        }
+        List<OutlineNode> nodes = new ArrayList<>();
+        for (TypeDeclaration<?> type : result.getResult().get().getTypes()) {
+            OutlineNode node = parseType(type);
+            if (node != null) {
+                nodes.add(node);
+            }
+        }
+        return nodes;
+
+    }
+
+    /**
+     * Creates the OutlineNode of a type and its members.
+     *
+     * @param type The type.
+     * @return The OutlineNode, null if the type has no position.
+     */
+    private static OutlineNode parseType(TypeDeclaration<?> type) {
+
+        String kind = "Class";
+        if (type.isClassOrInterfaceDeclaration() && type.asClassOrInterfaceDeclaration().isInterface()) {
+            kind = "Interface";
+        } else if (type.isEnumDeclaration()) {
+            kind = "Enum";
+        } else if (type.isRecordDeclaration()) {
+            kind = "Record";
+        } else if (type.isAnnotationDeclaration()) {
+            kind = "Annotation";
+        }
+        OutlineNode node = createNode(type, type.getNameAsString(), "", kind);
+        if (node == null) {
+            return null;
+        }
+
+        if (type instanceof EnumDeclaration enumDeclaration) {
+            for (EnumConstantDeclaration constant : enumDeclaration.getEntries()) {
+                addNode(node, createNode(constant, constant.getNameAsString(), "", "EnumMember"));
+            }
+        }
+        for (BodyDeclaration<?> member : type.getMembers()) {
+            if (member instanceof TypeDeclaration<?> nested) {
+                addNode(node, parseType(nested));
+            } else if (member instanceof FieldDeclaration field) {
+                for (VariableDeclarator variable : field.getVariables()) {
+                    addNode(node, createNode(variable, variable.getNameAsString(),
+                            " : " + variable.getTypeAsString(), "Field"));
+                }
+            } else if (member instanceof MethodDeclaration method) {
+                OutlineNode methodNode = createNode(method, method.getNameAsString(),
+                        parameters(method) + " : " + method.getTypeAsString(), "Method");
+                if (methodNode != null) {
+                    setBody(methodNode, method.getBody().flatMap(Node::getRange));
+                }
+                addNode(node, methodNode);
+            } else if (member instanceof ConstructorDeclaration constructor) {
+                OutlineNode constructorNode = createNode(constructor, constructor.getNameAsString(),
+                        parameters(constructor), "Constructor");
+                if (constructorNode != null) {
+                    setBody(constructorNode, constructor.getBody().getRange());
+                }
+                addNode(node, constructorNode);
+            }
+        }
+        return node;
+
+    }
+
+    /**
+     * Creates an OutlineNode positioned at a Node.
+     *
+     * @param astNode The Node.
+     * @param name The name of the declaration.
+     * @param detail The details of the declaration.
+     * @param kind The kind of declaration.
+     * @return The OutlineNode, null if the Node has no position.
+     */
+    private static OutlineNode createNode(Node astNode, String name, String detail, String kind) {
+
+        Optional<Range> range = astNode.getRange();
+        if (range.isEmpty()) {
+            return null;
+        }
+
+        // JavaParser positions are one based.
+        return new OutlineNode(name, detail, kind, range.get().begin.line - 1,
+                range.get().begin.column - 1, range.get().end.line - 1);
+
+    }
+
+    /**
+     * Adds a child to an OutlineNode if it exists.
+     *
+     * @param parent The parent.
+     * @param child The child.
+     */
+    private static void addNode(OutlineNode parent, OutlineNode child) {
+
+        if (child != null) {
+            parent.getChildren().add(child);
+        }
+
+    }
+
+    /**
+     * Records the lines the body of a member spans.
+     *
+     * @param node The OutlineNode of the member.
+     * @param range The range of the body.
+     */
+    private static void setBody(OutlineNode node, Optional<Range> range) {
+
+        range.ifPresent(r -> node.setBody(r.begin.line - 1, r.end.line - 1));
+    }
+
+    /**
+     * Creates a String listing the parameter types of a method or constructor.
+     *
+     * @param callable The method or constructor.
+     * @return The parameter types, like (int, String).
+     */
+    private static String parameters(CallableDeclaration<?> callable) {
+
+        List<String> types = new ArrayList<>();
+        for (Parameter parameter : callable.getParameters()) {
+            types.add(parameter.getTypeAsString() + (parameter.isVarArgs() ? "..." : ""));
+        }
+        return "(" + String.join(", ", types) + ")";
+
+    }
+
+    /**
+     * Shows an outline, only touching the items that changed.
+     *
+     * @param nodes The outline.
+     */
+    private static void updateView(List<OutlineNode> nodes) {
+
+        if (treeView == null) {
+            return;
+        }
+        reconcile(treeView.getRoot(), nodes);
+
+    }
+
+    /**
+     * Updates the children of a TreeItem to match a list of OutlineNodes.
+     * Existing items are reused so expansion and selection are kept.
+     *
+     * @param parent The TreeItem.
+     * @param nodes The OutlineNodes.
+     */
+    private static void reconcile(TreeItem<OutlineNode> parent, List<OutlineNode> nodes) {
+
+        // Index the current items by key, keeping duplicates (overloads) in order.
+        Map<String, List<TreeItem<OutlineNode>>> existing = new HashMap<>();
+        for (TreeItem<OutlineNode> item : parent.getChildren()) {
+            existing.computeIfAbsent(item.getValue().getKey(), k -> new ArrayList<>()).add(item);
+        }
+
+        List<TreeItem<OutlineNode>> items = new ArrayList<>();
+        for (OutlineNode node : nodes) {
+            List<TreeItem<OutlineNode>> matches = existing.get(node.getKey());
+            TreeItem<OutlineNode> item;
+            if (matches != null && !matches.isEmpty()) {
+                item = matches.remove(0);
+                item.setValue(node);
+            } else {
+                item = new TreeItem<>(node);
+                item.setExpanded(true);
+            }
+            reconcile(item, node.getChildren());
+            items.add(item);
+        }
+
+        // Only replace the children if something was added, removed or moved.
+        if (!items.equals(parent.getChildren())) {
+            parent.getChildren().setAll(items);
+        }
+
+    }
+
+    /**
+     * Sets up the outline view.
+     *
+     * @param outlineView The container holding the outline.
+     */
+    public static void setOutlineView(VBox outlineView) {
+
+        OutlineManager.outlineView = outlineView;
+
+        treeView = new TreeView<>(new TreeItem<>());
+        treeView.setShowRoot(false);
+        treeView.getStyleClass().add("outline-view");
+        VBox.setVgrow(treeView, Priority.ALWAYS);
+        treeView.setCellFactory(tv -> new TreeCell<>() {
+            @Override
+            protected void updateItem(OutlineNode item, boolean empty) {
+
+                super.updateItem(item, empty);
+                getStyleClass().removeIf(style -> style.startsWith("outline-"));
+                if (empty || item == null) {
+                    setText(null);
+                    setOnMouseClicked(null);
+                } else {
+                    setText(item.toString());
+                    getStyleClass().add("outline-" + item.getKind().toLowerCase());
+
+                    // Jump to the declaration on double click.
+                    setOnMouseClicked(event -> {
+                        if (event.getClickCount() == 2 && currentPath != null) {
+                            EditAreaManager.goToPosition(currentPath, getItem().getStartLine(),
+                                    getItem().getStartCharacter());
+                        }
+                    });
+                }
+            }
+        });
+        outlineView.getChildren().add(treeView);
+
+    }
+
+    /**
+     * An outline computed for a version of a file.
+     *
+     * @param version The version of the file.
+     * @param text The text the outline was computed from.
+     * @param nodes The outline.
+     */
+    private record CachedOutline(int version, String text, List<OutlineNode> nodes) {
+    }
+
+}
@@ -21,6 +21,8 @@ import com.project.custom_classes.ConsoleTextArea;
 import com.project.utility.ProjectWatcher;
 import com.project.custom_classes.RootTreeNode;
 import com.project.gradle.GradleWrapper;
+import com.project.indexing.BinaryIndexer;
+import com.project.indexing.ProjectIndexer;
 import com.project.javaeditor.Application;
 import com.project.utility.MainUtility;
 import javafx.application.Platform;
@@ -293,11 +295,18 @@ public class ProjectManager {
                 // Update relevant data.
                 Platform.runLater(() -> projectName.setText(finalPath.toFile().getName()));
                 currentProject = root;
-                ProjectWatcher.watchClassPath(new File(root.getPath().toFile(), "src/main/java").toPath());
+                ProjectIndexer.open(new File(root.getPath().toFile(), "src/main/java").toPath());
 
                 // Create a new GradleWrapper for the project.
                 gradleWrapper = new GradleWrapper(new File("lib/gradle-8.9"), finalPath.toFile(), textArea);
 
+                // Index the classes of the project's dependencies.
+                GradleWrapper projectGradleWrapper = gradleWrapper;
+                Thread classpathIndexer = new Thread(() ->
+                        BinaryIndexer.indexClasspath(projectGradleWrapper.resolveClasspath()));
+                classpathIndexer.setDaemon(true);
+                classpathIndexer.start();
+
                 // Notify the server about the new project.
                 JLSManager.changeWorkSpaceFolder(finalPath.toUri().toString(), finalPath.toFile().getName(), true);
             } else {
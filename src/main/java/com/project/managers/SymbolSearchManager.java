@@ -0,0 +1,224 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.project.managers;
+
+import com.project.custom_classes.IndexedClass;
+import com.project.custom_classes.SearchDialog;
+import com.project.custom_classes.SymbolMatch;
+import com.project.indexing.ClassIndex;
+import com.project.indexing.JdkSources;
+import javafx.application.Platform;
+import javafx.stage.Window;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Handles searching for symbols by name across the workspace.
+ * Local hits show straight away, the language server's matches are streamed in as they arrive.
+ */
+public class SymbolSearchManager {
+
+    /**
+     * The logger for the class.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(SymbolSearchManager.class);
+
+    /**
+     * The maximum number of local hits to show.
+     */
+    private static final int LOCAL_LIMIT = 50;
+
+    /**
+     * The thread local hits are looked up on.
+     */
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "symbol-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * The dialog the search happens in.
+     */
+    private static SearchDialog<SymbolMatch> dialog;
+
+    /**
+     * The request sent to the server for the current query.
+     */
+    private static CompletableFuture<?> serverRequest;
+
+    /**
+     * Identifies the current query, results for older queries are dropped.
+     */
+    private static int generation = 0;
+
+    /**
+     * The keys of the results shown for the current query.
+     */
+    private static final Set<String> shown = new HashSet<>();
+
+    /**
+     * Shows the search dialog.
+     *
+     * @param owner The window to show it over.
+     */
+    public static void show(Window owner) {
+
+        if (dialog == null) {
+            dialog = new SearchDialog<>("Type a class, method or field name",
+                    SymbolSearchManager::format,
+                    SymbolSearchManager::search,
+                    SymbolSearchManager::open);
+            dialog.setOnHidden(event -> cancel());
+        }
+        dialog.show(owner);
+
+    }
+
+    /**
+     * Opens the file of a match at its position.
+     * JDK source files are extracted first, off the JavaFX Application Thread.
+     *
+     * @param match The match.
+     */
+    private static void open(SymbolMatch match) {
+
+        executor.execute(() -> {
+            if (JdkSources.extract(match.path())) {
+                Platform.runLater(() -> EditAreaManager.goToPosition(match.path(), match.line(), match.character()));
+            }
+        });
+
+    }
+
+    /**
+     * Starts searching for a new query, dropping the results of the previous one.
+     * Runs on the JavaFX Application Thread.
+     *
+     * @param query The query.
+     */
+    private static void search(String query) {
+
+        cancel();
+        int current = generation;
+        dialog.getResults().clear();
+        shown.clear();
+        if (query == null || query.isBlank()) {
+            return;
+        }
+        String trimmed = query.strip();
+
+        // Local hits first, they don't depend on the server.
+        executor.execute(() -> {
+            List<SymbolMatch> matches = OutlineManager.findSymbols(trimmed);
+            matches.addAll(findClasses(trimmed));
+            Platform.runLater(() -> addResults(current, matches, true));
+        });
+
+        serverRequest = JLSManager.searchWorkspaceSymbols(trimmed,
+                matches -> Platform.runLater(() -> addResults(current, matches, false)));
+
+    }
+
+    /**
+     * Cancels the request for the current query, which also cancels it on the server.
+     */
+    private static void cancel() {
+
+        generation++;
+        if (serverRequest != null) {
+            serverRequest.cancel(true);
+            serverRequest = null;
+        }
+
+    }
+
+    /**
+     * Adds results to the dialog if they belong to the current query.
+     *
+     * @param resultGeneration The query the results belong to.
+     * @param matches The results.
+     * @param first Whether they should go before the results already shown.
+     */
+    private static void addResults(int resultGeneration, List<SymbolMatch> matches, boolean first) {
+
+        if (resultGeneration != generation) {
+            return;
+        }
+        List<SymbolMatch> fresh = new ArrayList<>();
+        for (SymbolMatch match : matches) {
+            if (shown.add(match.key())) {
+                fresh.add(match);
+            }
+        }
+        if (first) {
+            dialog.getResults().addAll(0, fresh);
+        } else {
+            dialog.getResults().addAll(fresh);
+        }
+
+    }
+
+    /**
+     * Looks up classes matching a query in the class index.
+     *
+     * @param query The query.
+     * @return The matching classes.
+     */
+    private static List<SymbolMatch> findClasses(String query) {
+
+        List<SymbolMatch> matches = new ArrayList<>();
+        for (IndexedClass indexedClass : ClassIndex.search(query, LOCAL_LIMIT)) {
+
+            // Classes only known from jars have no source to go to.
+            if (!indexedClass.path().endsWith(".java")) {
+                continue;
+            }
+            try {
+                matches.add(new SymbolMatch(indexedClass.className(), indexedClass.packageName(), "Class",
+                        Paths.get(indexedClass.path()), 0, 0));
+            } catch (InvalidPathException e) {
+                logger.error(e.getMessage());
+            }
+        }
+        return matches;
+
+    }
+
+    /**
+     * Creates the text shown for a match.
+     *
+     * @param match The match.
+     * @return The text.
+     */
+    private static String format(SymbolMatch match) {
+
+        return match.name() + "  (" + match.kind().toLowerCase() + ")"
+                + (match.container().isEmpty() ? "" : "  " + match.container());
+    }
+
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.project.managers;
+
+import com.project.custom_classes.IndexedReference;
+import com.project.custom_classes.SearchDialog;
+import com.project.indexing.ReferenceIndex;
+import javafx.application.Platform;
+import javafx.stage.Window;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Handles finding the uses of the class or member at the caret in the project's sources.
+ * Uses come from the reference index, so they show instantly and without the language server.
+ */
+public class UsagesManager {
+
+    /**
+     * The logger for the class.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(UsagesManager.class);
+
+    /**
+     * The maximum number of uses to show.
+     */
+    private static final int LIMIT = 1000;
+
+    /**
+     * The thread uses are looked up on.
+     */
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "find-usages");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * The dialog the uses are shown in.
+     */
+    private static SearchDialog<IndexedReference> dialog;
+
+    /**
+     * The uses found last, before filtering.
+     */
+    private static List<IndexedReference> usages = new ArrayList<>();
+
+    /**
+     * Finds the uses of the symbol at a position and shows them.
+     *
+     * @param owner The window to show them over.
+     * @param text The text of the file.
+     * @param index The position in the text.
+     */
+    public static void show(Window owner, String text, int index) {
+
+        if (dialog == null) {
+            dialog = new SearchDialog<>("Filter the usages by file",
+                    UsagesManager::format,
+                    UsagesManager::filter,
+                    UsagesManager::open);
+        }
+        executor.execute(() -> {
+            LocalCompletionManager.Symbol symbol = LocalCompletionManager.resolveSymbol(text, index);
+            List<IndexedReference> found = new ArrayList<>();
+            if (symbol != null) {
+                found = symbol.isType()
+                        ? ReferenceIndex.findUsages(symbol.owner(), LIMIT)
+                        : ReferenceIndex.findUsages(symbol.owner(), symbol.name(), LIMIT);
+            }
+            List<IndexedReference> result = found;
+            Platform.runLater(() -> {
+                usages = result;
+                dialog.show(owner);
+                dialog.getResults().setAll(result);
+            });
+        });
+
+    }
+
+    /**
+     * Shows the uses in files whose path contains the query.
+     * Runs on the JavaFX Application Thread.
+     *
+     * @param query The query.
+     */
+    private static void filter(String query) {
+
+        String lowerQuery = (query == null) ? "" : query.strip().toLowerCase();
+        List<IndexedReference> shown = new ArrayList<>();
+        for (IndexedReference usage : usages) {
+            if (usage.path().toLowerCase().contains(lowerQuery)) {
+                shown.add(usage);
+            }
+        }
+        dialog.getResults().setAll(shown);
+
+    }
+
+    /**
+     * Opens the file of a use at its position.
+     *
+     * @param usage The use.
+     */
+    private static void open(IndexedReference usage) {
+
+        try {
+            EditAreaManager.goToPosition(Paths.get(usage.path()), usage.line(), usage.character());
+        } catch (InvalidPathException e) {
+            logger.error(e.getMessage());
+        }
+
+    }
+
+    /**
+     * Creates the text shown for a use.
+     *
+     * @param usage The use.
+     * @return The text.
+     */
+    private static String format(IndexedReference usage) {
+
+        Path path = Paths.get(usage.path());
+        return path.getFileName() + ":" + (usage.line() + 1) + ":" + (usage.character() + 1)
+                + "  " + path.getParent();
+    }
+
+}
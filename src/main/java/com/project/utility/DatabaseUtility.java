@@ -17,8 +17,12 @@
 
 package com.project.utility;
 
+import com.project.indexing.JdkSources;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.sql.Connection;
 import java.sql.Statement;
 import java.sql.PreparedStatement;
@@ -26,9 +30,17 @@ import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.ResultSet;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Handles Database related operations.
+ * One long-lived connection does all the writing, reads borrow a connection from a small pool.
  */
 public class DatabaseUtility {
 
@@ -37,27 +49,120 @@ public class DatabaseUtility {
      */
     private static final Logger logger = LoggerFactory.getLogger(DatabaseUtility.class);
 
+    /**
+     * The database file.
+     */
+    public static final Path DATABASE_FILE = Paths.get("fusion.db").toAbsolutePath();
+
     /**
      * The URL to connect to the database.
      */
-    private static final String URL = "jdbc:sqlite:fusion.db";
+    private static final String URL = "jdbc:sqlite:" + DATABASE_FILE;
 
-    private static final ArrayList<Connection> connections = new ArrayList<>();
+    /**
+     * The maximum number of reading connections.
+     */
+    private static final int MAX_READERS = 4;
 
     /**
-     * Creates a connection to the database.
-     *
-     * @return The Connection.
+     * How long to wait for a reading connection to be returned, in seconds.
      */
-    public static Connection connect() {
+    private static final int BORROW_TIMEOUT = 10;
 
+    /**
+     * The version of the schema this code expects, stored in the database's user_version.
+     */
+    public static final int SCHEMA_VERSION = 10;
+
+    /**
+     * The connection all writes go through. Guarded by the class lock.
+     */
+    private static Connection writer;
+
+    /**
+     * The reading connections not currently borrowed.
+     */
+    private static final BlockingQueue<Connection> idleReaders = new LinkedBlockingQueue<>();
+
+    /**
+     * Every connection opened, so they can all be closed.
+     */
+    private static final List<Connection> connections = new ArrayList<>();
+
+    /**
+     * The prepared statements of each connection, by SQL.
+     * A connection is only used by one thread at a time, so the inner maps need no locking.
+     */
+    private static final Map<Connection, Map<String, PreparedStatement>> statements = new ConcurrentHashMap<>();
+
+    /**
+     * Whether the database has been set up.
+     */
+    private static volatile boolean isInitialized = false;
+
+    /**
+     * Opens the writing connection, tunes the database and brings the schema up to date.
+     * Safe to call more than once, only the first call does anything.
+     */
+    public static synchronized void init() {
+
+        if (isInitialized) {
+            return;
+        }
         try {
+            writer = open();
+
+            // WAL lets readers carry on while the writer commits.
+            try (Statement stmt = writer.createStatement()) {
+                stmt.execute("PRAGMA journal_mode = WAL");
+                stmt.execute("PRAGMA synchronous = NORMAL");
+            }
+            migrate(writer);
+            isInitialized = true;
             logger.info("Connected to database");
-            Connection c = DriverManager.getConnection(URL);
-            connections.add(c);
-            return c;
         } catch (SQLException e) {
             logger.error(e.getMessage());
+        }
+
+    }
+
+    /**
+     * Borrows a connection to read from the database.
+     * It must be handed back with close(Connection).
+     *
+     * @return The Connection, null if none could be opened.
+     */
+    public static Connection connect() {
+
+        init();
+        Connection conn = idleReaders.poll();
+        if (conn != null) {
+            return conn;
+        }
+        synchronized (DatabaseUtility.class) {
+            if (connections.size() <= MAX_READERS) {
+                try {
+                    conn = open();
+                    try (Statement stmt = conn.createStatement()) {
+                        stmt.execute("PRAGMA query_only = ON");
+                    }
+                    return conn;
+                } catch (SQLException e) {
+                    logger.error(e.getMessage());
+                    return null;
+                }
+            }
+        }
+
+        // Every reader is borrowed, wait for one to come back.
+        try {
+            conn = idleReaders.poll(BORROW_TIMEOUT, TimeUnit.SECONDS);
+            if (conn == null) {
+                logger.error("Timed out waiting for a database connection");
+            }
+            return conn;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
             return null;
         }
 
@@ -65,18 +170,21 @@ public class DatabaseUtility {
 
     /**
      * Executes a SELECT query.
+     * The ResultSet must be closed by the caller, the statement behind it is reused.
      *
-     * @param conn The database connection.
+     * @param conn The database connection, null if none could be borrowed.
      * @param query The query. (In Prepared statement form).
      * @param params The parameters for the prepared statement.
-     * @return A ResultSet.
+     * @return A ResultSet, null if it failed or there was no connection.
      */
     public static ResultSet executeQuery(Connection conn, String query, Object... params) {
 
-        // Make sure the table exists.
-        createCMDTable(conn);
+        // Borrowing a connection times out while every reader is busy.
+        if (conn == null) {
+            return null;
+        }
         try {
-            PreparedStatement ps = conn.prepareStatement(query);
+            PreparedStatement ps = prepare(conn, query);
 
             // Set all parameters.
             for (int i = 0; i < params.length; i++) {
@@ -91,57 +199,314 @@ public class DatabaseUtility {
     }
 
     /**
-     * Executes INSERT, UPDATE, DELETE AND DROP statements.
+     * Executes INSERT, UPDATE and DELETE statements on the writing connection.
      *
-     * @param conn The database connection.
      * @param query The query. (In Prepared statement form).
      * @param params The parameters for the prepared statement.
+     * @return The number of rows changed, 0 if nothing changed or it failed.
      */
-    public static void executeUpdate(Connection conn, String query, Object... params) {
+    public static int executeUpdate(String query, Object... params) {
 
-        // Make sure the table exists.
-        createCMDTable(conn);
-        try (PreparedStatement ps = conn.prepareStatement(query)) {
-            for (int i = 0; i < params.length; i++) {
-                ps.setObject(i + 1, params[i]);
+        init();
+        synchronized (DatabaseUtility.class) {
+            if (writer == null) {
+                return 0;
+            }
+            try {
+                PreparedStatement ps = prepare(writer, query);
+                for (int i = 0; i < params.length; i++) {
+                    ps.setObject(i + 1, params[i]);
+                }
+                return ps.executeUpdate();
+            } catch (SQLException e) {
+                logger.error(e.getMessage());
+                return 0;
+            }
+        }
+
+    }
+
+    /**
+     * Executes several INSERT, UPDATE and DELETE statements on the writing connection in one transaction.
+     * If any of them fails, none of them are kept.
+     *
+     * @param queries The queries. (In Prepared statement form).
+     * @param params The parameters for each query.
+     * @return The number of rows each query changed, null if the transaction failed.
+     */
+    public static int[] executeBatch(List<String> queries, List<Object[]> params) {
+
+        init();
+        int[] counts = new int[queries.size()];
+        synchronized (DatabaseUtility.class) {
+            if (writer == null) {
+                return null;
+            }
+            try {
+                writer.setAutoCommit(false);
+                for (int i = 0; i < counts.length; i++) {
+                    PreparedStatement ps = prepare(writer, queries.get(i));
+                    Object[] queryParams = params.get(i);
+                    for (int j = 0; j < queryParams.length; j++) {
+                        ps.setObject(j + 1, queryParams[j]);
+                    }
+                    counts[i] = ps.executeUpdate();
+                }
+                writer.commit();
+            } catch (SQLException e) {
+                logger.error(e.getMessage());
+                counts = null;
+                try {
+                    writer.rollback();
+                } catch (SQLException ex) {
+                    logger.error(ex.getMessage());
+                }
+            } finally {
+                try {
+                    writer.setAutoCommit(true);
+                } catch (SQLException e) {
+                    logger.error(e.getMessage());
+                }
             }
-            ps.executeUpdate();
-        } catch (SQLException e) {
-            logger.error(e.getMessage());
         }
+        return counts;
 
     }
 
     /**
-     * Creates the ClassMetaData Table.
+     * Opens a new connection and applies the settings every connection shares.
+     *
+     * @return The Connection.
+     * @throws SQLException If the connection can't be opened.
      */
-    private static void createCMDTable(Connection conn) {
+    private static Connection open() throws SQLException {
 
+        Connection conn = DriverManager.getConnection(URL);
         try (Statement stmt = conn.createStatement()) {
-            stmt.execute("CREATE TABLE IF NOT EXISTS ClassMetaData (" +
-                    "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                    "packageName TEXT NOT NULL," +
-                    "className TEXT NOT NULL," +
-                    "qualifiedName TEXT NOT NULL," +
-                    "path TEXT NOT NULL" +
-                    ")");
+
+            // Wait for locks rather than failing straight away.
+            stmt.execute("PRAGMA busy_timeout = 5000");
+            stmt.execute("PRAGMA temp_store = MEMORY");
+
+            // Negative means KiB, so 16 MB of page cache.
+            stmt.execute("PRAGMA cache_size = -16000");
+            stmt.execute("PRAGMA mmap_size = 268435456");
+        }
+        synchronized (DatabaseUtility.class) {
+            connections.add(conn);
+        }
+        return conn;
+
+    }
+
+    /**
+     * Retrieves the prepared statement for some SQL on a connection, preparing it the first time.
+     *
+     * @param conn The connection.
+     * @param query The SQL.
+     * @return The PreparedStatement.
+     * @throws SQLException If the SQL can't be prepared.
+     */
+    private static PreparedStatement prepare(Connection conn, String query) throws SQLException {
+
+        Map<String, PreparedStatement> cache = statements.computeIfAbsent(conn, c -> new HashMap<>());
+        PreparedStatement ps = cache.get(query);
+        if (ps == null || ps.isClosed()) {
+            ps = conn.prepareStatement(query);
+            cache.put(query, ps);
+        }
+        return ps;
+
+    }
+
+    /**
+     * Brings the schema up to date, one version at a time, in a single transaction.
+     *
+     * @param conn The writing connection.
+     * @throws SQLException If a migration fails, in which case nothing is changed.
+     */
+    private static void migrate(Connection conn) throws SQLException {
+
+        int version;
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            version = rs.next() ? rs.getInt(1) : 0;
+        }
+        if (version >= SCHEMA_VERSION) {
+            return;
+        }
+
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement()) {
+
+            // Version 1: the ClassMetaData table.
+            if (version < 1) {
+                stmt.execute("CREATE TABLE IF NOT EXISTS ClassMetaData (" +
+                        "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                        "packageName TEXT NOT NULL," +
+                        "className TEXT NOT NULL," +
+                        "qualifiedName TEXT NOT NULL," +
+                        "path TEXT NOT NULL" +
+                        ")");
+            }
+
+            // Version 2: one row per class and file, and an index for deleting by path.
+            if (version < 2) {
+                stmt.execute("DELETE FROM ClassMetaData WHERE id NOT IN " +
+                        "(SELECT MIN(id) FROM ClassMetaData GROUP BY qualifiedName, path)");
+                stmt.execute("CREATE UNIQUE INDEX IF NOT EXISTS idx_class_meta_data_qualified_name_path " +
+                        "ON ClassMetaData(qualifiedName, path)");
+                stmt.execute("CREATE INDEX IF NOT EXISTS idx_class_meta_data_path ON ClassMetaData(path)");
+            }
+
+            // Version 3: the jars whose classes are indexed, so unchanged ones aren't scanned again.
+            if (version < 3) {
+                stmt.execute("CREATE TABLE IF NOT EXISTS IndexedJar (" +
+                        "path TEXT PRIMARY KEY," +
+                        "size INTEGER NOT NULL," +
+                        "lastModified INTEGER NOT NULL," +
+                        "checksum TEXT NOT NULL" +
+                        ")");
+            }
+
+            // Version 4: source files get fingerprints too, so the table is about files in general.
+            if (version < 4) {
+                stmt.execute("ALTER TABLE IndexedJar RENAME TO IndexedFile");
+            }
+
+            // Version 5: how far indexing each large source got, so it can resume.
+            if (version < 5) {
+                stmt.execute("CREATE TABLE IF NOT EXISTS IndexCheckpoint (" +
+                        "source TEXT PRIMARY KEY," +
+                        "fingerprint TEXT NOT NULL," +
+                        "position INTEGER NOT NULL," +
+                        "total INTEGER NOT NULL" +
+                        ")");
+            }
+
+            // Version 6: identifies the contents of the class table, so a snapshot of it can be checked.
+            if (version < 6) {
+                stmt.execute("CREATE TABLE IF NOT EXISTS IndexState (" +
+                        "key TEXT PRIMARY KEY," +
+                        "value INTEGER NOT NULL" +
+                        ")");
+                stmt.execute("INSERT OR IGNORE INTO IndexState(key, value) VALUES " +
+                        "('database', random() & 9223372036854775807), ('generation', 0)");
+            }
+
+            // Version 7: the members of classes, for completion while the language server is unavailable.
+            if (version < 7) {
+                stmt.execute("CREATE TABLE IF NOT EXISTS MemberMetaData (" +
+                        "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                        "owner TEXT NOT NULL," +
+                        "name TEXT NOT NULL," +
+                        "kind TEXT NOT NULL," +
+                        "parameters TEXT NOT NULL," +
+                        "type TEXT NOT NULL," +
+                        "isStatic INTEGER NOT NULL," +
+                        "path TEXT NOT NULL" +
+                        ")");
+                stmt.execute("CREATE UNIQUE INDEX IF NOT EXISTS idx_member_meta_data_owner_name_parameters_path " +
+                        "ON MemberMetaData(owner, name, parameters, path)");
+                stmt.execute("CREATE INDEX IF NOT EXISTS idx_member_meta_data_path ON MemberMetaData(path)");
+            }
+
+            // Version 8: JDKs are indexed into partitions of their own. What was indexed for the single JDK
+            // of older versions is dropped, it gets indexed again into its partition.
+            if (version < 8) {
+                stmt.execute("CREATE TABLE IF NOT EXISTS JdkPartition (" +
+                        "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                        "fingerprint TEXT NOT NULL UNIQUE," +
+                        "home TEXT NOT NULL," +
+                        "lastUsed INTEGER NOT NULL" +
+                        ")");
+                String legacyPrefix = JdkSources.LEGACY_SRC_DIR + File.separator;
+                String legacyEnd = legacyPrefix.substring(0, legacyPrefix.length() - 1)
+                        + (char) (legacyPrefix.charAt(legacyPrefix.length() - 1) + 1);
+                for (String table : new String[]{"ClassMetaData", "MemberMetaData"}) {
+                    try (PreparedStatement ps = conn.prepareStatement("DELETE FROM " + table
+                            + " WHERE (path >= ? AND path < ?) OR path LIKE '%modules'")) {
+                        ps.setString(1, legacyPrefix);
+                        ps.setString(2, legacyEnd);
+                        ps.executeUpdate();
+                    }
+                }
+                stmt.execute("DELETE FROM IndexCheckpoint WHERE source IN ('JDK sources', 'JDK runtime')");
+                stmt.execute("UPDATE IndexState SET value = value + 1 WHERE key = 'generation'");
+            }
+
+            // Version 9: Javadoc summaries, with a full-text index kept in step by triggers.
+            // Sources are indexed again to fill it, unchanged classes and members are left as they are.
+            if (version < 9) {
+                stmt.execute("CREATE TABLE IF NOT EXISTS Javadoc (" +
+                        "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                        "owner TEXT NOT NULL," +
+                        "name TEXT NOT NULL," +
+                        "kind TEXT NOT NULL," +
+                        "parameters TEXT NOT NULL," +
+                        "summary TEXT NOT NULL," +
+                        "path TEXT NOT NULL" +
+                        ")");
+                stmt.execute("CREATE UNIQUE INDEX IF NOT EXISTS idx_javadoc_owner_name_parameters_path " +
+                        "ON Javadoc(owner, name, parameters, path)");
+                stmt.execute("CREATE INDEX IF NOT EXISTS idx_javadoc_path ON Javadoc(path)");
+                stmt.execute("CREATE VIRTUAL TABLE IF NOT EXISTS JavadocSearch USING fts5(" +
+                        "owner, name, summary, content='Javadoc', content_rowid='id', tokenize='porter unicode61')");
+                stmt.execute("CREATE TRIGGER IF NOT EXISTS javadoc_after_insert AFTER INSERT ON Javadoc BEGIN " +
+                        "INSERT INTO JavadocSearch(rowid, owner, name, summary) VALUES (new.id, new.owner, new.name, new.summary); " +
+                        "END");
+                stmt.execute("CREATE TRIGGER IF NOT EXISTS javadoc_after_delete AFTER DELETE ON Javadoc BEGIN " +
+                        "INSERT INTO JavadocSearch(JavadocSearch, rowid, owner, name, summary) " +
+                        "VALUES ('delete', old.id, old.owner, old.name, old.summary); " +
+                        "END");
+                stmt.execute("DELETE FROM IndexCheckpoint");
+                stmt.execute("DELETE FROM IndexedFile WHERE path LIKE '%.java'");
+            }
+
+            // Version 10: where names are used in project sources, and what each source file can see.
+            // Project sources are indexed again to fill them.
+            if (version < 10) {
+                stmt.execute("CREATE TABLE IF NOT EXISTS Reference (" +
+                        "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                        "name TEXT NOT NULL," +
+                        "path TEXT NOT NULL," +
+                        "line INTEGER NOT NULL," +
+                        "character INTEGER NOT NULL," +
+                        "isCall INTEGER NOT NULL" +
+                        ")");
+                stmt.execute("CREATE INDEX IF NOT EXISTS idx_reference_name ON Reference(name)");
+                stmt.execute("CREATE INDEX IF NOT EXISTS idx_reference_path ON Reference(path)");
+                stmt.execute("CREATE TABLE IF NOT EXISTS ReferenceScope (" +
+                        "path TEXT NOT NULL," +
+                        "scope TEXT NOT NULL," +
+                        "PRIMARY KEY (path, scope)" +
+                        ")");
+                stmt.execute("CREATE INDEX IF NOT EXISTS idx_reference_scope_scope ON ReferenceScope(scope)");
+                stmt.execute("DELETE FROM IndexedFile WHERE path LIKE '%.java'");
+            }
+
+            stmt.execute("PRAGMA user_version = " + SCHEMA_VERSION);
+            conn.commit();
+            logger.info("Migrated database from version {} to {}", version, SCHEMA_VERSION);
         } catch (SQLException e) {
-            logger.error(e.getMessage());
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
         }
 
     }
 
     /**
-     * Closes a given connection.
+     * Hands a borrowed connection back to the pool.
      *
-     * @param conn The Connection to close.
+     * @param conn The Connection to return.
      */
     public static void close(Connection conn) {
 
         try {
-            if (conn != null && !conn.isClosed()) {
-                conn.close();
-                logger.info("Closing connection");
+            if (conn != null && conn != writer && !conn.isClosed()) {
+                idleReaders.offer(conn);
             }
         } catch (SQLException e) {
             logger.error(e.getMessage());
@@ -150,13 +515,55 @@ public class DatabaseUtility {
     }
 
     /**
-     * Closes all connections to the database.
+     * Writes a compacted copy of the database to a new file, readable without its write-ahead log.
+     *
+     * @param file The Path to the file, which must not exist.
+     * @return Whether the copy was written.
      */
-    public static void closeAll() {
+    public static boolean copyTo(Path file) {
+
+        init();
+        synchronized (DatabaseUtility.class) {
+            if (writer == null) {
+                return false;
+            }
+            try (PreparedStatement ps = writer.prepareStatement("VACUUM INTO ?")) {
+                ps.setString(1, file.toString());
+                ps.execute();
+                return true;
+            } catch (SQLException e) {
+                logger.error(e.getMessage());
+                return false;
+            }
+        }
+
+    }
+
+    /**
+     * Closes all connections to the database, along with their statements.
+     */
+    public static synchronized void closeAll() {
 
         for (Connection conn : connections) {
-            close(conn);
+            try {
+                Map<String, PreparedStatement> cache = statements.remove(conn);
+                if (cache != null) {
+                    for (PreparedStatement ps : cache.values()) {
+                        ps.close();
+                    }
+                }
+                if (!conn.isClosed()) {
+                    conn.close();
+                }
+            } catch (SQLException e) {
+                logger.error(e.getMessage());
+            }
         }
+        connections.clear();
+        idleReaders.clear();
+        writer = null;
+        isInitialized = false;
+        logger.info("Closing connections");
 
     }
 
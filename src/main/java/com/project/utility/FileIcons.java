@@ -0,0 +1,84 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.project.utility;
+
+import javafx.scene.image.Image;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The icons shown for files and directories. Each icon is decoded once and the Image shared by every row that shows it.
+ */
+public class FileIcons {
+
+    /**
+     * Where the icons are.
+     */
+    private static final String ICON_DIRECTORY = "/com/project/managers/icons/";
+
+    /**
+     * The icon of a directory.
+     */
+    private static final String DIRECTORY_ICON = "folder.png";
+
+    /**
+     * The icon of a file with no icon of its own.
+     */
+    private static final String FILE_ICON = "file.png";
+
+    /**
+     * The icons of files, by extension.
+     */
+    private static final Map<String, String> FILE_TYPE_ICONS = Map.of("java", "java.png");
+
+    /**
+     * The decoded icons, by icon file name. Only used on the JavaFX Application Thread.
+     */
+    private static final Map<String, Image> icons = new HashMap<>();
+
+    /**
+     * Retrieves the icon for a file or directory.
+     *
+     * @param fileName The name of the file or directory.
+     * @param isDirectory Whether it is a directory.
+     * @return The icon.
+     */
+    public static Image get(String fileName, boolean isDirectory) {
+
+        String icon = DIRECTORY_ICON;
+        if (!isDirectory) {
+            int dot = fileName.lastIndexOf('.');
+            icon = (dot < 0) ? FILE_ICON : FILE_TYPE_ICONS.getOrDefault(fileName.substring(dot + 1), FILE_ICON);
+        }
+        return icons.computeIfAbsent(icon, FileIcons::load);
+
+    }
+
+    /**
+     * Decodes an icon.
+     *
+     * @param icon The name of the icon file.
+     * @return The decoded Image.
+     */
+    private static Image load(String icon) {
+
+        return new Image(Objects.requireNonNull(FileIcons.class.getResourceAsStream(ICON_DIRECTORY + icon)));
+    }
+
+}
@@ -0,0 +1,329 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.project.utility;
+
+import com.project.custom_classes.PathChange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Decides which files and directories of the open project are left out of watching, the project tree and the indexes.
+ * Rules follow .gitignore semantics and are read from the project's .gitignore, after a few defaults for build output
+ * and tool directories. Each rule is compiled once, plain names are compared without a regex.
+ */
+public class IgnoreRules {
+
+    /**
+     * The logger for the class.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(IgnoreRules.class);
+
+    /**
+     * The rules applied before the project's own, which can still re-include them with '!'.
+     * Build output is only ignored at the root, a package named build or bin is still a source directory.
+     */
+    private static final List<String> DEFAULT_RULES = List.of("/build/", "/bin/", ".gradle/", ".git/");
+
+    /**
+     * The characters that have a meaning in a regex and have to be escaped.
+     */
+    private static final String REGEX_CHARACTERS = "\\.[]{}()<>*+-=!?^$|";
+
+    /**
+     * The rules of the open project.
+     */
+    private static volatile RuleSet ruleSet = new RuleSet(null, List.of());
+
+    /**
+     * Loads the rules of a project, replacing those of the previous one.
+     *
+     * @param root The project root.
+     */
+    public static void load(Path root) {
+
+        Path absoluteRoot = root.toAbsolutePath().normalize();
+        List<Rule> rules = new ArrayList<>();
+        for (String line : DEFAULT_RULES) {
+            addRule(rules, line);
+        }
+        Path gitignore = absoluteRoot.resolve(".gitignore");
+        if (Files.isRegularFile(gitignore)) {
+            try {
+                for (String line : Files.readAllLines(gitignore, StandardCharsets.UTF_8)) {
+                    addRule(rules, line);
+                }
+            } catch (IOException e) {
+                logger.error(e.getMessage());
+            }
+        }
+        ruleSet = new RuleSet(absoluteRoot, List.copyOf(rules));
+        logger.info("Loaded {} ignore rules for {}", rules.size(), absoluteRoot);
+
+    }
+
+    /**
+     * Loads the rules again when the project's .gitignore changed, as reported by the ProjectWatcher.
+     *
+     * @param changes The changes.
+     */
+    public static void filesChanged(List<PathChange> changes) {
+
+        Path root = ruleSet.root();
+        if (root == null) {
+            return;
+        }
+        Path gitignore = root.resolve(".gitignore");
+        for (PathChange change : changes) {
+            if (change.path().toAbsolutePath().equals(gitignore)) {
+                load(root);
+                return;
+            }
+        }
+
+    }
+
+    /**
+     * Checks whether a file or directory is ignored, on its own or because a directory it is in is.
+     * Paths outside the project are never ignored.
+     *
+     * @param path The Path to the file or directory.
+     * @param isDirectory Whether it is a directory.
+     * @return true if it is ignored.
+     */
+    public static boolean isIgnored(Path path, boolean isDirectory) {
+
+        RuleSet current = ruleSet;
+        if (current.root() == null || current.rules().isEmpty()) {
+            return false;
+        }
+        Path absolute = path.toAbsolutePath().normalize();
+        if (!absolute.startsWith(current.root()) || absolute.equals(current.root())) {
+            return false;
+        }
+        Path relative = current.root().relativize(absolute);
+        StringBuilder relativePath = new StringBuilder();
+        int count = relative.getNameCount();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                relativePath.append('/');
+            }
+            String name = relative.getName(i).toString();
+            relativePath.append(name);
+            if (matches(current.rules(), relativePath.toString(), name, i < count - 1 || isDirectory)) {
+                return true;
+            }
+        }
+        return false;
+
+    }
+
+    /**
+     * Checks whether a path is ignored by its own rules, without looking at the directories it is in.
+     * Meant for walks that already skip ignored directories.
+     *
+     * @param path The Path to the file or directory.
+     * @param isDirectory Whether it is a directory.
+     * @return true if it is ignored.
+     */
+    public static boolean isIgnoredEntry(Path path, boolean isDirectory) {
+
+        RuleSet current = ruleSet;
+        if (current.root() == null || current.rules().isEmpty()) {
+            return false;
+        }
+        Path absolute = path.toAbsolutePath().normalize();
+        if (!absolute.startsWith(current.root()) || absolute.equals(current.root())) {
+            return false;
+        }
+        String relativePath = current.root().relativize(absolute).toString().replace('\\', '/');
+        return matches(current.rules(), relativePath, absolute.getFileName().toString(), isDirectory);
+
+    }
+
+    /**
+     * Finds the last rule matching a path, as in git, later rules win.
+     *
+     * @param rules The rules.
+     * @param relativePath The path relative to the project root, with '/' separators.
+     * @param name The file name.
+     * @param isDirectory Whether the path is a directory.
+     * @return true if the last matching rule ignores the path.
+     */
+    private static boolean matches(List<Rule> rules, String relativePath, String name, boolean isDirectory) {
+
+        for (int i = rules.size() - 1; i >= 0; i--) {
+            Rule rule = rules.get(i);
+            if (rule.isDirectoryOnly() && !isDirectory) {
+                continue;
+            }
+            String subject = rule.isAnchored() ? relativePath : name;
+            boolean isMatch = (rule.literal() != null)
+                    ? rule.literal().equals(subject)
+                    : rule.pattern().matcher(subject).matches();
+            if (isMatch) {
+                return !rule.isNegated();
+            }
+        }
+        return false;
+
+    }
+
+    /**
+     * Compiles a line of a .gitignore file into a rule.
+     * Blank lines and comments are skipped.
+     *
+     * @param rules Where to add the rule.
+     * @param line The line.
+     */
+    private static void addRule(List<Rule> rules, String line) {
+
+        String pattern = line.stripTrailing();
+        if (pattern.isEmpty() || pattern.startsWith("#")) {
+            return;
+        }
+        boolean isNegated = pattern.startsWith("!");
+        if (isNegated || pattern.startsWith("\\#") || pattern.startsWith("\\!")) {
+            pattern = pattern.substring(1);
+        }
+        boolean isDirectoryOnly = pattern.endsWith("/");
+        if (isDirectoryOnly) {
+            pattern = pattern.substring(0, pattern.length() - 1);
+        }
+
+        // A '/' anywhere but at the end ties the pattern to the project root, otherwise it matches names at any depth.
+        boolean isAnchored = pattern.contains("/");
+        if (pattern.startsWith("/")) {
+            pattern = pattern.substring(1);
+        }
+        if (pattern.isEmpty()) {
+            return;
+        }
+        if (pattern.startsWith("**/") && pattern.indexOf('/', 3) < 0) {
+            pattern = pattern.substring(3);
+            isAnchored = false;
+        }
+        boolean isLiteral = pattern.chars().noneMatch(c -> c == '*' || c == '?' || c == '[' || c == '\\');
+        rules.add(new Rule(isLiteral ? pattern : null, isLiteral ? null : compile(pattern),
+                isNegated, isDirectoryOnly, isAnchored));
+
+    }
+
+    /**
+     * Translates a glob into a regex. '*' and '?' stop at '/', '**' crosses directories.
+     *
+     * @param glob The glob.
+     * @return The compiled regex.
+     */
+    private static Pattern compile(String glob) {
+
+        StringBuilder regex = new StringBuilder();
+        int length = glob.length();
+        for (int i = 0; i < length; i++) {
+            char c = glob.charAt(i);
+            switch (c) {
+                case '*':
+                    if (i + 1 < length && glob.charAt(i + 1) == '*') {
+                        boolean atStart = i == 0 || glob.charAt(i - 1) == '/';
+                        boolean atEnd = i + 2 == length || glob.charAt(i + 2) == '/';
+                        if (atStart && atEnd) {
+                            if (i + 2 == length) {
+                                regex.append(".*");
+                            } else {
+                                regex.append("(?:.*/)?");
+                                i++;
+                            }
+                            i++;
+                            break;
+                        }
+                    }
+                    regex.append("[^/]*");
+                    break;
+                case '?':
+                    regex.append("[^/]");
+                    break;
+                case '[':
+                    int end = glob.indexOf(']', i + 2);
+                    if (end < 0) {
+                        regex.append("\\[");
+                        break;
+                    }
+                    String characters = glob.substring(i + 1, end).replace("\\", "\\\\");
+                    if (characters.startsWith("!")) {
+                        characters = "^" + characters.substring(1);
+                    }
+                    regex.append('[').append(characters).append(']');
+                    i = end;
+                    break;
+                case '\\':
+                    if (i + 1 < length) {
+                        i++;
+                        appendLiteral(regex, glob.charAt(i));
+                    }
+                    break;
+                default:
+                    appendLiteral(regex, c);
+                    break;
+            }
+        }
+        return Pattern.compile(regex.toString());
+
+    }
+
+    /**
+     * Appends a character to a regex, escaped if needed.
+     *
+     * @param regex The regex.
+     * @param c The character.
+     */
+    private static void appendLiteral(StringBuilder regex, char c) {
+
+        if (REGEX_CHARACTERS.indexOf(c) >= 0) {
+            regex.append('\\');
+        }
+        regex.append(c);
+
+    }
+
+    /**
+     * A compiled line of a .gitignore file.
+     *
+     * @param literal The name or path to compare with, if the line has no wildcards.
+     * @param pattern The regex to match with otherwise.
+     * @param isNegated Whether the line starts with '!' and re-includes what it matches.
+     * @param isDirectoryOnly Whether the line ends with '/' and only matches directories.
+     * @param isAnchored Whether the line is matched against the path from the root instead of the name.
+     */
+    private record Rule(String literal, Pattern pattern, boolean isNegated, boolean isDirectoryOnly,
+                        boolean isAnchored) {}
+
+    /**
+     * The rules of a project.
+     *
+     * @param root The absolute project root.
+     * @param rules The rules, in the order they were read.
+     */
+    private record RuleSet(Path root, List<Rule> rules) {}
+
+}
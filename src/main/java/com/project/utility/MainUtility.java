@@ -17,15 +17,12 @@
 
 package com.project.utility;
 
-import com.github.javaparser.JavaParser;
-import com.github.javaparser.ast.CompilationUnit;
-import com.github.javaparser.ast.body.TypeDeclaration;
-import com.github.javaparser.ast.nodeTypes.NodeWithName;
 import com.project.custom_classes.OpenFile;
 import com.project.custom_classes.OpenFilesTracker;
 import com.project.custom_classes.CustomCanvas;
 import com.project.custom_classes.CustomTextArea;
-import com.project.managers.DirectoryManager;
+import com.project.indexing.JdkIndexer;
+import com.project.indexing.JdkSources;
 import com.project.managers.ProjectManager;
 import javafx.animation.FadeTransition;
 import javafx.animation.ScaleTransition;
@@ -50,26 +47,15 @@ import javafx.util.Duration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.io.File;
-import java.io.InputStream;
-import java.io.OutputStream;
 import java.io.IOException;
-import java.io.FileInputStream;
 import java.net.ServerSocket;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.attribute.PosixFilePermission;
-import java.sql.Connection;
-import java.sql.ResultSet;
-import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Optional;
 import java.util.Objects;
-import java.util.Set;
-import java.util.EnumSet;
 import java.util.NoSuchElementException;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
 
 /**
  * Main utility class for the application.
@@ -81,8 +67,16 @@ public class MainUtility {
      */
     private static final Logger logger = LoggerFactory.getLogger(MainUtility.class);
 
+    /**
+     * Marked an interrupted indexing run, in older versions.
+     */
     private static final Path TEMP = Paths.get("files/temp.fus").toAbsolutePath();
 
+    /**
+     * Recorded which src.zip the index was built from, in older versions.
+     */
+    private static final Path INDEXED_ZIP = Paths.get("files/indexed.fus").toAbsolutePath();
+
     /**
      * An ArrayList containing the Path to the open project.
      */
@@ -326,7 +320,7 @@ public class MainUtility {
     }
 
     /**
-     * Imports Java source files from the jdk installation.
+     * Indexes the classes of the JDK in its own partition, unless they already are, and makes it the active one.
      */
     public static void importSrcFiles() {
 
@@ -336,143 +330,41 @@ public class MainUtility {
             logger.error("JDK not detected!");
             return;
         }
-
-        // Try to locate the zip containing the source files.
-        File src = new File(jdkPath.toFile(), "lib/src.zip");
-        if (!src.exists()) {
-            src = new File(jdkPath.toFile(), "src/src.zip");
-            if (!src.exists()) {
-                src = new File(jdkPath.toFile(), "src.zip");
-                if (!src.exists()) {
-                    return;
-                }
-            }
-        }
-
-        // Extract the source files.
-        extractZip(src.toPath(), Paths.get("files/src"), false);
+        removeLegacyData();
+        JdkIndexer.index(jdkPath);
 
     }
 
     /**
-     * Extracts a zip file to a given location.
-     *
-     * @param zipFile The zip file.
-     * @param destination The destination directory.
-     * @param overwrite Whether to overwrite an existing one.
+     * Deletes the marker files and extracted sources older versions shared between every JDK.
+     * Their classes are dropped from the database when it is migrated.
      */
-    public static void extractZip(Path zipFile, Path destination, boolean overwrite) {
-
-        // Open a database connection.
-        Connection conn = DatabaseUtility.connect();
-
-        boolean start = true;
-        if (TEMP.toFile().exists()) {
-            start = false;
-        } else {
+    private static void removeLegacyData() {
 
-            // Check if destination directory already exists.
-            if (Files.exists(destination)) {
-                if (overwrite) {
-                    try {
-
-                        // Delete the directory and its contents.
-                        DirectoryManager.recursiveDelete(destination);
-                    } catch (Exception e) {
-                        logger.error(e.getMessage());
-                        return;
-                    }
-                } else {
-                    return;
-                }
-            }
-
-            // Create Temp file to indicate indexing is in progress.
-            FileManager.writeToFile(TEMP, "", true, false);
-
-            // Drop to the table to create a new one.
-            DatabaseUtility.executeUpdate(conn, "DROP TABLE IF EXISTS ClassMetaData");
-        }
-
-        // Create the destination directory.
-        if (destination.toFile().exists() || destination.toFile().mkdirs()) {
-            try (InputStream in = new FileInputStream(zipFile.toFile());
-                 ZipInputStream zin = new ZipInputStream(in)) {
-
-                ZipEntry entry;
-                logger.info("Started Indexing");
-                Path lastEntry = null;
-                if (!start) {
-                    ResultSet rs = DatabaseUtility.executeQuery(conn, "SELECT path FROM ClassMetaData ORDER BY id DESC LIMIT 1");
-                    lastEntry = Paths.get(rs.getString("path"));
-                    rs.getStatement().close();
-                }
-                while ((entry = zin.getNextEntry()) != null) {
-                    Path entryPath = destination.resolve(entry.getName());
-                    if (!start) {
-                        if (entryPath.toAbsolutePath().equals(lastEntry)) {
-                            start = true;
-                        }
-                        continue;
-                    }
-                    if (entryPath.toFile().exists() && !entryPath.toFile().isDirectory()) {
-
-                        // Add class meta data to the database.
-                        addClassMetaData(entryPath, conn);
-                        continue;
-                    }
-                    if (entry.isDirectory()) {
-                        Files.createDirectories(entryPath);
-                    } else {
-                        if (Files.notExists(entryPath.getParent())) {
-                            Files.createDirectories(entryPath.getParent());
-                        }
-                        try (OutputStream out = Files.newOutputStream(entryPath)) {
-
-                            // Oversized buffer for safety.
-                            byte[] buffer = new byte[10240];
-                            int bytesRead;
-                            while ((bytesRead = zin.read(buffer)) != -1) {
-                                out.write(buffer, 0, bytesRead);
-                            }
-                        }
-
-                        // Check what type of OS and set the files to readonly accordingly.
-                        if (System.getProperty("os.name").toLowerCase().contains("windows")) {
-                            Files.setAttribute(entryPath, "dos:readonly", true);
-                        } else {
-                            Set<PosixFilePermission> perms = EnumSet.of(PosixFilePermission.OWNER_READ,
-                                    PosixFilePermission.GROUP_READ, PosixFilePermission.OTHERS_READ);
-                            Files.setPosixFilePermissions(entryPath, perms);
-                        }
-
-                        // Add class meta data to the database.
-                        addClassMetaData(entryPath, conn);
-                    }
-                    zin.closeEntry();
-                }
-                logger.info("Ended Indexing");
-            } catch (Exception e) {
-                logger.error(e.getMessage());
-            }
-        } else {
-            logger.error("{} directory could not be created", destination);
+        try {
+            Files.deleteIfExists(TEMP);
+            Files.deleteIfExists(INDEXED_ZIP);
+        } catch (IOException e) {
+            logger.error(e.getMessage());
         }
+        JdkSources.delete(JdkSources.LEGACY_SRC_DIR);
 
-        try {
+    }
 
-            // An open connection would mean the Thread actually got to the end of the zip.
-            if (conn != null && !conn.isClosed()) {
+    /**
+     * Formats a duration the way it is shown to the user, like "2 min" or "15 s".
+     *
+     * @param millis The duration in milliseconds.
+     * @return The formatted duration.
+     */
+    public static String formatDuration(long millis) {
 
-                // Delete temp.fus to mark that indexing is complete.
-                FileManager.deleteFile(TEMP, true, true);
-            }
-        } catch (Exception e) {
-            logger.error(e.getMessage());
+        long seconds = (millis + 999) / 1000;
+        if (seconds < 60) {
+            return seconds + " s";
         }
-
-        // Close the database connection.
-        DatabaseUtility.close(conn);
+        long minutes = (seconds + 59) / 60;
+        return (minutes < 60) ? minutes + " min" : (minutes / 60) + " h " + (minutes % 60) + " min";
 
     }
 
@@ -563,112 +455,6 @@ public class MainUtility {
 
     }
 
-    /**
-     * Add Metadata about a class.
-     *
-     * @param path The path to the class.
-     * @param conn The connection to the database.
-     * @throws IOException When something goes wrong with IO operations as the class is parsed.
-     */
-    public static void addClassMetaData(Path path, Connection conn) throws IOException {
-
-        // Check if the file is a java file.
-        if (path.toAbsolutePath().toString().endsWith(".java")) {
-            JavaParser parser = new JavaParser();
-            CompilationUnit cu = parser.parse(path).getResult().orElse(null);
-            if (cu != null) {
-                String packageName = cu.getPackageDeclaration().map(NodeWithName::getNameAsString).orElse("");
-                for (TypeDeclaration<?> type : cu.getTypes()) {
-                    String className = type.getNameAsString();
-                    DatabaseUtility.executeUpdate(
-                            conn,
-                            "INSERT INTO ClassMetaData(packageName, className, qualifiedName, path)" +
-                                    "VALUES (?, ?, ?, ?)",
-                            packageName, className, (packageName.isEmpty()) ? className : packageName + "." + className, path.toAbsolutePath().toString()
-                    );
-
-                    // Add inner classes if there are any.
-                    type.getMembers().forEach(member -> {
-                        if (member instanceof TypeDeclaration<?> innerClass) {
-
-
-                            // Check whether that class doesn't exist in the database.
-                            ResultSet rs2 = DatabaseUtility.executeQuery(conn, "SELECT id FROM ClassMetaData " +
-                                    "WHERE className = ? AND path = ?", innerClass.getNameAsString(), path.toAbsolutePath().toString());
-                            try {
-                                if (!rs2.next()) {
-                                    rs2.getStatement().close();
-                                    DatabaseUtility.executeUpdate(
-                                            conn,
-                                            "INSERT INTO ClassMetaData(packageName, className, qualifiedName, path)" +
-                                                    "VALUES (?, ?, ?, ?)",
-                                            packageName, innerClass.getNameAsString(), (packageName.isEmpty()) ? className + "$" + innerClass.getNameAsString() : packageName + "." + className + "$" + innerClass.getNameAsString(), path.toAbsolutePath().toString()
-                                    );
-                                }
-                            }catch (SQLException e) {
-                                logger.error(e.getMessage());
-                            } finally {
-                                try {
-                                    rs2.getStatement().close();
-                                } catch (SQLException e) {
-                                    logger.error(e.getMessage());
-                                }
-                            }
-                            addInnerClassMetaData(packageName, innerClass, className, path, conn);
-                        }
-                    });
-                }
-            }
-        }
-
-    }
-
-    /**
-     * Adds an inner class to the database.
-     *
-     * @param packageName The name of the package.
-     * @param outerClass The outer class.
-     * @param outerClassName The name of the outer class.
-     * @param path The Path to the outer class.
-     * @param conn The database connection.
-     */
-    public static void addInnerClassMetaData(String packageName, TypeDeclaration<?> outerClass, String outerClassName, Path path, Connection conn) {
-
-        // Loop through each inner class.
-        outerClass.getMembers().forEach(member -> {
-            if (member instanceof TypeDeclaration<?> innerClass) {
-                String innerClassName = innerClass.getNameAsString();
-
-                // Check whether that class doesn't exist in the database.
-                ResultSet rs = DatabaseUtility.executeQuery(conn, "SELECT id FROM ClassMetaData " +
-                        "WHERE className = ? AND path = ?", innerClassName, path.toAbsolutePath().toString());
-                try {
-                    if (!rs.next()) {
-                        rs.getStatement().close();
-                        DatabaseUtility.executeUpdate(
-                                conn,
-                                "INSERT INTO ClassMetaData(packageName, className, qualifiedName, path)" +
-                                        "VALUES (?, ?, ?, ?)",
-                                packageName, innerClassName, (packageName.isEmpty()) ? outerClassName + "$" + innerClassName : packageName + "." + outerClassName + "$" + innerClassName, path.toAbsolutePath().toString()
-                        );
-                    }
-                } catch (SQLException e) {
-                    logger.error(e.getMessage());
-                } finally {
-                    try {
-                        rs.getStatement().close();
-                    } catch (SQLException e) {
-                        logger.error(e.getMessage());
-                    }
-                }
-
-                // Recursively handle nested inner classes
-                addInnerClassMetaData(packageName, innerClass, outerClassName + "$" + innerClassName, path, conn);
-            }
-        });
-
-    }
-
     /**
      * Sets up opeProjectPath.
      *
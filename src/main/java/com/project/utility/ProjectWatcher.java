@@ -17,13 +17,7 @@
 
 package com.project.utility;
 
-import com.github.javaparser.JavaParser;
-import com.github.javaparser.ast.CompilationUnit;
-import com.github.javaparser.ast.body.TypeDeclaration;
-import com.github.javaparser.ast.nodeTypes.NodeWithName;
-import com.project.managers.DirectoryManager;
-import com.project.managers.ProjectManager;
-import javafx.application.Platform;
+import com.project.custom_classes.PathChange;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.io.IOException;
@@ -36,20 +30,25 @@ import java.nio.file.WatchService;
 import java.nio.file.StandardWatchEventKinds;
 import java.nio.file.Files;
 import java.nio.file.FileVisitResult;
-import java.nio.file.NoSuchFileException;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
-import java.sql.Connection;
-import java.sql.ResultSet;
-import java.sql.SQLException;
+import java.nio.file.NoSuchFileException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.stream.Stream;
+import java.util.function.Consumer;
 
 /**
  * Watches the files and directories in a project.
+ * Events are collected for a short while and handed to the subscribers as one batch, with one change per path.
  */
 public class ProjectWatcher {
 
@@ -88,41 +87,99 @@ public class ProjectWatcher {
      */
     private static final Map<String, WatchKey> watchKeyMap = new ConcurrentHashMap<>();
 
+    /**
+     * The directory each WatchKey corresponds to.
+     */
+    private static final Map<WatchKey, Path> watchedDirectories = new ConcurrentHashMap<>();
+
+    /**
+     * How long events are collected before they are delivered, in milliseconds.
+     */
+    private static final long BATCH_WINDOW = 200;
+
+    /**
+     * The changes waiting to be delivered, by path, in the order they first happened. Guarded by itself.
+     */
+    private static final Map<Path, PathChange.Type> pendingChanges = new LinkedHashMap<>();
+
+    /**
+     * The thread batches are delivered on.
+     */
+    private static final ScheduledExecutorService dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "project-watch-events");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Whether to deliver the pending changes is already scheduled. Guarded by pendingChanges.
+     */
+    private static boolean isScheduled = false;
+
+    /**
+     * The consumers of the batches of changes.
+     */
+    private static final List<Consumer<List<PathChange>>> subscribers = new CopyOnWriteArrayList<>();
+
     /**
      * The Path to the server logs.
      */
     private static final Path serverLog = Paths.get("jdt_data/.metadata/.log");
 
     /**
-     * Registers a directory to be watched.
+     * Registers a directory, and the directories in it, to be watched.
+     * Directories already registered are skipped, and ignored ones aren't watched at all.
      *
      * @param path The Path to the directory.
      */
     public static void registerPath(Path path) {
 
-        // Check if the path is not already registered.
-        if (watchKeyMap.containsKey(path.toString())) {
+        if (IgnoreRules.isIgnored(path, true)) {
             return;
         }
+        try {
+            Files.walkFileTree(path, new SimpleFileVisitor<>() {
 
-        try (Stream<Path> walk = Files.walk(path)) {
-            walk.filter(Files::isDirectory).forEach(dir -> {
-                try {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
 
-                    // Register the WatchKey
-                    WatchKey key = dir.register(
-                            watchService,
-                            //StandardWatchEventKinds.ENTRY_MODIFY,
-                            StandardWatchEventKinds.ENTRY_CREATE,
-                            StandardWatchEventKinds.ENTRY_DELETE
-                    );
+                    if (!dir.equals(path) && IgnoreRules.isIgnoredEntry(dir, true)) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+
+                    // Check if the directory is not already registered.
+                    if (watchKeyMap.containsKey(dir.toString())) {
+                        return FileVisitResult.CONTINUE;
+                    }
+                    try {
+
+                        // Register the WatchKey
+                        WatchKey key = dir.register(
+                                watchService,
+                                StandardWatchEventKinds.ENTRY_MODIFY,
+                                StandardWatchEventKinds.ENTRY_CREATE,
+                                StandardWatchEventKinds.ENTRY_DELETE
+                        );
+
+                        // Put the key into the maps.
+                        watchKeyMap.put(dir.toString(), key);
+                        watchedDirectories.put(key, dir);
+                        logger.debug("Registered path: {}", dir);
+                    } catch (Exception e) {
+                        logger.error("Failed to register path: {}", dir, e);
+                    }
+                    return FileVisitResult.CONTINUE;
+
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+
+                    logger.error(e.getMessage());
+                    return FileVisitResult.CONTINUE;
 
-                    // Put the key into the map.
-                    watchKeyMap.put(dir.toString(), key);
-                } catch (Exception e) {
-                    logger.error("Failed to register path: {}", dir, e);
                 }
-                logger.info("Registered path: {}", dir);
+
             });
         } catch (Exception e) {
             logger.error(e.getMessage());
@@ -144,6 +201,7 @@ public class ProjectWatcher {
         }
         WatchKey key = watchKeyMap.remove(path.toString());
         if (key != null) {
+            watchedDirectories.remove(key);
             key.cancel();
             logger.info("Unregistered path: {}", path);
         }
@@ -159,6 +217,7 @@ public class ProjectWatcher {
             key.cancel();
         }
         watchKeyMap.clear();
+        watchedDirectories.clear();
         logger.info("Unregistered all paths");
 
     }
@@ -181,50 +240,53 @@ public class ProjectWatcher {
             try {
                 while (keepWatching.get()) {
                     key = watchService.take();
-                    Path dir = null;
-                    for (Map.Entry<String, WatchKey> entry : watchKeyMap.entrySet()) {
-                        if (entry.getValue().equals(key)) {
-                            dir = Paths.get(entry.getKey());
-                            break;
-                        }
-                    }
-
+                    Path dir = watchedDirectories.get(key);
                     if (dir == null) {
-                        System.err.println("WatchKey not recognized!");
+                        logger.info("WatchKey not recognized");
+                        key.cancel();
                         continue;
                     }
 
                     for (WatchEvent<?> event : key.pollEvents()) {
                         WatchEvent.Kind<?> kind = event.kind();
-                        WatchEvent<Path> ev = (WatchEvent<Path>) event;
-                        Path filename = ev.context();
+
+                        // Events were dropped, so the directory is compared again, with anything new in it watched.
+                        if (kind == StandardWatchEventKinds.OVERFLOW) {
+                            logger.info("Events lost for: {}", dir);
+                            registerPath(dir);
+                            addChange(dir, PathChange.Type.RESCAN, true);
+                            continue;
+                        }
+                        Path changed = dir.resolve((Path) event.context());
 
                         if (kind == StandardWatchEventKinds.ENTRY_CREATE) {
-                            logger.info("File created: {}", filename);
-                            if (filename.toFile().isDirectory()) {
-                                registerPath(filename);
-                            }
-                            if (ProjectManager.getCurrentRootDirectory() != null) {
+                            logger.debug("File created: {}", changed);
 
-                                // Process wil involve UI updates, so run on JavaFX thread.
-                                Platform.runLater(() -> DirectoryManager.openProject(ProjectManager.getCurrentRootDirectory().getPath()));
+                            // Watch new directories straight away, so events inside them aren't missed.
+                            boolean isDirectory = Files.isDirectory(changed);
+                            if (isDirectory) {
+                                registerPath(changed);
                             }
+                            addChange(changed, PathChange.Type.CREATED, isDirectory);
                         } else if (kind == StandardWatchEventKinds.ENTRY_DELETE) {
-                            logger.info("File deleted: {}", filename);
-                            if (ProjectManager.getCurrentRootDirectory() != null) {
+                            logger.debug("File deleted: {}", changed);
+                            addChange(changed, PathChange.Type.DELETED, false);
+                        } else if (kind == StandardWatchEventKinds.ENTRY_MODIFY) {
 
-                                // Process wil involve UI updates, so run on JavaFX thread.
-                                Platform.runLater(() -> DirectoryManager.openProject(ProjectManager.getCurrentRootDirectory().getPath()));
+                            // Ignored files, such as logs, are often rewritten and nobody needs to hear about it.
+                            if (IgnoreRules.isIgnoredEntry(changed, false)) {
+                                continue;
                             }
-                        } else if (kind == StandardWatchEventKinds.ENTRY_MODIFY) {
-                            logger.info("File modified: {}", filename);
+                            logger.debug("File modified: {}", changed);
+                            addChange(changed, PathChange.Type.MODIFIED, false);
                         }
                     }
 
                     boolean valid = key.reset();
                     if (!valid) {
                         logger.info("WatchKey no longer valid for path: {}", dir);
-                        watchKeyMap.remove(dir.toString());
+                        watchedDirectories.remove(key);
+                        watchKeyMap.remove(dir.toString(), key);
                         if (watchKeyMap.isEmpty()) {
                             break;
                         }
@@ -240,6 +302,109 @@ public class ProjectWatcher {
 
     }
 
+    /**
+     * Adds a consumer of the changes in the project. Batches are delivered on a background thread.
+     *
+     * @param subscriber The consumer.
+     */
+    public static void subscribe(Consumer<List<PathChange>> subscriber) {
+
+        subscribers.add(subscriber);
+    }
+
+    /**
+     * Merges a change into the pending ones, and schedules their delivery if it isn't already.
+     *
+     * @param path The Path to the file or directory.
+     * @param type What happened to it.
+     * @param isDirectory Whether the path is a directory now, only known for created ones.
+     */
+    private static void addChange(Path path, PathChange.Type type, boolean isDirectory) {
+
+        synchronized (pendingChanges) {
+            PathChange.Type merged = merge(pendingChanges.get(path), type, isDirectory);
+            if (merged == null) {
+                pendingChanges.remove(path);
+            } else {
+                pendingChanges.put(path, merged);
+            }
+            if (!isScheduled) {
+                isScheduled = true;
+                dispatcher.schedule(ProjectWatcher::deliverChanges, BATCH_WINDOW, TimeUnit.MILLISECONDS);
+            }
+        }
+
+    }
+
+    /**
+     * Combines two changes to the same path into the one that describes both.
+     *
+     * @param previous The earlier change, or null if there is none.
+     * @param next The later change.
+     * @param isDirectory Whether the path is a directory after the later change.
+     * @return The combined change, or null if they cancel out.
+     */
+    static PathChange.Type merge(PathChange.Type previous, PathChange.Type next, boolean isDirectory) {
+
+        if (previous == null) {
+            return next;
+        }
+        if (previous == PathChange.Type.RESCAN || next == PathChange.Type.RESCAN) {
+            return PathChange.Type.RESCAN;
+        }
+        switch (previous) {
+            case CREATED:
+
+                // Created and gone again within the window, nobody needs to know.
+                if (next == PathChange.Type.DELETED) {
+                    return null;
+                }
+                return PathChange.Type.CREATED;
+            case DELETED:
+
+                // A replaced directory has to be compared again, subscribers ignore modified directories.
+                if (next == PathChange.Type.CREATED && isDirectory) {
+                    return PathChange.Type.RESCAN;
+                }
+
+                // Replaced, as editors do when saving through a temporary file.
+                if (next == PathChange.Type.CREATED) {
+                    return PathChange.Type.MODIFIED;
+                }
+                return next;
+            default:
+                return next;
+        }
+
+    }
+
+    /**
+     * Hands the pending changes to every subscriber as one batch.
+     */
+    private static void deliverChanges() {
+
+        List<PathChange> changes = new ArrayList<>();
+        synchronized (pendingChanges) {
+            for (Map.Entry<Path, PathChange.Type> entry : pendingChanges.entrySet()) {
+                changes.add(new PathChange(entry.getKey(), entry.getValue()));
+            }
+            pendingChanges.clear();
+            isScheduled = false;
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+        List<PathChange> batch = Collections.unmodifiableList(changes);
+        for (Consumer<List<PathChange>> subscriber : subscribers) {
+            try {
+                subscriber.accept(batch);
+            } catch (Exception e) {
+                logger.error(e.getMessage());
+            }
+        }
+
+    }
+
     /**
      * Watches over the server logs and avoids overflow.
      */
@@ -278,127 +443,6 @@ public class ProjectWatcher {
 
     }
 
-    /**
-     * Periodically checks for new declared classes and inner classes and adds them to the database.
-     *
-     * @param startDir The directory where all source files are.
-     */
-    public static void watchClassPath(Path startDir) {
-
-        Thread classPathWatcher = new Thread(() -> {
-
-            // Create a database connection.
-            Connection conn = DatabaseUtility.connect();
-
-            int tries = 1;
-
-            // A maximum of 5 tries to connect.
-            while (tries <= 5) {
-                if (conn != null) {
-                    break;
-                }
-                tries++;
-                try {
-                    Thread.sleep(2000);
-                } catch (Exception e) {
-                    logger.error(e.getMessage());
-                }
-                conn = DatabaseUtility.connect();
-            }
-            if (conn == null) {
-                logger.error("FAILED TO CONNECT TO DATABASE!");
-                return;
-            }
-
-            // Run while watchServer is watching.
-            while (isWatching.get()) {
-                try {
-                    Connection finalConn = conn;
-                    Connection finalConn1 = conn;
-                    Files.walkFileTree(startDir, new SimpleFileVisitor<>() {
-                        @Override
-                        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
-                            if (file.toString().endsWith(".java")) {
-                                JavaParser parser = new JavaParser();
-                                CompilationUnit cu = parser.parse(file).getResult().orElse(null);
-                                if (cu != null) {
-                                    String packageName = cu.getPackageDeclaration().map(NodeWithName::getNameAsString).orElse("");
-                                    for (TypeDeclaration<?> type : cu.getTypes()) {
-                                        String className = type.getNameAsString();
-
-                                        // Check whether the file doesn't already exist.
-                                        ResultSet rs = DatabaseUtility.executeQuery(finalConn, "SELECT id FROM ClassMetaData " +
-                                                "WHERE path = ?", file.toAbsolutePath().toString());
-                                        try {
-                                            // If not add it.
-                                            if (!rs.next()) {
-                                                rs.getStatement().close();
-                                                DatabaseUtility.executeUpdate(finalConn,
-                                                        "INSERT INTO ClassMetaData(packageName, className, qualifiedName, path)" +
-                                                                "VALUES (?, ?, ?, ?)",
-                                                        packageName, className, (packageName.isEmpty()) ? className : packageName + "." + className, file.toAbsolutePath().toString()
-                                                );
-                                            }
-
-                                            // Do the same for all inner classes.
-                                            type.getMembers().forEach(member -> {
-                                                if (member instanceof TypeDeclaration<?> innerClass) {
-
-                                                    // Check whether that class doesn't exist in the database.
-                                                    ResultSet rs2 = DatabaseUtility.executeQuery(finalConn1, "SELECT id FROM ClassMetaData " +
-                                                            "WHERE className = ? AND path = ?", innerClass.getNameAsString(), file.toAbsolutePath().toString());
-                                                    try {
-                                                        if (!rs2.next()) {
-                                                            rs2.getStatement().close();
-                                                            DatabaseUtility.executeUpdate(
-                                                                    finalConn1,
-                                                                    "INSERT INTO ClassMetaData(packageName, className, qualifiedName, path)" +
-                                                                            "VALUES (?, ?, ?, ?)",
-                                                                    packageName, innerClass.getNameAsString(), (packageName.isEmpty()) ? className + "$" + innerClass.getNameAsString() : packageName + "." + className + "$" + innerClass.getNameAsString(), file.toAbsolutePath().toString()
-                                                            );
-                                                        }
-                                                    } catch (SQLException e) {
-                                                        logger.error(e.getMessage());
-                                                    } finally {
-                                                        try {
-                                                            rs2.getStatement().close();
-                                                        } catch (SQLException e) {
-                                                            logger.error(e.getMessage());
-                                                        }
-                                                    }
-                                                    MainUtility.addInnerClassMetaData(packageName, innerClass, className, file, finalConn);
-                                                }
-                                            });
-                                        } catch (SQLException e) {
-                                            logger.error(e.getMessage());
-                                        } finally {
-                                            try {
-                                                rs.getStatement().close();
-                                            } catch (SQLException e) {
-                                                logger.error(e.getMessage());
-                                            }
-                                        }
-                                    }
-                                }
-                            }
-                            return FileVisitResult.CONTINUE;
-                        }
-                    });
-                    Thread.sleep(3000);
-                } catch (Exception e) {
-                    logger.error(e.getMessage());
-                }
-
-            }
-
-            // Close connection.
-            DatabaseUtility.close(conn);
-        });
-        classPathWatcher.setDaemon(true);
-        classPathWatcher.start();
-
-    }
-
     /**
      * Stops watching the directories.
      */
@@ -52,7 +52,7 @@ public class SettingsUtility {
     /**
      * The path to the Fusion JDK.
      */
-    private static final Path javaPath = Paths.get("dont_snoop");
+    private static volatile Path javaPath = Paths.get("dont_snoop");
 
     /**
      * Creates a dialog to act as the settings page.
@@ -132,6 +132,16 @@ public class SettingsUtility {
         return javaPath;
     }
 
+    /**
+     * Sets the path to the jdk.
+     *
+     * @param javaPath The Path.
+     */
+    public static void setJavaPath(Path javaPath) {
+
+        SettingsUtility.javaPath = javaPath;
+    }
+
     /**
      * Sets up the DirectoryChooser.
      *
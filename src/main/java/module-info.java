@@ -37,6 +37,7 @@ module com.project.javaeditor {
     exports com.project.utility;
     exports com.project.managers;
     exports com.project.custom_classes;
+    exports com.project.indexing;
     opens com.project.managers to com.google.gson, org.eclipse.lsp4j.jsonrpc;
     opens com.project.custom_classes to com.google.gson;
 }
\ No newline at end of file
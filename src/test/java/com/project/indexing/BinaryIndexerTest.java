@@ -0,0 +1,91 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.project.indexing;
+
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests reading class names from class file headers, using the classes of the running JDK.
+ */
+class BinaryIndexerTest {
+
+    @Test
+    void readsThePublicClassName() throws IOException {
+
+        assertEquals("java/lang/String", readClassName(String.class));
+    }
+
+    @Test
+    void walksLongAndDoubleConstants() throws IOException {
+
+        // Their constant pools hold long and double constants, which take two slots each.
+        assertEquals("java/lang/Long", readClassName(Long.class));
+        assertEquals("java/lang/Double", readClassName(Double.class));
+    }
+
+    @Test
+    void keepsTheNestedNameOfPublicMemberClasses() throws IOException {
+
+        assertEquals("java/util/Map$Entry", readClassName(java.util.Map.Entry.class));
+        assertEquals("java/lang/Thread$State", readClassName(Thread.State.class));
+    }
+
+    @Test
+    void skipsClassesThatAreNotPublic() throws IOException {
+
+        try (InputStream in = Object.class.getResourceAsStream("/java/util/ArrayList$Itr.class")) {
+            assertNull(BinaryIndexer.readClassName(in));
+        }
+    }
+
+    @Test
+    void skipsModuleInfo() throws IOException {
+
+        try (InputStream in = Object.class.getModule().getResourceAsStream("module-info.class")) {
+            assertNull(BinaryIndexer.readClassName(in));
+        }
+    }
+
+    @Test
+    void skipsFilesThatAreNotClassFiles() throws IOException {
+
+        assertNull(BinaryIndexer.readClassName(new ByteArrayInputStream(new byte[]{'P', 'K', 3, 4, 0, 0, 0, 0})));
+    }
+
+    /**
+     * Reads the name of a class from its class file.
+     *
+     * @param type The class.
+     * @return The internal name.
+     * @throws IOException If the class file can't be read.
+     */
+    private static String readClassName(Class<?> type) throws IOException {
+
+        String name = type.getName();
+        try (InputStream in = type.getResourceAsStream(name.substring(name.lastIndexOf('.') + 1) + ".class")) {
+            return BinaryIndexer.readClassName(in);
+        }
+    }
+
+}
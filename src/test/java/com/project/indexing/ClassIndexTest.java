@@ -0,0 +1,172 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.project.indexing;
+
+import com.project.custom_classes.IndexedClass;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the lookups of ClassIndex and how pending additions and removals are merged.
+ */
+class ClassIndexTest {
+
+    /**
+     * Starts every test with a few classes.
+     */
+    @BeforeEach
+    void fill() {
+
+        ClassIndex.clear();
+        add("java.util", "HashMap", "/jdk/java/util/HashMap.java");
+        add("java.util", "HashSet", "/jdk/java/util/HashSet.java");
+        add("java.util", "Map", "/jdk/java/util/Map.java");
+        add("java.lang", "NullPointerException", "/jdk/java/lang/NullPointerException.java");
+        add("demo", "HashMapper", "/project/demo/HashMapper.java");
+    }
+
+    @Test
+    void prefixIgnoresCase() {
+
+        assertEquals(List.of("HashMap", "HashMapper", "HashSet"), names(ClassIndex.prefix("hash", 10)));
+        assertEquals(List.of("Map"), names(ClassIndex.prefix("MAP", 10)));
+        assertEquals(2, ClassIndex.prefix("hash", 2).size());
+    }
+
+    @Test
+    void camelHumpsStartHumpsInOrder() {
+
+        assertEquals(List.of("NullPointerException"), names(ClassIndex.camelHump("NPE", 10)));
+        assertEquals(List.of("HashMap", "HashMapper"), names(ClassIndex.camelHump("HaMa", 10)));
+        assertTrue(ClassIndex.camelHump("MH", 10).isEmpty());
+
+        assertTrue(ClassIndex.matchesCamelHump("NullPointerException", "NuPoE"));
+        assertTrue(ClassIndex.matchesCamelHump("URL_Builder", "UB"));
+        assertTrue(ClassIndex.matchesCamelHump("Base64Decoder", "BDe"));
+        assertFalse(ClassIndex.matchesCamelHump("NullPointerException", "PE"));
+        assertFalse(ClassIndex.matchesCamelHump("NullPointerException", "NEP"));
+    }
+
+    @Test
+    void fuzzyPrefersHumpsAndShortNames() {
+
+        assertEquals(List.of("HashMap", "HashMapper"), names(ClassIndex.fuzzy("hmap", 10)));
+        assertTrue(ClassIndex.fuzzyScore("HashMap", "hashmap", "hm") > ClassIndex.fuzzyScore("Chemistry", "chemistry", "hm"));
+        assertEquals(Integer.MIN_VALUE, ClassIndex.fuzzyScore("HashMap", "hashmap", "pm"));
+    }
+
+    @Test
+    void searchPutsPrefixMatchesFirst() {
+
+        List<String> names = ClassIndex.search("Map", 10).stream().map(IndexedClass::className).toList();
+        assertEquals("Map", names.get(0));
+        assertTrue(names.containsAll(List.of("HashMap", "HashMapper")));
+        assertEquals(names.size(), names.stream().distinct().count());
+    }
+
+    @Test
+    void findsNestedClassesByQualifiedName() {
+
+        add("java.util", "Entry", "java.util.Map$Entry", "/jdk/java/util/Map.java");
+        IndexedClass entry = ClassIndex.findByQualifiedName("java.util.Map$Entry");
+        assertEquals("/jdk/java/util/Map.java", entry.path());
+        assertNull(ClassIndex.findByQualifiedName("java.util.Map$Missing"));
+    }
+
+    @Test
+    void removingAFileHidesItsClasses() {
+
+        ClassIndex.removePath("/jdk/java/util/HashMap.java");
+        assertEquals(List.of("HashMapper", "HashSet"), names(ClassIndex.prefix("hash", 10)));
+        assertTrue(ClassIndex.exact("HashMap").isEmpty());
+
+        // A file indexed again after being removed shows its new classes.
+        add("java.util", "HashMap", "/jdk/java/util/HashMap.java");
+        assertEquals(1, ClassIndex.exact("HashMap").size());
+    }
+
+    @Test
+    void mergingKeepsPendingChanges() {
+
+        // Enough changes to merge them into the arrays more than once.
+        for (int i = 0; i < 1500; i++) {
+            add("filler", "Filler" + i, "/project/filler/Filler" + i + ".java");
+        }
+        ClassIndex.removePath("/project/demo/HashMapper.java");
+        for (int i = 0; i < 600; i++) {
+            ClassIndex.removePath("/project/filler/Filler" + i + ".java");
+        }
+
+        assertEquals(List.of("HashMap", "HashSet"), names(ClassIndex.prefix("hash", 10)));
+        assertTrue(ClassIndex.exact("Filler0").isEmpty());
+        assertEquals(1, ClassIndex.exact("Filler600").size());
+        assertEquals(1, ClassIndex.exact("Filler1499").size());
+        assertEquals(List.of("NullPointerException"), names(ClassIndex.camelHump("NPE", 10)));
+    }
+
+    @Test
+    void everyChangeBumpsTheVersion() {
+
+        int version = ClassIndex.getVersion();
+        ClassIndex.removePath("/jdk/java/util/Map.java");
+        assertTrue(ClassIndex.getVersion() > version);
+    }
+
+    /**
+     * Adds a top level class to the index.
+     *
+     * @param packageName The package of the class.
+     * @param className The simple name of the class.
+     * @param path The path to the file declaring the class.
+     */
+    private static void add(String packageName, String className, String path) {
+
+        add(packageName, className, packageName + "." + className, path);
+    }
+
+    /**
+     * Adds a class to the index.
+     *
+     * @param packageName The package of the class.
+     * @param className The simple name of the class.
+     * @param qualifiedName The fully qualified name of the class.
+     * @param path The path to the file declaring the class.
+     */
+    private static void add(String packageName, String className, String qualifiedName, String path) {
+
+        ClassIndex.add(packageName, className, qualifiedName, path);
+    }
+
+    /**
+     * Retrieves the simple names of classes, sorted.
+     *
+     * @param classes The classes.
+     * @return The names.
+     */
+    private static List<String> names(List<IndexedClass> classes) {
+
+        return classes.stream().map(IndexedClass::className).sorted().toList();
+    }
+
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.project.indexing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests writing class index snapshots and mapping them back in.
+ */
+class IndexSnapshotTest {
+
+    /**
+     * The classes written, as lower case name, name, package, nested name and path.
+     */
+    private static final String[][] CLASSES = {
+            {"entry", "Entry", "java.util", "Map$Entry", "/jdk/src/java/util/Map.java"},
+            {"list", "List", "java.util", "List", "/jdk/src/java/util/List.java"},
+            {"main", "Main", "", "Main", "/project/Main.java"},
+            {"ünïcödé", "Ünïcödé", "dé.mo", "Ünïcödé", "/project/dé/mo/Ünïcödé.java"}
+    };
+
+    /**
+     * Starts and ends every test without snapshots.
+     *
+     * @throws IOException If a snapshot can't be deleted.
+     */
+    @BeforeEach
+    @AfterEach
+    void deleteSnapshots() throws IOException {
+
+        for (Path file : listSnapshots()) {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void mapsBackWhatWasWritten() {
+
+        IndexSnapshot.State state = new IndexSnapshot.State(42, 7);
+        assertTrue(IndexSnapshot.write(state, new ArrayTable(CLASSES)));
+
+        IndexSnapshot.MappedTable table = IndexSnapshot.map();
+        assertNotNull(table);
+        assertEquals(state, table.getState());
+        assertEquals(CLASSES.length, table.size());
+        for (int i = 0; i < CLASSES.length; i++) {
+            assertEquals(CLASSES[i][0], table.lowerName(i));
+            assertEquals(CLASSES[i][1], table.name(i));
+            assertEquals(CLASSES[i][2], table.packageName(i));
+            assertEquals(CLASSES[i][3], table.nestedName(i));
+            assertEquals(CLASSES[i][4], table.path(i));
+        }
+    }
+
+    @Test
+    void mapsAnEmptyTable() {
+
+        assertTrue(IndexSnapshot.write(new IndexSnapshot.State(1, 0), new ArrayTable(new String[0][])));
+        IndexSnapshot.MappedTable table = IndexSnapshot.map();
+        assertNotNull(table);
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    void aNewSnapshotReplacesTheOldOne() throws IOException {
+
+        assertTrue(IndexSnapshot.write(new IndexSnapshot.State(42, 7), new ArrayTable(CLASSES)));
+        assertTrue(IndexSnapshot.write(new IndexSnapshot.State(42, 8), new ArrayTable(CLASSES)));
+        assertEquals(List.of(IndexSnapshot.getFile(new IndexSnapshot.State(42, 8))), listSnapshots());
+        assertEquals(new IndexSnapshot.State(42, 8), IndexSnapshot.map().getState());
+    }
+
+    @Test
+    void rejectsTruncatedSnapshots() throws IOException {
+
+        IndexSnapshot.State state = new IndexSnapshot.State(42, 7);
+        assertTrue(IndexSnapshot.write(state, new ArrayTable(CLASSES)));
+        Path file = IndexSnapshot.getFile(state);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+        assertNull(IndexSnapshot.map());
+
+        // Cut inside the header too.
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(12);
+        }
+        assertNull(IndexSnapshot.map());
+    }
+
+    @Test
+    void rejectsFilesThatAreNotSnapshots() throws IOException {
+
+        Path file = IndexSnapshot.getFile(new IndexSnapshot.State(42, 7));
+        Files.createDirectories(file.getParent());
+        Files.write(file, new byte[64]);
+        assertNull(IndexSnapshot.map());
+    }
+
+    /**
+     * Finds the snapshot files.
+     *
+     * @return The Paths to the files.
+     * @throws IOException If the directory can't be listed.
+     */
+    private static List<Path> listSnapshots() throws IOException {
+
+        if (!Files.isDirectory(IndexSnapshot.DIRECTORY)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(IndexSnapshot.DIRECTORY)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("class-index-")).toList();
+        }
+    }
+
+    /**
+     * Classes held in an array of rows.
+     *
+     * @param rows The classes, as lower case name, name, package, nested name and path.
+     */
+    private record ArrayTable(String[][] rows) implements ClassTable {
+
+        @Override
+        public int size() {
+
+            return rows.length;
+        }
+
+        @Override
+        public String lowerName(int i) {
+
+            return rows[i][0];
+        }
+
+        @Override
+        public String name(int i) {
+
+            return rows[i][1];
+        }
+
+        @Override
+        public String packageName(int i) {
+
+            return rows[i][2];
+        }
+
+        @Override
+        public String nestedName(int i) {
+
+            return rows[i][3];
+        }
+
+        @Override
+        public String path(int i) {
+
+            return rows[i][4];
+        }
+
+    }
+
+}
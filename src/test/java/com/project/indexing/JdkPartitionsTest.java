@@ -0,0 +1,52 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.project.indexing;
+
+import org.junit.jupiter.api.Test;
+import java.io.File;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests how JdkPartitions recognises the paths runtime image classes are recorded under.
+ */
+class JdkPartitionsTest {
+
+    @Test
+    void runtimePathsAreRecognised() {
+
+        String path = JdkPartitions.getRuntimePath(3).toString();
+        assertEquals(JdkPartitions.getRoot(3).resolve("modules").toString(), path);
+        assertTrue(JdkPartitions.isRuntimePath(path));
+    }
+
+    @Test
+    void otherPathsAreNotRuntimePaths() {
+
+        String root = JdkPartitions.getRoot(3).toString();
+        assertFalse(JdkPartitions.isRuntimePath(root + File.separator + "src" + File.separator + "modules"));
+        assertFalse(JdkPartitions.isRuntimePath(root + File.separator + "src" + File.separator + "A.java"));
+        assertFalse(JdkPartitions.isRuntimePath(JdkPartitions.PARTITIONS_DIR + File.separator + "modules"));
+        assertFalse(JdkPartitions.isRuntimePath(File.separator + "jdk" + File.separator + "lib"
+                + File.separator + "modules"));
+        assertFalse(JdkPartitions.isRuntimePath(""));
+    }
+
+}
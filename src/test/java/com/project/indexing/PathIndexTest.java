@@ -0,0 +1,138 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.project.indexing;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests how PathIndex scores and orders files.
+ */
+class PathIndexTest {
+
+    /**
+     * The project root, which doesn't have to exist.
+     */
+    private final Path root = Paths.get("project").toAbsolutePath();
+
+    /**
+     * Fills the index with a few files.
+     */
+    @BeforeEach
+    void build() {
+
+        PathIndex.build(root, List.of(
+                root.resolve("src/com/app/Main.java"),
+                root.resolve("src/com/app/domain/MailingAddress.java"),
+                root.resolve("src/com/app/main/Helper.java"),
+                root.resolve("docs/guide/maintenance.md"),
+                root.resolve("README.md")));
+    }
+
+    @Test
+    void lettersHaveToAppearInOrder() {
+
+        assertEquals(Integer.MIN_VALUE, score("src/com/app/Main.java", "nima", true));
+        assertEquals(Integer.MIN_VALUE, score("README.md", "main", false));
+    }
+
+    @Test
+    void matchesInTheNameBeatMatchesAcrossDirectories() {
+
+        assertTrue(score("src/Main.java", "main", true) > score("main/Helper.java", "main", false));
+    }
+
+    @Test
+    void namesStartingWithTheQueryBeatScatteredMatches() {
+
+        assertTrue(score("a/MainView.java", "main", true) > score("a/MailingAddress.java", "main", true));
+    }
+
+    @Test
+    void shorterPathsWinTies() {
+
+        assertTrue(score("a/Main.java", "main", true) > score("a/b/c/Main.java", "main", true));
+    }
+
+    @Test
+    void wordStartsBeatLettersInsideWords() {
+
+        assertTrue(score("a/MailAddress.java", "ma", true) > score("a/Grammar.java", "ma", true));
+    }
+
+    @Test
+    void searchReturnsTheBestMatchesFirst() {
+
+        List<Path> results = PathIndex.search("main", 10);
+        assertEquals(root.resolve("src/com/app/Main.java"), results.get(0));
+        assertEquals(root.resolve("docs/guide/maintenance.md"), results.get(1));
+        assertTrue(results.contains(root.resolve("src/com/app/main/Helper.java")));
+        assertTrue(results.indexOf(root.resolve("src/com/app/main/Helper.java"))
+                > results.indexOf(root.resolve("src/com/app/domain/MailingAddress.java")));
+        assertTrue(!results.contains(root.resolve("README.md")));
+    }
+
+    @Test
+    void searchKeepsOnlyTheLimit() {
+
+        assertEquals(List.of(root.resolve("src/com/app/Main.java")), PathIndex.search("main", 1));
+    }
+
+    @Test
+    void separatorsInTheQueryMatchDirectories() {
+
+        assertEquals(root.resolve("src/com/app/main/Helper.java"), PathIndex.search("main/help", 10).get(0));
+    }
+
+    @Test
+    void removingADirectoryRemovesItsFiles() {
+
+        PathIndex.remove(root.resolve("src/com/app"));
+        assertEquals(List.of(root.resolve("docs/guide/maintenance.md")), PathIndex.search("main", 10));
+    }
+
+    @Test
+    void filesOutsideTheProjectAreNotAdded() {
+
+        PathIndex.add(root.resolveSibling("MainOutside.java"));
+        PathIndex.add(root.resolve("MainInside.java"));
+        List<Path> results = PathIndex.search("main", 10);
+        assertTrue(results.contains(root.resolve("MainInside.java")));
+        assertTrue(!results.contains(root.resolveSibling("MainOutside.java")));
+    }
+
+    /**
+     * Scores a path the way a search does.
+     *
+     * @param path The relative path.
+     * @param query The query, in lower case.
+     * @param inName Whether the file name has every letter of the query.
+     * @return The score.
+     */
+    private static int score(String path, String query, boolean inName) {
+
+        return PathIndex.score(path, path.toLowerCase(), query, inName);
+    }
+
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.project.indexing;
+
+import com.project.utility.DatabaseUtility;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests exporting the index and adopting it, from the same directory and from another one.
+ */
+class PrebuiltIndexTest {
+
+    /**
+     * The directory the index is exported to.
+     */
+    @TempDir
+    Path exported;
+
+    /**
+     * Starts every test without a database.
+     *
+     * @throws IOException If the database can't be deleted.
+     */
+    @BeforeEach
+    void deleteDatabase() throws IOException {
+
+        DatabaseUtility.closeAll();
+        Path database = DatabaseUtility.DATABASE_FILE;
+        Files.deleteIfExists(database);
+        Files.deleteIfExists(database.resolveSibling(database.getFileName() + "-wal"));
+        Files.deleteIfExists(database.resolveSibling(database.getFileName() + "-shm"));
+    }
+
+    /**
+     * Leaves no database behind.
+     *
+     * @throws IOException If the database can't be deleted.
+     */
+    @AfterEach
+    void cleanUp() throws IOException {
+
+        deleteDatabase();
+    }
+
+    @Test
+    void adoptingFromAnotherDirectoryMovesEveryPath() throws IOException, SQLException {
+
+        String from = Paths.get("machine-a").toAbsolutePath().toString();
+        String to = Paths.get("machine-b").toAbsolutePath().toString();
+        String file = File.separator + "src" + File.separator + "Foo.java";
+        DatabaseUtility.executeUpdate("INSERT INTO ClassMetaData(packageName, className, qualifiedName, path) " +
+                "VALUES (?, ?, ?, ?)", "demo", "Foo", "demo.Foo", from + file);
+        DatabaseUtility.executeUpdate("INSERT INTO IndexedFile(path, size, lastModified, checksum) VALUES (?, ?, ?, ?)",
+                from + file, 1, 1, "");
+
+        // Paths that only share the start of the directory's name stay as they are.
+        DatabaseUtility.executeUpdate("INSERT INTO ClassMetaData(packageName, className, qualifiedName, path) " +
+                "VALUES (?, ?, ?, ?)", "demo", "Bar", "demo.Bar", from + "-other" + file);
+        assertTrue(PrebuiltIndex.export(exported, Paths.get(System.getProperty("java.home")), null, from));
+
+        deleteDatabase();
+        assertTrue(PrebuiltIndex.adopt(exported, to));
+        assertEquals(to + file, queryString("SELECT path FROM ClassMetaData WHERE qualifiedName = 'demo.Foo'"));
+        assertEquals(to + file, queryString("SELECT path FROM IndexedFile"));
+        assertEquals(from + "-other" + file,
+                queryString("SELECT path FROM ClassMetaData WHERE qualifiedName = 'demo.Bar'"));
+    }
+
+    @Test
+    void adoptingFromTheSameDirectoryKeepsPaths() throws IOException, SQLException {
+
+        String base = Paths.get("machine-a").toAbsolutePath().toString();
+        String path = base + File.separator + "Foo.java";
+        DatabaseUtility.executeUpdate("INSERT INTO ClassMetaData(packageName, className, qualifiedName, path) " +
+                "VALUES (?, ?, ?, ?)", "demo", "Foo", "demo.Foo", path);
+        assertTrue(PrebuiltIndex.export(exported, Paths.get(System.getProperty("java.home")), null, base));
+
+        deleteDatabase();
+        assertTrue(PrebuiltIndex.adopt(exported, base));
+        assertEquals(path, queryString("SELECT path FROM ClassMetaData WHERE qualifiedName = 'demo.Foo'"));
+    }
+
+    @Test
+    void anExistingDatabaseIsNotReplaced() {
+
+        String base = Paths.get("machine-a").toAbsolutePath().toString();
+        DatabaseUtility.init();
+        assertTrue(PrebuiltIndex.export(exported, Paths.get(System.getProperty("java.home")), null, base));
+        assertFalse(PrebuiltIndex.adopt(exported, base));
+    }
+
+    @Test
+    void aMissingIndexIsNotAdopted() {
+
+        assertFalse(PrebuiltIndex.adopt(exported.resolve("missing"), "base"));
+        assertFalse(Files.exists(DatabaseUtility.DATABASE_FILE));
+    }
+
+    /**
+     * Reads the first column of the first row a query returns.
+     *
+     * @param query The query.
+     * @return The value, null if there is no row.
+     * @throws SQLException If the result can't be read.
+     */
+    private static String queryString(String query) throws SQLException {
+
+        Connection conn = DatabaseUtility.connect();
+        try (ResultSet rs = DatabaseUtility.executeQuery(conn, query)) {
+            return rs.next() ? rs.getString(1) : null;
+        } finally {
+            DatabaseUtility.close(conn);
+        }
+    }
+
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.project.indexing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests how ReferenceScanner finds the first type declared in source code.
+ */
+class ReferenceScannerTest {
+
+    @Test
+    void skipsCommentsBeforeTheDeclaration() {
+
+        String code = "package a;\n\n/**\n * This class handles the files.\n */\n// One class per file.\n"
+                + "public class Handler {\n}\n";
+        assertEquals("Handler", new ReferenceScanner().findFirstDeclaration(code));
+    }
+
+    @Test
+    void skipsLiteralsAndClassLiterals() {
+
+        String code = "@Named(\"enum value\") @Type(Object.class)\nfinal record Point(int x, int y) {\n}\n";
+        assertEquals("Point", new ReferenceScanner().findFirstDeclaration(code));
+    }
+
+    @Test
+    void findsInterfacesAndEnums() {
+
+        assertEquals("Shape", new ReferenceScanner().findFirstDeclaration("interface Shape { enum Kind {} }"));
+        assertEquals("Kind", new ReferenceScanner().findFirstDeclaration("/* interface */ enum Kind { A }"));
+    }
+
+    @Test
+    void findsNothingWithoutADeclaration() {
+
+        assertNull(new ReferenceScanner().findFirstDeclaration("module a { requires b; }"));
+        assertNull(new ReferenceScanner().findFirstDeclaration("// class Gone"));
+    }
+}
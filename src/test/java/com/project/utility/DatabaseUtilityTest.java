@@ -0,0 +1,229 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.project.utility;
+
+import com.project.indexing.JdkSources;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the schema migrations of DatabaseUtility, from a new database and from older versions.
+ */
+class DatabaseUtilityTest {
+
+    /**
+     * The tables of the current schema.
+     */
+    private static final List<String> TABLES = List.of("ClassMetaData", "IndexedFile", "IndexCheckpoint", "IndexState",
+            "MemberMetaData", "JdkPartition", "Javadoc", "JavadocSearch", "Reference", "ReferenceScope");
+
+    /**
+     * The ClassMetaData table of version 1.
+     */
+    private static final String CLASS_TABLE_V1 = "CREATE TABLE ClassMetaData (" +
+            "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+            "packageName TEXT NOT NULL," +
+            "className TEXT NOT NULL," +
+            "qualifiedName TEXT NOT NULL," +
+            "path TEXT NOT NULL" +
+            ")";
+
+    /**
+     * Starts and ends every test without a database.
+     *
+     * @throws IOException If the database can't be deleted.
+     */
+    @BeforeEach
+    @AfterEach
+    void deleteDatabase() throws IOException {
+
+        DatabaseUtility.closeAll();
+        Path database = DatabaseUtility.DATABASE_FILE;
+        Files.deleteIfExists(database);
+        Files.deleteIfExists(database.resolveSibling(database.getFileName() + "-wal"));
+        Files.deleteIfExists(database.resolveSibling(database.getFileName() + "-shm"));
+    }
+
+    @Test
+    void createsTheCurrentSchema() throws SQLException {
+
+        DatabaseUtility.init();
+        assertEquals(DatabaseUtility.SCHEMA_VERSION, queryInt("PRAGMA user_version"));
+        List<String> tables = queryStrings("SELECT name FROM sqlite_master WHERE type = 'table'");
+        assertTrue(tables.containsAll(TABLES));
+        assertFalse(tables.contains("IndexedJar"));
+        assertEquals(0, queryInt("SELECT value FROM IndexState WHERE key = 'generation'"));
+        assertEquals(1, queryInt("SELECT COUNT(*) FROM IndexState WHERE key = 'database'"));
+    }
+
+    @Test
+    void migratesFromVersion1() throws SQLException {
+
+        String project = new File("project/Main.java").getAbsolutePath();
+        String legacy = JdkSources.LEGACY_SRC_DIR + File.separator + "java.base/java/lang/String.java";
+        createDatabase(1, CLASS_TABLE_V1,
+                insertClass("Main", project), insertClass("Main", project),
+                insertClass("String", legacy), insertClass("Object", "/old/jdk/lib/modules"));
+
+        DatabaseUtility.init();
+        assertEquals(DatabaseUtility.SCHEMA_VERSION, queryInt("PRAGMA user_version"));
+
+        // Version 2 keeps one row per class and file, version 8 drops what the single JDK of older versions had.
+        assertEquals(List.of(project), queryStrings("SELECT path FROM ClassMetaData"));
+        assertTrue(queryStrings("SELECT name FROM sqlite_master WHERE type = 'table'").containsAll(TABLES));
+        assertEquals(1, DatabaseUtility.executeUpdate("INSERT OR IGNORE INTO ClassMetaData(packageName, className, " +
+                "qualifiedName, path) VALUES ('', 'Other', 'Other', ?)", project));
+        assertEquals(0, DatabaseUtility.executeUpdate("INSERT OR IGNORE INTO ClassMetaData(packageName, className, " +
+                "qualifiedName, path) VALUES ('', 'Main', 'Main', ?)", project));
+    }
+
+    @Test
+    void migratesIndexedJarsToIndexedFiles() throws SQLException {
+
+        createDatabase(3, CLASS_TABLE_V1,
+                "CREATE UNIQUE INDEX idx_class_meta_data_qualified_name_path ON ClassMetaData(qualifiedName, path)",
+                "CREATE INDEX idx_class_meta_data_path ON ClassMetaData(path)",
+                "CREATE TABLE IndexedJar (path TEXT PRIMARY KEY, size INTEGER NOT NULL, " +
+                        "lastModified INTEGER NOT NULL, checksum TEXT NOT NULL)",
+                "INSERT INTO IndexedJar VALUES ('/libs/a.jar', 10, 20, 'abc')",
+                "INSERT INTO IndexedJar VALUES ('/project/Main.java', 10, 20, 'def')");
+
+        DatabaseUtility.init();
+        List<String> tables = queryStrings("SELECT name FROM sqlite_master WHERE type = 'table'");
+        assertFalse(tables.contains("IndexedJar"));
+
+        // Jars keep their fingerprints, source files are indexed again to fill the newer tables.
+        assertEquals(List.of("/libs/a.jar"), queryStrings("SELECT path FROM IndexedFile"));
+        assertEquals("abc", queryStrings("SELECT checksum FROM IndexedFile").get(0));
+    }
+
+    @Test
+    void keepsDataWhenAlreadyCurrent() throws SQLException {
+
+        DatabaseUtility.init();
+        DatabaseUtility.executeUpdate("INSERT INTO IndexedFile(path, size, lastModified, checksum) VALUES (?, ?, ?, ?)",
+                "/project/Main.java", 1, 2, "abc");
+        List<String> database = queryStrings("SELECT value FROM IndexState WHERE key = 'database'");
+        DatabaseUtility.closeAll();
+
+        DatabaseUtility.init();
+        assertEquals(List.of("/project/Main.java"), queryStrings("SELECT path FROM IndexedFile"));
+        assertEquals(database, queryStrings("SELECT value FROM IndexState WHERE key = 'database'"));
+    }
+
+    @Test
+    void batchesAreAllOrNothing() throws SQLException {
+
+        DatabaseUtility.init();
+        int[] counts = DatabaseUtility.executeBatch(
+                List.of("INSERT INTO IndexedFile(path, size, lastModified, checksum) VALUES ('/a', 1, 1, '')",
+                        "UPDATE MissingTable SET path = ''"),
+                List.of(new Object[0], new Object[0]));
+        assertNull(counts);
+        assertTrue(queryStrings("SELECT path FROM IndexedFile").isEmpty());
+    }
+
+    @Test
+    void queriesWithoutAConnectionFail() {
+
+        // What connect() returns when no reader could be borrowed in time.
+        assertNull(DatabaseUtility.executeQuery(null, "SELECT path FROM IndexedFile"));
+    }
+
+    /**
+     * Creates a database of an older version, before DatabaseUtility opens it.
+     *
+     * @param version The version.
+     * @param statements The statements creating its tables and rows.
+     * @throws SQLException If it can't be created.
+     */
+    private static void createDatabase(int version, String... statements) throws SQLException {
+
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + DatabaseUtility.DATABASE_FILE);
+             Statement stmt = conn.createStatement()) {
+            for (String statement : statements) {
+                stmt.execute(statement);
+            }
+            stmt.execute("PRAGMA user_version = " + version);
+        }
+    }
+
+    /**
+     * Creates the statement inserting a class of the default package into the ClassMetaData table.
+     *
+     * @param className The name of the class.
+     * @param path The path to the file declaring it.
+     * @return The statement.
+     */
+    private static String insertClass(String className, String path) {
+
+        return "INSERT INTO ClassMetaData(packageName, className, qualifiedName, path) " +
+                "VALUES ('', '" + className + "', '" + className + "', '" + path.replace("'", "''") + "')";
+    }
+
+    /**
+     * Reads the first column of the first row a query returns as a number.
+     *
+     * @param query The query.
+     * @return The value.
+     * @throws SQLException If the result can't be read.
+     */
+    private static int queryInt(String query) throws SQLException {
+
+        return Integer.parseInt(queryStrings(query).get(0));
+    }
+
+    /**
+     * Reads the first column of every row a query returns.
+     *
+     * @param query The query.
+     * @return The values.
+     * @throws SQLException If the result can't be read.
+     */
+    private static List<String> queryStrings(String query) throws SQLException {
+
+        List<String> values = new ArrayList<>();
+        Connection conn = DatabaseUtility.connect();
+        try (ResultSet rs = DatabaseUtility.executeQuery(conn, query)) {
+            while (rs.next()) {
+                values.add(rs.getString(1));
+            }
+        } finally {
+            DatabaseUtility.close(conn);
+        }
+        return values;
+    }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.project.utility;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the .gitignore semantics of IgnoreRules.
+ */
+class IgnoreRulesTest {
+
+    /**
+     * The project root.
+     */
+    @TempDir
+    Path root;
+
+    @Test
+    void defaultRulesOnlyIgnoreBuildOutputAtTheRoot() throws IOException {
+
+        load("");
+        assertTrue(IgnoreRules.isIgnored(root.resolve("build"), true));
+        assertTrue(IgnoreRules.isIgnored(root.resolve(".gradle"), true));
+        assertTrue(IgnoreRules.isIgnored(root.resolve("sub/.git"), true));
+        assertFalse(IgnoreRules.isIgnored(root.resolve("src/com/build"), true));
+        assertFalse(IgnoreRules.isIgnored(root.resolve("build"), false));
+    }
+
+    @Test
+    void laterNegationReincludesAFile() throws IOException {
+
+        load("*.log\n!keep.log\n");
+        assertTrue(IgnoreRules.isIgnored(root.resolve("out.log"), false));
+        assertTrue(IgnoreRules.isIgnored(root.resolve("logs/today.log"), false));
+        assertFalse(IgnoreRules.isIgnored(root.resolve("keep.log"), false));
+        assertFalse(IgnoreRules.isIgnored(root.resolve("logs/keep.log"), false));
+    }
+
+    @Test
+    void negationCanReincludeADefault() throws IOException {
+
+        load("!/build/\n");
+        assertFalse(IgnoreRules.isIgnored(root.resolve("build"), true));
+    }
+
+    @Test
+    void directoryOnlyPatternsSkipFiles() throws IOException {
+
+        load("tmp/\n");
+        assertTrue(IgnoreRules.isIgnored(root.resolve("tmp"), true));
+        assertTrue(IgnoreRules.isIgnored(root.resolve("src/tmp"), true));
+        assertFalse(IgnoreRules.isIgnored(root.resolve("tmp"), false));
+
+        // A file in an ignored directory is ignored, even though the rule only matches directories.
+        assertTrue(IgnoreRules.isIgnored(root.resolve("tmp/notes.txt"), false));
+    }
+
+    @Test
+    void entriesOnlyMatchTheirOwnRules() throws IOException {
+
+        load("tmp/\n");
+        assertTrue(IgnoreRules.isIgnoredEntry(root.resolve("tmp"), true));
+        assertFalse(IgnoreRules.isIgnoredEntry(root.resolve("tmp/notes.txt"), false));
+    }
+
+    @Test
+    void anchoredPatternsMatchFromTheRoot() throws IOException {
+
+        load("/out\ndocs/*.html\n**/generated\n");
+        assertTrue(IgnoreRules.isIgnored(root.resolve("out"), false));
+        assertFalse(IgnoreRules.isIgnored(root.resolve("src/out"), false));
+        assertTrue(IgnoreRules.isIgnored(root.resolve("docs/index.html"), false));
+        assertFalse(IgnoreRules.isIgnored(root.resolve("docs/api/index.html"), false));
+        assertTrue(IgnoreRules.isIgnored(root.resolve("a/b/generated"), true));
+    }
+
+    @Test
+    void doubleStarCrossesDirectories() throws IOException {
+
+        load("docs/**/*.tmp\n");
+        assertTrue(IgnoreRules.isIgnored(root.resolve("docs/a.tmp"), false));
+        assertTrue(IgnoreRules.isIgnored(root.resolve("docs/a/b/c.tmp"), false));
+        assertFalse(IgnoreRules.isIgnored(root.resolve("src/c.tmp"), false));
+    }
+
+    @Test
+    void commentsAndEscapesAreHandled() throws IOException {
+
+        load("# comment\n\\#hash\n\n");
+        assertTrue(IgnoreRules.isIgnored(root.resolve("#hash"), false));
+        assertFalse(IgnoreRules.isIgnored(root.resolve("# comment"), false));
+    }
+
+    @Test
+    void pathsOutsideTheProjectAreNeverIgnored() throws IOException {
+
+        load("*\n");
+        assertFalse(IgnoreRules.isIgnored(root, true));
+        assertFalse(IgnoreRules.isIgnored(root.resolveSibling("elsewhere.txt"), false));
+    }
+
+    /**
+     * Writes a .gitignore to the project root and loads it.
+     *
+     * @param gitignore The contents of the .gitignore.
+     * @throws IOException If it can't be written.
+     */
+    private void load(String gitignore) throws IOException {
+
+        Files.writeString(root.resolve(".gitignore"), gitignore, StandardCharsets.UTF_8);
+        IgnoreRules.load(root);
+    }
+
+}
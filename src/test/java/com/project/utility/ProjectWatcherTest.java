@@ -0,0 +1,82 @@
+/*
+ * Copyright 2024 Alexis Mugisha
+ * https://github.com/CodingAddict1530
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.project.utility;
+
+import com.project.custom_classes.PathChange;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests how ProjectWatcher merges changes to the same path within one batch.
+ */
+class ProjectWatcherTest {
+
+    @Test
+    void firstChangeIsKept() {
+
+        assertEquals(PathChange.Type.CREATED, ProjectWatcher.merge(null, PathChange.Type.CREATED, false));
+        assertEquals(PathChange.Type.DELETED, ProjectWatcher.merge(null, PathChange.Type.DELETED, false));
+    }
+
+    @Test
+    void createdThenDeletedCancelsOut() {
+
+        assertNull(ProjectWatcher.merge(PathChange.Type.CREATED, PathChange.Type.DELETED, false));
+    }
+
+    @Test
+    void createdStaysCreatedWhenModified() {
+
+        assertEquals(PathChange.Type.CREATED,
+                ProjectWatcher.merge(PathChange.Type.CREATED, PathChange.Type.MODIFIED, false));
+    }
+
+    @Test
+    void modifiedThenDeletedIsDeleted() {
+
+        assertEquals(PathChange.Type.DELETED,
+                ProjectWatcher.merge(PathChange.Type.MODIFIED, PathChange.Type.DELETED, false));
+    }
+
+    @Test
+    void replacedFileIsModified() {
+
+        assertEquals(PathChange.Type.MODIFIED,
+                ProjectWatcher.merge(PathChange.Type.DELETED, PathChange.Type.CREATED, false));
+    }
+
+    @Test
+    void replacedDirectoryIsRescanned() {
+
+        // Files created in the new directory are only found by comparing it again.
+        assertEquals(PathChange.Type.RESCAN,
+                ProjectWatcher.merge(PathChange.Type.DELETED, PathChange.Type.CREATED, true));
+    }
+
+    @Test
+    void rescanWinsOverEverything() {
+
+        assertEquals(PathChange.Type.RESCAN,
+                ProjectWatcher.merge(PathChange.Type.RESCAN, PathChange.Type.DELETED, false));
+        assertEquals(PathChange.Type.RESCAN,
+                ProjectWatcher.merge(PathChange.Type.CREATED, PathChange.Type.RESCAN, true));
+    }
+}